@@ -143,6 +143,9 @@ dependencies {
     // since jna is a transitive runtime dependency of opus-java we don't include it explicitly as dependency
     compileOnly(libs.jna)
 
+    //Optional zstd-stream gateway compression, only required when Compression.ZSTD is used
+    compileOnly(libs.zstd)
+
     /* Internal dependencies */
 
     //General Utility
@@ -166,6 +169,7 @@ dependencies {
     testImplementation(libs.commons.lang3)
     testImplementation(libs.logback.classic)
     testImplementation(libs.archunit)
+    testImplementation(libs.zstd)
 }
 
 fun isNonStable(version: String): Boolean {
@@ -358,8 +362,17 @@ val build by tasks.getting(Task::class) {
 }
 
 val test by tasks.getting(Test::class) {
-    useJUnitPlatform()
+    useJUnitPlatform {
+        // Load tests are slow and timing sensitive, run them with -PloadTests
+        if (!project.hasProperty("loadTests"))
+            excludeTags("load")
+    }
     failFast = false
+
+    // Forward the sizes of the load tests, like -Djda.test.rest.requests=10000
+    System.getProperties().stringPropertyNames()
+        .filter { it.startsWith("jda.test.") }
+        .forEach { systemProperty(it, System.getProperty(it)) }
 }
 
 val updateTestSnapshots by tasks.registering(Test::class) {
@@ -16,6 +16,7 @@
 package net.dv8tion.jda.api;
 
 import com.neovisionaries.ws.client.WebSocketFactory;
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.audio.factory.IAudioSendFactory;
 import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.events.Event;
@@ -24,6 +25,7 @@ import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.hooks.IEventManager;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.GatewayMetrics;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.RestConfig;
 import net.dv8tion.jda.api.utils.*;
@@ -32,6 +34,7 @@ import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.managers.PresenceImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -42,6 +45,7 @@ import okhttp3.OkHttpClient;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
@@ -67,12 +71,15 @@ public class JDABuilder
     protected boolean shutdownRateLimitElastic = true;
     protected ScheduledExecutorService mainWsPool = null;
     protected boolean shutdownMainWsPool = true;
+    protected ScheduledExecutorService heartbeatPool = null;
+    protected boolean shutdownHeartbeatPool = true;
     protected ExecutorService callbackPool = null;
     protected boolean shutdownCallbackPool = true;
     protected ExecutorService eventPool = null;
     protected boolean shutdownEventPool = true;
     protected ScheduledExecutorService audioPool = null;
     protected boolean shutdownAudioPool = true;
+    protected boolean virtualThreads = false;
     protected EnumSet<CacheFlag> cacheFlags = EnumSet.allOf(CacheFlag.class);
     protected ConcurrentMap<String, String> contextMap = null;
     protected SessionController controller = null;
@@ -83,6 +90,8 @@ public class JDABuilder
     protected String token = null;
     protected IEventManager eventManager = null;
     protected IAudioSendFactory audioSendFactory = null;
+    protected GatewayRecorder gatewayRecorder = null;
+    protected GatewayMetrics gatewayMetrics = null;
     protected JDA.ShardInfo shardInfo = null;
     protected Compression compression = Compression.ZLIB;
     protected Activity activity = null;
@@ -90,6 +99,7 @@ public class JDABuilder
     protected boolean idle = false;
     protected int maxReconnectDelay = 900;
     protected int largeThreshold = 250;
+    protected int dispatchLanes = 0;
     protected int maxBufferSize = 2048;
     protected int intents = -1; // don't use intents by default
     protected EnumSet<ConfigFlag> flags = ConfigFlag.getDefault();
@@ -762,11 +772,14 @@ public class JDABuilder
      * <p><b>We recommend to keep this on the default unless you have issues with the decompression.</b>
      * <br>This mode might become obligatory in a future version, do not rely on this switch to stay.
      *
+     * <p>{@link net.dv8tion.jda.api.utils.Compression#ZSTD ZSTD} decompresses faster than ZLIB,
+     * but requires the optional {@code com.github.luben:zstd-jni} dependency.
+     *
      * @param  compression
      *         The compression algorithm to use with the gateway connection
      *
      * @throws java.lang.IllegalArgumentException
-     *         If provided with null
+     *         If provided with null, or if {@code ZSTD} is used without zstd-jni being available
      *
      * @return The JDABuilder instance. Useful for chaining
      *
@@ -776,6 +789,8 @@ public class JDABuilder
     public JDABuilder setCompression(@Nonnull Compression compression)
     {
         Checks.notNull(compression, "Compression");
+        Checks.check(compression != Compression.ZSTD || ZstdDecompressor.isSupported(),
+            "Cannot use ZSTD compression without the zstd-jni library. Add com.github.luben:zstd-jni to your dependencies.");
         this.compression = compression;
         return this;
     }
@@ -979,7 +994,6 @@ public class JDABuilder
      *     <li>Voice States - (Dis-)Connecting from channels</li>
      *     <li>Presence - Changing current activity or online status</li>
      *     <li>Guild Setup - Requesting Members of newly joined guilds</li>
-     *     <li>Heartbeats - Regular updates to keep the connection alive (usually once a minute)</li>
      * </ul>
      * When nothing has to be sent the pool will only be used every 500 milliseconds to check the queue for new payloads.
      * Once a new payload is sent we switch to "rapid mode" which means more tasks will be submitted until no more payloads
@@ -1009,7 +1023,6 @@ public class JDABuilder
      *     <li>Voice States - (Dis-)Connecting from channels</li>
      *     <li>Presence - Changing current activity or online status</li>
      *     <li>Guild Setup - Requesting Members of newly joined guilds</li>
-     *     <li>Heartbeats - Regular updates to keep the connection alive (usually once a minute)</li>
      * </ul>
      * When nothing has to be sent the pool will only be used every 500 milliseconds to check the queue for new payloads.
      * Once a new payload is sent we switch to "rapid mode" which means more tasks will be submitted until no more payloads
@@ -1032,6 +1045,31 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Sets the {@link ScheduledExecutorService ScheduledExecutorService} used to send the heartbeats of the main WebSocket connection.
+     * <br><b>Only change this pool if you know what you're doing.</b>
+     *
+     * <p>Heartbeats are isolated from the {@link #setGatewayPool(ScheduledExecutorService, boolean) gateway pool},
+     * so they are still sent on time while JDA is busy with large guild payloads or member chunks.
+     * The pool can be shared between multiple sessions, but should not be used for any other tasks.
+     *
+     * <p>Default: {@link ScheduledThreadPoolExecutor} with a single high priority thread
+     *
+     * @param  pool
+     *         The thread-pool to use for heartbeats
+     * @param  automaticShutdown
+     *         Whether {@link JDA#shutdown()} should shutdown this pool
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setHeartbeatPool(@Nullable ScheduledExecutorService pool, boolean automaticShutdown)
+    {
+        this.heartbeatPool = pool;
+        this.shutdownHeartbeatPool = automaticShutdown;
+        return this;
+    }
+
     /**
      * Sets the {@link ExecutorService ExecutorService} that should be used in
      * the JDA callback handler which mostly consists of {@link net.dv8tion.jda.api.requests.RestAction RestAction} callbacks.
@@ -1167,6 +1205,34 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Whether JDA should use virtual threads for the default thread-pools, if the runtime supports them (Java 21+).
+     * <br>This applies to the {@link #setRateLimitElastic(ExecutorService) rate-limit elastic pool},
+     * the {@link #setCallbackPool(ExecutorService) callback pool}, and the {@link #setAudioPool(ScheduledExecutorService) audio pool}.
+     * Pools configured explicitly are not replaced. If virtual threads are not supported, JDA falls back to the platform thread pools.
+     *
+     * <p>With virtual threads, blocking calls such as {@link net.dv8tion.jda.api.requests.RestAction#complete() RestAction.complete()}
+     * inside callbacks no longer occupy a platform thread while waiting.
+     *
+     * <p>The event pool is not affected, since events are handled sequentially on the gateway thread by default.
+     * To handle events on virtual threads, use {@link #setEventPool(ExecutorService) setEventPool(Executors.newVirtualThreadPerTaskExecutor())}.
+     * Note that events will then be handled out of order.
+     *
+     * <p>Default: {@code false}
+     *
+     * @param  enabled
+     *         True, to use virtual threads
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    @Incubating
+    public JDABuilder setVirtualThreads(boolean enabled)
+    {
+        this.virtualThreads = enabled;
+        return this;
+    }
+
     /**
      * If enabled, JDA will separate the bulk delete event into individual delete events, but this isn't as efficient as
      * handling a single event would be. It is recommended that BulkDelete Splitting be disabled and that the developer
@@ -1399,6 +1465,81 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Enables parallel handling of gateway events, by distributing the events of different guilds onto
+     * the provided amount of ordered lanes.
+     * <br>Events of the same guild are always handled in order, on the same lane.
+     * Events like READY, guild setup, voice updates and events without a guild are still handled in sequence,
+     * after all lanes have caught up.
+     *
+     * <p>This allows a single large session to use more than one core for cache updates.
+     * When enabled, your event listeners must be thread-safe, as events of different guilds can fire concurrently.
+     *
+     * <p>Default: {@code 0} (disabled)
+     *
+     * @param  lanes
+     *         The amount of lanes, or {@code 0} to handle all events on the websocket thread
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the provided amount is negative
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    @Incubating
+    public JDABuilder setDispatchLanes(int lanes)
+    {
+        Checks.notNegative(lanes, "Lanes");
+        this.dispatchLanes = lanes;
+        return this;
+    }
+
+    /**
+     * Records all frames received on the gateway connection using the provided {@link GatewayRecorder}.
+     * <br>The recording can later be replayed using {@link #buildReplay(GatewayRecording)},
+     * to benchmark event handling without a network connection.
+     *
+     * <p>The recorder is not closed by JDA, you should close it after shutting down the session.
+     *
+     * <p>Default: {@code null} (disabled)
+     *
+     * @param  recorder
+     *         The recorder, or null to disable recording
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     *
+     * @see    GatewayRecorder
+     */
+    @Nonnull
+    @Incubating
+    public JDABuilder setGatewayRecorder(@Nullable GatewayRecorder recorder)
+    {
+        this.gatewayRecorder = recorder;
+        return this;
+    }
+
+    /**
+     * Reports measurements of the gateway connection to the provided {@link GatewayMetrics}.
+     * <br>This includes frame sizes, decompression and parsing time, handler time for each event type,
+     * outgoing queue sizes, and the heartbeat round-trip time.
+     *
+     * <p>Default: {@code null} (disabled)
+     *
+     * @param  metrics
+     *         The metrics receiver, or null to disable measurements
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     *
+     * @see    GatewayMetrics
+     */
+    @Nonnull
+    @Incubating
+    public JDABuilder setGatewayMetrics(@Nullable GatewayMetrics metrics)
+    {
+        this.gatewayMetrics = metrics;
+        return this;
+    }
+
     /**
      * This will enable sharding mode for JDA.
      * <br>In sharding mode, guilds are split up and assigned one of multiple shards (clients).
@@ -1796,6 +1937,54 @@ public class JDABuilder
      */
     @Nonnull
     public JDA build()
+    {
+        JDAImpl jda = buildInstance();
+        jda.login(shardInfo, compression, true, intents, encoding);
+        return jda;
+    }
+
+    /**
+     * Builds a new {@link net.dv8tion.jda.api.JDA} instance which replays the provided {@link GatewayRecording}
+     * instead of connecting to Discord.
+     * <br>The recorded frames are decompressed, parsed, and handled like the frames of a live session,
+     * which updates the cache and fires events to the registered listeners.
+     * This method blocks until the entire recording has been handled.
+     *
+     * <p>This is intended for reproducible benchmarks of event handling and cache settings.
+     * The token is not validated and nothing is sent to the gateway,
+     * but any {@link net.dv8tion.jda.api.requests.RestAction RestAction} executed by your listeners will still make requests.
+     * The compression and encoding of the recording are used instead of the configured ones.
+     * The configured {@link #setSessionController(net.dv8tion.jda.api.utils.SessionController) SessionController}
+     * and {@link #setGatewayRecorder(GatewayRecorder) GatewayRecorder} are not used.
+     *
+     * <p>You should use the same intents and member chunking settings as the recorded session,
+     * since the recorded frames only contain the events requested by the original session.
+     *
+     * @param  recording
+     *         The recording to replay
+     *
+     * @throws IllegalArgumentException
+     *         If the provided recording is null, or the intents/cache configuration is not possible.
+     * @throws IOException
+     *         If the recording cannot be read or contains malformed frames
+     *
+     * @return The {@link net.dv8tion.jda.api.JDA} instance, after all recorded frames have been handled
+     *
+     * @see    GatewayRecorder
+     */
+    @Nonnull
+    @Incubating
+    public JDA buildReplay(@Nonnull GatewayRecording recording) throws IOException
+    {
+        Checks.notNull(recording, "Recording");
+        JDAImpl jda = buildInstance();
+        // Replays are never recorded again
+        jda.setGatewayRecorder(null);
+        jda.replay(recording, shardInfo, intents);
+        return jda;
+    }
+
+    private JDAImpl buildInstance()
     {
         checkIntents();
         OkHttpClient httpClient = this.httpClient;
@@ -1815,11 +2004,13 @@ public class JDABuilder
         ThreadingConfig threadingConfig = new ThreadingConfig();
         threadingConfig.setCallbackPool(callbackPool, shutdownCallbackPool);
         threadingConfig.setGatewayPool(mainWsPool, shutdownMainWsPool);
+        threadingConfig.setHeartbeatPool(heartbeatPool, shutdownHeartbeatPool);
         threadingConfig.setRateLimitScheduler(rateLimitScheduler, shutdownRateLimitScheduler);
         threadingConfig.setRateLimitElastic(rateLimitElastic, shutdownRateLimitElastic);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
-        SessionConfig sessionConfig = new SessionConfig(controller, httpClient, wsFactory, voiceDispatchInterceptor, flags, maxReconnectDelay, largeThreshold);
+        threadingConfig.setVirtualThreads(virtualThreads);
+        SessionConfig sessionConfig = new SessionConfig(controller, httpClient, wsFactory, voiceDispatchInterceptor, flags, maxReconnectDelay, largeThreshold, dispatchLanes);
         MetaConfig metaConfig = new MetaConfig(maxBufferSize, contextMap, cacheFlags, flags);
 
         JDAImpl jda = new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig, restConfig);
@@ -1836,6 +2027,8 @@ public class JDABuilder
         if (audioSendFactory != null)
             jda.setAudioSendFactory(audioSendFactory);
 
+        jda.setGatewayRecorder(gatewayRecorder);
+        jda.setGatewayMetrics(gatewayMetrics);
         jda.addEventListener(listeners.toArray());
         jda.setStatus(JDA.Status.INITIALIZED);  //This is already set by JDA internally, but this is to make sure the listeners catch it.
 
@@ -1844,7 +2037,6 @@ public class JDABuilder
                 .setCacheActivity(activity)
                 .setCacheIdle(idle)
                 .setCacheStatus(status);
-        jda.login(shardInfo, compression, true, intents, encoding);
         return jda;
     }
 
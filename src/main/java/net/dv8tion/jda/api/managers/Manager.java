@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.api.managers;
 
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
 import net.dv8tion.jda.internal.managers.ManagerBase;
 
@@ -80,6 +81,11 @@ public interface Manager<M extends Manager<M>> extends AuditableRestAction<Void>
     @CheckReturnValue
     M deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    M setRequestPriority(@Nonnull RequestPriority priority);
+
     @Nonnull
     @CheckReturnValue
     M reset(long fields);
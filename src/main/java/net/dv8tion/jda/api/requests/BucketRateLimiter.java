@@ -0,0 +1,676 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.requests.PriorityWorkQueue;
+import net.dv8tion.jda.internal.requests.RateLimitSnapshot;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import okhttp3.Headers;
+import okhttp3.Response;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Bucket handling of the {@link ConcurrentRestRateLimiter}.
+ *
+ * <p>This parses the rate-limit headers, keeps track of the route hashes and buckets, and runs the bucket workers.
+ * Implementations only decide how the route hashes and buckets are stored and which lock guards them.
+ */
+abstract class BucketRateLimiter implements RestRateLimiter
+{
+    protected static final Logger log = JDALogger.getLog(RestRateLimiter.class);
+    protected static final String UNINIT_BUCKET = "uninit"; // we generate an uninit bucket for every major parameter configuration
+
+    private final CompletableFuture<?> shutdownHandle = new CompletableFuture<>();
+
+    private final Future<?> cleanupWorker;
+    protected final RateLimitConfig config;
+    // Buckets restored from the bucket store, consumed once the buckets are used again
+    private final RateLimitSnapshot restored;
+
+    protected volatile boolean isStopped, isShutdown;
+
+    // Route -> Should we print warning for 429? AKA did we already hit it once before
+    private final Set<Route> hitRatelimit = ConcurrentHashMap.newKeySet(5);
+    // Route -> Hash
+    protected final Map<Route, String> hashes;
+    // Hash + Major Parameter -> Bucket
+    protected final Map<String, Bucket> buckets;
+
+    protected BucketRateLimiter(@Nonnull RateLimitConfig config, @Nonnull Map<Route, String> hashes, @Nonnull Map<String, Bucket> buckets)
+    {
+        this.config = config;
+        this.hashes = hashes;
+        this.buckets = buckets;
+        this.restored = RateLimitSnapshot.load(config.getBucketStore());
+        this.hashes.putAll(restored.getHashes());
+        this.cleanupWorker = config.getScheduler().scheduleAtFixedRate(this::cleanup, 30, 30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Runs the task while holding the lock that guards the route hashes and buckets, if there is one.
+     *
+     * @param  task
+     *         The task to run
+     *
+     * @return The result of the task
+     */
+    protected abstract <T> T locked(@Nonnull Supplier<T> task);
+
+    protected void locked(@Nonnull Runnable task)
+    {
+        locked(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    @Override
+    public void enqueue(@Nonnull RestRateLimiter.Work task)
+    {
+        Bucket bucket = locked(() -> {
+            Bucket current;
+            // The bucket might have been removed by the cleanup worker in the meantime, in which case we need a new one
+            do
+            {
+                current = getBucket(task.getRoute());
+            } while (!current.enqueue(task));
+            return current;
+        });
+        runBucket(bucket);
+    }
+
+    @Override
+    public void stop(boolean shutdown, @Nonnull Runnable callback)
+    {
+        locked(() -> {
+            synchronized (this)
+            {
+                boolean doShutdown = shutdown;
+                if (!isStopped)
+                {
+                    isStopped = true;
+                    shutdownHandle.thenRun(callback);
+                    if (!doShutdown)
+                    {
+                        int count = buckets.values().stream()
+                                .mapToInt(bucket -> bucket.getRequests().size())
+                                .sum();
+
+                        if (count > 0)
+                            log.info("Waiting for {} requests to finish.", count);
+                        doShutdown = count == 0;
+                    }
+                }
+                if (doShutdown)
+                    shutdown();
+            }
+        });
+    }
+
+    @Override
+    public boolean isStopped()
+    {
+        return isStopped;
+    }
+
+    @Override
+    public int cancelRequests()
+    {
+        return locked(() -> {
+            // Empty buckets will be removed by the cleanup worker, which also checks for rate limit parameters
+            int cancelled = (int) buckets.values()
+                    .stream()
+                    .map(Bucket::getRequests)
+                    .flatMap(Collection::stream)
+                    .filter(request -> !request.isPriority() && !request.isCancelled())
+                    .peek(Work::cancel)
+                    .count();
+
+            if (cancelled == 1)
+                log.warn("Cancelled 1 request!");
+            else if (cancelled > 1)
+                log.warn("Cancelled {} requests!", cancelled);
+            return cancelled;
+        });
+    }
+
+    private synchronized void shutdown()
+    {
+        if (isShutdown)
+            return;
+        isShutdown = true;
+        cleanupWorker.cancel(false);
+        cleanup();
+        shutdownHandle.complete(null);
+    }
+
+    private void cleanup()
+    {
+        // Persist the buckets before they are removed, including the empty buckets of a stopped rate-limiter
+        saveBuckets();
+
+        // This will remove buckets that are no longer needed every 30 seconds to avoid memory leakage
+        // We will keep the hashes in memory since they are very limited (by the amount of possible routes)
+        locked(() -> {
+            int removed = 0;
+            for (Bucket bucket : new ArrayList<>(buckets.values()))
+            {
+                if (isShutdown)
+                    bucket.requests.forEach(Work::cancel); // Cancel all requests
+                bucket.requests.removeIf(Work::isSkipped); // Remove cancelled requests
+
+                // remove uninit if requests are empty
+                // If the requests of the bucket are drained and the reset is expired the bucket has no valuable information
+                // Remove empty buckets when the rate limiter is stopped
+                if (removeBucket(bucket, bucket.isUninit() || bucket.reset <= getNow() || isStopped))
+                    removed++;
+            }
+
+            // Log how many buckets were removed
+            if (removed > 0)
+                log.debug("Removed {} expired buckets", removed);
+            else if (isStopped && !isShutdown)
+                shutdown();
+        });
+    }
+
+    private void saveBuckets()
+    {
+        BucketStore store = config.getBucketStore();
+        if (store == null)
+            return;
+
+        RateLimitSnapshot snapshot = locked(() -> {
+            RateLimitSnapshot result = new RateLimitSnapshot();
+            long now = getNow();
+            hashes.forEach(result::putHash);
+            for (Bucket bucket : buckets.values())
+            {
+                if (!bucket.isUninit() && bucket.reset > now)
+                    result.putBucket(bucket.bucketId, bucket.remaining, bucket.reset);
+            }
+            return result;
+        });
+        RateLimitSnapshot.save(store, snapshot);
+    }
+
+    private boolean removeBucket(Bucket bucket, boolean expired)
+    {
+        synchronized (bucket)
+        {
+            // Check if the bucket is empty and has no worker
+            if (!expired || bucket.removed || !bucket.requests.isEmpty() || bucket.running.get())
+                return false;
+            bucket.removed = true;
+            return buckets.remove(bucket.bucketId, bucket);
+        }
+    }
+
+    private String getRouteHash(Route route)
+    {
+        return hashes.getOrDefault(route, UNINIT_BUCKET + "+" + route);
+    }
+
+    private Bucket getBucket(Route.CompiledRoute route)
+    {
+        return locked(() ->
+        {
+            // Retrieve the hash via the route
+            String hash = getRouteHash(route.getBaseRoute());
+            // Get or create a bucket for the hash + major parameters
+            String bucketId = hash + ":" + route.getMajorParameters();
+            return this.buckets.computeIfAbsent(bucketId, (id) ->
+            {
+                Bucket bucket = new Bucket(id, route.getBaseRoute().isInteractionBucket());
+
+                // Continue with the last known limits, to avoid hitting the rate-limit right after a restart
+                RateLimitSnapshot.BucketState state = restored.removeBucket(id, getNow());
+                if (state != null)
+                    bucket.update(state.remaining, state.reset);
+                return bucket;
+            });
+        });
+    }
+
+    private void scheduleElastic(Bucket bucket)
+    {
+        if (isShutdown)
+            return;
+
+        ExecutorService elastic = config.getElastic();
+        ScheduledExecutorService scheduler = config.getScheduler();
+
+        try
+        {
+            // Avoid context switch if unnecessary
+            if (elastic == scheduler)
+                bucket.run();
+            else
+                elastic.execute(bucket);
+        }
+        catch (RejectedExecutionException ex)
+        {
+            if (!isShutdown)
+                log.error("Failed to execute bucket worker", ex);
+        }
+        catch (Throwable t)
+        {
+            log.error("Caught throwable in bucket worker", t);
+            if (t instanceof Error)
+                throw t;
+        }
+    }
+
+    private void runBucket(Bucket bucket)
+    {
+        if (isShutdown)
+            return;
+        // Schedule a new bucket worker if no worker is running
+        if (!bucket.running.compareAndSet(false, true))
+            return;
+
+        try
+        {
+            config.getScheduler().schedule(() -> scheduleElastic(bucket), bucket.getRateLimit(), TimeUnit.MILLISECONDS);
+        }
+        catch (RejectedExecutionException ex)
+        {
+            bucket.running.set(false);
+            if (!isShutdown)
+                log.error("Failed to schedule bucket worker", ex);
+        }
+    }
+
+    private long parseLong(String input)
+    {
+        return input == null ? 0L : Long.parseLong(input);
+    }
+
+    private long parseDouble(String input)
+    {
+        //The header value is using a double to represent milliseconds and seconds:
+        // 5.250 this is 5 seconds and 250 milliseconds (5250 milliseconds)
+        return input == null ? 0L : (long) (Double.parseDouble(input) * 1000);
+    }
+
+    private long getNow()
+    {
+        return System.currentTimeMillis();
+    }
+
+    private Bucket updateBucket(Route.CompiledRoute route, Response response)
+    {
+        return locked(() ->
+        {
+            Bucket bucket = getBucket(route);
+            try
+            {
+                Headers headers = response.headers();
+
+                boolean global = headers.get(GLOBAL_HEADER) != null;
+                boolean cloudflare = headers.get("via") == null;
+                String hash = headers.get(HASH_HEADER);
+                String scope = headers.get(SCOPE_HEADER);
+                long now = getNow();
+
+                // Create a new bucket for the hash if needed
+                Route baseRoute = route.getBaseRoute();
+                if (hash != null)
+                {
+                    if (this.hashes.putIfAbsent(baseRoute, hash) == null)
+                        log.debug("Caching bucket hash {} -> {}", baseRoute, hash);
+
+                    bucket = getBucket(route);
+                }
+
+                if (response.code() == 429)
+                {
+                    String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
+                    long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
+                    // Handle global rate limit if necessary
+                    if (global)
+                    {
+                        config.getGlobalRateLimit().setClassic(now + retryAfter);
+                        log.error("Encountered global rate limit! Retry-After: {} ms Scope: {}", retryAfter, scope);
+                    }
+                    // Handle cloudflare rate limits, this applies to all routes and uses seconds for retry-after
+                    else if (cloudflare)
+                    {
+                        config.getGlobalRateLimit().setCloudflare(now + retryAfter);
+                        log.error("Encountered cloudflare rate limit! Retry-After: {} s", retryAfter / 1000);
+                    }
+                    // Handle hard rate limit, pretty much just log that it happened
+                    else
+                    {
+                        boolean firstHit = hitRatelimit.add(baseRoute) && retryAfter < 60000;
+                        // Update the bucket to the new information
+                        bucket.update(0, now + retryAfter);
+                        // don't log warning if we hit the rate limit for the first time, likely due to initialization of the bucket
+                        // unless its a long retry-after delay (more than a minute)
+                        if (firstHit)
+                            log.debug("Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}", baseRoute, bucket.bucketId, retryAfter, scope);
+                        else
+                            log.warn("Encountered 429 on route {} with bucket {} Retry-After: {} ms Scope: {}", baseRoute, bucket.bucketId, retryAfter, scope);
+                    }
+
+                    log.trace("Updated bucket {} to retry after {}", bucket.bucketId, bucket.reset - now);
+                    return bucket;
+                }
+
+                // If hash is null this means we didn't get enough information to update a bucket
+                if (hash == null)
+                    return bucket;
+
+                // Update the bucket parameters with new information
+                String limitHeader = headers.get(LIMIT_HEADER);
+                String remainingHeader = headers.get(REMAINING_HEADER);
+                String resetAfterHeader = headers.get(RESET_AFTER_HEADER);
+                String resetHeader = headers.get(RESET_HEADER);
+
+                long reset = config.isRelative() ? now + parseDouble(resetAfterHeader) : parseDouble(resetHeader);
+                bucket.update((int) parseLong(remainingHeader), reset);
+                log.trace("Updated bucket {} to ({}/{}, {})", bucket.bucketId, remainingHeader, limitHeader, reset - now);
+                return bucket;
+            }
+            catch (Exception e)
+            {
+                log.error("Encountered Exception while updating a bucket. Route: {} Bucket: {} Code: {} Headers:\n{}",
+                        route.getBaseRoute(), bucket, response.code(), response.headers(), e);
+                return bucket;
+            }
+        });
+    }
+
+    protected final class Bucket implements Runnable
+    {
+        private final String bucketId;
+        private final boolean interaction;
+        private final PriorityWorkQueue requests = new PriorityWorkQueue();
+        // Whether a worker is scheduled or running for this bucket
+        private final AtomicBoolean running = new AtomicBoolean(false);
+
+        private volatile long reset = 0;
+        private volatile int remaining = 1;
+        private boolean removed = false;
+
+        private Bucket(@Nonnull String bucketId, boolean interaction)
+        {
+            this.bucketId = bucketId;
+            this.interaction = interaction;
+        }
+
+        public boolean isUninit()
+        {
+            return bucketId.startsWith(UNINIT_BUCKET);
+        }
+
+        public synchronized boolean enqueue(@Nonnull Work request)
+        {
+            if (removed)
+                return false;
+            requests.add(request);
+            return true;
+        }
+
+        public void retry(@Nonnull Work request)
+        {
+            // The worker of this bucket is running, so it cannot be removed concurrently
+            if (!moveRequest(request))
+                requests.addFirst(request);
+        }
+
+        public synchronized void update(int remaining, long reset)
+        {
+            this.remaining = remaining;
+            this.reset = reset;
+        }
+
+        public long getReset()
+        {
+            return reset;
+        }
+
+        public int getRemaining()
+        {
+            return remaining;
+        }
+
+        public long getGlobalRateLimit(long now)
+        {
+            GlobalRateLimit holder = config.getGlobalRateLimit();
+            // Only cloudflare bans apply to interactions
+            if (interaction)
+                return holder.getCloudflare() - now;
+            long global = Math.max(holder.getClassic(), holder.getCloudflare());
+            return global - now;
+        }
+
+        public synchronized long getRateLimit()
+        {
+            long now = getNow();
+
+            long global = getGlobalRateLimit(now);
+
+            // Check if the bucket reset time has expired
+            if (reset <= now)
+            {
+                // Update the remaining uses to the limit (we don't know better)
+                remaining = 1;
+            }
+
+            // If there are remaining requests we don't need to do anything, otherwise return backoff in milliseconds
+            return Math.max(global, remaining < 1 ? reset - now : 0L);
+        }
+
+        private boolean isGlobalRateLimit()
+        {
+            return getGlobalRateLimit(getNow()) > 0;
+        }
+
+        private void backoff()
+        {
+            locked(() -> {
+                // Release the worker first, so concurrent enqueues either see the flag or we see their request
+                running.set(false);
+                // Schedule backoff if requests are not done
+                if (!requests.isEmpty())
+                    runBucket(this);
+                else if (isStopped)
+                    removeBucket(this, true);
+                if (isStopped && buckets.isEmpty())
+                    shutdown();
+            });
+        }
+
+        @Nonnull
+        public Queue<Work> getRequests()
+        {
+            return requests;
+        }
+
+        private boolean moveRequest(@Nonnull Work request)
+        {
+            // Attempt moving request to correct bucket if it has been created
+            Bucket bucket = locked(() -> {
+                Bucket current;
+                do
+                {
+                    current = getBucket(request.getRoute());
+                } while (current != this && !current.enqueue(request));
+                return current;
+            });
+            if (bucket == this)
+                return false;
+            runBucket(bucket);
+            return true;
+        }
+
+        private boolean execute(@Nonnull Work request)
+        {
+            Response response;
+            try
+            {
+                response = request.execute();
+            }
+            catch (Throwable ex)
+            {
+                return handleResponse(request, null, ex);
+            }
+            return handleResponse(request, response, null);
+        }
+
+        private CompletableFuture<Response> executeAsync(@Nonnull Work request)
+        {
+            try
+            {
+                return request.executeAsync();
+            }
+            catch (Throwable ex)
+            {
+                CompletableFuture<Response> future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+                return future;
+            }
+        }
+
+        private boolean handleResponse(@Nonnull Work request, Response response, Throwable error)
+        {
+            if (error instanceof CompletionException && error.getCause() != null)
+                error = error.getCause();
+            if (error == null)
+            {
+                try
+                {
+                    if (response != null)
+                        updateBucket(request.getRoute(), response);
+                    if (!request.isDone())
+                        retry(request);
+                    return false;
+                }
+                catch (Throwable ex)
+                {
+                    error = ex;
+                }
+            }
+
+            log.error("Encountered exception trying to execute request", error);
+            if (error instanceof Error)
+                throw (Error) error;
+            return true;
+        }
+
+        private void resume(@Nonnull Work request, Response response, Throwable error)
+        {
+            boolean failed = true;
+            try
+            {
+                failed = handleResponse(request, response, error);
+            }
+            finally
+            {
+                // The worker flag is still set, so no other worker can run this bucket concurrently
+                if (failed)
+                    backoff();
+                else
+                    run();
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            log.trace("Bucket {} is running {} requests", bucketId, requests.size());
+            while (!requests.isEmpty())
+            {
+                long rateLimit = getRateLimit();
+                if (rateLimit > 0L)
+                {
+                    // We need to backoff since we ran out of remaining uses or hit the global rate limit
+                    Work request = requests.peek(); // this *should* not be null
+                    String baseRoute = request != null ? request.getRoute().getBaseRoute().toString() : "N/A";
+                    if (!isGlobalRateLimit() && rateLimit >= 1000 * 60 * 30) // 30 minutes
+                        log.warn("Encountered long {} minutes Rate-Limit on route {}", TimeUnit.MILLISECONDS.toMinutes(rateLimit), baseRoute);
+                    log.debug("Backing off {} ms for bucket {} on route {}", rateLimit, bucketId, baseRoute);
+                    break;
+                }
+
+                Work request = requests.poll();
+                if (request == null)
+                    break;
+                if (request.isSkipped())
+                    continue;
+
+                if (isUninit() && moveRequest(request))
+                    continue;
+
+                if (config.isAsync())
+                {
+                    CompletableFuture<Response> future = executeAsync(request);
+                    if (!future.isDone())
+                    {
+                        // Continue with the next request once this one is handled, without blocking a thread in the meantime
+                        future.whenComplete((response, error) -> resume(request, response, error));
+                        return;
+                    }
+
+                    Response response = null;
+                    Throwable error = null;
+                    try
+                    {
+                        response = future.join();
+                    }
+                    catch (CompletionException | CancellationException ex)
+                    {
+                        error = ex;
+                    }
+                    if (handleResponse(request, response, error)) break;
+                }
+                else if (execute(request)) break;
+            }
+
+            backoff();
+        }
+
+        @Override
+        public String toString()
+        {
+            return bucketId;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return bucketId.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (obj == this)
+                return true;
+            if (!(obj instanceof Bucket))
+                return false;
+            return this.bucketId.equals(((Bucket) obj).bucketId);
+        }
+    }
+}
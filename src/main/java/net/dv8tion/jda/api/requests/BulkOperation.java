@@ -0,0 +1,273 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.annotations.Incubating;
+import net.dv8tion.jda.internal.requests.BulkOperationImpl;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.CheckReturnValue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Applies a {@link RestAction} to a large number of targets, without queueing all requests at once.
+ *
+ * <p>Targets are pulled lazily from the provided iterator, and only a bounded number of requests is kept in flight.
+ * The limit applies per rate-limit bucket and in total, so a bucket which is currently rate-limited
+ * does not fill up with thousands of queued requests while other buckets could make progress.
+ * The limit of each bucket adapts to the observed latency: it grows while requests complete quickly,
+ * and is halved when requests start waiting for rate-limits.
+ *
+ * <p>Requests use {@link RequestPriority#BACKGROUND} by default, so user-facing requests in the same buckets are not delayed.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * BulkOperation.Progress progress = BulkOperation.of(guild.getMembers(), member -> guild.addRoleToMember(member, role))
+ *     .setExpectedCount(guild.getMemberCount())
+ *     .onFailure((member, error) -> log.warn("Failed to add role to {}", member, error))
+ *     .start();
+ *
+ * progress.getCompletion().thenRun(() -> log.info("Done with {} failures", progress.getFailed()));
+ * }</pre>
+ *
+ * @param <T>
+ *        The type of targets
+ */
+@Incubating
+public interface BulkOperation<T>
+{
+    /**
+     * Creates a new bulk operation for the provided targets.
+     *
+     * @param  targets
+     *         The targets, which are only iterated as requests are sent
+     * @param  action
+     *         The function creating the request for a target, must not call {@link RestAction#queue()}
+     * @param  <T>
+     *         The type of targets
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The new BulkOperation, call {@link #start()} to run it
+     */
+    @Nonnull
+    static <T> BulkOperation<T> of(@Nonnull Iterator<? extends T> targets, @Nonnull Function<? super T, ? extends RestAction<?>> action)
+    {
+        Checks.notNull(targets, "Targets");
+        Checks.notNull(action, "Action");
+        return new BulkOperationImpl<>(targets, action);
+    }
+
+    /**
+     * Creates a new bulk operation for the provided targets.
+     *
+     * @param  targets
+     *         The targets, which are only iterated as requests are sent
+     * @param  action
+     *         The function creating the request for a target, must not call {@link RestAction#queue()}
+     * @param  <T>
+     *         The type of targets
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The new BulkOperation, call {@link #start()} to run it
+     */
+    @Nonnull
+    static <T> BulkOperation<T> of(@Nonnull Iterable<? extends T> targets, @Nonnull Function<? super T, ? extends RestAction<?>> action)
+    {
+        Checks.notNull(targets, "Targets");
+        return of(targets.iterator(), action);
+    }
+
+    /**
+     * The maximum number of requests in flight for the same rate-limit bucket.
+     * <br>This is the upper bound of the adaptive limit.
+     *
+     * <p>Default: {@code 4}
+     *
+     * @param  limit
+     *         The limit
+     *
+     * @throws IllegalArgumentException
+     *         If the limit is not positive
+     *
+     * @return The same BulkOperation instance
+     */
+    @Nonnull
+    BulkOperation<T> setMaxInFlightPerBucket(int limit);
+
+    /**
+     * The maximum number of requests in flight for the entire operation.
+     *
+     * <p>Default: {@code 32}
+     *
+     * @param  limit
+     *         The limit
+     *
+     * @throws IllegalArgumentException
+     *         If the limit is not positive
+     *
+     * @return The same BulkOperation instance
+     */
+    @Nonnull
+    BulkOperation<T> setMaxInFlight(int limit);
+
+    /**
+     * The {@link RequestPriority} used for all requests.
+     *
+     * <p>Default: {@link RequestPriority#BACKGROUND}
+     *
+     * @param  priority
+     *         The priority
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The same BulkOperation instance
+     */
+    @Nonnull
+    BulkOperation<T> setRequestPriority(@Nonnull RequestPriority priority);
+
+    /**
+     * The expected number of targets, used to {@link Progress#getEstimatedTimeRemaining() estimate} the remaining time.
+     *
+     * @param  count
+     *         The number of targets, or {@code -1} if unknown
+     *
+     * @return The same BulkOperation instance
+     */
+    @Nonnull
+    BulkOperation<T> setExpectedCount(long count);
+
+    /**
+     * Callback for targets which failed, either because the action could not be created or the request failed.
+     * <br>Failures do not stop the operation.
+     *
+     * @param  callback
+     *         The callback, or null to ignore failures
+     *
+     * @return The same BulkOperation instance
+     */
+    @Nonnull
+    BulkOperation<T> onFailure(@Nullable BiConsumer<? super T, ? super Throwable> callback);
+
+    /**
+     * Starts sending the requests.
+     * <br>This can only be called once.
+     *
+     * @throws IllegalStateException
+     *         If the operation was already started
+     *
+     * @return The {@link Progress} of the operation
+     */
+    @Nonnull
+    Progress start();
+
+    /**
+     * The progress of a running {@link BulkOperation}.
+     */
+    interface Progress
+    {
+        /**
+         * The number of targets for which the request succeeded.
+         *
+         * @return The number of successful targets
+         */
+        long getSucceeded();
+
+        /**
+         * The number of targets which failed.
+         *
+         * @return The number of failed targets
+         */
+        long getFailed();
+
+        /**
+         * The number of targets which have been completed, successfully or not.
+         *
+         * @return The number of processed targets
+         */
+        default long getProcessed()
+        {
+            return getSucceeded() + getFailed();
+        }
+
+        /**
+         * The number of requests which are currently in flight.
+         *
+         * @return The number of requests in flight
+         */
+        int getInFlight();
+
+        /**
+         * The average number of processed targets per second since the operation started.
+         *
+         * @return The throughput
+         */
+        double getThroughput();
+
+        /**
+         * The estimated time until all targets are processed.
+         * <br>This requires the {@link BulkOperation#setExpectedCount(long) expected count}.
+         *
+         * @return The remaining time, or null if unknown
+         */
+        @Nullable
+        Duration getEstimatedTimeRemaining();
+
+        /**
+         * Stops the operation.
+         * <br>No further targets are processed and requests in flight are cancelled.
+         * The {@link #getCompletion() completion} fails with a {@link java.util.concurrent.CancellationException CancellationException}.
+         */
+        void cancel();
+
+        /**
+         * Whether the operation was cancelled.
+         *
+         * @return True, if the operation was cancelled
+         */
+        boolean isCancelled();
+
+        /**
+         * Whether all targets have been processed or the operation was cancelled.
+         *
+         * @return True, if the operation is done
+         */
+        default boolean isDone()
+        {
+            return getCompletion().isDone();
+        }
+
+        /**
+         * Future which completes once all targets have been processed.
+         *
+         * @return The future
+         */
+        @Nonnull
+        @CheckReturnValue
+        CompletableFuture<Progress> getCompletion();
+    }
+}
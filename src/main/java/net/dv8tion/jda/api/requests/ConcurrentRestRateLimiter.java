@@ -0,0 +1,57 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.annotations.Incubating;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Alternative to the {@link SequentialRestRateLimiter}, which uses the same bucket semantics without a global lock.
+ *
+ * <p>The route hashes and buckets are stored in concurrent maps, and each bucket only synchronizes on itself.
+ * Enqueueing requests, updating buckets, and running bucket workers therefore only contend with other operations on the same bucket.
+ * This reduces lock contention when many requests are queued concurrently from different threads, for instance during bursts with many shards.
+ *
+ * <p>Requests within one bucket are still executed sequentially, in the order they were enqueued.
+ *
+ * <p>You can use this rate-limiter with {@link RestConfig#setRateLimiterFactory(java.util.function.Function)}:
+ * <pre>{@code
+ * JDABuilder.createDefault(token)
+ *     .setRestConfig(new RestConfig().setRateLimiterFactory(ConcurrentRestRateLimiter::new))
+ *     .build();
+ * }</pre>
+ *
+ * @see SequentialRestRateLimiter
+ */
+@Incubating
+public final class ConcurrentRestRateLimiter extends BucketRateLimiter
+{
+    public ConcurrentRestRateLimiter(@Nonnull RateLimitConfig config)
+    {
+        super(config, new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+    }
+
+    @Override
+    protected <T> T locked(@Nonnull Supplier<T> task)
+    {
+        // Each bucket only synchronizes on itself, and the concurrent maps handle the rest
+        return task.get();
+    }
+}
@@ -62,4 +62,12 @@ public interface FluentRestAction<T, R extends FluentRestAction<T, R>> extends R
     {
         return (R) RestAction.super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    default R setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (R) RestAction.super.setRequestPriority(priority);
+    }
 }
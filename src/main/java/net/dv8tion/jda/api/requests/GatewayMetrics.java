@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.annotations.Incubating;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Receives measurements of the main gateway connection.
+ * <br>This can be used to forward the measurements to a metrics library, to find out which event types are the most expensive.
+ *
+ * <p>All methods have empty default implementations, you only need to implement the measurements you are interested in.
+ * The methods are called on the websocket threads and should return quickly, without blocking.
+ * Methods can be called concurrently when {@link net.dv8tion.jda.api.JDABuilder#setDispatchLanes(int) dispatch lanes} are enabled.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * public class DispatchCounter implements GatewayMetrics {
+ *     private final Map<String, LongAdder> handlerTime = new ConcurrentHashMap<>();
+ *
+ *     @Override
+ *     public void onDispatchHandled(String type, long nanos) {
+ *         handlerTime.computeIfAbsent(type, k -> new LongAdder()).add(nanos);
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see net.dv8tion.jda.api.JDABuilder#setGatewayMetrics(GatewayMetrics)
+ * @see net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder#setGatewayMetricsProvider(java.util.function.IntFunction)
+ */
+@Incubating
+public interface GatewayMetrics
+{
+    /**
+     * Called for every frame received on the gateway connection, before decompression.
+     *
+     * @param binary
+     *        Whether this was a binary frame
+     * @param bytes
+     *        The size of the frame in bytes
+     */
+    default void onFrameReceived(boolean binary, int bytes) {}
+
+    /**
+     * Called after a frame has been decompressed.
+     * <br>This is not called for frames which only contained a part of a message.
+     *
+     * @param compressedBytes
+     *        The size of the compressed frame
+     * @param decompressedBytes
+     *        The size of the decompressed message
+     * @param nanos
+     *        The time spent on decompression, in nanoseconds
+     */
+    default void onDecompressed(int compressedBytes, int decompressedBytes, long nanos) {}
+
+    /**
+     * Called after a message has been parsed.
+     *
+     * @param bytes
+     *        The size of the decompressed message
+     * @param nanos
+     *        The time spent on parsing, in nanoseconds
+     */
+    default void onParsed(int bytes, long nanos) {}
+
+    /**
+     * Called for every received payload, before it is handled.
+     *
+     * @param opcode
+     *        The gateway opcode of the payload, for instance {@code 0} for dispatches or {@code 11} for heartbeat acknowledgements
+     * @param type
+     *        The event type for dispatches ({@code op 0}), such as {@code MESSAGE_CREATE}, or null for other opcodes
+     * @param bytes
+     *        The size of the decompressed message
+     */
+    default void onPayloadReceived(int opcode, @Nullable String type, int bytes) {}
+
+    /**
+     * Called after the handler of a dispatch has finished.
+     * <br>Dispatches which were skipped, because nothing would consume them, are not reported.
+     *
+     * @param type
+     *        The event type, such as {@code MESSAGE_CREATE}
+     * @param nanos
+     *        The time spent in the handler, including the event listeners called on the same thread, in nanoseconds
+     */
+    default void onDispatchHandled(@Nonnull String type, long nanos) {}
+
+    /**
+     * Called periodically with the sizes of the outgoing queues.
+     *
+     * @param messageQueue
+     *        The amount of queued gateway messages, such as presence updates
+     * @param chunkQueue
+     *        The amount of queued member chunk requests
+     */
+    default void onQueueSizes(int messageQueue, int chunkQueue) {}
+
+    /**
+     * Called when a heartbeat has been acknowledged.
+     *
+     * @param millis
+     *        The round-trip time of the heartbeat, in milliseconds
+     */
+    default void onHeartbeatAcknowledged(long millis) {}
+}
@@ -57,6 +57,7 @@ public class Request<T>
     private final CaseInsensitiveMap<String, String> headers;
     private final long deadline;
     private final boolean priority;
+    private final RequestPriority requestPriority;
 
     private final String localReason;
 
@@ -70,6 +71,7 @@ public class Request<T>
     {
         this.deadline = deadline;
         this.priority = priority;
+        this.requestPriority = restAction.getRequestPriority();
         this.restAction = restAction;
         this.onSuccess = onSuccess;
         if (onFailure instanceof ContextException.ContextConsumer)
@@ -228,6 +230,12 @@ public class Request<T>
         return priority;
     }
 
+    @Nonnull
+    public RequestPriority getRequestPriority()
+    {
+        return requestPriority;
+    }
+
     public boolean isSkipped()
     {
         if (isTimeout())
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.annotations.Incubating;
+
+/**
+ * The scheduling class of a request.
+ * <br>Requests which share a rate-limit bucket are served with weighted fair scheduling,
+ * where each class receives a share of the available requests proportional to its {@link #getWeight() weight}.
+ * A class which has no queued requests does not use up any share,
+ * so {@link #BACKGROUND} requests still run at full speed while nothing else is queued.
+ *
+ * <p>Within the same class, requests are still executed in the order they were queued.
+ *
+ * @see RestAction#setRequestPriority(RequestPriority)
+ * @see RestRateLimiter.Work#getRequestPriority()
+ */
+@Incubating
+public enum RequestPriority
+{
+    /**
+     * Responses to interactions, which have to be sent within a few seconds.
+     * <br>This is used by default for all interaction callbacks, such as replies and deferrals.
+     */
+    INTERACTION_CALLBACK(8),
+    /**
+     * Requests which a user is waiting for, like message sends or edits.
+     * <br>This is the default for all other requests.
+     */
+    INTERACTIVE(4),
+    /**
+     * Bulk jobs which are not time-sensitive, like role synchronization or scanning message history.
+     * <br>These receive the smallest share, but are not starved by the other classes.
+     * While requests of both other classes are queued in the same bucket, every 13th request is a background request,
+     * and every 5th request while only {@link #INTERACTIVE} requests compete with them.
+     */
+    BACKGROUND(1);
+
+    private final int weight;
+
+    RequestPriority(int weight)
+    {
+        this.weight = weight;
+    }
+
+    /**
+     * The relative share of requests this class receives, when other classes are queued in the same bucket.
+     *
+     * @return The weight
+     */
+    public int getWeight()
+    {
+        return weight;
+    }
+}
@@ -29,6 +29,7 @@ import javax.annotation.Nullable;
 import java.io.*;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -104,6 +105,47 @@ public class Response implements Closeable
         return parseBody(true, DataArray.class, JSON_SERIALIZE_ARRAY);
     }
 
+    /**
+     * Parses the body as a JSON Array of objects and passes each element to the consumer as soon as it has been parsed.
+     * <br>Unlike {@link #getArray()}, this does not keep the entire array in memory.
+     * If the body has already been parsed by {@link #getArray()}, the parsed elements are used instead.
+     *
+     * @param  consumer
+     *         The consumer which receives each element in order
+     *
+     * @throws IllegalStateException
+     *         If the body could not be parsed, or has already been consumed as something other than an array
+     *
+     * @return The number of elements
+     */
+    public int forEachObject(@Nonnull Consumer<? super DataObject> consumer)
+    {
+        if (attemptedParsing)
+        {
+            if (!(object instanceof DataArray))
+                throw new IllegalStateException("The response body has already been consumed");
+            DataArray array = (DataArray) object;
+            for (int i = 0; i < array.length(); i++)
+                consumer.accept(array.getObject(i));
+            return array.length();
+        }
+
+        attemptedParsing = true;
+        if (body == null || rawResponse == null || rawResponse.body().contentLength() == 0)
+            return 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body)))
+        {
+            int count = DataArray.streamObjects(reader, consumer);
+            RestActionImpl.LOG.trace("Streamed {} elements for response on url {}", count, rawResponse.request().url());
+            return count;
+        }
+        catch (ParsingException | IOException e)
+        {
+            throw new IllegalStateException("An error occurred while parsing the response for a RestAction", e);
+        }
+    }
+
     @Nonnull
     public DataObject getObject()
     {
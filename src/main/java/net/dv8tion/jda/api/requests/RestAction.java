@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.api.requests;
 
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.annotations.UnknownNullability;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.exceptions.ContextException;
@@ -510,6 +511,51 @@ public interface RestAction<T>
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * Sets the {@link RequestPriority scheduling class} of this request.
+     * <br>Requests which share a rate-limit bucket are served with weighted fair scheduling between the classes.
+     * Use {@link RequestPriority#BACKGROUND} for bulk jobs, so they do not delay requests which a user is waiting for.
+     *
+     * <p><b>Example</b><br>
+     * <pre>{@code
+     * for (Member member : members)
+     *     guild.addRoleToMember(member, role)
+     *          .setRequestPriority(RequestPriority.BACKGROUND)
+     *          .queue();
+     * }</pre>
+     *
+     * @param  priority
+     *         The scheduling class to use
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The same RestAction with the applied priority
+     *
+     * @see    #getRequestPriority()
+     */
+    @Nonnull
+    @Incubating
+    @CheckReturnValue
+    default RestAction<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * The {@link RequestPriority scheduling class} of this request.
+     *
+     * @return The scheduling class, defaults to {@link RequestPriority#INTERACTIVE}
+     *
+     * @see    #setRequestPriority(RequestPriority)
+     */
+    @Nonnull
+    @Incubating
+    default RequestPriority getRequestPriority()
+    {
+        return RequestPriority.INTERACTIVE;
+    }
+
     /**
      * Submits a Request for execution.
      * <br>Using the default callback functions:
@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.api.requests;
 
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.JDAInfo;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
@@ -23,6 +24,7 @@ import okhttp3.Request;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.time.Duration;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -47,6 +49,12 @@ public class RestConfig
     private String userAgent = USER_AGENT;
     private String baseUrl = DEFAULT_BASE_URL;
     private boolean relativeRateLimit = true;
+    private boolean asyncExecution = false;
+    private boolean coalesceRequests = false;
+    private int responseCacheSize = 0;
+    private Duration responseCacheTimeToLive = Duration.ZERO;
+    private RestRateLimiter.BucketStore bucketStore;
+    private RestMetrics metrics;
     private Consumer<? super Request.Builder> customBuilder;
     private Function<? super RestRateLimiter.RateLimitConfig, ? extends RestRateLimiter> rateLimiter = SequentialRestRateLimiter::new;
 
@@ -66,9 +74,140 @@ public class RestConfig
         return this;
     }
 
+    /**
+     * Whether requests should be executed asynchronously.
+     * <br>By default, the rate-limiter uses a thread of the elastic pool for each request, which is blocked until the response arrives.
+     * With asynchronous execution, the response is handled by a callback of the HTTP client instead,
+     * and retries are scheduled rather than waiting on a thread.
+     *
+     * <p>This allows many requests to different buckets to be in flight at the same time, without increasing the size of the elastic pool.
+     * The concurrency is then limited by the {@link okhttp3.Dispatcher Dispatcher} of the configured {@link okhttp3.OkHttpClient OkHttpClient}.
+     *
+     * <p>Custom {@link RestRateLimiter} implementations can check {@link RestRateLimiter.RateLimitConfig#isAsync()}.
+     *
+     * @param  asyncExecution
+     *         True, to execute requests asynchronously
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    @Incubating
+    public RestConfig setAsyncExecution(boolean asyncExecution)
+    {
+        this.asyncExecution = asyncExecution;
+        return this;
+    }
+
+    /**
+     * Whether identical GET requests should share one HTTP request while it is queued.
+     * <br>When enabled, a queued GET request without body or custom headers is reused by every identical request
+     * (same compiled route, including query parameters) that is queued before the response has been handled.
+     * Each request still handles the response on its own, so callbacks and entity creation are unaffected.
+     *
+     * <p>This avoids redundant requests, and rate-limit usage, when many listeners retrieve the same entity at once,
+     * for example with {@link net.dv8tion.jda.api.entities.Guild#retrieveMemberById(long) Guild.retrieveMemberById(id)}.
+     * A request queued while an identical request is waiting for its response may receive that response,
+     * even though the request was started slightly earlier.
+     *
+     * <p>Requests which bypass the rate-limiter, such as {@link RestAction#complete(boolean) complete(false)}, are never coalesced.
+     *
+     * @param  coalesceRequests
+     *         True, to share responses of identical GET requests
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    @Incubating
+    public RestConfig setCoalesceRequests(boolean coalesceRequests)
+    {
+        this.coalesceRequests = coalesceRequests;
+        return this;
+    }
+
+    /**
+     * Reports measurements of REST requests to the provided {@link RestMetrics}.
+     * <br>This includes the time requests spend queued in the rate-limiter, the latency of each response,
+     * retries, rate-limits, and the number of queued requests per route.
+     *
+     * <p>When the same RestConfig is used for multiple shards, the metrics instance receives the measurements of all of them.
+     *
+     * @param  metrics
+     *         The {@link RestMetrics}, or null to disable metrics (default)
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    @Incubating
+    public RestConfig setMetrics(@Nullable RestMetrics metrics)
+    {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Enables a cache for entities retrieved by {@link net.dv8tion.jda.api.requests.restaction.CacheRestAction CacheRestActions},
+     * which are not part of the regular entity cache.
+     * <br>This applies to {@link net.dv8tion.jda.api.JDA#retrieveUserById(long) JDA.retrieveUserById(id)}
+     * and {@link net.dv8tion.jda.api.entities.Guild#retrieveMemberById(long) Guild.retrieveMemberById(id)}.
+     *
+     * <p>This is useful when running with a restrictive {@link net.dv8tion.jda.api.utils.MemberCachePolicy MemberCachePolicy},
+     * where repeated retrievals of the same member would otherwise always send a request.
+     * The cached entities are not updated by gateway events, instead they are removed from the cache when an update or removal is received.
+     * Entities are evicted once they are older than the time-to-live, or the cache exceeds the maximum size.
+     *
+     * <p>Like the regular entity cache, this is skipped when using {@link net.dv8tion.jda.api.requests.restaction.CacheRestAction#useCache(boolean) useCache(false)}.
+     *
+     * @param  maxSize
+     *         The maximum amount of users and members each, or {@code 0} to disable this cache (default)
+     * @param  timeToLive
+     *         The time after which a cached entity is retrieved again
+     *
+     * @throws IllegalArgumentException
+     *         If the max size is negative, or the time-to-live is null or negative
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    @Incubating
+    public RestConfig setResponseCache(int maxSize, @Nonnull Duration timeToLive)
+    {
+        Checks.notNegative(maxSize, "Max size");
+        Checks.notNull(timeToLive, "Time-to-live");
+        Checks.check(!timeToLive.isNegative(), "Time-to-live may not be negative");
+        this.responseCacheSize = maxSize;
+        this.responseCacheTimeToLive = timeToLive;
+        return this;
+    }
+
+    /**
+     * Sets the store used to persist discovered rate-limit buckets across restarts.
+     * <br>Without a store, the rate-limiter has to rediscover the bucket of every route after a restart,
+     * which can cause a burst of 429 responses right after startup.
+     *
+     * <p>Example:
+     * <pre>{@code
+     * new RestConfig().setBucketStore(RestRateLimiter.BucketStore.fromFile(Paths.get("buckets.json")))
+     * }</pre>
+     *
+     * <p>Custom {@link RestRateLimiter} implementations can check {@link RestRateLimiter.RateLimitConfig#getBucketStore()}.
+     *
+     * @param  bucketStore
+     *         The store to use, or null to disable persistence (default)
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    @Incubating
+    public RestConfig setBucketStore(@Nullable RestRateLimiter.BucketStore bucketStore)
+    {
+        this.bucketStore = bucketStore;
+        return this;
+    }
+
     /**
      * Provide a custom implementation of {@link RestRateLimiter}.
      * <br>By default, this will use the {@link SequentialRestRateLimiter}.
+     * For high request throughput from many threads, the {@link ConcurrentRestRateLimiter} avoids contention on a global lock.
      *
      * @param  rateLimiter
      *         The new implementation
@@ -214,4 +353,79 @@ public class RestConfig
     {
         return relativeRateLimit;
     }
+
+    /**
+     * Whether requests are executed asynchronously.
+     *
+     * @return True, if asynchronous execution is enabled
+     *
+     * @see    #setAsyncExecution(boolean)
+     */
+    public boolean isAsyncExecution()
+    {
+        return asyncExecution;
+    }
+
+    /**
+     * The store used to persist discovered rate-limit buckets.
+     *
+     * @return The {@link RestRateLimiter.BucketStore}, or null if persistence is disabled
+     *
+     * @see    #setBucketStore(RestRateLimiter.BucketStore)
+     */
+    @Nullable
+    public RestRateLimiter.BucketStore getBucketStore()
+    {
+        return bucketStore;
+    }
+
+    /**
+     * The metrics receiving measurements of REST requests.
+     *
+     * @return The {@link RestMetrics}, or null if metrics are disabled
+     *
+     * @see    #setMetrics(RestMetrics)
+     */
+    @Nullable
+    public RestMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    /**
+     * Whether identical GET requests share one HTTP request.
+     *
+     * @return True, if request coalescing is enabled
+     *
+     * @see    #setCoalesceRequests(boolean)
+     */
+    public boolean isCoalesceRequests()
+    {
+        return coalesceRequests;
+    }
+
+    /**
+     * The maximum amount of users and members kept in the response cache.
+     *
+     * @return The max size, {@code 0} if the cache is disabled
+     *
+     * @see    #setResponseCache(int, Duration)
+     */
+    public int getResponseCacheSize()
+    {
+        return responseCacheSize;
+    }
+
+    /**
+     * The time-to-live of entities in the response cache.
+     *
+     * @return The time-to-live
+     *
+     * @see    #setResponseCache(int, Duration)
+     */
+    @Nonnull
+    public Duration getResponseCacheTimeToLive()
+    {
+        return responseCacheTimeToLive;
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.annotations.Incubating;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Receives measurements of REST requests.
+ * <br>This can be used to forward the measurements to a metrics library, for instance to record latency histograms per route.
+ * Together, the measurements tell whether a slow request was caused by the local backlog, by rate-limits, or by the latency of Discord.
+ *
+ * <p>Routes are reported as their {@link Route template}, such as {@code channels/{channel_id}/messages},
+ * and buckets as the hash of the {@value RestRateLimiter#HASH_HEADER} header.
+ *
+ * <p>All methods have empty default implementations, you only need to implement the measurements you are interested in.
+ * The methods are called concurrently from the rate-limiter and HTTP client threads and should return quickly, without blocking.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * public class RouteLatency implements RestMetrics {
+ *     private final Map<String, LongAdder> rateLimits = new ConcurrentHashMap<>();
+ *
+ *     @Override
+ *     public void onRateLimited(Route route, String bucket, RateLimitType type, long retryAfter) {
+ *         rateLimits.computeIfAbsent(type + " " + route.getRoute(), k -> new LongAdder()).increment();
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see RestConfig#setMetrics(RestMetrics)
+ */
+@Incubating
+public interface RestMetrics
+{
+    /**
+     * Called when the number of queued requests for a route changes.
+     * <br>Requests are queued until the rate-limiter starts executing them, or they are cancelled.
+     *
+     * @param route
+     *        The route template
+     * @param size
+     *        The number of queued requests for this route
+     */
+    default void onQueueSize(@Nonnull Route route, int size) {}
+
+    /**
+     * Called when the rate-limiter starts executing a request for the first time.
+     *
+     * @param route
+     *        The route template
+     * @param nanos
+     *        The time the request spent queued in the rate-limiter, in nanoseconds
+     */
+    default void onRequestStarted(@Nonnull Route route, long nanos) {}
+
+    /**
+     * Called for every HTTP response, including responses which are retried.
+     *
+     * @param route
+     *        The route template
+     * @param bucket
+     *        The bucket hash of the response, or null if the response has no bucket
+     * @param code
+     *        The HTTP status code
+     * @param nanos
+     *        The time from sending the request until the response headers were received, in nanoseconds
+     */
+    default void onResponse(@Nonnull Route route, @Nullable String bucket, int code, long nanos) {}
+
+    /**
+     * Called when a request is sent again, because of a server error or a connection timeout.
+     * <br>Requests which are sent again after a rate-limit are reported with {@link #onRateLimited(Route, String, RateLimitType, long)} instead.
+     *
+     * @param route
+     *        The route template
+     * @param attempt
+     *        The number of the upcoming attempt, starting at {@code 1} for the first retry
+     * @param code
+     *        The HTTP status code of the failed attempt, or {@code -1} for I/O errors
+     */
+    default void onRetry(@Nonnull Route route, int attempt, int code) {}
+
+    /**
+     * Called for every response with the status code {@code 429}.
+     *
+     * @param route
+     *        The route template
+     * @param bucket
+     *        The bucket hash of the response, or null if the response has no bucket
+     * @param type
+     *        The kind of rate-limit
+     * @param retryAfter
+     *        The time until the request can be retried, in milliseconds
+     */
+    default void onRateLimited(@Nonnull Route route, @Nullable String bucket, @Nonnull RateLimitType type, long retryAfter) {}
+
+    /**
+     * The kind of rate-limit encountered by a request.
+     */
+    enum RateLimitType
+    {
+        /** The rate-limit of the bucket, which is usually avoided by the rate-limiter */
+        BUCKET,
+        /** A rate-limit shared with other applications, such as a rate-limit on a channel */
+        SHARED,
+        /** The global rate-limit of the bot token */
+        GLOBAL,
+        /** A rate-limit applied by Cloudflare to the IP address */
+        CLOUDFLARE
+    }
+}
@@ -16,12 +16,19 @@
 
 package net.dv8tion.jda.api.requests;
 
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.FileBucketStore;
+import net.dv8tion.jda.internal.utils.Checks;
 import okhttp3.Response;
 import org.jetbrains.annotations.Blocking;
 
+import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
@@ -123,6 +130,32 @@ public interface RestRateLimiter
         @Blocking
         Response execute();
 
+        /**
+         * Executes the request without blocking the calling thread.
+         * <br>The returned future completes with the same response {@link #execute()} would return,
+         * once the request has been handled. Retries for certain response codes are scheduled instead of waiting on a thread.
+         *
+         * <p>This is used instead of {@link #execute()} when {@link RateLimitConfig#isAsync()} is enabled.
+         * The default implementation calls {@link #execute()} on the calling thread.
+         *
+         * @return {@link CompletableFuture} completing with the {@link Response}, used to update the rate-limit data
+         */
+        @Nonnull
+        @CheckReturnValue
+        default CompletableFuture<Response> executeAsync()
+        {
+            CompletableFuture<Response> future = new CompletableFuture<>();
+            try
+            {
+                future.complete(execute());
+            }
+            catch (Throwable ex)
+            {
+                future.completeExceptionally(ex);
+            }
+            return future;
+        }
+
         /**
          * Whether the request should be skipped.
          * <br>This can be caused by user cancellation.
@@ -148,6 +181,18 @@ public interface RestRateLimiter
          */
         boolean isPriority();
 
+        /**
+         * The scheduling class of this request.
+         * <br>Requests in the same bucket are served with weighted fair scheduling between the classes.
+         *
+         * @return The {@link RequestPriority}, defaults to {@link RequestPriority#INTERACTIVE}
+         */
+        @Nonnull
+        default RequestPriority getRequestPriority()
+        {
+            return RequestPriority.INTERACTIVE;
+        }
+
         /**
          * Whether this request was cancelled.
          * <br>Similar to {@link #isSkipped()}, but only checks cancellation.
@@ -244,6 +289,58 @@ public interface RestRateLimiter
         }
     }
 
+    /**
+     * Persistent store for discovered rate-limit buckets.
+     * <br>This allows a rate-limiter to remember the bucket hashes of routes and the last known bucket limits across restarts,
+     * which avoids running into rate-limits with uninitialized buckets after every deployment.
+     *
+     * <p>The snapshot format is defined by the rate-limiter implementation, the store only has to persist it.
+     * Snapshots are saved periodically and when the rate-limiter shuts down.
+     *
+     * @see RestConfig#setBucketStore(BucketStore)
+     */
+    @Incubating
+    interface BucketStore
+    {
+        /**
+         * Loads the last saved snapshot.
+         *
+         * @return The snapshot, or null if no snapshot is available
+         */
+        @Nullable
+        DataObject load();
+
+        /**
+         * Saves the provided snapshot, replacing the previous one.
+         *
+         * @param snapshot
+         *        The snapshot to save
+         */
+        void save(@Nonnull DataObject snapshot);
+
+        /**
+         * Creates a store which saves the snapshots as JSON to the provided file.
+         * <br>The file is replaced atomically, when supported by the file system.
+         *
+         * <p>When multiple instances use the same file, the last saved snapshot wins.
+         * Since bucket hashes are the same for every session of a bot, this is usually not an issue.
+         *
+         * @param  file
+         *         The file to use
+         *
+         * @throws IllegalArgumentException
+         *         If null is provided
+         *
+         * @return The file store
+         */
+        @Nonnull
+        static BucketStore fromFile(@Nonnull Path file)
+        {
+            Checks.notNull(file, "File");
+            return new FileBucketStore(file);
+        }
+    }
+
     /**
      * Configuration for the rate-limiter.
      */
@@ -253,6 +350,8 @@ public interface RestRateLimiter
         private final ExecutorService elastic;
         private final GlobalRateLimit globalRateLimit;
         private final boolean isRelative;
+        private final boolean isAsync;
+        private final BucketStore bucketStore;
 
         public RateLimitConfig(@Nonnull ScheduledExecutorService scheduler, @Nonnull GlobalRateLimit globalRateLimit, boolean isRelative)
         {
@@ -260,11 +359,23 @@ public interface RestRateLimiter
         }
 
         public RateLimitConfig(@Nonnull ScheduledExecutorService scheduler, @Nonnull ExecutorService elastic, @Nonnull GlobalRateLimit globalRateLimit, boolean isRelative)
+        {
+            this(scheduler, elastic, globalRateLimit, isRelative, false);
+        }
+
+        public RateLimitConfig(@Nonnull ScheduledExecutorService scheduler, @Nonnull ExecutorService elastic, @Nonnull GlobalRateLimit globalRateLimit, boolean isRelative, boolean isAsync)
+        {
+            this(scheduler, elastic, globalRateLimit, isRelative, isAsync, null);
+        }
+
+        public RateLimitConfig(@Nonnull ScheduledExecutorService scheduler, @Nonnull ExecutorService elastic, @Nonnull GlobalRateLimit globalRateLimit, boolean isRelative, boolean isAsync, @Nullable BucketStore bucketStore)
         {
             this.scheduler = scheduler;
             this.elastic = elastic;
             this.globalRateLimit = globalRateLimit;
             this.isRelative = isRelative;
+            this.isAsync = isAsync;
+            this.bucketStore = bucketStore;
         }
 
         /**
@@ -313,5 +424,27 @@ public interface RestRateLimiter
         {
             return isRelative;
         }
+
+        /**
+         * Whether requests should be executed with {@link Work#executeAsync()}.
+         * <br>This allows a bucket to wait for its response without occupying a thread of the {@link #getElastic() elastic pool}.
+         *
+         * @return True, if requests should be executed asynchronously
+         */
+        public boolean isAsync()
+        {
+            return isAsync;
+        }
+
+        /**
+         * The store used to persist discovered buckets across restarts.
+         *
+         * @return The {@link BucketStore}, or null if buckets should not be persisted
+         */
+        @Nullable
+        public BucketStore getBucketStore()
+        {
+            return bucketStore;
+        }
     }
 }
@@ -17,6 +17,8 @@
 package net.dv8tion.jda.api.requests;
 
 import net.dv8tion.jda.api.utils.MiscUtil;
+import net.dv8tion.jda.internal.requests.PriorityWorkQueue;
+import net.dv8tion.jda.internal.requests.RateLimitSnapshot;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import okhttp3.Headers;
 import okhttp3.Response;
@@ -70,6 +72,8 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
 
     private final Future<?> cleanupWorker;
     private final RateLimitConfig config;
+    // Buckets restored from the bucket store, consumed once the buckets are used again
+    private final RateLimitSnapshot restored;
 
     private boolean isStopped, isShutdown;
 
@@ -86,6 +90,8 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
     public SequentialRestRateLimiter(@Nonnull RateLimitConfig config)
     {
         this.config = config;
+        this.restored = RateLimitSnapshot.load(config.getBucketStore());
+        this.hashes.putAll(restored.getHashes());
         this.cleanupWorker = config.getScheduler().scheduleAtFixedRate(this::cleanup, 30, 30, TimeUnit.SECONDS);
     }
 
@@ -161,6 +167,9 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
 
     private void cleanup()
     {
+        // Persist the buckets before they are removed, including the empty buckets of a stopped rate-limiter
+        saveBuckets();
+
         // This will remove buckets that are no longer needed every 30 seconds to avoid memory leakage
         // We will keep the hashes in memory since they are very limited (by the amount of possible routes)
         MiscUtil.locked(lock, () -> {
@@ -199,6 +208,26 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
         });
     }
 
+    private void saveBuckets()
+    {
+        BucketStore store = config.getBucketStore();
+        if (store == null)
+            return;
+
+        RateLimitSnapshot snapshot = MiscUtil.locked(lock, () -> {
+            RateLimitSnapshot result = new RateLimitSnapshot();
+            long now = getNow();
+            hashes.forEach(result::putHash);
+            for (Bucket bucket : buckets.values())
+            {
+                if (!bucket.isUninit() && bucket.reset > now)
+                    result.putBucket(bucket.bucketId, bucket.remaining, bucket.reset);
+            }
+            return result;
+        });
+        RateLimitSnapshot.save(store, snapshot);
+    }
+
     private String getRouteHash(Route route)
     {
         return hashes.getOrDefault(route, UNINIT_BUCKET + "+" + route);
@@ -214,10 +243,20 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
             String bucketId = hash + ":" + route.getMajorParameters();
             return this.buckets.computeIfAbsent(bucketId, (id) ->
             {
+                Bucket bucket;
                 if (route.getBaseRoute().isInteractionBucket())
-                    return new InteractionBucket(id);
+                    bucket = new InteractionBucket(id);
                 else
-                    return new ClassicBucket(id);
+                    bucket = new ClassicBucket(id);
+
+                // Continue with the last known limits, to avoid hitting the rate-limit right after a restart
+                RateLimitSnapshot.BucketState state = restored.removeBucket(id, getNow());
+                if (state != null)
+                {
+                    bucket.remaining = state.remaining;
+                    bucket.reset = state.reset;
+                }
+                return bucket;
             });
         });
     }
@@ -376,7 +415,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
     private abstract class Bucket implements Runnable
     {
         protected final String bucketId;
-        protected final Deque<Work> requests = new ConcurrentLinkedDeque<>();
+        protected final PriorityWorkQueue requests = new PriorityWorkQueue();
 
         protected long reset = 0;
         protected int remaining = 1;
@@ -393,7 +432,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
 
         public void enqueue(@Nonnull Work request)
         {
-            requests.addLast(request);
+            requests.add(request);
         }
 
         public void retry(@Nonnull Work request)
@@ -473,22 +512,73 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
 
         protected boolean execute(@Nonnull Work request)
         {
+            Response response;
             try
             {
-                Response response = request.execute();
-                if (response != null)
-                    updateBucket(request.getRoute(), response);
-                if (!request.isDone())
-                    retry(request);
+                response = request.execute();
             }
             catch (Throwable ex)
             {
-                log.error("Encountered exception trying to execute request", ex);
-                if (ex instanceof Error)
-                    throw (Error) ex;
-                return true;
+                return handleResponse(request, null, ex);
+            }
+            return handleResponse(request, response, null);
+        }
+
+        protected CompletableFuture<Response> executeAsync(@Nonnull Work request)
+        {
+            try
+            {
+                return request.executeAsync();
+            }
+            catch (Throwable ex)
+            {
+                CompletableFuture<Response> future = new CompletableFuture<>();
+                future.completeExceptionally(ex);
+                return future;
+            }
+        }
+
+        protected boolean handleResponse(@Nonnull Work request, Response response, Throwable error)
+        {
+            if (error instanceof CompletionException && error.getCause() != null)
+                error = error.getCause();
+            if (error == null)
+            {
+                try
+                {
+                    if (response != null)
+                        updateBucket(request.getRoute(), response);
+                    if (!request.isDone())
+                        retry(request);
+                    return false;
+                }
+                catch (Throwable ex)
+                {
+                    error = ex;
+                }
+            }
+
+            log.error("Encountered exception trying to execute request", error);
+            if (error instanceof Error)
+                throw (Error) error;
+            return true;
+        }
+
+        protected void resume(@Nonnull Work request, Response response, Throwable error)
+        {
+            boolean failed = true;
+            try
+            {
+                failed = handleResponse(request, response, error);
+            }
+            finally
+            {
+                // The bucket is still in the rate-limit queue, so no other worker can run it concurrently
+                if (failed)
+                    backoff();
+                else
+                    run();
             }
-            return false;
         }
 
         public void run()
@@ -500,7 +590,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
                 if (rateLimit > 0L)
                 {
                     // We need to backoff since we ran out of remaining uses or hit the global rate limit
-                    Work request = requests.peekFirst(); // this *should* not be null
+                    Work request = requests.peek(); // this *should* not be null
                     String baseRoute = request != null ? request.getRoute().getBaseRoute().toString() : "N/A";
                     if (!isGlobalRateLimit() && rateLimit >= 1000 * 60 * 30) // 30 minutes
                         log.warn("Encountered long {} minutes Rate-Limit on route {}", TimeUnit.MILLISECONDS.toMinutes(rateLimit), baseRoute);
@@ -508,14 +598,38 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
                     break;
                 }
 
-                Work request = requests.removeFirst();
+                Work request = requests.poll();
+                if (request == null)
+                    break;
                 if (request.isSkipped())
                     continue;
 
                 if (isUninit() && moveRequest(request))
                     continue;
 
-                if (execute(request)) break;
+                if (config.isAsync())
+                {
+                    CompletableFuture<Response> future = executeAsync(request);
+                    if (!future.isDone())
+                    {
+                        // Continue with the next request once this one is handled, without blocking a thread in the meantime
+                        future.whenComplete((response, error) -> resume(request, response, error));
+                        return;
+                    }
+
+                    Response response = null;
+                    Throwable error = null;
+                    try
+                    {
+                        response = future.join();
+                    }
+                    catch (CompletionException | CancellationException ex)
+                    {
+                        error = ex;
+                    }
+                    if (handleResponse(request, response, error)) break;
+                }
+                else if (execute(request)) break;
             }
 
             backoff();
@@ -19,6 +19,7 @@ package net.dv8tion.jda.api.requests.restaction;
 import net.dv8tion.jda.api.audit.ThreadLocalReason;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.UserSnowflake;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.pagination.AuditLogPaginationAction;
 
@@ -99,4 +100,15 @@ public interface AuditableRestAction<T> extends RestAction<T>
     {
         return (AuditableRestAction<T>) RestAction.super.deadline(timestamp);
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    default AuditableRestAction<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (AuditableRestAction<T>) RestAction.super.setRequestPriority(priority);
+    }
 }
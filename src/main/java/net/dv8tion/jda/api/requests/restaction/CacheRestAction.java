@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.api.requests.restaction;
 
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 
 import javax.annotation.CheckReturnValue;
@@ -61,6 +62,14 @@ public interface CacheRestAction<T> extends RestAction<T>
         return (CacheRestAction<T>) RestAction.super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    default CacheRestAction<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (CacheRestAction<T>) RestAction.super.setRequestPriority(priority);
+    }
+
     /**
      * Sets whether this request should rely on cached entities, or always retrieve a new one.
      *
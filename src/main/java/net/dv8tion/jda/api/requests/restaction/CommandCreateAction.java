@@ -27,6 +27,7 @@ import net.dv8tion.jda.api.interactions.commands.build.SlashCommandData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandGroupData;
 import net.dv8tion.jda.api.interactions.commands.localization.LocalizationFunction;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 
 import javax.annotation.CheckReturnValue;
@@ -66,6 +67,11 @@ public interface CommandCreateAction extends RestAction<Command>, SlashCommandDa
     @CheckReturnValue
     CommandCreateAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    CommandCreateAction setRequestPriority(@Nonnull RequestPriority priority);
+
     @Nonnull
     @Override
     @CheckReturnValue
@@ -23,6 +23,7 @@ import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.DefaultMemberPermissions;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.*;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.internal.utils.Checks;
 
@@ -59,6 +60,11 @@ public interface CommandEditAction extends RestAction<Command>
     @CheckReturnValue
     CommandEditAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    CommandEditAction setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * Replace the command with the provided {@link CommandData}.
      *
@@ -19,6 +19,7 @@ package net.dv8tion.jda.api.requests.restaction;
 import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.internal.utils.Checks;
 
@@ -49,6 +50,11 @@ public interface CommandListUpdateAction extends RestAction<List<Command>>
     @CheckReturnValue
     CommandListUpdateAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    CommandListUpdateAction setRequestPriority(@Nonnull RequestPriority priority);
+
     @Nonnull
     @Override
     @CheckReturnValue
@@ -16,6 +16,8 @@
 
 package net.dv8tion.jda.api.requests.restaction;
 
+import net.dv8tion.jda.api.requests.RequestPriority;
+
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -67,4 +69,12 @@ public interface FluentAuditableRestAction<T, R extends FluentAuditableRestActio
     {
         return (R) AuditableRestAction.super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    default R setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (R) AuditableRestAction.super.setRequestPriority(priority);
+    }
 }
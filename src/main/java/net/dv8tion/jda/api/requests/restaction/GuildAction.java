@@ -21,6 +21,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Icon;
 import net.dv8tion.jda.api.entities.channel.ChannelType;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.api.utils.data.SerializableData;
@@ -63,6 +64,11 @@ public interface GuildAction extends RestAction<Void>
     @CheckReturnValue
     GuildAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    GuildAction setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * Sets the {@link net.dv8tion.jda.api.entities.Icon Icon}
      * for the resulting {@link net.dv8tion.jda.api.entities.Guild Guild}
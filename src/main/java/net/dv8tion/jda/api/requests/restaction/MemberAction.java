@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.User;
 import net.dv8tion.jda.api.entities.UserSnowflake;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 
 import javax.annotation.CheckReturnValue;
@@ -56,6 +57,11 @@ public interface MemberAction extends RestAction<Void>
     @CheckReturnValue
     MemberAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    MemberAction setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * The access token
      *
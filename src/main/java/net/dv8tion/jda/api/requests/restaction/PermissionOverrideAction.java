@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.Permission;
 import net.dv8tion.jda.api.entities.*;
 import net.dv8tion.jda.api.entities.channel.attribute.IPermissionContainer;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.CheckReturnValue;
@@ -58,6 +59,11 @@ public interface PermissionOverrideAction extends AuditableRestAction<Permission
     @CheckReturnValue
     PermissionOverrideAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    PermissionOverrideAction setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * Shortcut for {@code resetAllow().resetDeny()}.
      * <br>The permission override will be empty after this operation
@@ -21,6 +21,7 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Icon;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.emoji.UnicodeEmoji;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.CheckReturnValue;
@@ -60,6 +61,11 @@ public interface RoleAction extends AuditableRestAction<Role>
     @CheckReturnValue
     RoleAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    RoleAction setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * The guild to create the role in
      *
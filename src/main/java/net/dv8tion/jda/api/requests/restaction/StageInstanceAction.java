@@ -17,6 +17,7 @@
 package net.dv8tion.jda.api.requests.restaction;
 
 import net.dv8tion.jda.api.entities.StageInstance;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 
 import javax.annotation.CheckReturnValue;
@@ -47,6 +48,11 @@ public interface StageInstanceAction extends RestAction<StageInstance>
     @CheckReturnValue
     StageInstanceAction deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    StageInstanceAction setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * Sets the topic for the stage instance.
      * <br>This shows up in stage discovery and in the stage view.
@@ -16,6 +16,7 @@
 
 package net.dv8tion.jda.api.requests.restaction.order;
 
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import org.jetbrains.annotations.Unmodifiable;
 
@@ -62,6 +63,11 @@ public interface OrderAction<T, M extends OrderAction<T, M>> extends RestAction<
     @CheckReturnValue
     M deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    M setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * Whether this instance uses ascending order, from the lowest
      * position to the highest.
@@ -16,6 +16,8 @@
 
 package net.dv8tion.jda.api.requests.restaction.pagination;
 
+import net.dv8tion.jda.annotations.Incubating;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.utils.Procedure;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
@@ -153,6 +155,11 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>> extends R
     @CheckReturnValue
     M deadline(long timestamp);
 
+    @Nonnull
+    @Override
+    @CheckReturnValue
+    M setRequestPriority(@Nonnull RequestPriority priority);
+
     /**
      * The supported {@link PaginationOrder PaginationOrders} for this pagination action.
      * <br>All enum values that are not returned will cause a throw for {@link #order(PaginationOrder)}.
@@ -325,6 +332,44 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>> extends R
      */
     boolean isCacheEnabled();
 
+    /**
+     * The amount of pages which should be requested ahead of the consumer.
+     * <br>By default, the next page is only requested once all entities of the current page have been consumed,
+     * which means iteration alternates between waiting for a response and processing the entities.
+     *
+     * <p>With a prefetch of {@code 1}, the next page is requested as soon as the consumer starts processing the current page.
+     * Higher values request more pages ahead, up to the provided amount. Since each request depends on the last entity of the previous page,
+     * these requests are still sent one after another.
+     *
+     * <p>This applies to {@link #iterator()}, {@link #stream()}, {@link #forEachAsync(Procedure)}, {@link #forEachRemainingAsync(Procedure)},
+     * and {@link #subscribe(PaginationSubscriber)}.
+     * When an iteration stops early, the prefetched pages are discarded. If {@link #cache(boolean) caching} is enabled, they are still added to the cache.
+     * <br>Asynchronous iterations wait for the outstanding request before completing, to keep the state of this PaginationAction consistent.
+     * An {@link #iterator()} which is not consumed to the end cannot do this, and the pagination might continue after the prefetched pages.
+     *
+     * @param  pages
+     *         The amount of pages to request ahead, or {@code 0} to disable prefetching
+     *
+     * @throws IllegalArgumentException
+     *         If the provided amount is negative
+     *
+     * @return The current PaginationAction implementation instance
+     */
+    @Nonnull
+    @Incubating
+    @CheckReturnValue
+    M prefetch(int pages);
+
+    /**
+     * The amount of pages which are requested ahead of the consumer.
+     *
+     * @return The prefetch depth
+     *
+     * @see    #prefetch(int)
+     */
+    @Incubating
+    int getPrefetch();
+
     /**
      * The maximum limit that can be used for this PaginationAction
      * <br>Limits provided to {@link #limit(int)} must not be greater
@@ -722,6 +767,52 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>> extends R
     @Blocking
     PaginationIterator<T> iterator();
 
+    /**
+     * Streams all entities of this PaginationAction to the provided subscriber, with backpressure.
+     * <br>This also includes already cached entities similar to {@link #forEachAsync(Procedure)}.
+     *
+     * <p>Entities are only delivered once they have been requested through {@link PaginationSubscription#request(long)},
+     * and new pages are only retrieved when there is outstanding demand, plus the configured {@link #prefetch(int) prefetch}.
+     * This allows slow consumers, such as exports to a file or database, to process the entities at their own pace
+     * without buffering the entire history in memory.
+     *
+     * <p>The subscriber follows the same rules as a {@code java.util.concurrent.Flow.Subscriber}.
+     * Signals are never delivered concurrently, but may be delivered on the thread calling {@link PaginationSubscription#request(long) request}
+     * or on the callback threads of the requests.
+     *
+     * <p><b>Example</b><br>
+     * <pre>{@code
+     * action.prefetch(1).subscribe(new PaginationSubscriber<Message>() {
+     *     private PaginationSubscription subscription;
+     *
+     *     public void onSubscribe(PaginationSubscription subscription) {
+     *         this.subscription = subscription;
+     *         subscription.request(100);
+     *     }
+     *
+     *     public void onNext(Message message) {
+     *         writer.write(message); // request more once the writer has caught up
+     *     }
+     *
+     *     public void onError(Throwable error) {
+     *         error.printStackTrace();
+     *     }
+     *
+     *     public void onComplete() {
+     *         writer.close();
+     *     }
+     * });
+     * }</pre>
+     *
+     * @param  subscriber
+     *         The subscriber to receive the entities
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    @Incubating
+    void subscribe(@Nonnull PaginationSubscriber<? super T> subscriber);
+
     /**
      * Defines the pagination order for a pagination endpoint.
      */
@@ -806,4 +897,68 @@ public interface PaginationAction<T, M extends PaginationAction<T, M>> extends R
             return items.isEmpty();
         }
     }
+
+    /**
+     * Receives the entities of a {@link PaginationAction#subscribe(PaginationSubscriber) subscription}.
+     *
+     * @param <E>
+     *        The type of entity
+     */
+    @Incubating
+    interface PaginationSubscriber<E>
+    {
+        /**
+         * Called once, before any other signal is delivered.
+         * <br>No entities are delivered until they are requested through the provided subscription.
+         *
+         * @param subscription
+         *        The subscription, used to request entities or cancel the subscription
+         */
+        void onSubscribe(@Nonnull PaginationSubscription subscription);
+
+        /**
+         * Called for each requested entity.
+         *
+         * @param entity
+         *        The next entity
+         */
+        void onNext(@Nonnull E entity);
+
+        /**
+         * Called if a request failed, or the subscriber threw an exception.
+         * <br>No further signals are delivered afterwards.
+         *
+         * @param error
+         *        The failure cause
+         */
+        void onError(@Nonnull Throwable error);
+
+        /**
+         * Called once all entities have been delivered.
+         * <br>No further signals are delivered afterwards.
+         */
+        void onComplete();
+    }
+
+    /**
+     * Controls the demand of a {@link PaginationSubscriber}.
+     */
+    @Incubating
+    interface PaginationSubscription
+    {
+        /**
+         * Requests the provided amount of additional entities.
+         * <br>Use {@link Long#MAX_VALUE} to receive all entities without backpressure.
+         *
+         * @param amount
+         *        The amount of entities, must be positive
+         */
+        void request(long amount);
+
+        /**
+         * Cancels the subscription.
+         * <br>Pages which are already requested are discarded, and no further entities are delivered.
+         */
+        void cancel();
+    }
 }
@@ -512,6 +512,10 @@ public class DefaultShardManager implements ShardManager
         ScheduledExecutorService gatewayPool = gatewayPair.executor;
         boolean shutdownGatewayPool = gatewayPair.automaticShutdown;
 
+        ExecutorPair<ScheduledExecutorService> heartbeatPair = resolveExecutor(threadingConfig.getHeartbeatPoolProvider(), shardId);
+        ScheduledExecutorService heartbeatPool = heartbeatPair.executor;
+        boolean shutdownHeartbeatPool = heartbeatPair.automaticShutdown;
+
         ExecutorPair<ExecutorService> callbackPair = resolveExecutor(threadingConfig.getCallbackPoolProvider(), shardId);
         ExecutorService callbackPool = callbackPair.executor;
         boolean shutdownCallbackPool = callbackPair.automaticShutdown;
@@ -530,9 +534,11 @@ public class DefaultShardManager implements ShardManager
         threadingConfig.setRateLimitScheduler(rateLimitScheduler, shutdownRateLimitScheduler);
         threadingConfig.setRateLimitElastic(rateLimitElastic, shutdownRateLimitElastic);
         threadingConfig.setGatewayPool(gatewayPool, shutdownGatewayPool);
+        threadingConfig.setHeartbeatPool(heartbeatPool, shutdownHeartbeatPool);
         threadingConfig.setCallbackPool(callbackPool, shutdownCallbackPool);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
+        threadingConfig.setVirtualThreads(this.threadingConfig.isVirtualThreads());
         MetaConfig metaConfig = new MetaConfig(this.metaConfig.getMaxBufferSize(), this.metaConfig.getContextMap(shardId), this.metaConfig.getCacheFlags(), this.sessionConfig.getFlags());
         RestConfig restConfig = this.restConfigProvider.apply(shardId);
         if (restConfig == null)
@@ -557,6 +563,12 @@ public class DefaultShardManager implements ShardManager
         if (this.sessionConfig.getAudioSendFactory() != null)
             jda.setAudioSendFactory(this.sessionConfig.getAudioSendFactory());
 
+        if (this.sessionConfig.getGatewayRecorderProvider() != null)
+            jda.setGatewayRecorder(this.sessionConfig.getGatewayRecorderProvider().apply(shardId));
+
+        if (this.sessionConfig.getGatewayMetricsProvider() != null)
+            jda.setGatewayMetrics(this.sessionConfig.getGatewayMetricsProvider().apply(shardId));
+
         jda.addEventListener(this.eventConfig.getListeners().toArray());
         this.eventConfig.getListenerProviders().forEach(provider -> jda.addEventListener(provider.apply(shardId)));
 
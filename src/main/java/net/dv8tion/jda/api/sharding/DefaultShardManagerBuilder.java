@@ -16,6 +16,7 @@
 package net.dv8tion.jda.api.sharding;
 
 import com.neovisionaries.ws.client.WebSocketFactory;
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.GatewayEncoding;
 import net.dv8tion.jda.api.OnlineStatus;
 import net.dv8tion.jda.api.audio.factory.IAudioSendFactory;
@@ -25,16 +26,21 @@ import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.hooks.IEventManager;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.GatewayMetrics;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.RestConfig;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.GatewayRecorder;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import net.dv8tion.jda.internal.utils.concurrent.VirtualThreads;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
 import net.dv8tion.jda.internal.utils.config.flags.ConfigFlag;
 import net.dv8tion.jda.internal.utils.config.flags.ShardingConfigFlag;
 import net.dv8tion.jda.internal.utils.config.sharding.*;
@@ -73,6 +79,7 @@ public class  DefaultShardManagerBuilder
     protected int shardsTotal = -1;
     protected int maxReconnectDelay = 900;
     protected int largeThreshold = 250;
+    protected int dispatchLanes = 0;
     protected int maxBufferSize = 2048;
     protected int intents = -1;
     protected String token = null;
@@ -81,12 +88,18 @@ public class  DefaultShardManagerBuilder
     protected IntFunction<? extends Activity> activityProvider = null;
     protected IntFunction<? extends ConcurrentMap<String, String>> contextProvider = null;
     protected IntFunction<? extends IEventManager> eventManagerProvider = null;
+    protected IntFunction<? extends GatewayRecorder> gatewayRecorderProvider = null;
+    protected IntFunction<? extends GatewayMetrics> gatewayMetricsProvider = null;
     protected ThreadPoolProvider<? extends ScheduledExecutorService> rateLimitSchedulerProvider = ThreadPoolProvider.lazy(
         (total) -> Executors.newScheduledThreadPool(Math.max(2, 2 * (int) Math.log(total)), new CountingThreadFactory(() -> "JDA", "RateLimit-Scheduler", true))
     );
+    protected boolean virtualThreads = false;
     protected ThreadPoolProvider<? extends ExecutorService> rateLimitElasticProvider = ThreadPoolProvider.lazy(
         (total) -> {
-            ExecutorService pool = Executors.newCachedThreadPool(new CountingThreadFactory(() -> "JDA", "RateLimit-Elastic", true));
+            ExecutorService pool = virtualThreads ? VirtualThreads.newExecutor(() -> "JDA", "RateLimit-Elastic") : null;
+            if (pool != null)
+                return pool;
+            pool = Executors.newCachedThreadPool(new CountingThreadFactory(() -> "JDA", "RateLimit-Elastic", true));
             if (pool instanceof ThreadPoolExecutor)
             {
                 ((ThreadPoolExecutor) pool).setCorePoolSize(Math.max(1, (int) Math.log(total)));
@@ -98,6 +111,9 @@ public class  DefaultShardManagerBuilder
     protected ThreadPoolProvider<? extends ScheduledExecutorService> gatewayPoolProvider = ThreadPoolProvider.lazy(
         (total) -> Executors.newScheduledThreadPool(Math.max(1, (int) Math.log(total)), new CountingThreadFactory(() -> "JDA", "Gateway"))
     );
+    protected ThreadPoolProvider<? extends ScheduledExecutorService> heartbeatPoolProvider = ThreadPoolProvider.lazy(
+        (total) -> ThreadingConfig.newHeartbeatScheduler(() -> "JDA")
+    );
     protected ThreadPoolProvider<? extends ExecutorService> callbackPoolProvider = null;
     protected ThreadPoolProvider<? extends ExecutorService> eventPoolProvider = null;
     protected ThreadPoolProvider<? extends ScheduledExecutorService> audioPoolProvider = null;
@@ -833,11 +849,14 @@ public class  DefaultShardManagerBuilder
      * <p><b>We recommend to keep this on the default unless you have issues with the decompression</b>
      * <br>This mode might become obligatory in a future version, do not rely on this switch to stay.
      *
+     * <p>{@link net.dv8tion.jda.api.utils.Compression#ZSTD ZSTD} decompresses faster than ZLIB,
+     * but requires the optional {@code com.github.luben:zstd-jni} dependency.
+     *
      * @param  compression
      *         The compression algorithm to use for the gateway connection
      *
      * @throws java.lang.IllegalArgumentException
-     *         If provided with null
+     *         If provided with null, or if {@code ZSTD} is used without zstd-jni being available
      *
      * @return The DefaultShardManagerBuilder instance. Useful for chaining.
      *
@@ -847,6 +866,8 @@ public class  DefaultShardManagerBuilder
     public DefaultShardManagerBuilder setCompression(@Nonnull Compression compression)
     {
         Checks.notNull(compression, "Compression");
+        Checks.check(compression != Compression.ZSTD || ZstdDecompressor.isSupported(),
+            "Cannot use ZSTD compression without the zstd-jni library. Add com.github.luben:zstd-jni to your dependencies.");
         this.compression = compression;
         return this;
     }
@@ -1438,7 +1459,6 @@ public class  DefaultShardManagerBuilder
      *     <li>Voice States - (Dis-)Connecting from channels</li>
      *     <li>Presence - Changing current activity or online status</li>
      *     <li>Guild Setup - Requesting Members of newly joined guilds</li>
-     *     <li>Heartbeats - Regular updates to keep the connection alive (usually once a minute)</li>
      * </ul>
      * When nothing has to be sent the pool will only be used every 500 milliseconds to check the queue for new payloads.
      * Once a new payload is sent we switch to "rapid mode" which means more tasks will be submitted until no more payloads
@@ -1468,7 +1488,6 @@ public class  DefaultShardManagerBuilder
      *     <li>Voice States - (Dis-)Connecting from channels</li>
      *     <li>Presence - Changing current activity or online status</li>
      *     <li>Guild Setup - Requesting Members of newly joined guilds</li>
-     *     <li>Heartbeats - Regular updates to keep the connection alive (usually once a minute)</li>
      * </ul>
      * When nothing has to be sent the pool will only be used every 500 milliseconds to check the queue for new payloads.
      * Once a new payload is sent we switch to "rapid mode" which means more tasks will be submitted until no more payloads
@@ -1499,7 +1518,6 @@ public class  DefaultShardManagerBuilder
      *     <li>Voice States - (Dis-)Connecting from channels</li>
      *     <li>Presence - Changing current activity or online status</li>
      *     <li>Guild Setup - Requesting Members of newly joined guilds</li>
-     *     <li>Heartbeats - Regular updates to keep the connection alive (usually once a minute)</li>
      * </ul>
      * When nothing has to be sent the pool will only be used every 500 milliseconds to check the queue for new payloads.
      * Once a new payload is sent we switch to "rapid mode" which means more tasks will be submitted until no more payloads
@@ -1519,6 +1537,52 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Sets the {@link ScheduledExecutorService ScheduledExecutorService} used to send the heartbeats of the main WebSocket connections.
+     * <br><b>Only change this pool if you know what you're doing.</b>
+     * <br>This will override the pool provider set from {@link #setHeartbeatPoolProvider(ThreadPoolProvider)}.
+     *
+     * <p>Heartbeats are isolated from the {@link #setGatewayPool(ScheduledExecutorService, boolean) gateway pool},
+     * so they are still sent on time while the shards are busy with large guild payloads or member chunks.
+     * The pool should therefore not be used for any other tasks.
+     *
+     * <p>Default: Shared {@link ScheduledThreadPoolExecutor} with a single high priority thread.
+     *
+     * @param  pool
+     *         The thread-pool to use for heartbeats
+     * @param  automaticShutdown
+     *         Whether {@link net.dv8tion.jda.api.JDA#shutdown()} should automatically shutdown this pool
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setHeartbeatPool(@Nullable ScheduledExecutorService pool, boolean automaticShutdown)
+    {
+        return setHeartbeatPoolProvider(pool == null ? null : new ThreadPoolProviderImpl<>(pool, automaticShutdown));
+    }
+
+    /**
+     * Sets the {@link ScheduledExecutorService ScheduledExecutorService} provider used to send the heartbeats of the main WebSocket connections.
+     * <br><b>Only change this pool if you know what you're doing.</b>
+     *
+     * <p>Heartbeats are isolated from the {@link #setGatewayPoolProvider(ThreadPoolProvider) gateway pool},
+     * so they are still sent on time while the shards are busy with large guild payloads or member chunks.
+     * Providing {@code null} will create a dedicated heartbeat thread for each shard.
+     *
+     * <p>Default: Shared {@link ScheduledThreadPoolExecutor} with a single high priority thread.
+     *
+     * @param  provider
+     *         The thread-pool provider to use for heartbeats
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setHeartbeatPoolProvider(@Nullable ThreadPoolProvider<? extends ScheduledExecutorService> provider)
+    {
+        this.heartbeatPoolProvider = provider;
+        return this;
+    }
+
     /**
      * Sets the {@link ExecutorService ExecutorService} that should be used in
      * the JDA callback handler which mostly consists of {@link net.dv8tion.jda.api.requests.RestAction RestAction} callbacks.
@@ -1721,6 +1785,35 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Whether JDA should use virtual threads for the default thread-pools, if the runtime supports them (Java 21+).
+     * <br>This applies to the default {@link #setRateLimitElasticProvider(ThreadPoolProvider) rate-limit elastic pool},
+     * the {@link #setCallbackPoolProvider(ThreadPoolProvider) callback pool}, and the {@link #setAudioPoolProvider(ThreadPoolProvider) audio pool}.
+     * Pools configured explicitly are not replaced. If virtual threads are not supported, JDA falls back to the platform thread pools.
+     *
+     * <p>With virtual threads, blocking calls such as {@link net.dv8tion.jda.api.requests.RestAction#complete() RestAction.complete()}
+     * inside callbacks no longer occupy a platform thread while waiting.
+     * This is especially useful with many shards, where the per-shard pools would otherwise add up to thousands of mostly idle threads.
+     *
+     * <p>The event pool is not affected, since events are handled sequentially on the gateway thread by default.
+     * To handle events on virtual threads, use {@link #setEventPoolProvider(ThreadPoolProvider)} with
+     * {@code Executors.newVirtualThreadPerTaskExecutor()}. Note that events will then be handled out of order.
+     *
+     * <p>Default: {@code false}
+     *
+     * @param  enabled
+     *         True, to use virtual threads
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    @Incubating
+    public DefaultShardManagerBuilder setVirtualThreads(boolean enabled)
+    {
+        this.virtualThreads = enabled;
+        return this;
+    }
+
     /**
      * Sets the maximum amount of time that JDA will back off to wait when attempting to reconnect the MainWebsocket.
      * <br>Provided value must be 32 or greater.
@@ -1744,6 +1837,85 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Enables parallel handling of gateway events, by distributing the events of different guilds onto
+     * the provided amount of ordered lanes.
+     * <br>Events of the same guild are always handled in order, on the same lane.
+     * Events like READY, guild setup, voice updates and events without a guild are still handled in sequence,
+     * after all lanes have caught up.
+     *
+     * <p>This allows a single large shard to use more than one core for cache updates.
+     * When enabled, your event listeners must be thread-safe, as events of different guilds can fire concurrently.
+     *
+     * <p>Default: {@code 0} (disabled)
+     *
+     * @param  lanes
+     *         The amount of lanes, or {@code 0} to handle all events on the websocket thread
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If the provided amount is negative
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    @Incubating
+    public DefaultShardManagerBuilder setDispatchLanes(int lanes)
+    {
+        Checks.notNegative(lanes, "Lanes");
+        this.dispatchLanes = lanes;
+        return this;
+    }
+
+    /**
+     * Records all frames received on the gateway connections using the {@link GatewayRecorder} provided for each shard id.
+     * <br>A recorder can only be used by a single shard. The recordings can later be replayed using
+     * {@link net.dv8tion.jda.api.JDABuilder#buildReplay(net.dv8tion.jda.api.utils.GatewayRecording) JDABuilder.buildReplay(GatewayRecording)},
+     * to benchmark event handling without a network connection.
+     *
+     * <p>The recorders are not closed by JDA, you should close them after shutting down the shards.
+     *
+     * <p>Default: {@code null} (disabled)
+     *
+     * @param  gatewayRecorderProvider
+     *         The provider for the recorder of each shard, or null to disable recording.
+     *         The provider may return null to skip recording a shard.
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    GatewayRecorder
+     */
+    @Nonnull
+    @Incubating
+    public DefaultShardManagerBuilder setGatewayRecorderProvider(@Nullable IntFunction<? extends GatewayRecorder> gatewayRecorderProvider)
+    {
+        this.gatewayRecorderProvider = gatewayRecorderProvider;
+        return this;
+    }
+
+    /**
+     * Reports measurements of the gateway connections to the {@link GatewayMetrics} provided for each shard id.
+     * <br>This includes frame sizes, decompression and parsing time, handler time for each event type,
+     * outgoing queue sizes, and the heartbeat round-trip time.
+     * The same instance may be returned for multiple shards, if it is thread-safe.
+     *
+     * <p>Default: {@code null} (disabled)
+     *
+     * @param  gatewayMetricsProvider
+     *         The provider for the metrics receiver of each shard, or null to disable measurements.
+     *         The provider may return null to skip a shard.
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    GatewayMetrics
+     */
+    @Nonnull
+    @Incubating
+    public DefaultShardManagerBuilder setGatewayMetricsProvider(@Nullable IntFunction<? extends GatewayMetrics> gatewayMetricsProvider)
+    {
+        this.gatewayMetricsProvider = gatewayMetricsProvider;
+        return this;
+    }
+
     /**
      * Whether the Requester should retry when
      * a {@link java.net.SocketTimeoutException SocketTimeoutException} occurs.
@@ -2296,8 +2468,8 @@ public class  DefaultShardManagerBuilder
         presenceConfig.setActivityProvider(activityProvider);
         presenceConfig.setStatusProvider(statusProvider);
         presenceConfig.setIdleProvider(idleProvider);
-        final ThreadingProviderConfig threadingConfig = new ThreadingProviderConfig(rateLimitSchedulerProvider, rateLimitElasticProvider, gatewayPoolProvider, callbackPoolProvider, eventPoolProvider, audioPoolProvider, threadFactory);
-        final ShardingSessionConfig sessionConfig = new ShardingSessionConfig(sessionController, voiceDispatchInterceptor, httpClient, httpClientBuilder, wsFactory, audioSendFactory, flags, shardingFlags, maxReconnectDelay, largeThreshold);
+        final ThreadingProviderConfig threadingConfig = new ThreadingProviderConfig(rateLimitSchedulerProvider, rateLimitElasticProvider, gatewayPoolProvider, heartbeatPoolProvider, callbackPoolProvider, eventPoolProvider, audioPoolProvider, threadFactory, virtualThreads);
+        final ShardingSessionConfig sessionConfig = new ShardingSessionConfig(sessionController, voiceDispatchInterceptor, httpClient, httpClientBuilder, wsFactory, audioSendFactory, flags, shardingFlags, maxReconnectDelay, largeThreshold, dispatchLanes, gatewayRecorderProvider, gatewayMetricsProvider);
         final ShardingMetaConfig metaConfig = new ShardingMetaConfig(maxBufferSize, contextProvider, cacheFlags, flags, compression, encoding);
         final DefaultShardManager manager = new DefaultShardManager(this.token, this.shards, shardingConfig, eventConfig, presenceConfig, threadingConfig, sessionConfig, metaConfig, restConfigProvider, chunkingFilter);
 
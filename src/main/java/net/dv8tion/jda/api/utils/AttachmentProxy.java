@@ -15,6 +15,7 @@
  */
 package net.dv8tion.jda.api.utils;
 
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.entities.Icon;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.FutureUtil;
@@ -57,6 +58,14 @@ public class AttachmentProxy extends FileProxy
         return (AttachmentProxy) super.withClient(customHttpClient);
     }
 
+    @Nonnull
+    @Override
+    @Incubating
+    public AttachmentProxy withCache(@Nonnull DownloadCache cache)
+    {
+        return (AttachmentProxy) super.withCache(cache);
+    }
+
     /**
      * Returns the attachment URL for the specified width and height.
      * <br>The width and height is a best-effort resize from Discord.
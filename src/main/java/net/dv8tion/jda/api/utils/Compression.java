@@ -29,7 +29,14 @@ public enum Compression
     /** Don't use any compression */
     NONE(""),
     /** Use ZLIB transport compression */
-    ZLIB("zlib-stream");
+    ZLIB("zlib-stream"),
+    /**
+     * Use Zstandard transport compression.
+     *
+     * <p>This requires the optional <a href="https://github.com/luben/zstd-jni" target="_blank">{@code com.github.luben:zstd-jni}</a>
+     * dependency to be present on the classpath.
+     */
+    ZSTD("zstd-stream");
 
     private final String key;
 
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.annotations.Incubating;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.DiskDownloadCache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Cache for files downloaded by {@link FileProxy} and {@link ImageProxy}.
+ * <br>Files are identified by their full URL, which includes the requested size of images.
+ *
+ * <p>While a file is being downloaded into the cache, other downloads of the same URL wait for it to complete,
+ * instead of downloading the same file again.
+ *
+ * @see FileProxy#setDefaultCache(DownloadCache)
+ * @see FileProxy#withCache(DownloadCache)
+ */
+@Incubating
+public interface DownloadCache
+{
+    /**
+     * Opens the cached data for the provided URL.
+     *
+     * @param  url
+     *         The URL of the file
+     *
+     * @throws IOException
+     *         If the cached file cannot be opened
+     *
+     * @return {@link InputStream} of the cached data, or null if the file is not cached
+     */
+    @Nullable
+    InputStream get(@Nonnull String url) throws IOException;
+
+    /**
+     * Stores the data for the provided URL, replacing any previous data.
+     * <br>The stream is read completely, but not closed.
+     *
+     * @param  url
+     *         The URL of the file
+     * @param  data
+     *         The data to store
+     *
+     * @throws IOException
+     *         If the data cannot be read or stored
+     */
+    void put(@Nonnull String url, @Nonnull InputStream data) throws IOException;
+
+    /**
+     * Removes the cached data for the provided URL.
+     *
+     * @param  url
+     *         The URL of the file
+     *
+     * @return True, if the file was cached
+     */
+    boolean remove(@Nonnull String url);
+
+    /**
+     * Removes all cached files.
+     */
+    void clear();
+
+    /**
+     * The total size of all cached files in bytes.
+     *
+     * @return The current size
+     */
+    long getSize();
+
+    /**
+     * Creates a cache which stores the files in the provided directory.
+     * <br>Files are stored under the hash of their URL. The least recently used files are deleted
+     * once the total size of the cache exceeds the provided limit.
+     *
+     * <p>Files which are already in the directory are reused, which allows the cache to persist across restarts.
+     * The directory should not be used for anything else, and only one instance should use it at a time.
+     *
+     * @param  directory
+     *         The directory to store the files in, which is created if it does not exist
+     * @param  maxSize
+     *         The maximum total size of all cached files in bytes
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or the size is not positive
+     * @throws UncheckedIOException
+     *         If the directory cannot be created or read
+     *
+     * @return The disk cache
+     */
+    @Nonnull
+    static DownloadCache fromDirectory(@Nonnull Path directory, long maxSize)
+    {
+        Checks.notNull(directory, "Directory");
+        Checks.positive(maxSize, "Max size");
+        return new DiskDownloadCache(directory, maxSize);
+    }
+}
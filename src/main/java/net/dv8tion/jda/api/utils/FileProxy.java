@@ -15,6 +15,7 @@
  */
 package net.dv8tion.jda.api.utils;
 
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.entities.Icon;
 import net.dv8tion.jda.api.exceptions.HttpException;
 import net.dv8tion.jda.api.requests.RestConfig;
@@ -29,24 +30,37 @@ import okhttp3.Request;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.UncheckedIOException;
 import java.nio.file.*;
+import java.util.AbstractMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
 /**
  * A utility class to download files.
+ *
+ * <p>Downloads can be cached on disk with a {@link DownloadCache}, see {@link #setDefaultCache(DownloadCache)}.
+ * The amount of concurrent downloads is limited by the {@link okhttp3.Dispatcher Dispatcher} of the {@link OkHttpClient}.
  */
 public class FileProxy
 {
+    // Downloads into a cache which are currently in progress, keyed by the cache and the url
+    private static final ConcurrentMap<Map.Entry<DownloadCache, String>, CompletableFuture<Void>> CACHE_DOWNLOADS = new ConcurrentHashMap<>();
+
     private static volatile OkHttpClient defaultHttpClient;
+    private static volatile DownloadCache defaultCache;
 
     private final String url;
     private OkHttpClient customHttpClient;
+    private DownloadCache customCache;
 
     /**
      * Constructs a new {@link FileProxy} for the provided URL.
@@ -79,6 +93,22 @@ public class FileProxy
         FileProxy.defaultHttpClient = httpClient;
     }
 
+    /**
+     * Sets the default {@link DownloadCache} used by {@link FileProxy} and {@link ImageProxy}.
+     * <br>This can still be overridden on a per-instance basis with {@link #withCache(DownloadCache)}.
+     *
+     * <p>Files which are in the cache are read from disk instead of being downloaded again.
+     * Concurrent downloads of the same URL are combined into a single request.
+     *
+     * @param  cache
+     *         The default {@link DownloadCache} to use, or null to disable caching
+     */
+    @Incubating
+    public static void setDefaultCache(@Nullable DownloadCache cache)
+    {
+        FileProxy.defaultCache = cache;
+    }
+
     /**
      * Returns the URL that has been passed to this proxy.
      * <br>This URL is always from Discord.
@@ -110,9 +140,35 @@ public class FileProxy
         return this;
     }
 
+    /**
+     * Sets the custom {@link DownloadCache} used by this instance, regardless of if {@link #setDefaultCache(DownloadCache)} has been used or not.
+     *
+     * @param  cache
+     *         The custom {@link DownloadCache} to use for downloads
+     *
+     * @throws IllegalArgumentException
+     *         If the provided {@link DownloadCache} is null
+     *
+     * @return This proxy for chaining convenience.
+     */
+    @Nonnull
+    @Incubating
+    public FileProxy withCache(@Nonnull DownloadCache cache)
+    {
+        Checks.notNull(cache, "Cache");
+        this.customCache = cache;
+        return this;
+    }
+
 
     // INTERNAL DOWNLOAD METHODS
 
+    @Nullable
+    protected DownloadCache getCache()
+    {
+        return customCache != null ? customCache : defaultCache;
+    }
+
     protected OkHttpClient getHttpClient()
     {
         // Return custom HTTP client if set
@@ -152,6 +208,10 @@ public class FileProxy
         //    If we did not do this, CF#cancel would have only cancelled the *last* CompletableFuture, so the download would still have occurred for example
         // So since we return a completely different future, we need to use #complete / #completeExceptionally manually,
         //     i.e. When the underlying CompletableFuture (the actual download task) has completed in any state
+        final DownloadCache cache = getCache();
+        if (cache != null)
+            return downloadCached(cache, url);
+
         final DownloadTask downloadTask = downloadInternal(url);
 
         return FutureUtil.thenApplyCancellable(downloadTask.getFuture(), Function.identity(), downloadTask::cancelCall);
@@ -185,6 +245,92 @@ public class FileProxy
         return new DownloadTask(newCall, future);
     }
 
+    private CompletableFuture<InputStream> downloadCached(DownloadCache cache, String url)
+    {
+        final CompletableFuture<InputStream> future = new CompletableFuture<>();
+        try
+        {
+            final InputStream cached = cache.get(url);
+            if (cached != null)
+            {
+                future.complete(cached);
+                return future;
+            }
+        }
+        catch (IOException e)
+        {
+            future.completeExceptionally(new UncheckedIOException(e));
+            return future;
+        }
+
+        // Cancelling this future only stops waiting, the shared download still completes for the other callers
+        downloadIntoCache(cache, url).whenComplete((ignored, error) ->
+        {
+            if (future.isDone())
+                return;
+            if (error != null)
+            {
+                future.completeExceptionally(error);
+                return;
+            }
+
+            try
+            {
+                final InputStream cached = cache.get(url);
+                if (cached == null)
+                {
+                    // The file was already evicted again, this only happens when the cache is too small
+                    future.completeExceptionally(new IllegalStateException("Downloaded file was evicted from the cache before it could be read"));
+                }
+                else if (!future.complete(cached))
+                {
+                    IOUtil.silentClose(cached);
+                }
+            }
+            catch (IOException e)
+            {
+                future.completeExceptionally(new UncheckedIOException(e));
+            }
+        });
+
+        return future;
+    }
+
+    private CompletableFuture<Void> downloadIntoCache(DownloadCache cache, String url)
+    {
+        final Map.Entry<DownloadCache, String> key = new AbstractMap.SimpleImmutableEntry<>(cache, url);
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final CompletableFuture<Void> existing = CACHE_DOWNLOADS.putIfAbsent(key, future);
+        if (existing != null)
+            return existing;
+
+        future.whenComplete((ignored, error) -> CACHE_DOWNLOADS.remove(key, future));
+        downloadInternal(url).getFuture().whenComplete((stream, error) ->
+        {
+            if (error != null)
+            {
+                future.completeExceptionally(error);
+                return;
+            }
+
+            try (final InputStream ignored = stream)
+            {
+                cache.put(url, stream);
+                future.complete(null);
+            }
+            catch (IOException e)
+            {
+                future.completeExceptionally(new UncheckedIOException(e));
+            }
+            catch (RuntimeException e)
+            {
+                future.completeExceptionally(e);
+            }
+        });
+
+        return future;
+    }
+
     @Nonnull
     @CheckReturnValue
     protected CompletableFuture<Icon> downloadAsIcon(String url)
@@ -232,9 +378,22 @@ public class FileProxy
             Checks.check(Files.isWritable(absolute), "File at '%s' is not writable.", absolute);
         }
 
-        final DownloadTask downloadTask = downloadInternal(url);
+        final CompletableFuture<InputStream> download;
+        final Runnable onCancel;
+        final DownloadCache cache = getCache();
+        if (cache != null)
+        {
+            download = downloadCached(cache, url);
+            onCancel = null;
+        }
+        else
+        {
+            final DownloadTask downloadTask = downloadInternal(url);
+            download = downloadTask.getFuture();
+            onCancel = downloadTask::cancelCall;
+        }
 
-        return FutureUtil.thenApplyCancellable(downloadTask.getFuture(), stream -> {
+        return FutureUtil.thenApplyCancellable(download, stream -> {
             try
             {
                 //Temporary file follows this pattern: filename + random_number + ".part"
@@ -256,7 +415,7 @@ public class FileProxy
             {
                 IOUtil.silentClose(stream);
             }
-        }, downloadTask::cancelCall);
+        }, onCancel);
     }
 
 
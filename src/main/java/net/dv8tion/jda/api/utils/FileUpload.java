@@ -22,6 +22,7 @@ import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.requestbody.DataSupplierBody;
+import net.dv8tion.jda.internal.utils.requestbody.FileChannelBody;
 import net.dv8tion.jda.internal.utils.requestbody.TypedBody;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
@@ -33,10 +34,13 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.function.Supplier;
 
@@ -51,6 +55,9 @@ public class FileUpload implements Closeable, AttachedFile
 {
     private final InputStream resource;
     private final Supplier<? extends Source> resourceSupplier;
+    private final Path path;
+    private final OpenOption[] options;
+    private final FileChannel channel;
     private String name;
     private TypedBody<?> body;
     private String description;
@@ -62,6 +69,9 @@ public class FileUpload implements Closeable, AttachedFile
     {
         this.resource = resource;
         this.resourceSupplier = null;
+        this.path = null;
+        this.options = null;
+        this.channel = null;
         this.name = name;
     }
 
@@ -69,9 +79,40 @@ public class FileUpload implements Closeable, AttachedFile
     {
         this.resourceSupplier = resourceSupplier;
         this.resource = null;
+        this.path = null;
+        this.options = null;
+        this.channel = null;
         this.name = name;
     }
 
+    protected FileUpload(Path path, OpenOption[] options, String name)
+    {
+        this.resourceSupplier = () ->
+        {
+            try
+            {
+                return Okio.source(Files.newInputStream(path, options));
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Could not open file for specified path. Path: " + path, e);
+            }
+        };
+        this.resource = null;
+        this.path = path;
+        this.options = options;
+        this.name = name;
+        try
+        {
+            // Opened right away, so the file can still be read after it was moved or deleted
+            this.channel = FileChannel.open(path, options);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not open file for specified path. Path: " + path, e);
+        }
+    }
+
     /**
      * Creates a FileUpload that sources its data from the supplier.
      * <br>The supplier <em>must</em> return a new stream on every call.
@@ -180,8 +221,12 @@ public class FileUpload implements Closeable, AttachedFile
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens a {@link FileInputStream}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>This opens a {@link FileChannel}, which will be closed on consumption by the request.
+     * You can use {@link FileUpload#close()} to close the channel manually.
+     * The file is streamed directly from the channel, which means it is never loaded into memory completely,
+     * and failed requests can be retried by reading the channel again.
+     * Since the file is opened immediately, it may be moved or deleted after queueing the request, where the file system allows it.
+     * If the upload is used for another request after the channel was closed, the file is opened again.
      *
      * @param  file
      *         The {@link File} to upload
@@ -191,32 +236,30 @@ public class FileUpload implements Closeable, AttachedFile
      * @throws IllegalArgumentException
      *         If null is provided or the name is empty
      * @throws UncheckedIOException
-     *         If an IOException is thrown while opening the file
+     *         If the file does not exist or cannot be read
      *
      * @return {@link FileUpload}
-     *
-     * @see    java.io.FileInputStream FileInputStream
      */
     @Nonnull
     public static FileUpload fromData(@Nonnull File file, @Nonnull String name)
     {
         Checks.notNull(file, "File");
-        try
-        {
-            return fromData(new FileInputStream(file), name);
-        }
-        catch (FileNotFoundException e)
-        {
-            throw new UncheckedIOException(e);
-        }
+        Checks.notBlank(name, "Name");
+        if (!file.isFile() || !file.canRead())
+            throw new UncheckedIOException(new FileNotFoundException(file.getPath() + " (File does not exist or cannot be read)"));
+        return new FileUpload(file.toPath(), new OpenOption[0], name);
     }
 
     /**
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens a {@link FileInputStream}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>This opens a {@link FileChannel}, which will be closed on consumption by the request.
+     * You can use {@link FileUpload#close()} to close the channel manually.
+     * The file is streamed directly from the channel, which means it is never loaded into memory completely,
+     * and failed requests can be retried by reading the channel again.
+     * Since the file is opened immediately, it may be moved or deleted after queueing the request, where the file system allows it.
+     * If the upload is used for another request after the channel was closed, the file is opened again.
      *
      * @param  file
      *         The {@link File} to upload
@@ -224,33 +267,31 @@ public class FileUpload implements Closeable, AttachedFile
      * @throws IllegalArgumentException
      *         If null is provided
      * @throws UncheckedIOException
-     *         If an IOException is thrown while opening the file
+     *         If the file does not exist or cannot be read
      *
      * @return {@link FileUpload}
      *
-     * @see    java.io.FileInputStream FileInputStream
      * @see    #fromData(File, String)
      */
     @Nonnull
     public static FileUpload fromData(@Nonnull File file)
     {
         Checks.notNull(file, "File");
-        try
-        {
-            return fromData(new FileInputStream(file), file.getName());
-        }
-        catch (FileNotFoundException e)
-        {
-            throw new UncheckedIOException(e);
-        }
+        return fromData(file, file.getName());
     }
 
     /**
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>This opens a {@link FileChannel}, which will be closed on consumption by the request.
+     * You can use {@link FileUpload#close()} to close the channel manually.
+     * The file is streamed directly from the channel, which means it is never loaded into memory completely,
+     * and failed requests can be retried by reading the channel again.
+     * Since the file is opened immediately, it may be moved or deleted after queueing the request, where the file system allows it.
+     * If the upload is used for another request after the channel was closed, the file is opened again.
+     * If {@link StandardOpenOption#DELETE_ON_CLOSE} is used, the file is instead opened immediately
+     * using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
      *
      * @param  path
      *         The {@link Path} of the file to upload
@@ -272,6 +313,10 @@ public class FileUpload implements Closeable, AttachedFile
         Checks.notNull(path, "Path");
         Checks.noneNull(options, "Options");
         Checks.check(Files.isReadable(path), "File for specified path cannot be read. Path: %s", path);
+        Checks.notBlank(name, "Name");
+        if (!Arrays.asList(options).contains(StandardOpenOption.DELETE_ON_CLOSE))
+            return new FileUpload(path, options.clone(), name);
+        // The file cannot be opened again for retries, so this has to use a single stream instead
         try
         {
             return fromData(Files.newInputStream(path, options), name);
@@ -287,8 +332,14 @@ public class FileUpload implements Closeable, AttachedFile
      * <br>This is used to upload data to discord for various purposes.
      * Uses {@link Path#getFileName()} to specify the name of the file, to customize the filename use {@link #fromData(Path, String, OpenOption...)}.
      *
-     * <p>This opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>This opens a {@link FileChannel}, which will be closed on consumption by the request.
+     * You can use {@link FileUpload#close()} to close the channel manually.
+     * The file is streamed directly from the channel, which means it is never loaded into memory completely,
+     * and failed requests can be retried by reading the channel again.
+     * Since the file is opened immediately, it may be moved or deleted after queueing the request, where the file system allows it.
+     * If the upload is used for another request after the channel was closed, the file is opened again.
+     * If {@link StandardOpenOption#DELETE_ON_CLOSE} is used, the file is instead opened immediately
+     * using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
      *
      * @param  path
      *         The {@link Path} of the file to upload
@@ -469,6 +520,8 @@ public class FileUpload implements Closeable, AttachedFile
      *
      * <p>This body will automatically close the {@link #getData() resource} when the request is done.
      * However, since the body buffers the data, it can be used multiple times regardless.
+     * Uploads created from a {@link File} or {@link Path} are not buffered, instead the file is read again every time the body is written.
+     * Once the request is done, the file is opened again from its path.
      *
      * @param  type
      *         The content-type to use for the body (e.g. {@code "application/octet-stream"})
@@ -485,7 +538,9 @@ public class FileUpload implements Closeable, AttachedFile
         if (body != null) // This allows FileUpload to be used more than once!
             return body.withType(type);
 
-        if (resource == null)
+        if (path != null)
+            return body = new FileChannelBody(type, path, channel, options);
+        else if (resource == null)
             return body = new DataSupplierBody(type, resourceSupplier);
         else
             return body = IOUtil.createRequestBody(type, resource);
@@ -527,6 +582,8 @@ public class FileUpload implements Closeable, AttachedFile
     {
         if (resource != null)
             resource.close();
+        if (channel != null)
+            channel.close();
     }
 
     @Override
@@ -535,6 +592,8 @@ public class FileUpload implements Closeable, AttachedFile
     {
         if (body == null && resource != null) // Only close if the resource was never used
             IOUtil.silentClose(resource);
+        if (body == null && channel != null)
+            IOUtil.silentClose(channel);
     }
 
     @Override
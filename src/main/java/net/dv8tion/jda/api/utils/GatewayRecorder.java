@@ -0,0 +1,231 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.annotations.Incubating;
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Records the frames received on the main gateway connection of a JDA session into a stream.
+ *
+ * <p>The recording can be read again using {@link GatewayRecording} and replayed into a fresh JDA instance
+ * with {@link net.dv8tion.jda.api.JDABuilder#buildReplay(GatewayRecording) JDABuilder.buildReplay(GatewayRecording)}.
+ * This drives the same event handlers and entity cache as a live session, without any network connection,
+ * which gives a reproducible way to measure the impact of cache settings or library upgrades.
+ *
+ * <p>A recorder can only be used by a single session. JDA does not close the recorder,
+ * you should call {@link #close()} after shutting down the session to flush all remaining frames.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * GatewayRecorder recorder = GatewayRecorder.open(Paths.get("gateway.rec"), GatewayRecorder.Mode.DECOMPRESSED);
+ * JDA jda = JDABuilder.createDefault(token)
+ *     .setGatewayRecorder(recorder)
+ *     .build();
+ * }</pre>
+ *
+ * <p><b>Recordings contain the full payloads sent by Discord, including message contents and user information.</b>
+ *
+ * @see net.dv8tion.jda.api.JDABuilder#setGatewayRecorder(GatewayRecorder)
+ * @see net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder#setGatewayRecorderProvider(java.util.function.IntFunction)
+ */
+@Incubating
+public class GatewayRecorder implements Closeable
+{
+    static final int MAGIC = 0x4A444147; // JDAG
+    static final int VERSION = 1;
+
+    private static final Logger LOG = JDALogger.getLog(GatewayRecorder.class);
+
+    private final DataOutputStream output;
+    private final Mode mode;
+    private final long startTime = System.nanoTime();
+    private boolean started = false;
+    private boolean closed = false;
+
+    /**
+     * Creates a new recorder which writes to the provided stream.
+     *
+     * @param  output
+     *         The stream to write the recording to
+     * @param  mode
+     *         Whether to record the frames before or after decompression
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public GatewayRecorder(@Nonnull OutputStream output, @Nonnull Mode mode)
+    {
+        Checks.notNull(output, "Output");
+        Checks.notNull(mode, "Mode");
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+        this.mode = mode;
+    }
+
+    /**
+     * Creates a new recorder which writes to the provided file.
+     * <br>An existing file is truncated.
+     *
+     * @param  file
+     *         The file to write the recording to
+     * @param  mode
+     *         Whether to record the frames before or after decompression
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     * @throws IOException
+     *         If the file cannot be opened for writing
+     *
+     * @return The recorder
+     */
+    @Nonnull
+    public static GatewayRecorder open(@Nonnull Path file, @Nonnull Mode mode) throws IOException
+    {
+        Checks.notNull(file, "File");
+        return new GatewayRecorder(Files.newOutputStream(file), mode);
+    }
+
+    /**
+     * Whether frames are recorded before or after decompression.
+     *
+     * @return The {@link Mode}
+     */
+    @Nonnull
+    public Mode getMode()
+    {
+        return mode;
+    }
+
+    /**
+     * Writes the header of the recording.
+     * <br>This is called by JDA when the recorder is attached to a session.
+     *
+     * @param  compression
+     *         The transport compression of the session
+     * @param  encoding
+     *         The encoding of the session
+     *
+     * @throws IllegalStateException
+     *         If this recorder is already used by another session
+     */
+    public synchronized void start(@Nonnull Compression compression, @Nonnull GatewayEncoding encoding)
+    {
+        if (started)
+            throw new IllegalStateException("This recorder is already used by another session");
+        started = true;
+        Compression recorded = mode == Mode.COMPRESSED ? compression : Compression.NONE;
+        try
+        {
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeUTF(recorded.name());
+            output.writeUTF(encoding.name());
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records the start of a new connection.
+     * <br>This is called by JDA whenever the socket connects, which resets the compression context.
+     */
+    public void recordConnect()
+    {
+        write(GatewayRecording.FrameType.CONNECT, new byte[0], 0, 0);
+    }
+
+    /**
+     * Records a received frame.
+     * <br>This is called by JDA for every frame of the gateway connection.
+     *
+     * @param  data
+     *         The frame data
+     * @param  offset
+     *         The offset of the frame in the array
+     * @param  length
+     *         The length of the frame
+     * @param  binary
+     *         Whether this was a binary frame
+     */
+    public void recordFrame(@Nonnull byte[] data, int offset, int length, boolean binary)
+    {
+        write(binary ? GatewayRecording.FrameType.BINARY : GatewayRecording.FrameType.TEXT, data, offset, length);
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (closed)
+            return;
+        closed = true;
+        output.close();
+    }
+
+    private synchronized void write(GatewayRecording.FrameType type, byte[] data, int offset, int length)
+    {
+        if (closed)
+            return;
+        try
+        {
+            output.writeByte(type.ordinal());
+            output.writeLong(System.nanoTime() - startTime);
+            output.writeInt(length);
+            output.write(data, offset, length);
+        }
+        catch (IOException e)
+        {
+            fail(e);
+        }
+    }
+
+    private void fail(IOException e)
+    {
+        LOG.error("Failed to write gateway recording, the recording has been stopped", e);
+        closed = true;
+        try
+        {
+            output.close();
+        }
+        catch (IOException ignored) {}
+    }
+
+    /**
+     * The point at which frames are recorded.
+     */
+    public enum Mode
+    {
+        /**
+         * Records the frames as they are received from the socket.
+         * <br>Replaying such a recording also measures the decompression.
+         */
+        COMPRESSED,
+        /**
+         * Records the frames after decompression.
+         */
+        DECOMPRESSED
+    }
+}
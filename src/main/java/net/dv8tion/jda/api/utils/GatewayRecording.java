@@ -0,0 +1,219 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.annotations.Incubating;
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Reads a recording created by a {@link GatewayRecorder}.
+ *
+ * <p>Frames are read sequentially using {@link #next()}, this can be used to inspect a recording
+ * or to replay it using {@link net.dv8tion.jda.api.JDABuilder#buildReplay(GatewayRecording) JDABuilder.buildReplay(GatewayRecording)}.
+ *
+ * @see GatewayRecorder
+ */
+@Incubating
+public class GatewayRecording implements Closeable
+{
+    private final DataInputStream input;
+    private final Compression compression;
+    private final GatewayEncoding encoding;
+
+    /**
+     * Reads the header of a recording from the provided stream.
+     *
+     * @param  input
+     *         The stream to read the recording from
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     * @throws IOException
+     *         If the stream does not contain a supported recording
+     */
+    public GatewayRecording(@Nonnull InputStream input) throws IOException
+    {
+        Checks.notNull(input, "Input");
+        this.input = new DataInputStream(new BufferedInputStream(input));
+        if (this.input.readInt() != GatewayRecorder.MAGIC)
+            throw new IOException("The provided input is not a gateway recording");
+        int version = this.input.readUnsignedByte();
+        if (version != GatewayRecorder.VERSION)
+            throw new IOException("Unsupported recording version " + version);
+        try
+        {
+            this.compression = Compression.valueOf(this.input.readUTF());
+            this.encoding = GatewayEncoding.valueOf(this.input.readUTF());
+        }
+        catch (IllegalArgumentException e)
+        {
+            throw new IOException("Recording uses an unsupported compression or encoding", e);
+        }
+    }
+
+    /**
+     * Opens the provided recording file.
+     *
+     * @param  file
+     *         The recording file
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     * @throws IOException
+     *         If the file cannot be read or does not contain a supported recording
+     *
+     * @return The recording
+     */
+    @Nonnull
+    public static GatewayRecording open(@Nonnull Path file) throws IOException
+    {
+        Checks.notNull(file, "File");
+        InputStream stream = Files.newInputStream(file);
+        try
+        {
+            return new GatewayRecording(stream);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            stream.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The compression of the recorded frames.
+     * <br>This is {@link Compression#NONE} for recordings in {@link GatewayRecorder.Mode#DECOMPRESSED DECOMPRESSED} mode.
+     *
+     * @return The compression
+     */
+    @Nonnull
+    public Compression getCompression()
+    {
+        return compression;
+    }
+
+    /**
+     * The encoding of the recorded session.
+     *
+     * @return The encoding
+     */
+    @Nonnull
+    public GatewayEncoding getEncoding()
+    {
+        return encoding;
+    }
+
+    /**
+     * Reads the next frame of the recording.
+     *
+     * @throws IOException
+     *         If the recording cannot be read or is truncated
+     *
+     * @return The next frame, or null if the end of the recording has been reached
+     */
+    @Nullable
+    public Frame next() throws IOException
+    {
+        int type = input.read();
+        if (type < 0)
+            return null;
+        if (type >= FrameType.values().length)
+            throw new IOException("Unknown frame type " + type);
+        long timestamp = input.readLong();
+        int length = input.readInt();
+        if (length < 0)
+            throw new IOException("Invalid frame length " + length);
+        byte[] data = new byte[length];
+        input.readFully(data);
+        return new Frame(FrameType.values()[type], timestamp, data);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        input.close();
+    }
+
+    /**
+     * The kind of a recorded {@link Frame}.
+     */
+    public enum FrameType
+    {
+        /** A text frame, containing JSON */
+        TEXT,
+        /** A binary frame, containing compressed data or ETF */
+        BINARY,
+        /** The start of a new connection, which resets the compression context */
+        CONNECT
+    }
+
+    /**
+     * A single recorded frame.
+     */
+    public static class Frame
+    {
+        private final FrameType type;
+        private final long timestamp;
+        private final byte[] data;
+
+        protected Frame(@Nonnull FrameType type, long timestamp, @Nonnull byte[] data)
+        {
+            this.type = type;
+            this.timestamp = timestamp;
+            this.data = data;
+        }
+
+        /**
+         * The kind of frame.
+         *
+         * @return The {@link FrameType}
+         */
+        @Nonnull
+        public FrameType getType()
+        {
+            return type;
+        }
+
+        /**
+         * The time at which this frame was received, in nanoseconds relative to the creation of the recorder.
+         *
+         * @return The timestamp in nanoseconds
+         */
+        public long getTimestamp()
+        {
+            return timestamp;
+        }
+
+        /**
+         * The raw frame data.
+         *
+         * @return The data
+         */
+        @Nonnull
+        public byte[] getData()
+        {
+            return data;
+        }
+    }
+}
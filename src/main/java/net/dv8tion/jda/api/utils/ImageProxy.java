@@ -15,6 +15,7 @@
  */
 package net.dv8tion.jda.api.utils;
 
+import net.dv8tion.jda.annotations.Incubating;
 import net.dv8tion.jda.api.entities.Icon;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.FutureUtil;
@@ -59,6 +60,14 @@ public class ImageProxy extends FileProxy
         return (ImageProxy) super.withClient(customHttpClient);
     }
 
+    @Nonnull
+    @Override
+    @Incubating
+    public ImageProxy withCache(@Nonnull DownloadCache cache)
+    {
+        return (ImageProxy) super.withCache(cache);
+    }
+
     /**
      * Returns the image URL for the specified size.
      * <br>The size is a best-effort resize from Discord, with recommended size values as powers of 2 such as 1024 or 512.
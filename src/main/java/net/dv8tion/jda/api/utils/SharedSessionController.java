@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.annotations.Incubating;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.internal.requests.SharedRateLimitFile;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of {@link SessionController} which coordinates multiple processes on the same host.
+ * <br>The processes share a memory-mapped file, which holds the {@link #getRateLimitHandle() global rate-limit}
+ * and the identify schedule of each {@code max_concurrency} bucket.
+ * This allows running the shards of one bot in several JVMs, without an external service
+ * and without throttling each process to a fixed fraction of the limits.
+ *
+ * <p>Within one process this behaves like {@link ConcurrentSessionController}.
+ * Before a shard identifies, it additionally reserves its bucket in the shared file,
+ * waiting until no other process has identified in the same bucket within the last {@value #IDENTIFY_DELAY} seconds.
+ *
+ * <p>All processes of the same bot token should use the same file, and different tokens must use different files.
+ * Only one instance should be created per file in each process, use the same instance for all shard managers of the token.
+ *
+ * <p>The controller keeps the file open until it is {@link #close() closed}.
+ * Close it once all shard managers using it have been shut down, it cannot be used afterwards.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * SessionController controller = new SharedSessionController(Paths.get("/var/run/mybot/ratelimit"));
+ * DefaultShardManagerBuilder.createDefault(token)
+ *     .setShardsTotal(64)
+ *     .setShards(0, 31) // the other process runs 32 to 63
+ *     .setSessionController(controller)
+ *     .build();
+ * // ... after shutting down the shard manager
+ * controller.close();
+ * }</pre>
+ */
+@Incubating
+public class SharedSessionController extends ConcurrentSessionController implements Closeable
+{
+    private final SharedRateLimitFile file;
+    private final Map<SessionConnectNode, SharedNode> nodes = new ConcurrentHashMap<>();
+    private volatile int concurrency = 1;
+
+    /**
+     * Creates a new session controller using the provided file.
+     * <br>The file is created if it does not exist yet.
+     *
+     * @param  file
+     *         The file to share between the processes
+     *
+     * @throws IllegalArgumentException
+     *         If the file is null
+     * @throws java.io.UncheckedIOException
+     *         If the file cannot be opened or mapped
+     */
+    public SharedSessionController(@Nonnull Path file)
+    {
+        Checks.notNull(file, "File");
+        this.file = new SharedRateLimitFile(file);
+        this.globalRatelimit = this.file;
+    }
+
+    @Override
+    public void setConcurrency(int level)
+    {
+        super.setConcurrency(level);
+        concurrency = level;
+    }
+
+    @Override
+    public void appendSession(@Nonnull SessionConnectNode node)
+    {
+        super.appendSession(nodes.computeIfAbsent(node, SharedNode::new));
+    }
+
+    @Override
+    public void removeSession(@Nonnull SessionConnectNode node)
+    {
+        SharedNode shared = nodes.remove(node);
+        if (shared != null)
+            super.removeSession(shared);
+    }
+
+    /**
+     * Closes the shared file.
+     * <br>This does not affect other processes using the same file.
+     *
+     * @throws UncheckedIOException
+     *         If the file could not be closed
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            file.close();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to close shared rate-limit file", e);
+        }
+    }
+
+    private class SharedNode implements SessionConnectNode
+    {
+        private final SessionConnectNode node;
+
+        private SharedNode(SessionConnectNode node)
+        {
+            this.node = node;
+        }
+
+        @Override
+        public boolean isReconnect()
+        {
+            return node.isReconnect();
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA()
+        {
+            return node.getJDA();
+        }
+
+        @Nonnull
+        @Override
+        public JDA.ShardInfo getShardInfo()
+        {
+            return node.getShardInfo();
+        }
+
+        @Override
+        public void run(boolean isLast) throws InterruptedException
+        {
+            int bucket = getShardInfo().getShardId() % concurrency;
+            long delay = TimeUnit.SECONDS.toMillis(IDENTIFY_DELAY);
+            long wait;
+            while ((wait = file.tryAcquireIdentify(bucket, delay)) > 0)
+            {
+                log.debug("Waiting {} ms for another process to finish identifying in bucket {}", wait, bucket);
+                TimeUnit.MILLISECONDS.sleep(wait);
+            }
+
+            node.run(isLast);
+            nodes.remove(node, this);
+        }
+    }
+}
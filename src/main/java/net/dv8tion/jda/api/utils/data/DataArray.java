@@ -16,17 +16,23 @@
 
 package net.dv8tion.jda.api.utils.data;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.type.CollectionType;
+import com.fasterxml.jackson.databind.type.MapType;
 import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
 import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.data.CanonicalStringDeserializer;
+import net.dv8tion.jda.internal.utils.data.EtfDataDecoder;
+import net.dv8tion.jda.internal.utils.data.StringPool;
 import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +45,7 @@ import java.time.OffsetDateTime;
 import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
 import java.util.stream.IntStream;
@@ -58,6 +65,7 @@ public class DataArray implements Iterable<Object>, SerializableArray
     private static final ObjectMapper mapper;
     private static final SimpleModule module;
     private static final CollectionType listType;
+    private static final MapType mapType;
 
     static
     {
@@ -65,8 +73,12 @@ public class DataArray implements Iterable<Object>, SerializableArray
         module = new SimpleModule();
         module.addAbstractTypeMapping(Map.class, HashMap.class);
         module.addAbstractTypeMapping(List.class, ArrayList.class);
+        // Share repeated short values like statuses or event types between all parsed payloads, if enabled
+        if (StringPool.POOL_VALUES)
+            module.addDeserializer(String.class, CanonicalStringDeserializer.INSTANCE);
         mapper.registerModule(module);
         listType = mapper.getTypeFactory().constructRawCollectionType(ArrayList.class);
+        mapType = mapper.getTypeFactory().constructRawMapType(HashMap.class);
     }
 
     protected final List<Object> data;
@@ -177,7 +189,52 @@ public class DataArray implements Iterable<Object>, SerializableArray
     }
 
     /**
-     * Parses using {@link ExTermDecoder}.
+     * Parses a JSON Array of objects element by element, without creating a DataArray for the entire input.
+     * <br>Each element is passed to the consumer as soon as it has been parsed,
+     * which allows it to be discarded before the rest of the array is read.
+     *
+     * @param  json
+     *         The correctly formatted JSON Array, which must only contain JSON Objects
+     * @param  consumer
+     *         The consumer which receives each element in order
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided JSON is incorrectly formatted, contains elements which are not objects, or an I/O error occurred
+     *
+     * @return The number of parsed elements
+     */
+    public static int streamObjects(@Nonnull Reader json, @Nonnull Consumer<? super DataObject> consumer)
+    {
+        Checks.notNull(json, "JSON");
+        Checks.notNull(consumer, "Consumer");
+        try (JsonParser parser = mapper.getFactory().createParser(json))
+        {
+            JsonToken token = parser.nextToken();
+            if (token != JsonToken.START_ARRAY)
+                throw new ParsingException("Expected JSON Array but got " + token);
+
+            int count = 0;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY)
+            {
+                if (token != JsonToken.START_OBJECT)
+                    throw new ParsingException("Expected JSON Object at index " + count + " but got " + token);
+                Map<String, Object> map = mapper.readValue(parser, mapType);
+                consumer.accept(new DataObject(map));
+                count++;
+            }
+            return count;
+        }
+        catch (IOException e)
+        {
+            throw new ParsingException(e);
+        }
+    }
+
+    /**
+     * Parses the provided ETF payload.
+     * <br>The result is equal to the structure produced by {@link ExTermDecoder} for the same bytes.
      * The provided data must start with the correct version header (131).
      *
      * @param  data
@@ -198,7 +255,7 @@ public class DataArray implements Iterable<Object>, SerializableArray
         Checks.notNull(data, "Data");
         try
         {
-            List<Object> list = ExTermDecoder.unpackList(ByteBuffer.wrap(data));
+            List<Object> list = EtfDataDecoder.decodeList(data, 0, data.length);
             return new DataArray(list);
         }
         catch (Exception ex)
@@ -32,6 +32,9 @@ import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
 import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.data.CanonicalStringDeserializer;
+import net.dv8tion.jda.internal.utils.data.EtfDataDecoder;
+import net.dv8tion.jda.internal.utils.data.StringPool;
 import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -67,6 +70,9 @@ public class DataObject implements SerializableData
         module = new SimpleModule();
         module.addAbstractTypeMapping(Map.class, HashMap.class);
         module.addAbstractTypeMapping(List.class, ArrayList.class);
+        // Share repeated short values like statuses or event types between all parsed payloads, if enabled
+        if (StringPool.POOL_VALUES)
+            module.addDeserializer(String.class, CanonicalStringDeserializer.INSTANCE);
         mapper.registerModule(module);
         mapType = mapper.getTypeFactory().constructRawMapType(HashMap.class);
     }
@@ -116,6 +122,37 @@ public class DataObject implements SerializableData
         }
     }
 
+    /**
+     * Parses a JSON payload from a region of the provided array into a DataObject instance.
+     *
+     * <p>This can be used to parse data directly from a reusable buffer, without copying it first.
+     *
+     * @param  data
+     *         The array containing the correctly formatted JSON payload
+     * @param  offset
+     *         The index of the first byte of the payload
+     * @param  length
+     *         The length of the payload
+     *
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided json is incorrectly formatted
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromJson(@Nonnull byte[] data, int offset, int length)
+    {
+        try
+        {
+            Map<String, Object> map = mapper.readValue(data, offset, length, mapType);
+            return new DataObject(map);
+        }
+        catch (IOException ex)
+        {
+            throw new ParsingException(ex);
+        }
+    }
+
     /**
      * Parses a JSON payload into a DataObject instance.
      *
@@ -192,7 +229,8 @@ public class DataObject implements SerializableData
     }
 
     /**
-     * Parses using {@link ExTermDecoder}.
+     * Parses the provided ETF payload.
+     * <br>The result is equal to the structure produced by {@link ExTermDecoder} for the same bytes.
      * The provided data must start with the correct version header (131).
      *
      * @param  data
@@ -213,7 +251,7 @@ public class DataObject implements SerializableData
         Checks.notNull(data, "Data");
         try
         {
-            Map<String, Object> map = ExTermDecoder.unpackMap(ByteBuffer.wrap(data));
+            Map<String, Object> map = EtfDataDecoder.decodeMap(data, 0, data.length);
             return new DataObject(map);
         }
         catch (Exception ex)
@@ -223,6 +261,43 @@ public class DataObject implements SerializableData
         }
     }
 
+    /**
+     * Parses a region of the provided array as an ETF payload.
+     * <br>The result is equal to the structure produced by {@link ExTermDecoder} for the same bytes.
+     * The payload must start with the correct version header (131).
+     *
+     * <p>This can be used to decode data directly from a reusable buffer, without copying it first.
+     *
+     * @param  data
+     *         The array containing the data to decode
+     * @param  offset
+     *         The index of the first byte of the payload
+     * @param  length
+     *         The length of the payload
+     *
+     * @throws IllegalArgumentException
+     *         If the provided data is null
+     * @throws net.dv8tion.jda.api.exceptions.ParsingException
+     *         If the provided ETF payload is incorrectly formatted or an I/O error occurred
+     *
+     * @return A DataObject instance for the provided payload
+     */
+    @Nonnull
+    public static DataObject fromETF(@Nonnull byte[] data, int offset, int length)
+    {
+        Checks.notNull(data, "Data");
+        try
+        {
+            Map<String, Object> map = EtfDataDecoder.decodeMap(data, offset, length);
+            return new DataObject(map);
+        }
+        catch (Exception ex)
+        {
+            log.error("Failed to parse ETF data {}", Arrays.toString(Arrays.copyOfRange(data, offset, offset + length)), ex);
+            throw new ParsingException(ex);
+        }
+    }
+
     /**
      * Whether the specified key is present.
      *
@@ -20,6 +20,7 @@ import javax.annotation.Nonnull;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
@@ -169,7 +170,7 @@ public class ExTermDecoder
         ByteArrayOutputStream decompressed = new ByteArrayOutputStream(size);
         try (InflaterOutputStream inflater = new InflaterOutputStream(decompressed))
         {
-            inflater.write(buffer.array(), buffer.position(), buffer.remaining());
+            inflater.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
         }
         catch (IOException e)
         {
@@ -257,6 +258,15 @@ public class ExTermDecoder
 
     private static String getString(@Nonnull ByteBuffer buffer, @Nonnull Charset charset, int length)
     {
+        if (buffer.hasArray())
+        {
+            // Decode directly from the backing array to avoid a temporary copy
+            if (length > buffer.remaining())
+                throw new BufferUnderflowException();
+            String value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, charset);
+            buffer.position(buffer.position() + length);
+            return value;
+        }
         byte[] array = new byte[length];
         buffer.get(array);
         return new String(array, charset);
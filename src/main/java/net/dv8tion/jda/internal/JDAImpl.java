@@ -79,17 +79,20 @@ import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.*;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
 import net.dv8tion.jda.internal.utils.cache.ChannelCacheViewImpl;
+import net.dv8tion.jda.internal.utils.cache.ExpiringCache;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
 import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import net.dv8tion.jda.internal.utils.tuple.Pair;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
 import javax.annotation.Nonnull;
+import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.*;
@@ -125,10 +128,16 @@ public class JDAImpl implements JDA
     protected final MetaConfig metaConfig;
     protected final RestConfig restConfig;
 
+    // Entities retrieved by CacheRestAction, which are not in the regular cache
+    protected final ExpiringCache<Long, User> retrievedUsers;
+    protected final ExpiringCache<Pair<Long, Long>, Member> retrievedMembers;
+
     public ShutdownReason shutdownReason = ShutdownReason.USER_SHUTDOWN; // indicates why shutdown happened in awaitStatus / awaitReady
     protected WebSocketClient client;
     protected Requester requester;
     protected IAudioSendFactory audioSendFactory = new DefaultSendFactory();
+    protected GatewayRecorder gatewayRecorder;
+    protected GatewayMetrics gatewayMetrics;
     protected SelfUser selfUser;
     protected ShardInfo shardInfo;
     protected long responseTotal;
@@ -160,6 +169,9 @@ public class JDAImpl implements JDA
         this.sessionConfig = sessionConfig == null ? SessionConfig.getDefault() : sessionConfig;
         this.metaConfig = metaConfig == null ? MetaConfig.getDefault() : metaConfig;
         this.restConfig = restConfig == null ? new RestConfig() : restConfig;
+        long responseCacheTtl = this.restConfig.getResponseCacheTimeToLive().toMillis();
+        this.retrievedUsers = new ExpiringCache<>(this.restConfig.getResponseCacheSize(), responseCacheTtl, TimeUnit.MILLISECONDS);
+        this.retrievedMembers = new ExpiringCache<>(this.restConfig.getResponseCacheSize(), responseCacheTtl, TimeUnit.MILLISECONDS);
         this.shutdownHook = this.metaConfig.isUseShutdownHook() ? new Thread(this::shutdownNow, "JDA Shutdown Hook") : null;
         this.presence = new PresenceImpl(this);
         this.guildSetupController = new GuildSetupController(this);
@@ -199,6 +211,11 @@ public class JDAImpl implements JDA
         return sessionConfig.getLargeThreshold();
     }
 
+    public int getDispatchLanes()
+    {
+        return sessionConfig.getDispatchLanes();
+    }
+
     public int getMaxBufferSize()
     {
         return metaConfig.getMaxBufferSize();
@@ -270,6 +287,18 @@ public class JDAImpl implements JDA
         }
     }
 
+    @Nonnull
+    public ExpiringCache<Long, User> getRetrievedUsers()
+    {
+        return retrievedUsers;
+    }
+
+    @Nonnull
+    public ExpiringCache<Pair<Long, Long>, Member> getRetrievedMembers()
+    {
+        return retrievedMembers;
+    }
+
     public void initRequester()
     {
         if (this.requester != null)
@@ -279,7 +308,9 @@ public class JDAImpl implements JDA
                         this.threadConfig.getRateLimitScheduler(),
                         this.threadConfig.getRateLimitElastic(),
                         getSessionController().getRateLimitHandle(),
-                        this.sessionConfig.isRelativeRateLimit() && this.restConfig.isRelativeRateLimit()
+                        this.sessionConfig.isRelativeRateLimit() && this.restConfig.isRelativeRateLimit(),
+                        this.restConfig.isAsyncExecution(),
+                        this.restConfig.getBucketStore()
                 ));
         this.requester = new Requester(this, this.authConfig, this.restConfig, rateLimiter);
         this.requester.setRetryOnTimeout(this.sessionConfig.isRetryOnTimeout());
@@ -341,6 +372,20 @@ public class JDAImpl implements JDA
         return shardInfo == null ? -1 : shardInfo.getShardTotal();
     }
 
+    public void replay(GatewayRecording recording, ShardInfo shardInfo, int intents) throws IOException
+    {
+        this.shardInfo = shardInfo;
+
+        this.threadConfig.init(this::getIdentifierString);
+        initRequester();
+
+        setStatus(Status.LOGGING_IN);
+
+        ReplayWebSocketClient replayClient = new ReplayWebSocketClient(this, recording, intents);
+        client = replayClient;
+        replayClient.replay();
+    }
+
     public String getGateway()
     {
         return getSessionController().getGateway();
@@ -576,6 +621,11 @@ public class JDAImpl implements JDA
         return threadConfig.getGatewayPool();
     }
 
+    public ScheduledExecutorService getHeartbeatPool()
+    {
+        return threadConfig.getHeartbeatPool();
+    }
+
     @Nonnull
     @Override
     public ExecutorService getCallbackPool()
@@ -625,13 +675,16 @@ public class JDAImpl implements JDA
     public CacheRestAction<User> retrieveUserById(long id)
     {
         return new DeferredRestAction<>(this, User.class,
-                () -> isIntent(GatewayIntent.GUILD_MEMBERS) || isIntent(GatewayIntent.GUILD_PRESENCES) ? getUserById(id) : null,
+                () -> {
+                    User user = isIntent(GatewayIntent.GUILD_MEMBERS) || isIntent(GatewayIntent.GUILD_PRESENCES) ? getUserById(id) : null;
+                    return user != null ? user : retrievedUsers.get(id);
+                },
                 () -> {
                     if (id == getSelfUser().getIdLong())
                         return new CompletedRestAction<>(this, getSelfUser());
                     Route.CompiledRoute route = Route.Users.GET_USER.compile(Long.toUnsignedString(id));
                     return new RestActionImpl<>(this, route,
-                            (response, request) -> getEntityBuilder().createUser(response.getObject()));
+                            (response, request) -> retrievedUsers.put(id, getEntityBuilder().createUser(response.getObject())));
                 });
     }
 
@@ -1357,6 +1410,26 @@ public class JDAImpl implements JDA
         this.audioSendFactory = factory;
     }
 
+    public GatewayRecorder getGatewayRecorder()
+    {
+        return gatewayRecorder;
+    }
+
+    public void setGatewayRecorder(GatewayRecorder recorder)
+    {
+        this.gatewayRecorder = recorder;
+    }
+
+    public GatewayMetrics getGatewayMetrics()
+    {
+        return gatewayMetrics;
+    }
+
+    public void setGatewayMetrics(GatewayMetrics metrics)
+    {
+        this.gatewayMetrics = metrics;
+    }
+
     public void setGatewayPing(long ping)
     {
         long oldPing = this.gatewayPing;
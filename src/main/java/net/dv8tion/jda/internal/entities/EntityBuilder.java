@@ -501,6 +501,20 @@ public class EntityBuilder extends AbstractEntityBuilder
     }
 
     public void updateUser(UserImpl userObj, DataObject user)
+    {
+        // Users are shared by all guilds, which might be handled by different dispatch lanes.
+        // The changes are applied atomically, but the events are fired without holding the lock.
+        List<GenericUserUpdateEvent<?>> events = new ArrayList<>(5);
+        synchronized (userObj)
+        {
+            applyUserUpdate(userObj, user, events);
+        }
+        JDAImpl jda = getJDA();
+        for (GenericUserUpdateEvent<?> event : events)
+            jda.handleEvent(event);
+    }
+
+    private void applyUserUpdate(UserImpl userObj, DataObject user, List<GenericUserUpdateEvent<?>> events)
     {
         String oldName = userObj.getName();
         String newName = user.getString("username");
@@ -518,7 +532,7 @@ public class EntityBuilder extends AbstractEntityBuilder
         if (!oldName.equals(newName))
         {
             userObj.setName(newName);
-            jda.handleEvent(
+            events.add(
                 new UserUpdateNameEvent(
                     jda, responseNumber,
                     userObj, oldName));
@@ -527,7 +541,7 @@ public class EntityBuilder extends AbstractEntityBuilder
         if (!Objects.equals(oldGlobalName, newGlobalName))
         {
             userObj.setGlobalName(newGlobalName);
-            jda.handleEvent(
+            events.add(
                 new UserUpdateGlobalNameEvent(
                     jda, responseNumber,
                     userObj, oldGlobalName));
@@ -537,7 +551,7 @@ public class EntityBuilder extends AbstractEntityBuilder
         {
             String oldDiscrimString = userObj.getDiscriminator();
             userObj.setDiscriminator(newDiscriminator);
-            jda.handleEvent(
+            events.add(
                 new UserUpdateDiscriminatorEvent(
                     jda, responseNumber,
                     userObj, oldDiscrimString));
@@ -546,7 +560,7 @@ public class EntityBuilder extends AbstractEntityBuilder
         if (!Objects.equals(oldAvatar, newAvatar))
         {
             userObj.setAvatarId(newAvatar);
-            jda.handleEvent(
+            events.add(
                 new UserUpdateAvatarEvent(
                     jda, responseNumber,
                     userObj, oldAvatar));
@@ -555,7 +569,7 @@ public class EntityBuilder extends AbstractEntityBuilder
         if (oldFlags != newFlags)
         {
             userObj.setFlags(newFlags);
-            jda.handleEvent(
+            events.add(
                     new UserUpdateFlagsEvent(
                         jda, responseNumber,
                         userObj, User.UserFlag.getFlags(oldFlags)));
@@ -577,10 +591,14 @@ public class EntityBuilder extends AbstractEntityBuilder
             if (membersView.remove(member.getIdLong()) == null)
                 return false;
             LOG.trace("Unloading member {}", member);
-            if (user.getMutualGuilds().isEmpty())
+            SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
+            try (UnlockHook hook = usersView.writeLock())
             {
-                // we no longer share any guilds/channels with this user so remove it from cache
-                getJDA().getUsersView().remove(user.getIdLong());
+                if (user.getMutualGuilds().isEmpty())
+                {
+                    // we no longer share any guilds/channels with this user so remove it from cache
+                    usersView.remove(user.getIdLong());
+                }
             }
             return false;
         }
@@ -592,13 +610,11 @@ public class EntityBuilder extends AbstractEntityBuilder
 
         LOG.trace("Loading member {}", member);
 
-        if (getJDA().getUserById(user.getIdLong()) == null)
+        // Check and insert under the same lock, another lane might add this user concurrently
+        SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
+        try (UnlockHook hook1 = usersView.writeLock())
         {
-            SnowflakeCacheViewImpl<User> usersView = getJDA().getUsersView();
-            try (UnlockHook hook1 = usersView.writeLock())
-            {
-                usersView.getMap().put(user.getIdLong(), user);
-            }
+            usersView.getMap().putIfAbsent(user.getIdLong(), user);
         }
 
         try (UnlockHook hook = membersView.writeLock())
@@ -85,6 +85,7 @@ import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.*;
 import net.dv8tion.jda.internal.utils.concurrent.task.GatewayTask;
+import net.dv8tion.jda.internal.utils.tuple.Pair;
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 
@@ -1282,14 +1283,19 @@ public class GuildImpl implements Guild
     {
         JDAImpl jda = getJDA();
         return new DeferredRestAction<>(jda, Member.class,
-                () -> getMemberById(id),
+                () -> {
+                    Member member = getMemberById(id);
+                    return member != null ? member : jda.getRetrievedMembers().get(Pair.of(getIdLong(), id));
+                },
                 () -> {
                     if (id == jda.getSelfUser().getIdLong())
                         return new CompletedRestAction<>(jda, getSelfMember());
                     Route.CompiledRoute route = Route.Guilds.GET_MEMBER.compile(getId(), Long.toUnsignedString(id));
                     return new RestActionImpl<>(jda, route, (resp, req) -> {
                         MemberImpl member = jda.getEntityBuilder().createMember(this, resp.getObject());
-                        jda.getEntityBuilder().updateMemberCache(member);
+                        // Only keep members in the response cache, which are not in the regular member cache
+                        if (!jda.getEntityBuilder().updateMemberCache(member))
+                            jda.getRetrievedMembers().put(Pair.of(getIdLong(), id), member);
                         return member;
                     });
                 }).useCache(jda.isIntent(GatewayIntent.GUILD_MEMBERS));
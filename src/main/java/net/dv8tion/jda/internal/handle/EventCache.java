@@ -19,6 +19,7 @@ import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
 import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.DispatchLanes;
 import net.dv8tion.jda.internal.utils.CacheConsumer;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import org.slf4j.Logger;
@@ -87,13 +88,18 @@ public class EventCache
         items.add(new CacheNode(responseTotal, event, handler));
     }
 
-    public synchronized void playbackCache(Type type, long triggerId)
+    public void playbackCache(Type type, long triggerId)
     {
-        TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
-        if (typeCache == null)
-            return;
+        List<CacheNode> items;
+        synchronized (this)
+        {
+            TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
+            if (typeCache == null)
+                return;
+            items = typeCache.remove(triggerId);
+        }
 
-        List<CacheNode> items = typeCache.remove(triggerId);
+        // Replay outside of the lock, the handlers might cache new events
         if (items != null && !items.isEmpty())
         {
             EventCache.LOG.debug("Replaying {} events from the EventCache for type {} with id: {}",
@@ -147,7 +153,9 @@ public class EventCache
 
         void execute()
         {
-            callback.execute(responseTotal, event);
+            // With dispatch lanes, the replay is scheduled to run after the current handler
+            if (!DispatchLanes.scheduleReplay(event, () -> callback.execute(responseTotal, event)))
+                callback.execute(responseTotal, event);
         }
     }
 }
@@ -55,6 +55,7 @@ public class GuildDeleteHandler extends SocketHandler
 
         // Detach the guild cache from the global cache (also removes users if necessary)
         guild.invalidate();
+        getJDA().getRetrievedMembers().removeIf(key -> key.getLeft() == id);
 
         if (unavailable)
         {
@@ -26,6 +26,7 @@ import net.dv8tion.jda.internal.entities.GuildVoiceStateImpl;
 import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
+import net.dv8tion.jda.internal.utils.tuple.Pair;
 
 public class GuildMemberRemoveHandler extends SocketHandler
 {
@@ -39,6 +40,11 @@ public class GuildMemberRemoveHandler extends SocketHandler
     protected Long handleInternally(DataObject content)
     {
         final long id = content.getLong("guild_id");
+        final long userId = content.getObject("user").getUnsignedLong("id");
+        // Retrieved entities are not updated, so they have to be retrieved again
+        getJDA().getRetrievedMembers().remove(Pair.of(id, userId));
+        getJDA().getRetrievedUsers().remove(userId);
+
         boolean setup = getJDA().getGuildSetupController().onRemoveMember(id, content);
         if (setup)
             return null;
@@ -50,7 +56,6 @@ public class GuildMemberRemoveHandler extends SocketHandler
             return null;
         }
 
-        final long userId = content.getObject("user").getUnsignedLong("id");
         if (userId == getJDA().getSelfUser().getIdLong())
         {
             //We probably just left the guild and this event is trying to remove us from the guild, therefore ignore
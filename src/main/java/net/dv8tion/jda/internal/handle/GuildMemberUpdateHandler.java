@@ -22,6 +22,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.entities.MemberImpl;
+import net.dv8tion.jda.internal.utils.tuple.Pair;
 
 import java.util.LinkedList;
 import java.util.List;
@@ -43,6 +44,10 @@ public class GuildMemberUpdateHandler extends SocketHandler
 
         DataObject userJson = content.getObject("user");
         final long userId = userJson.getLong("id");
+        // Retrieved entities are not updated, so they have to be retrieved again
+        getJDA().getRetrievedMembers().remove(Pair.of(id, userId));
+        getJDA().getRetrievedUsers().remove(userId);
+
         GuildImpl guild = (GuildImpl) getJDA().getGuildById(id);
         if (guild == null)
         {
@@ -263,6 +263,11 @@ public class GuildSetupController
         return unavailableGuilds.contains(id);
     }
 
+    public boolean hasUnavailableGuilds()
+    {
+        return !unavailableGuilds.isEmpty();
+    }
+
     public boolean isKnown(long id)
     {
         // Whether we know this guild at all
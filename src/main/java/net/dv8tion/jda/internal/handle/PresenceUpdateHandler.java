@@ -46,9 +46,21 @@ public class PresenceUpdateHandler extends SocketHandler
 {
     private static final Logger log = JDALogger.getLog(PresenceUpdateHandler.class);
 
+    private final boolean ignorePresences;
+    private final boolean ignorePayload;
+
     public PresenceUpdateHandler(JDAImpl api)
     {
         super(api);
+        this.ignorePresences = api.getCacheFlags().stream().noneMatch(CacheFlag::isPresence);
+        // User updates in presences still invalidate the retrieved entities
+        this.ignorePayload = ignorePresences && !api.getRetrievedUsers().isEnabled();
+    }
+
+    @Override
+    public boolean isIgnoringPayload()
+    {
+        return ignorePayload;
     }
 
     @Override
@@ -60,7 +72,16 @@ public class PresenceUpdateHandler extends SocketHandler
             log.debug("Received PRESENCE_UPDATE without guild_id. Ignoring event.");
             return null;
         }
-        if (api.getCacheFlags().stream().noneMatch(CacheFlag::isPresence))
+
+        // The user only contains more than the id if it was updated, the retrieved entities then have to be retrieved again
+        DataObject jsonUser = content.getObject("user");
+        final long userId = jsonUser.getUnsignedLong("id");
+        if (jsonUser.keys().size() > 1)
+        {
+            getJDA().getRetrievedUsers().remove(userId);
+            getJDA().getRetrievedMembers().removeIf(key -> key.getRight() == userId);
+        }
+        if (ignorePresences)
             return null;
 
         //Do a pre-check to see if this is for a Guild, and if it is, if the guild is currently locked or not cached.
@@ -72,15 +93,13 @@ public class PresenceUpdateHandler extends SocketHandler
         {
             getJDA().getEventCache().cache(EventCache.Type.GUILD, guildId, responseNumber, allContent, this::handle);
             EventCache.LOG.debug("Received a PRESENCE_UPDATE for a guild that is not yet cached! GuildId:{} UserId: {}",
-                                 guildId, content.getObject("user").get("id"));
+                                 guildId, userId);
             return null;
         }
 
         CacheView.SimpleCacheView<MemberPresenceImpl> presences = guild.getPresenceView();
         if (presences == null)
             return null; // technically this should be impossible
-        DataObject jsonUser = content.getObject("user");
-        final long userId = jsonUser.getUnsignedLong("id");
         MemberImpl member = (MemberImpl) guild.getMemberById(userId);
         MemberPresenceImpl presence = presences.get(userId);
         OnlineStatus status = OnlineStatus.fromKey(content.getString("status"));
@@ -48,6 +48,17 @@ public abstract class SocketHandler
         return api;
     }
 
+    /**
+     * Whether this handler currently ignores every event regardless of its content.
+     * <br>The payload of such events does not have to be parsed at all.
+     *
+     * @return True, if the payload would be dropped
+     */
+    public boolean isIgnoringPayload()
+    {
+        return false;
+    }
+
     /**
      * Handles a given data-json of the Event handled by this Handler.
      * @param content
@@ -64,6 +75,12 @@ public abstract class SocketHandler
             super(api);
         }
 
+        @Override
+        public boolean isIgnoringPayload()
+        {
+            return true;
+        }
+
         @Override
         protected Long handleInternally(DataObject content)
         {
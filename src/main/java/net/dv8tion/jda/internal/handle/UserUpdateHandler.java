@@ -34,6 +34,9 @@ public class UserUpdateHandler extends SocketHandler
     protected Long handleInternally(DataObject content)
     {
         SelfUserImpl self = (SelfUserImpl) getJDA().getSelfUser();
+        // Retrieved entities are not updated, so they have to be retrieved again
+        getJDA().getRetrievedUsers().remove(self.getIdLong());
+        getJDA().getRetrievedMembers().removeIf(key -> key.getRight() == self.getIdLong());
 
         String name = content.getString("username");
         String discriminator = content.getString("discriminator");
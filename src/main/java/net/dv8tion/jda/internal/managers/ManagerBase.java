@@ -19,6 +19,7 @@ package net.dv8tion.jda.internal.managers;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.exceptions.RateLimitedException;
 import net.dv8tion.jda.api.managers.Manager;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.internal.requests.restaction.AuditableRestActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
@@ -72,6 +73,14 @@ public abstract class ManagerBase<M extends Manager<M>> extends AuditableRestAct
         return (M) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public M setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (M) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     @SuppressWarnings("unchecked")
@@ -0,0 +1,484 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.BulkOperation;
+import net.dv8tion.jda.api.requests.RequestPriority;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+public class BulkOperationImpl<T> implements BulkOperation<T>, BulkOperation.Progress
+{
+    private static final Logger LOG = JDALogger.getLog(BulkOperation.class);
+    // Requests taking longer than this, and much longer than the fastest request, have been waiting for a rate-limit
+    private static final long SLOW_REQUEST = TimeUnit.SECONDS.toMillis(1);
+
+    private final Iterator<? extends T> targets;
+    private final Function<? super T, ? extends RestAction<?>> action;
+    private final CompletableFuture<Progress> completion = new CompletableFuture<>();
+    private final Map<String, Window> windows = new HashMap<>();
+    private final Deque<Pending> waiting = new ArrayDeque<>();
+    private final Set<Pending> inFlight = new HashSet<>();
+
+    private int maxPerBucket = 4;
+    private int maxInFlight = 32;
+    private RequestPriority priority = RequestPriority.BACKGROUND;
+    private long expectedCount = -1;
+    private BiConsumer<? super T, ? super Throwable> failureCallback;
+
+    private boolean started, cancelled;
+    // Only one thread pumps at a time, completions during a pump request another pass instead of recursing
+    private boolean pumping, repump;
+    private boolean exhausted;
+    private long startTime;
+    private long succeeded, failed;
+
+    public BulkOperationImpl(Iterator<? extends T> targets, Function<? super T, ? extends RestAction<?>> action)
+    {
+        this.targets = targets;
+        this.action = action;
+    }
+
+    @Nonnull
+    @Override
+    public synchronized BulkOperation<T> setMaxInFlightPerBucket(int limit)
+    {
+        Checks.positive(limit, "Limit");
+        this.maxPerBucket = limit;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public synchronized BulkOperation<T> setMaxInFlight(int limit)
+    {
+        Checks.positive(limit, "Limit");
+        this.maxInFlight = limit;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public synchronized BulkOperation<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        Checks.notNull(priority, "Priority");
+        this.priority = priority;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public synchronized BulkOperation<T> setExpectedCount(long count)
+    {
+        this.expectedCount = count;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public synchronized BulkOperation<T> onFailure(@Nullable BiConsumer<? super T, ? super Throwable> callback)
+    {
+        this.failureCallback = callback;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public Progress start()
+    {
+        synchronized (this)
+        {
+            Checks.check(!started, "Bulk operation has already been started");
+            started = true;
+            startTime = System.nanoTime();
+        }
+        pump();
+        return this;
+    }
+
+    @Override
+    public synchronized long getSucceeded()
+    {
+        return succeeded;
+    }
+
+    @Override
+    public synchronized long getFailed()
+    {
+        return failed;
+    }
+
+    @Override
+    public synchronized int getInFlight()
+    {
+        return inFlight.size();
+    }
+
+    @Override
+    public synchronized double getThroughput()
+    {
+        if (!started)
+            return 0;
+        double seconds = (System.nanoTime() - startTime) / (double) TimeUnit.SECONDS.toNanos(1);
+        return seconds <= 0 ? 0 : (succeeded + failed) / seconds;
+    }
+
+    @Nullable
+    @Override
+    public synchronized Duration getEstimatedTimeRemaining()
+    {
+        if (completion.isDone())
+            return Duration.ZERO;
+        double throughput = getThroughput();
+        if (expectedCount < 0 || throughput <= 0)
+            return null;
+        long remaining = Math.max(0, expectedCount - succeeded - failed);
+        return Duration.ofMillis((long) (remaining / throughput * 1000));
+    }
+
+    @Override
+    public void cancel()
+    {
+        List<CompletableFuture<?>> cancelledRequests = new ArrayList<>();
+        synchronized (this)
+        {
+            if (cancelled || completion.isDone())
+                return;
+            cancelled = true;
+            waiting.clear();
+            // Reserved requests might not have been submitted yet, those are skipped by submit instead
+            for (Pending pending : inFlight)
+            {
+                pending.cancelled = true;
+                if (pending.future != null)
+                    cancelledRequests.add(pending.future);
+            }
+        }
+        cancelledRequests.forEach(future -> future.cancel(false));
+        completion.completeExceptionally(new CancellationException("Bulk operation was cancelled"));
+    }
+
+    @Override
+    public synchronized boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Progress> getCompletion()
+    {
+        return completion;
+    }
+
+    private void pump()
+    {
+        synchronized (this)
+        {
+            if (pumping)
+            {
+                repump = true;
+                return;
+            }
+            pumping = true;
+        }
+
+        try
+        {
+            while (true)
+            {
+                pumpOnce();
+                synchronized (this)
+                {
+                    if (!repump)
+                    {
+                        pumping = false;
+                        return;
+                    }
+                    repump = false;
+                }
+            }
+        }
+        catch (Throwable t)
+        {
+            synchronized (this)
+            {
+                pumping = false;
+            }
+            throw t;
+        }
+    }
+
+    private void pumpOnce()
+    {
+        List<Pending> ready = new ArrayList<>();
+        List<Map.Entry<T, Throwable>> failures = new ArrayList<>();
+        synchronized (this)
+        {
+            if (cancelled)
+                return;
+
+            // First try the targets which were held back because their bucket was full
+            Iterator<Pending> held = waiting.iterator();
+            while (held.hasNext() && inFlight.size() < maxInFlight)
+            {
+                Pending pending = held.next();
+                if (tryReserve(pending))
+                {
+                    held.remove();
+                    ready.add(pending);
+                }
+            }
+        }
+
+        // Then pull new targets, holding back at most as many as we could have in flight.
+        // The iterator and action factory are user code, which is never called while holding the lock.
+        while (true)
+        {
+            synchronized (this)
+            {
+                if (cancelled || exhausted || inFlight.size() >= maxInFlight || waiting.size() >= maxInFlight)
+                    break;
+            }
+
+            T target;
+            try
+            {
+                if (!targets.hasNext())
+                {
+                    synchronized (this)
+                    {
+                        exhausted = true;
+                    }
+                    break;
+                }
+                target = targets.next();
+            }
+            catch (Exception e)
+            {
+                synchronized (this)
+                {
+                    exhausted = true;
+                }
+                LOG.error("Iterator of bulk operation threw an exception", e);
+                completion.completeExceptionally(e);
+                break;
+            }
+
+            Pending pending;
+            try
+            {
+                pending = new Pending(target, action.apply(target));
+            }
+            catch (Exception e)
+            {
+                synchronized (this)
+                {
+                    failed++;
+                }
+                failures.add(new AbstractMap.SimpleImmutableEntry<>(target, e));
+                continue;
+            }
+
+            synchronized (this)
+            {
+                if (tryReserve(pending))
+                    ready.add(pending);
+                else
+                    waiting.add(pending);
+            }
+        }
+
+        boolean done;
+        synchronized (this)
+        {
+            done = ready.isEmpty() && inFlight.isEmpty() && waiting.isEmpty() && exhausted;
+        }
+
+        failures.forEach(entry -> handleFailure(entry.getKey(), entry.getValue()));
+        ready.forEach(Pending::submit);
+        if (done)
+            completion.complete(this);
+    }
+
+    private boolean tryReserve(Pending pending)
+    {
+        Window window = windows.computeIfAbsent(pending.bucket, k -> new Window());
+        if (window.inFlight >= (int) Math.min(maxPerBucket, window.limit))
+            return false;
+        window.inFlight++;
+        inFlight.add(pending);
+        return true;
+    }
+
+    private void handleFailure(T target, Throwable error)
+    {
+        BiConsumer<? super T, ? super Throwable> callback;
+        synchronized (this)
+        {
+            callback = failureCallback;
+        }
+
+        if (callback == null)
+        {
+            LOG.debug("Bulk operation failed for target {}", target, error);
+            return;
+        }
+
+        try
+        {
+            callback.accept(target, error);
+        }
+        catch (Throwable e)
+        {
+            LOG.error("Failure callback of bulk operation threw an exception", e);
+            if (e instanceof Error)
+                throw (Error) e;
+        }
+    }
+
+    private static String getBucket(RestAction<?> action)
+    {
+        if (!(action instanceof RestActionImpl))
+            return "";
+        Route.CompiledRoute route = ((RestActionImpl<?>) action).finalizeRoute();
+        if (route == null)
+            return "";
+        return route.getMethod() + "/" + route.getBaseRoute().getRoute() + ":" + route.getMajorParameters();
+    }
+
+    private class Pending
+    {
+        private final T target;
+        private final RestAction<?> action;
+        private final String bucket;
+        // Both guarded by the lock of the operation, since cancel can run on any thread
+        private boolean cancelled;
+        private CompletableFuture<?> future;
+        private long start;
+
+        private Pending(T target, RestAction<?> action)
+        {
+            this.target = target;
+            this.action = action;
+            this.bucket = getBucket(action);
+        }
+
+        private void submit()
+        {
+            boolean skip;
+            RequestPriority priority;
+            synchronized (BulkOperationImpl.this)
+            {
+                // The operation might have been cancelled after this was reserved, for instance by a failure callback
+                skip = cancelled;
+                priority = BulkOperationImpl.this.priority;
+                start = System.currentTimeMillis();
+            }
+            if (skip)
+            {
+                complete(this, new CancellationException("Bulk operation was cancelled"));
+                return;
+            }
+
+            CompletableFuture<?> submitted;
+            try
+            {
+                submitted = action.setRequestPriority(priority).submit();
+            }
+            catch (UnsupportedOperationException e)
+            {
+                // Custom implementations of RestAction might not support priorities
+                submitted = action.submit();
+            }
+            catch (Exception e)
+            {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                submitted = failed;
+            }
+
+            boolean cancel;
+            synchronized (BulkOperationImpl.this)
+            {
+                future = submitted;
+                cancel = cancelled;
+            }
+            submitted.whenComplete((result, error) -> complete(this, error));
+            // Cancelled while submitting, the request was not visible to cancel yet
+            if (cancel)
+                submitted.cancel(false);
+        }
+    }
+
+    private void complete(Pending pending, Throwable error)
+    {
+        synchronized (this)
+        {
+            if (!inFlight.remove(pending))
+                return;
+            Window window = windows.get(pending.bucket);
+            window.inFlight--;
+            // Cancelled requests say nothing about the rate-limit
+            if (!(error instanceof CancellationException))
+                window.update(System.currentTimeMillis() - pending.start, maxPerBucket);
+            // Forget idle buckets which have nothing learned, like the per-channel buckets of a bulk delete
+            if (window.inFlight == 0 && window.limit <= 1)
+                windows.remove(pending.bucket);
+
+            if (error == null)
+                succeeded++;
+            else if (!(error instanceof CancellationException))
+                failed++;
+        }
+
+        if (error != null && !(error instanceof CancellationException))
+            handleFailure(pending.target, error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+        pump();
+    }
+
+    // Additive increase, multiplicative decrease of the requests in flight for one bucket
+    private static class Window
+    {
+        private double limit = 1;
+        private int inFlight;
+        private long fastest = Long.MAX_VALUE;
+
+        private void update(long latency, int max)
+        {
+            fastest = Math.min(fastest, latency);
+            if (latency > SLOW_REQUEST && latency > fastest * 4)
+                limit = Math.max(1, limit / 2);
+            else
+                limit = Math.min(max, limit + 1 / limit);
+        }
+    }
+}
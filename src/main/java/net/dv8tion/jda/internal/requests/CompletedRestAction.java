@@ -18,6 +18,7 @@ package net.dv8tion.jda.internal.requests;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.exceptions.RateLimitedException;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
 
@@ -87,6 +88,13 @@ public class CompletedRestAction<T> implements AuditableRestAction<T>
         return this;
     }
 
+    @Nonnull
+    @Override
+    public AuditableRestAction<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return this;
+    }
+
     @Override
     public void queue(@Nullable Consumer<? super T> success, @Nullable Consumer<? super Throwable> failure)
     {
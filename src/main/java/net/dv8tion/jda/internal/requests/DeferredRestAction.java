@@ -18,6 +18,7 @@ package net.dv8tion.jda.internal.requests;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.exceptions.RateLimitedException;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
 import net.dv8tion.jda.api.requests.restaction.CacheRestAction;
@@ -41,6 +42,7 @@ public class DeferredRestAction<T, R extends RestAction<T>> implements Auditable
     private boolean useCache = true;
     private String reason;
     private long deadline = -1;
+    private RequestPriority priority;
     private BooleanSupplier isAction;
     private BooleanSupplier transitiveChecks;
 
@@ -105,6 +107,22 @@ public class DeferredRestAction<T, R extends RestAction<T>> implements Auditable
         return this;
     }
 
+    @Nonnull
+    @Override
+    public DeferredRestAction<T, R> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        Checks.notNull(priority, "Priority");
+        this.priority = priority;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public RequestPriority getRequestPriority()
+    {
+        return priority == null ? RequestPriority.INTERACTIVE : priority;
+    }
+
     @Nonnull
     @Override
     public CacheRestAction<T> useCache(boolean useCache)
@@ -188,6 +206,8 @@ public class DeferredRestAction<T, R extends RestAction<T>> implements Auditable
         action.setCheck(transitiveChecks);
         if (deadline >= 0)
             action.deadline(deadline);
+        if (priority != null)
+            action.setRequestPriority(priority);
         if (action instanceof AuditableRestAction && reason != null)
             ((AuditableRestAction<?>) action).reason(reason);
         return action;
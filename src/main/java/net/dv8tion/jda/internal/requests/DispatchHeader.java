@@ -0,0 +1,233 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import net.dv8tion.jda.api.exceptions.ParsingException;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+
+/**
+ * The envelope of a gateway dispatch whose {@code d} payload is skipped, read from the JSON token stream.
+ *
+ * <p>The decision is made from {@code t} alone whenever possible, without looking into {@code d}.
+ * Only types which could be dropped for an unavailable guild are scanned for {@code guild_id}, and the scan stops at the first one.
+ * Dispatches which are consumed are left to the regular parser, so their payload is only parsed once.
+ */
+public class DispatchHeader
+{
+    private static final JsonFactory factory = new JsonFactory();
+
+    private final int sequence;
+    private final String type;
+    private final long guildId;
+
+    private DispatchHeader(int sequence, String type, long guildId)
+    {
+        this.sequence = sequence;
+        this.type = type;
+        this.guildId = guildId;
+    }
+
+    /**
+     * Reads the header of a gateway payload, if the payload of the dispatch can be skipped.
+     *
+     * @param  data
+     *         The array containing the JSON payload
+     * @param  offset
+     *         The start of the payload
+     * @param  length
+     *         The length of the payload
+     * @param  filter
+     *         Decides which dispatches are skipped
+     *
+     * @throws ParsingException
+     *         If the payload is not valid JSON
+     *
+     * @return The header of a skipped dispatch, or null if the payload has to be parsed
+     */
+    @Nullable
+    public static DispatchHeader readSkipped(byte[] data, int offset, int length, @Nonnull Filter filter)
+    {
+        try (JsonParser parser = factory.createParser(data, offset, length))
+        {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+
+            int sequence = -1;
+            String type = null;
+            long guildId = 0;
+            boolean payload = false;
+            boolean skipped = false;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME)
+            {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field)
+                {
+                case "op":
+                    if (token != JsonToken.VALUE_NUMBER_INT || parser.getIntValue() != WebSocketCode.DISPATCH)
+                        return null;
+                    break;
+                case "s":
+                    if (token == JsonToken.VALUE_NUMBER_INT)
+                        sequence = parser.getIntValue();
+                    break;
+                case "t":
+                    // Only dispatches have a type
+                    if (token != JsonToken.VALUE_STRING)
+                        return null;
+                    type = parser.getText();
+                    break;
+                case "d":
+                    if (token != JsonToken.START_OBJECT)
+                        return null;
+                    payload = true;
+                    if (type == null)
+                    {
+                        // The type is usually sent first, otherwise we have to look for the guild before knowing if it matters
+                        guildId = readGuildId(parser);
+                        skipRemaining(parser);
+                        break;
+                    }
+                    if (filter.isSkipped(type))
+                        skipped = true;
+                    else if (filter.isGuildFiltered(type))
+                        skipped = filter.isSkipped(type, guildId = readGuildId(parser));
+                    if (!skipped)
+                        return null;
+                    // Fields after the payload are only needed for the sequence
+                    if (sequence >= 0)
+                        return new DispatchHeader(sequence, type, guildId);
+                    skipRemaining(parser);
+                    break;
+                default:
+                    parser.skipChildren();
+                }
+            }
+
+            if (type == null || !payload)
+                return null;
+            if (!skipped)
+                skipped = filter.isSkipped(type) || filter.isGuildFiltered(type) && filter.isSkipped(type, guildId);
+            return skipped ? new DispatchHeader(sequence, type, guildId) : null;
+        }
+        catch (IOException e)
+        {
+            throw new ParsingException(e);
+        }
+    }
+
+    // Stops at the first top-level guild_id, the parser is then positioned on its value
+    private static long readGuildId(JsonParser parser) throws IOException
+    {
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.VALUE_STRING && "guild_id".equals(field))
+                return parseGuildId(parser.getText());
+            if (token == JsonToken.VALUE_NUMBER_INT && "guild_id".equals(field))
+                return parser.getLongValue();
+            parser.skipChildren();
+        }
+        return 0;
+    }
+
+    // Skips the remaining fields of the current object, unless its end has already been reached
+    private static void skipRemaining(JsonParser parser) throws IOException
+    {
+        if (parser.currentToken() == JsonToken.END_OBJECT)
+            return;
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private static long parseGuildId(String value)
+    {
+        try
+        {
+            return Long.parseUnsignedLong(value);
+        }
+        catch (NumberFormatException e)
+        {
+            return 0;
+        }
+    }
+
+    public int getSequence()
+    {
+        return sequence;
+    }
+
+    public String getType()
+    {
+        return type;
+    }
+
+    public long getGuildId()
+    {
+        return guildId;
+    }
+
+    /**
+     * Decides which dispatches are skipped.
+     */
+    public interface Filter
+    {
+        /**
+         * Whether dispatches of this type are never consumed, for instance because no handler exists.
+         *
+         * @param  type
+         *         The dispatch type
+         *
+         * @return True, if the payload is skipped
+         */
+        boolean isSkipped(@Nonnull String type);
+
+        /**
+         * Whether dispatches of this type might be skipped depending on their guild.
+         * <br>Only these dispatches are scanned for {@code guild_id}.
+         *
+         * @param  type
+         *         The dispatch type
+         *
+         * @return True, if {@link #isSkipped(String, long)} has to be checked
+         */
+        boolean isGuildFiltered(@Nonnull String type);
+
+        /**
+         * Whether a dispatch of this type for the provided guild is skipped.
+         *
+         * @param  type
+         *         The dispatch type
+         * @param  guildId
+         *         The id of the guild, or {@code 0} if the payload has no guild
+         *
+         * @return True, if the payload is skipped
+         */
+        boolean isSkipped(@Nonnull String type, long guildId);
+    }
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.handle.SocketHandler;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Distributes dispatches of fully loaded guilds onto a fixed set of ordered lanes.
+ *
+ * <p>Every guild is always assigned to the same lane, which keeps the order of events within a guild.
+ * Everything else, like READY, RESUMED, guild setup and events without a guild, is handled sequentially
+ * on the reading thread, after all lanes have finished their current work.
+ * This means the sequencing path never runs concurrently with a lane.
+ *
+ * <p>State shared by all guilds, like the user cache, is still written by every lane.
+ * These writes are serialized by the write lock of the respective cache view.
+ */
+public class DispatchLanes
+{
+    public static final Logger LOG = JDALogger.getLog(DispatchLanes.class);
+
+    private static final ThreadLocal<Lane> CURRENT_LANE = new ThreadLocal<>();
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    // These events modify state shared by all guilds, or guild setup state
+    private static final Set<String> SEQUENTIAL_TYPES = new HashSet<>(Arrays.asList(
+        "READY", "RESUMED",
+        "GUILD_CREATE", "GUILD_DELETE", "GUILD_MEMBERS_CHUNK", "GUILD_SYNC",
+        "PRESENCES_REPLACE",
+        "VOICE_STATE_UPDATE", "VOICE_SERVER_UPDATE"
+    ));
+
+    private final JDAImpl api;
+    private final WebSocketClient client;
+    private final Lane[] lanes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition idle = lock.newCondition();
+    // Tasks which are queued or running on any lane
+    private int pending = 0;
+    // Lanes which are currently running a task, and how many of those are waiting in awaitIdle
+    private int running = 0;
+    private int waiting = 0;
+    private volatile boolean shutdown = false;
+
+    public DispatchLanes(JDAImpl api, WebSocketClient client, int count)
+    {
+        this.api = api;
+        this.client = client;
+        this.lanes = new Lane[count];
+        CountingThreadFactory threadFactory = new CountingThreadFactory(api::getIdentifierString, "DispatchLane");
+        for (int i = 0; i < count; i++)
+        {
+            Map<String, SocketHandler> handlers = new HashMap<>();
+            client.setupHandlers(handlers);
+            lanes[i] = new Lane(Executors.newSingleThreadExecutor(threadFactory), handlers);
+        }
+    }
+
+    /**
+     * The handlers of the lane running on the current thread.
+     *
+     * @return The handlers, or null if this is not a lane thread
+     */
+    @Nullable
+    public static Map<String, SocketHandler> getCurrentHandlers()
+    {
+        Lane lane = CURRENT_LANE.get();
+        return lane == null ? null : lane.handlers;
+    }
+
+    /**
+     * Schedules the replay of a cached event, if the current thread is a lane.
+     * <br>Replays for the same lane run right after the current dispatch, other replays are moved to the lane of their guild.
+     * This ensures a lane never holds a handler while entering the handler of another lane.
+     *
+     * @param  event
+     *         The cached event
+     * @param  replay
+     *         The task replaying the event
+     *
+     * @return True, if the replay was scheduled. False, if it should be executed directly.
+     */
+    public static boolean scheduleReplay(DataObject event, Runnable replay)
+    {
+        Lane current = CURRENT_LANE.get();
+        if (current == null)
+            return false;
+        current.owner().replay(current, event, replay);
+        return true;
+    }
+
+    /**
+     * Routes the dispatch to the lane of its guild.
+     * <br>If the dispatch cannot run in parallel, this waits for all lanes to become idle.
+     *
+     * @param  raw
+     *         The dispatch payload
+     * @param  responseTotal
+     *         The sequence of the dispatch
+     *
+     * @return True, if the dispatch was routed to a lane. False, if it has to be handled by the caller.
+     */
+    public boolean dispatch(DataObject raw, long responseTotal)
+    {
+        Lane lane = getLane(raw);
+        if (lane == null)
+        {
+            awaitIdle();
+            return false;
+        }
+
+        lane.execute(() -> client.onDispatch(raw, responseTotal, lane.handlers));
+        return true;
+    }
+
+    /**
+     * Waits until no lane is handling a dispatch.
+     *
+     * <p>On the reading thread, this waits until all queued dispatches have been handled.
+     * On a lane thread, this only waits until all other lanes have finished their current dispatch,
+     * since the tasks queued behind the calling lane cannot run before it returns.
+     * Lanes which are waiting in this method themselves are not waited for, which prevents deadlocks between lanes.
+     */
+    public void awaitIdle()
+    {
+        boolean onLane = CURRENT_LANE.get() != null;
+        lock.lock();
+        try
+        {
+            if (onLane)
+            {
+                waiting++;
+                idle.signalAll(); // other waiting lanes no longer have to wait for this one
+            }
+            try
+            {
+                while (onLane ? running > waiting : pending > 0)
+                    idle.await();
+            }
+            finally
+            {
+                if (onLane)
+                    waiting--;
+            }
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops all lanes and waits for the dispatches which are currently running.
+     * <br>Queued dispatches are dropped. When this is called on a lane thread, the calling lane is not waited for.
+     */
+    public void shutdown()
+    {
+        shutdown = true;
+        for (Lane lane : lanes)
+            lane.executor.shutdown();
+
+        Lane current = CURRENT_LANE.get();
+        if (current != null)
+            setWaiting(1); // lanes in awaitIdle should not wait for this lane
+        try
+        {
+            awaitTermination(current);
+        }
+        finally
+        {
+            if (current != null)
+                setWaiting(-1);
+        }
+    }
+
+    public boolean isShutdown()
+    {
+        return shutdown;
+    }
+
+    private void awaitTermination(Lane current)
+    {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        for (Lane lane : lanes)
+        {
+            if (lane == current)
+                continue;
+            try
+            {
+                if (!lane.executor.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS))
+                    LOG.warn("Dispatch lane did not finish its current event within {} seconds, shutting down anyway", SHUTDOWN_TIMEOUT_SECONDS);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Nullable
+    private Lane getLane(DataObject raw)
+    {
+        if (api.getStatus() != JDA.Status.CONNECTED)
+            return null;
+        String type = raw.getString("t", null);
+        if (type == null || SEQUENTIAL_TYPES.contains(type))
+            return null;
+        DataObject content = raw.optObject("d").orElse(null);
+        if (content == null)
+            return null;
+
+        long guildId = content.getUnsignedLong("guild_id", 0L);
+        // Events for guilds that are still being setup have to go through the setup controller
+        if (guildId == 0L || api.getGuildsView().get(guildId) == null || api.getGuildSetupController().isLocked(guildId))
+            return null;
+        return getLane(guildId);
+    }
+
+    private Lane getLane(long guildId)
+    {
+        // Mix the bits, the lower bits of snowflakes are often the same
+        long hash = guildId * 0x9E3779B97F4A7C15L;
+        return lanes[Math.floorMod((int) (hash >>> 32), lanes.length)];
+    }
+
+    private void replay(Lane current, DataObject event, Runnable replay)
+    {
+        long guildId = event.optObject("d").map(d -> d.getUnsignedLong("guild_id", 0L)).orElse(0L);
+        Lane target = guildId == 0L ? current : getLane(guildId);
+        if (target == current)
+            current.deferred.add(replay);
+        else
+            target.execute(replay);
+    }
+
+    private void setWaiting(int delta)
+    {
+        lock.lock();
+        try
+        {
+            waiting += delta;
+            idle.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void onStart()
+    {
+        lock.lock();
+        try
+        {
+            running++;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private void onComplete(boolean started)
+    {
+        lock.lock();
+        try
+        {
+            pending--;
+            if (started)
+                running--;
+            idle.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+    private class Lane
+    {
+        private final ExecutorService executor;
+        private final Map<String, SocketHandler> handlers;
+        // Only accessed by the thread of this lane
+        private final Deque<Runnable> deferred = new ArrayDeque<>();
+
+        private Lane(ExecutorService executor, Map<String, SocketHandler> handlers)
+        {
+            this.executor = executor;
+            this.handlers = handlers;
+        }
+
+        private DispatchLanes owner()
+        {
+            return DispatchLanes.this;
+        }
+
+        private void execute(Runnable task)
+        {
+            lock.lock();
+            try
+            {
+                pending++;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            try
+            {
+                executor.execute(() -> run(task));
+            }
+            catch (RejectedExecutionException e)
+            {
+                LOG.debug("Dropped dispatch because the lanes are shutdown");
+                onComplete(false);
+            }
+        }
+
+        private void run(Runnable task)
+        {
+            if (shutdown)
+            {
+                // Dispatches queued before the shutdown are dropped, the caches are about to be cleared
+                onComplete(false);
+                return;
+            }
+
+            onStart();
+            api.setContext();
+            WebSocketClient.WS_THREAD.set(true);
+            CURRENT_LANE.set(this);
+            try
+            {
+                task.run();
+                Runnable replay;
+                while ((replay = deferred.poll()) != null)
+                    replay.run();
+            }
+            catch (Throwable t)
+            {
+                LOG.error("Encountered exception in dispatch lane", t);
+            }
+            finally
+            {
+                deferred.clear();
+                CURRENT_LANE.remove();
+                onComplete(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public class FileBucketStore implements RestRateLimiter.BucketStore
+{
+    private static final Logger LOG = JDALogger.getLog(RestRateLimiter.class);
+
+    private final Path file;
+
+    public FileBucketStore(@Nonnull Path file)
+    {
+        this.file = file.toAbsolutePath();
+    }
+
+    @Nullable
+    @Override
+    public DataObject load()
+    {
+        if (!Files.exists(file))
+            return null;
+        try (InputStream stream = Files.newInputStream(file))
+        {
+            return DataObject.fromJson(stream);
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Failed to load rate-limit buckets from {}", file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void save(@Nonnull DataObject snapshot)
+    {
+        Path temp = null;
+        try
+        {
+            // Write to a temporary file first, to avoid leaving a partial file behind
+            Path directory = file.getParent();
+            Files.createDirectories(directory);
+            temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            Files.write(temp, snapshot.toJson());
+            try
+            {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch (AtomicMoveNotSupportedException e)
+            {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Failed to save rate-limit buckets to {}", file, e);
+            if (temp != null)
+            {
+                try
+                {
+                    Files.deleteIfExists(temp);
+                }
+                catch (IOException ignored) {}
+            }
+        }
+    }
+}
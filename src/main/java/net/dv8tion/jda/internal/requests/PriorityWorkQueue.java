@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.RequestPriority;
+import net.dv8tion.jda.api.requests.RestRateLimiter.Work;
+
+import javax.annotation.Nonnull;
+import java.util.AbstractQueue;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * The request queue of a rate-limit bucket, with one lane per {@link RequestPriority}.
+ *
+ * <p>Lanes are served with smooth weighted round-robin, every lane which has queued requests
+ * receives a share of the polls proportional to its weight. Empty lanes do not take part,
+ * so a single lane gets all polls while nothing else is queued.
+ * Requests within one lane keep their order.
+ *
+ * <p>Requests can be added and removed concurrently, but only one thread should poll at a time.
+ */
+public class PriorityWorkQueue extends AbstractQueue<Work>
+{
+    private static final RequestPriority[] PRIORITIES = RequestPriority.values();
+
+    private final Deque<Work>[] lanes;
+    private final int[] credits = new int[PRIORITIES.length];
+
+    @SuppressWarnings("unchecked")
+    public PriorityWorkQueue()
+    {
+        lanes = new Deque[PRIORITIES.length];
+        for (int i = 0; i < lanes.length; i++)
+            lanes[i] = new ConcurrentLinkedDeque<>();
+    }
+
+    @Override
+    public boolean offer(@Nonnull Work work)
+    {
+        return lane(work).offerLast(work);
+    }
+
+    /**
+     * Puts a request back at the head of its lane, for instance after it was rate-limited.
+     *
+     * @param work
+     *        The request to retry
+     */
+    public void addFirst(@Nonnull Work work)
+    {
+        lane(work).addFirst(work);
+    }
+
+    @Override
+    public synchronized Work poll()
+    {
+        while (true)
+        {
+            int index = select();
+            if (index < 0)
+                return null;
+
+            int total = 0;
+            for (int i = 0; i < lanes.length; i++)
+            {
+                // Idle lanes forget their credits, so they cannot build up a burst while nothing is queued
+                if (lanes[i].isEmpty())
+                {
+                    credits[i] = 0;
+                    continue;
+                }
+                credits[i] += PRIORITIES[i].getWeight();
+                total += PRIORITIES[i].getWeight();
+            }
+            credits[index] -= total;
+
+            Work work = lanes[index].pollFirst();
+            // The lane might have been emptied concurrently by removeIf
+            if (work != null)
+                return work;
+        }
+    }
+
+    @Override
+    public synchronized Work peek()
+    {
+        int index = select();
+        return index < 0 ? null : lanes[index].peekFirst();
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        for (Deque<Work> lane : lanes)
+        {
+            if (!lane.isEmpty())
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int size()
+    {
+        int size = 0;
+        for (Deque<Work> lane : lanes)
+            size += lane.size();
+        return size;
+    }
+
+    @Nonnull
+    @Override
+    public Iterator<Work> iterator()
+    {
+        return new Iterator<Work>()
+        {
+            private int index = 0;
+            private Iterator<Work> current = lanes[0].iterator();
+
+            @Override
+            public boolean hasNext()
+            {
+                while (!current.hasNext())
+                {
+                    if (++index >= lanes.length)
+                        return false;
+                    current = lanes[index].iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Work next()
+            {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return current.next();
+            }
+
+            @Override
+            public void remove()
+            {
+                current.remove();
+            }
+        };
+    }
+
+    // Picks the non-empty lane which would have the most credits after this round
+    private int select()
+    {
+        int selected = -1;
+        int best = Integer.MIN_VALUE;
+        for (int i = 0; i < lanes.length; i++)
+        {
+            if (lanes[i].isEmpty())
+                continue;
+            int credit = credits[i] + PRIORITIES[i].getWeight();
+            if (credit > best)
+            {
+                best = credit;
+                selected = i;
+            }
+        }
+        return selected;
+    }
+
+    private Deque<Work> lane(Work work)
+    {
+        return lanes[work.getRequestPriority().ordinal()];
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.Method;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The persisted state of a rate-limiter, used with {@link RestRateLimiter.BucketStore}.
+ *
+ * <pre>{@code
+ * {
+ *   "hashes": [{ "method": "POST", "route": "channels/{channel_id}/messages", "hash": "abc" }],
+ *   "buckets": [{ "id": "abc:channel_id=123", "remaining": 0, "reset": 1700000000000 }]
+ * }
+ * }</pre>
+ */
+public class RateLimitSnapshot
+{
+    private static final Logger LOG = JDALogger.getLog(RestRateLimiter.class);
+
+    private final Map<Route, String> hashes = new HashMap<>();
+    private final Map<String, BucketState> buckets = new ConcurrentHashMap<>();
+
+    @Nonnull
+    public Map<Route, String> getHashes()
+    {
+        return hashes;
+    }
+
+    /**
+     * Removes the saved state of a bucket, used when the bucket is created.
+     *
+     * @param  bucketId
+     *         The bucket id
+     * @param  now
+     *         The current time in milliseconds
+     *
+     * @return The state, or null if the bucket was not saved or its reset time has passed
+     */
+    @Nullable
+    public BucketState removeBucket(@Nonnull String bucketId, long now)
+    {
+        if (buckets.isEmpty())
+            return null;
+        BucketState state = buckets.remove(bucketId);
+        return state == null || state.reset <= now ? null : state;
+    }
+
+    public void putHash(@Nonnull Route route, @Nonnull String hash)
+    {
+        hashes.put(route, hash);
+    }
+
+    public void putBucket(@Nonnull String bucketId, int remaining, long reset)
+    {
+        buckets.put(bucketId, new BucketState(remaining, reset));
+    }
+
+    @Nonnull
+    public DataObject toData()
+    {
+        DataArray hashArray = DataArray.empty();
+        hashes.forEach((route, hash) -> hashArray.add(DataObject.empty()
+                .put("method", route.getMethod().name())
+                .put("route", route.getRoute())
+                .put("hash", hash)));
+
+        DataArray bucketArray = DataArray.empty();
+        buckets.forEach((id, state) -> bucketArray.add(DataObject.empty()
+                .put("id", id)
+                .put("remaining", state.remaining)
+                .put("reset", state.reset)));
+
+        return DataObject.empty()
+                .put("hashes", hashArray)
+                .put("buckets", bucketArray);
+    }
+
+    @Nonnull
+    public static RateLimitSnapshot load(@Nullable RestRateLimiter.BucketStore store)
+    {
+        RateLimitSnapshot snapshot = new RateLimitSnapshot();
+        if (store == null)
+            return snapshot;
+
+        DataObject data;
+        try
+        {
+            data = store.load();
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Failed to load rate-limit buckets", e);
+            return snapshot;
+        }
+
+        if (data == null)
+            return snapshot;
+
+        data.optArray("hashes").ifPresent(array -> array.stream(DataArray::getObject).forEach(entry -> {
+            try
+            {
+                Method method = Method.valueOf(entry.getString("method"));
+                snapshot.putHash(Route.custom(method, entry.getString("route")), entry.getString("hash"));
+            }
+            catch (Exception e)
+            {
+                LOG.debug("Skipping invalid route hash {}", entry, e);
+            }
+        }));
+
+        long now = System.currentTimeMillis();
+        data.optArray("buckets").ifPresent(array -> array.stream(DataArray::getObject).forEach(entry -> {
+            try
+            {
+                long reset = entry.getLong("reset");
+                if (reset > now)
+                    snapshot.putBucket(entry.getString("id"), entry.getInt("remaining"), reset);
+            }
+            catch (Exception e)
+            {
+                LOG.debug("Skipping invalid bucket {}", entry, e);
+            }
+        }));
+
+        LOG.debug("Loaded {} route hashes and {} buckets", snapshot.hashes.size(), snapshot.buckets.size());
+        return snapshot;
+    }
+
+    public static void save(@Nullable RestRateLimiter.BucketStore store, @Nonnull RateLimitSnapshot snapshot)
+    {
+        if (store == null)
+            return;
+        try
+        {
+            store.save(snapshot.toData());
+        }
+        catch (Exception e)
+        {
+            LOG.warn("Failed to save rate-limit buckets", e);
+        }
+    }
+
+    public static class BucketState
+    {
+        public final int remaining;
+        public final long reset;
+
+        public BucketState(int remaining, long reset)
+        {
+            this.remaining = remaining;
+            this.reset = reset;
+        }
+    }
+}
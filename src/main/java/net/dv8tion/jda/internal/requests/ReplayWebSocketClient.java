@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.GatewayRecording;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Gateway client which reads its frames from a {@link GatewayRecording} instead of a socket.
+ *
+ * <p>All frames are passed through the same decompression, parsing, and handler code as a live connection.
+ * Nothing is ever sent, heartbeats and outgoing requests are dropped.
+ * The client is not registered with the session controller, and replays are never recorded.
+ */
+public class ReplayWebSocketClient extends WebSocketClient
+{
+    protected final GatewayRecording recording;
+
+    public ReplayWebSocketClient(JDAImpl api, GatewayRecording recording, int gatewayIntents)
+    {
+        super(api, recording.getCompression(), gatewayIntents, recording.getEncoding(), null);
+        this.recording = recording;
+        this.connectNode = null;
+    }
+
+    public void replay() throws IOException
+    {
+        if (compression != Compression.NONE)
+            setupDecompressor();
+        initiating = true;
+
+        long start = System.nanoTime();
+        int frames = 0;
+        GatewayRecording.Frame frame;
+        while ((frame = recording.next()) != null && !shutdown)
+        {
+            frames++;
+            switch (frame.getType())
+            {
+            case CONNECT:
+                synchronized (readLock)
+                {
+                    if (decompressor != null)
+                        decompressor.reset();
+                }
+                initiating = true;
+                api.setStatus(JDA.Status.IDENTIFYING_SESSION);
+                break;
+            case TEXT:
+                onTextMessage(null, frame.getData());
+                break;
+            case BINARY:
+                try
+                {
+                    onBinaryMessage(null, frame.getData());
+                }
+                catch (DataFormatException e)
+                {
+                    throw new IOException("Failed to decompress recorded frame " + frames, e);
+                }
+                break;
+            }
+        }
+
+        if (dispatchLanes != null)
+            dispatchLanes.awaitIdle();
+        LOG.info("Replayed {} frames in {} ms", frames, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    protected synchronized void connect()
+    {
+        // The frames are provided by replay() instead
+    }
+
+    @Override
+    protected void setupSendingThread() {}
+
+    @Override
+    protected void setupKeepAlive(int timeout) {}
+
+    @Override
+    protected void sendKeepAlive() {}
+
+    @Override
+    public void send(DataObject message) {}
+
+    @Override
+    public void sendChunkRequest(DataObject request) {}
+
+    @Override
+    protected boolean send(DataObject message, boolean skipQueue)
+    {
+        // Recorded INVALIDATE_SESSION frames trigger an IDENTIFY, which is dropped like everything else
+        LOG.trace("Dropped replayed payload {}", message);
+        return true;
+    }
+
+    @Override
+    public void close() {}
+
+    @Override
+    public void close(int code) {}
+
+    @Override
+    public void close(int code, String reason) {}
+}
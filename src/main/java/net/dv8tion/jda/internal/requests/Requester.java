@@ -24,9 +24,11 @@ import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
 import okhttp3.internal.http.HttpMethod;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
@@ -39,12 +41,19 @@ import java.io.InputStream;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 public class Requester
@@ -61,6 +70,8 @@ public class Requester
         529, // The service is overloaded
     };
 
+    private static final int MAX_ATTEMPTS = 4;
+
     public static final Logger LOG = JDALogger.getLog(Requester.class);
     @SuppressWarnings("deprecation")
     public static final RequestBody EMPTY_BODY = RequestBody.create(null, new byte[0]);
@@ -77,6 +88,11 @@ public class Requester
     private final Consumer<? super okhttp3.Request.Builder> customBuilder;
 
     private final OkHttpClient httpClient;
+    // Compiled route -> Queued GET request, used to share the response with identical requests (null if disabled)
+    private final ConcurrentMap<String, WorkTask> inflight;
+    private final RestMetrics metrics;
+    // Route template -> Number of requests queued in the rate-limiter (null if metrics are disabled)
+    private final ConcurrentMap<Route, AtomicInteger> queueSizes;
 
     //when we actually set the shard info we can also set the mdc context map, before it makes no sense
     private boolean isContextReady = false;
@@ -96,6 +112,9 @@ public class Requester
         this.userAgent = config.getUserAgent();
         this.customBuilder = config.getCustomBuilder();
         this.httpClient = this.api.getHttpClient();
+        this.inflight = config.isCoalesceRequests() ? new ConcurrentHashMap<>() : null;
+        this.metrics = config.getMetrics();
+        this.queueSizes = metrics != null ? new ConcurrentHashMap<>() : null;
     }
 
     public void setContextReady(boolean ready)
@@ -123,11 +142,84 @@ public class Requester
             throw new RejectedExecutionException("The Requester has been stopped! No new requests can be requested!");
 
         if (apiRequest.shouldQueue())
-            rateLimiter.enqueue(new WorkTask(apiRequest));
+            enqueue(apiRequest);
         else
             execute(new WorkTask(apiRequest), true);
     }
 
+    private void enqueue(Request<?> apiRequest)
+    {
+        WorkTask task = new WorkTask(apiRequest);
+        String key = getCoalescingKey(apiRequest);
+        if (key != null)
+        {
+            task.key = key;
+            WorkTask leader;
+            while ((leader = inflight.putIfAbsent(key, task)) != null)
+            {
+                // An identical request is already queued, it will share its response with this one
+                if (leader.follow(apiRequest))
+                {
+                    LOG.trace("Coalescing request {} {} with queued request", apiRequest.getRoute().getMethod(), key);
+                    return;
+                }
+                // The response has already been handled, so this request has to be sent again
+                inflight.remove(key, leader);
+            }
+        }
+        task.queued = true;
+        updateQueueSize(task, 1);
+        rateLimiter.enqueue(task);
+    }
+
+    private void updateQueueSize(WorkTask task, int delta)
+    {
+        if (metrics == null)
+            return;
+        Route route = task.getRoute().getBaseRoute();
+        int size = queueSizes.computeIfAbsent(route, k -> new AtomicInteger()).addAndGet(delta);
+        metrics.onQueueSize(route, size);
+    }
+
+    private void reportResponse(WorkTask task, okhttp3.Response response, long nanos, boolean retry, int attempt)
+    {
+        if (metrics == null)
+            return;
+        Route route = task.getRoute().getBaseRoute();
+        String bucket = response.header(RestRateLimiter.HASH_HEADER);
+        int code = response.code();
+        metrics.onResponse(route, bucket, code, nanos);
+        if (retry)
+            metrics.onRetry(route, attempt + 1, code);
+
+        if (code != 429)
+            return;
+        RestMetrics.RateLimitType type;
+        if (response.header(RestRateLimiter.GLOBAL_HEADER) != null)
+            type = RestMetrics.RateLimitType.GLOBAL;
+        else if (response.header("via") == null)
+            type = RestMetrics.RateLimitType.CLOUDFLARE;
+        else if ("shared".equals(response.header(RestRateLimiter.SCOPE_HEADER)))
+            type = RestMetrics.RateLimitType.SHARED;
+        else
+            type = RestMetrics.RateLimitType.BUCKET;
+        metrics.onRateLimited(route, bucket, type, parseRetry(response));
+    }
+
+    @Nullable
+    private String getCoalescingKey(Request<?> apiRequest)
+    {
+        if (inflight == null)
+            return null;
+        // Only requests without side effects can be shared
+        Route.CompiledRoute route = apiRequest.getRoute();
+        if (route.getMethod() != Method.GET || apiRequest.getBody() != null)
+            return null;
+        if (apiRequest.getHeaders() != null && !apiRequest.getHeaders().isEmpty())
+            return null;
+        return route.getCompiledRoute();
+    }
+
     private static boolean isRetry(Throwable e)
     {
         return e instanceof SocketException             // Socket couldn't be created or access failed
@@ -160,62 +252,42 @@ public class Requester
     public okhttp3.Response execute(WorkTask task, boolean retried, boolean handleOnRatelimit)
     {
         Route.CompiledRoute route = task.getRoute();
-
-        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
-
-        String url = baseUrl + route.getCompiledRoute();
-        builder.url(url);
-
+        okhttp3.Request request = createRequest(task);
         Request<?> apiRequest = task.request;
 
-        applyBody(apiRequest, builder);
-        applyHeaders(apiRequest, builder);
-        if (customBuilder != null)
-        {
-            try
-            {
-                customBuilder.accept(builder);
-            }
-            catch (Exception e)
-            {
-                LOG.error("Custom request builder caused exception", e);
-            }
-        }
-
-        okhttp3.Request request = builder.build();
-
         Set<String> rays = new LinkedHashSet<>();
-        okhttp3.Response[] responses = new okhttp3.Response[4];
+        okhttp3.Response[] responses = new okhttp3.Response[MAX_ATTEMPTS];
         // we have an array of all responses to later close them all at once
         //the response below this comment is used as the first successful response from the server
         okhttp3.Response lastResponse = null;
         try
         {
-            LOG.trace("Executing request {} {}", task.getRoute().getMethod(), url);
-            int code = 0;
+            LOG.trace("Executing request {} {}", route.getMethod(), request.url());
             for (int attempt = 0; attempt < responses.length; attempt++)
             {
-                if (apiRequest.isSkipped())
+                if (task.isSkipped())
                     return null;
+                task.start();
 
                 Call call = httpClient.newCall(request);
+                long start = System.nanoTime();
                 lastResponse = call.execute();
-                code = lastResponse.code();
                 responses[attempt] = lastResponse;
                 String cfRay = lastResponse.header("CF-RAY");
                 if (cfRay != null)
                     rays.add(cfRay);
 
                 // Retry a few specific server errors that are related to server issues
-                if (!shouldRetry(code))
+                boolean retry = shouldRetry(lastResponse.code()) && attempt + 1 < responses.length;
+                reportResponse(task, lastResponse, System.nanoTime() - start, retry, attempt);
+                if (!shouldRetry(lastResponse.code()))
                     break;
 
                 LOG.debug("Requesting {} -> {} returned status {}... retrying (attempt {})",
-                        apiRequest.getRoute().getMethod(),
-                        url, code, attempt + 1);
+                        route.getMethod(), request.url(), lastResponse.code(), attempt + 1);
                 try
                 {
-                    Thread.sleep(500 << attempt);
+                    Thread.sleep(getRetryDelay(attempt));
                 }
                 catch (InterruptedException ignored)
                 {
@@ -223,76 +295,136 @@ public class Requester
                 }
             }
 
-            LOG.trace("Finished Request {} {} with code {}", route.getMethod(), lastResponse.request().url(), code);
-
-            if (shouldRetry(code))
+            return handleResult(task, lastResponse, rays, handleOnRatelimit);
+        }
+        catch (IOException e)
+        {
+            if (retryOnTimeout && !retried && isRetry(e))
             {
-                //Epic failure from other end. Attempted 4 times.
-                task.handleResponse(lastResponse, -1, rays);
-                return null;
+                if (metrics != null)
+                    metrics.onRetry(route.getBaseRoute(), 1, -1);
+                return execute(task, true, handleOnRatelimit);
             }
+            handleError(task, e, rays);
+            return null;
+        }
+        catch (Exception e)
+        {
+            handleError(task, e, rays);
+            return null;
+        }
+        finally
+        {
+            closeAll(responses);
+        }
+    }
+
+    /**
+     * Executes a Request without blocking the calling thread.
+     * <br>The response is handled in the callback of the HTTP client and retries are scheduled on the rate-limit scheduler.
+     *
+     * @param  task
+     *         The API request that needs to be sent
+     *
+     * @return Future completing with the same result as {@link #execute(WorkTask)}
+     */
+    public CompletableFuture<okhttp3.Response> executeAsync(WorkTask task)
+    {
+        CompletableFuture<okhttp3.Response> future = new CompletableFuture<>();
+        new AsyncExecution(task, createRequest(task), false, future).start();
+        return future;
+    }
 
-            if (!rays.isEmpty())
-                LOG.debug("Received response with following cf-rays: {}", rays);
+    private okhttp3.Request createRequest(WorkTask task)
+    {
+        okhttp3.Request.Builder builder = new okhttp3.Request.Builder();
 
-            if (handleOnRatelimit && code == 429)
-            {
-                long retryAfter = parseRetry(lastResponse);
-                task.handleResponse(lastResponse, retryAfter, rays);
-            }
-            else if (code != 429)
+        String url = baseUrl + task.getRoute().getCompiledRoute();
+        builder.url(url);
+
+        Request<?> apiRequest = task.request;
+
+        applyBody(apiRequest, builder);
+        applyHeaders(apiRequest, builder);
+        if (customBuilder != null)
+        {
+            try
             {
-                task.handleResponse(lastResponse, rays);
+                customBuilder.accept(builder);
             }
-            else if (getContentType(lastResponse).startsWith("application/json")) // potentially not json when cloudflare does 429
+            catch (Exception e)
             {
-                // On 429, replace the retry-after header if its wrong (discord moment)
-                // We just pick whichever is bigger between body and header
-                try (InputStream body = IOUtil.getBody(lastResponse))
-                {
-                    long retryAfterBody = (long) Math.ceil(DataObject.fromJson(body).getDouble("retry_after", 0));
-                    long retryAfterHeader = Long.parseLong(lastResponse.header(RestRateLimiter.RETRY_AFTER_HEADER));
-                    lastResponse = lastResponse.newBuilder()
-                            .header(RestRateLimiter.RETRY_AFTER_HEADER, Long.toString(Math.max(retryAfterHeader, retryAfterBody)))
-                            .build();
-                }
-                catch (Exception e)
-                {
-                    LOG.warn("Failed to parse retry-after response body", e);
-                }
+                LOG.error("Custom request builder caused exception", e);
             }
-
-            return lastResponse;
         }
-        catch (UnknownHostException e)
+
+        return builder.build();
+    }
+
+    private okhttp3.Response handleResult(WorkTask task, okhttp3.Response lastResponse, Set<String> rays, boolean handleOnRatelimit)
+    {
+        int code = lastResponse.code();
+        LOG.trace("Finished Request {} {} with code {}", task.getRoute().getMethod(), lastResponse.request().url(), code);
+
+        if (shouldRetry(code))
         {
-            LOG.error("DNS resolution failed: {}", e.getMessage());
-            task.handleResponse(e, rays);
+            //Epic failure from other end. Attempted 4 times.
+            task.handleResponse(lastResponse, -1, rays);
             return null;
         }
-        catch (IOException e)
+
+        if (!rays.isEmpty())
+            LOG.debug("Received response with following cf-rays: {}", rays);
+
+        if (handleOnRatelimit && code == 429)
         {
-            if (retryOnTimeout && !retried && isRetry(e))
-                return execute(task, true, handleOnRatelimit);
-            LOG.error("There was an I/O error while executing a REST request: {}", e.getMessage());
-            task.handleResponse(e, rays);
-            return null;
+            long retryAfter = parseRetry(lastResponse);
+            task.handleResponse(lastResponse, retryAfter, rays);
         }
-        catch (Exception e)
+        else if (code != 429)
         {
-            LOG.error("There was an unexpected error while executing a REST request", e);
-            task.handleResponse(e, rays);
-            return null;
+            task.handleResponse(lastResponse, rays);
         }
-        finally
+        else if (getContentType(lastResponse).startsWith("application/json")) // potentially not json when cloudflare does 429
         {
-            for (okhttp3.Response r : responses)
+            // On 429, replace the retry-after header if its wrong (discord moment)
+            // We just pick whichever is bigger between body and header
+            try (InputStream body = IOUtil.getBody(lastResponse))
             {
-                if (r == null)
-                    break;
-                r.close();
+                long retryAfterBody = (long) Math.ceil(DataObject.fromJson(body).getDouble("retry_after", 0));
+                long retryAfterHeader = Long.parseLong(lastResponse.header(RestRateLimiter.RETRY_AFTER_HEADER));
+                lastResponse = lastResponse.newBuilder()
+                        .header(RestRateLimiter.RETRY_AFTER_HEADER, Long.toString(Math.max(retryAfterHeader, retryAfterBody)))
+                        .build();
+            }
+            catch (Exception e)
+            {
+                LOG.warn("Failed to parse retry-after response body", e);
             }
         }
+
+        return lastResponse;
+    }
+
+    private void handleError(WorkTask task, Exception e, Set<String> rays)
+    {
+        if (e instanceof UnknownHostException)
+            LOG.error("DNS resolution failed: {}", e.getMessage());
+        else if (e instanceof IOException)
+            LOG.error("There was an I/O error while executing a REST request: {}", e.getMessage());
+        else
+            LOG.error("There was an unexpected error while executing a REST request", e);
+        task.handleResponse(e, rays);
+    }
+
+    private static void closeAll(okhttp3.Response[] responses)
+    {
+        for (okhttp3.Response r : responses)
+        {
+            if (r == null)
+                break;
+            r.close();
+        }
     }
 
     private void applyBody(Request<?> apiRequest, okhttp3.Request.Builder builder)
@@ -351,6 +483,11 @@ public class Requester
         rateLimiter.stop(shutdown, callback);
     }
 
+    private static long getRetryDelay(int attempt)
+    {
+        return 500L << attempt;
+    }
+
     private static boolean shouldRetry(int code)
     {
         if (code < RETRY_ERROR_CODES[0] || code > RETRY_ERROR_CODES[RETRY_ERROR_CODES.length - 1])
@@ -375,16 +512,143 @@ public class Requester
         return type == null ? "" : type.toLowerCase(Locale.ROOT);
     }
 
+    private class AsyncExecution implements Callback
+    {
+        private final WorkTask task;
+        private final okhttp3.Request request;
+        private final boolean retried;
+        private final CompletableFuture<okhttp3.Response> future;
+        private final Set<String> rays = new LinkedHashSet<>();
+        private final okhttp3.Response[] responses = new okhttp3.Response[MAX_ATTEMPTS];
+        private int attempt = 0;
+        private long start;
+
+        private AsyncExecution(WorkTask task, okhttp3.Request request, boolean retried, CompletableFuture<okhttp3.Response> future)
+        {
+            this.task = task;
+            this.request = request;
+            this.retried = retried;
+            this.future = future;
+        }
+
+        private void start()
+        {
+            if (task.isSkipped())
+            {
+                closeAll(responses);
+                future.complete(null);
+                return;
+            }
+
+            if (attempt == 0)
+                LOG.trace("Executing request {} {}", task.getRoute().getMethod(), request.url());
+            task.start();
+            start = System.nanoTime();
+            httpClient.newCall(request).enqueue(this);
+        }
+
+        @Override
+        public void onResponse(@Nonnull Call call, @Nonnull okhttp3.Response response)
+        {
+            responses[attempt] = response;
+            String cfRay = response.header("CF-RAY");
+            if (cfRay != null)
+                rays.add(cfRay);
+
+            // Retry a few specific server errors that are related to server issues
+            boolean retry = shouldRetry(response.code()) && attempt + 1 < responses.length;
+            reportResponse(task, response, System.nanoTime() - start, retry, attempt);
+            if (retry)
+            {
+                LOG.debug("Requesting {} -> {} returned status {}... retrying (attempt {})",
+                        task.getRoute().getMethod(), request.url(), response.code(), attempt + 1);
+                try
+                {
+                    api.getRateLimitPool().schedule(this::start, getRetryDelay(attempt++), TimeUnit.MILLISECONDS);
+                    return;
+                }
+                catch (RejectedExecutionException ignored)
+                {
+                    // The scheduler is shutdown, handle the last response instead
+                }
+            }
+
+            try
+            {
+                future.complete(handleResult(task, response, rays, false));
+            }
+            catch (Exception e)
+            {
+                handleError(task, e, rays);
+                future.complete(null);
+            }
+            finally
+            {
+                closeAll(responses);
+            }
+        }
+
+        @Override
+        public void onFailure(@Nonnull Call call, @Nonnull IOException e)
+        {
+            closeAll(responses);
+            if (retryOnTimeout && !retried && isRetry(e))
+            {
+                if (metrics != null)
+                    metrics.onRetry(task.getRoute().getBaseRoute(), 1, -1);
+                new AsyncExecution(task, request, true, future).start();
+                return;
+            }
+
+            try
+            {
+                handleError(task, e, rays);
+            }
+            finally
+            {
+                future.complete(null);
+            }
+        }
+    }
+
     private class WorkTask implements RestRateLimiter.Work
     {
-        private final Request<?> request;
+        // The request which is sent, replaced by a follower if it is skipped before execution
+        private volatile Request<?> request;
         private boolean done;
 
+        // Coalescing key and identical requests waiting for the response of this task
+        private String key;
+        private List<Request<?>> followers;
+        private boolean completed;
+
+        // Whether this task was queued in the rate-limiter, and whether it has left the queue since
+        private final long created = System.nanoTime();
+        private boolean queued;
+        private boolean dequeued;
+
         private WorkTask(Request<?> request)
         {
             this.request = request;
         }
 
+        private void start()
+        {
+            if (metrics == null || !dequeue())
+                return;
+            metrics.onRequestStarted(getRoute().getBaseRoute(), queued ? System.nanoTime() - created : 0);
+        }
+
+        private synchronized boolean dequeue()
+        {
+            if (dequeued)
+                return false;
+            dequeued = true;
+            if (queued)
+                updateQueueSize(this, -1);
+            return true;
+        }
+
         @Nonnull
         @Override
         public Route.CompiledRoute getRoute()
@@ -406,10 +670,34 @@ public class Requester
             return Requester.this.execute(this);
         }
 
+        @Nonnull
+        @Override
+        public CompletableFuture<okhttp3.Response> executeAsync()
+        {
+            return Requester.this.executeAsync(this);
+        }
+
         @Override
         public boolean isSkipped()
         {
-            return request.isSkipped();
+            // Request#isSkipped runs user checks and failure callbacks, so it is never called while holding the lock
+            Request<?> current = request;
+            while (current.isSkipped())
+            {
+                synchronized (this)
+                {
+                    // The identical requests waiting for the response still need it, the next one is sent instead
+                    if (followers == null || followers.isEmpty())
+                    {
+                        complete();
+                        if (metrics != null)
+                            dequeue();
+                        return true;
+                    }
+                    current = request = followers.remove(0);
+                }
+            }
+            return false;
         }
 
         @Override
@@ -424,34 +712,109 @@ public class Requester
             return request.isPriority();
         }
 
+        @Nonnull
         @Override
-        public boolean isCancelled()
+        public RequestPriority getRequestPriority()
         {
-            return request.isCancelled();
+            return request.getRequestPriority();
+        }
+
+        @Override
+        public synchronized boolean isCancelled()
+        {
+            return request.isCancelled() && (followers == null || followers.stream().allMatch(Request::isCancelled));
         }
 
         @Override
         public void cancel()
         {
-            request.cancel();
+            List<Request<?>> requests;
+            synchronized (this)
+            {
+                requests = new ArrayList<>();
+                requests.add(request);
+                if (followers != null)
+                    requests.addAll(followers);
+            }
+            requests.forEach(Request::cancel);
+        }
+
+        private synchronized boolean follow(Request<?> follower)
+        {
+            if (completed)
+                return false;
+            if (followers == null)
+                followers = new ArrayList<>();
+            followers.add(follower);
+            return true;
+        }
+
+        private synchronized List<Request<?>> complete()
+        {
+            completed = true;
+            if (key != null)
+                inflight.remove(key, this);
+            List<Request<?>> result = followers == null ? Collections.emptyList() : followers;
+            followers = null;
+            return result;
+        }
+
+        private List<Request<?>> completeFollowers()
+        {
+            List<Request<?>> result = complete();
+            // Followers which timed out or were cancelled while waiting have already been failed
+            result.removeIf(Request::isSkipped);
+            return result;
         }
 
         private void handleResponse(okhttp3.Response response, Set<String> rays)
         {
-            done = true;
-            request.handleResponse(new Response(response, -1, rays));
+            handleResponse(response, -1, rays);
         }
 
         private void handleResponse(Exception error, Set<String> rays)
         {
             done = true;
+            List<Request<?>> followers = completeFollowers();
             request.handleResponse(new Response(error, rays));
+            for (Request<?> follower : followers)
+                follower.handleResponse(new Response(error, rays));
         }
 
         private void handleResponse(okhttp3.Response response, long retryAfter, Set<String> cfRays)
         {
             done = true;
-            request.handleResponse(new Response(response, retryAfter, cfRays));
+            List<Request<?>> followers = completeFollowers();
+            if (followers.isEmpty())
+            {
+                request.handleResponse(new Response(response, retryAfter, cfRays));
+                return;
+            }
+
+            // Every request gets its own copy of the body, so they can be parsed independently
+            ResponseBody body = response.body();
+            byte[] data;
+            try
+            {
+                data = body.bytes();
+            }
+            catch (IOException e)
+            {
+                LOG.error("There was an I/O error while reading a shared response: {}", e.getMessage());
+                request.handleResponse(new Response(e, cfRays));
+                for (Request<?> follower : followers)
+                    follower.handleResponse(new Response(e, cfRays));
+                return;
+            }
+
+            request.handleResponse(new Response(copy(response, body, data), retryAfter, cfRays));
+            for (Request<?> follower : followers)
+                follower.handleResponse(new Response(copy(response, body, data), retryAfter, cfRays));
+        }
+
+        private okhttp3.Response copy(okhttp3.Response response, ResponseBody body, byte[] data)
+        {
+            return response.newBuilder().body(ResponseBody.create(data, body.contentType())).build();
         }
     }
 }
@@ -66,6 +66,7 @@ public class RestActionImpl<T> implements RestAction<T>
     private ErrorMapper errorMapper = null;
 
     private boolean priority = false;
+    private RequestPriority requestPriority = RequestPriority.INTERACTIVE;
     private long deadline = 0;
     private Object rawData;
     private BooleanSupplier checks;
@@ -188,6 +189,22 @@ public class RestActionImpl<T> implements RestAction<T>
         return this;
     }
 
+    @Nonnull
+    @Override
+    public RestAction<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        Checks.notNull(priority, "Priority");
+        this.requestPriority = priority;
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public RequestPriority getRequestPriority()
+    {
+        return requestPriority;
+    }
+
     @Override
     public void queue(Consumer<? super T> success, Consumer<? super Throwable> failure)
     {
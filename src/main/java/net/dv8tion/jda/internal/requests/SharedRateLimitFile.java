@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rate-limit state shared between processes through a memory-mapped file.
+ *
+ * <pre>
+ * offset  0: int  magic
+ * offset  8: long classic global rate-limit reset
+ * offset 16: long cloudflare rate-limit reset
+ * offset 24: long[IDENTIFY_SLOTS] earliest time of the next identify, per max_concurrency bucket
+ * </pre>
+ *
+ * <p>Reads are plain reads of aligned longs, which are never torn.
+ * Updates are read-modify-write operations and are guarded by a file lock, the global rate-limits only ever move forward.
+ * File locks are held on behalf of the whole process, so instances of the same file in one JVM also share a lock in memory.
+ *
+ * <p>{@link #close()} closes the channel, the mapping itself is released once the buffer is garbage collected.
+ */
+public class SharedRateLimitFile implements RestRateLimiter.GlobalRateLimit, Closeable
+{
+    public static final int IDENTIFY_SLOTS = 1024;
+
+    private static final Logger LOG = JDALogger.getLog(SharedRateLimitFile.class);
+    private static final int MAGIC = 0x4A444152;
+    private static final int CLASSIC_OFFSET = 8;
+    private static final int CLOUDFLARE_OFFSET = 16;
+    private static final int IDENTIFY_OFFSET = 24;
+    private static final int SIZE = IDENTIFY_OFFSET + IDENTIFY_SLOTS * Long.BYTES;
+    // Overlapping file locks within one JVM throw instead of blocking, so we serialize them per file first
+    private static final Map<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final Object processLock;
+
+    public SharedRateLimitFile(@Nonnull Path file)
+    {
+        this.file = file.toAbsolutePath().normalize();
+        this.processLock = PROCESS_LOCKS.computeIfAbsent(this.file, k -> new Object());
+        try
+        {
+            if (this.file.getParent() != null)
+                Files.createDirectories(this.file.getParent());
+            this.channel = FileChannel.open(this.file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, SIZE);
+            initialize();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to open shared rate-limit file " + this.file, e);
+        }
+    }
+
+    private void initialize() throws IOException
+    {
+        synchronized (processLock)
+        {
+            try (FileLock ignored = channel.lock())
+            {
+                if (buffer.getInt(0) == MAGIC)
+                    return;
+
+                // A new (or foreign) file, the mapping has already extended it with zeros
+                LOG.debug("Initializing shared rate-limit file {}", file);
+                buffer.putLong(CLASSIC_OFFSET, -1);
+                buffer.putLong(CLOUDFLARE_OFFSET, -1);
+                for (int i = 0; i < IDENTIFY_SLOTS; i++)
+                    buffer.putLong(IDENTIFY_OFFSET + i * Long.BYTES, 0);
+                buffer.putInt(0, MAGIC);
+                buffer.force();
+            }
+            catch (OverlappingFileLockException e)
+            {
+                throw new IOException("Shared rate-limit file is locked by another channel of this process", e);
+            }
+        }
+    }
+
+    @Override
+    public long getClassic()
+    {
+        return buffer.getLong(CLASSIC_OFFSET);
+    }
+
+    @Override
+    public void setClassic(long timestamp)
+    {
+        update(CLASSIC_OFFSET, timestamp);
+    }
+
+    @Override
+    public long getCloudflare()
+    {
+        return buffer.getLong(CLOUDFLARE_OFFSET);
+    }
+
+    @Override
+    public void setCloudflare(long timestamp)
+    {
+        update(CLOUDFLARE_OFFSET, timestamp);
+    }
+
+    /**
+     * Attempts to reserve the next identify in the provided bucket.
+     *
+     * @param  bucket
+     *         The max_concurrency bucket of the shard ({@code shard_id % max_concurrency})
+     * @param  delay
+     *         The delay in milliseconds until the next identify in this bucket is allowed
+     *
+     * @return 0 if the identify was reserved, otherwise the time in milliseconds to wait before trying again
+     */
+    public long tryAcquireIdentify(int bucket, long delay)
+    {
+        int offset = IDENTIFY_OFFSET + (bucket % IDENTIFY_SLOTS) * Long.BYTES;
+        synchronized (processLock)
+        {
+            try (FileLock ignored = channel.lock(offset, Long.BYTES, false))
+            {
+                long now = System.currentTimeMillis();
+                long next = buffer.getLong(offset);
+                if (next > now)
+                    return next - now;
+                buffer.putLong(offset, now + delay);
+                return 0;
+            }
+            catch (IOException | OverlappingFileLockException e)
+            {
+                // Without the lock we cannot coordinate, identify anyway and let the gateway reject us if necessary
+                LOG.error("Failed to lock shared rate-limit file {}", file, e);
+                return 0;
+            }
+        }
+    }
+
+    private void update(int offset, long timestamp)
+    {
+        synchronized (processLock)
+        {
+            try (FileLock ignored = channel.lock(offset, Long.BYTES, false))
+            {
+                // Another process might have hit a longer rate-limit in the meantime
+                if (buffer.getLong(offset) < timestamp)
+                    buffer.putLong(offset, timestamp);
+            }
+            catch (IOException | OverlappingFileLockException e)
+            {
+                // Still respect the rate-limit in this process, even if we might overwrite a later one
+                LOG.error("Failed to lock shared rate-limit file {}", file, e);
+                if (buffer.getLong(offset) < timestamp)
+                    buffer.putLong(offset, timestamp);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+}
@@ -33,7 +33,9 @@ import net.dv8tion.jda.api.events.session.*;
 import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.managers.AudioManager;
 import net.dv8tion.jda.api.requests.CloseCode;
+import net.dv8tion.jda.api.requests.GatewayMetrics;
 import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.GatewayRecorder;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.data.DataArray;
@@ -53,16 +55,19 @@ import net.dv8tion.jda.internal.utils.UnlockHook;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
 import net.dv8tion.jda.internal.utils.compress.Decompressor;
 import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.lang.ref.SoftReference;
 import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.*;
@@ -82,14 +87,21 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected static final String INVALIDATE_REASON = "INVALIDATE_SESSION";
     protected static final long IDENTIFY_BACKOFF = TimeUnit.SECONDS.toMillis(SessionController.IDENTIFY_DELAY);
+    // Missed ACKs before the connection is considered a zombie, and how many more are tolerated while frames are still received
+    protected static final int MISSED_HEARTBEAT_LIMIT = 2;
+    protected static final int EXCUSED_HEARTBEAT_LIMIT = 2;
 
     protected final JDAImpl api;
     protected final JDA.ShardInfo shardInfo;
     protected final Map<String, SocketHandler> handlers = new HashMap<>();
+    protected final DispatchHeader.Filter dispatchFilter = new DispatchFilter();
     protected final Compression compression;
     protected final int gatewayIntents;
     protected final MemberChunkManager chunkManager;
     protected final GatewayEncoding encoding;
+    protected final DispatchLanes dispatchLanes;
+    protected final GatewayRecorder recorder;
+    protected final GatewayMetrics metrics;
 
     public WebSocket socket;
     protected String traceMetadata = null;
@@ -110,7 +122,10 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected int missedHeartbeats = 0;
     protected int reconnectTimeoutS = 2;
-    protected long heartbeatStartTime;
+    protected volatile long heartbeatStartTime;
+    protected volatile long lastFrameTime;
+    protected volatile boolean handlingFrame;
+    protected int frameBytes;
     protected long identifyTime = 0;
 
     protected final TLongObjectMap<ConnectionRequest> queuedAudioConnections = MiscUtil.newLongMap();
@@ -133,6 +148,16 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected volatile ConnectNode connectNode;
 
     public WebSocketClient(JDAImpl api, Compression compression, int gatewayIntents, GatewayEncoding encoding)
+    {
+        this(api, compression, gatewayIntents, encoding, api.getGatewayRecorder());
+        appendSession();
+    }
+
+    /**
+     * Creates the client without registering it with the session controller.
+     * <br>This is used for replays, which never connect.
+     */
+    protected WebSocketClient(JDAImpl api, Compression compression, int gatewayIntents, GatewayEncoding encoding, @Nullable GatewayRecorder recorder)
     {
         this.api = api;
         this.executor = api.getGatewayPool();
@@ -144,6 +169,15 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         this.shouldReconnect = api.isAutoReconnect();
         this.connectNode = new StartingNode();
         setupHandlers();
+        this.dispatchLanes = api.getDispatchLanes() > 0 ? new DispatchLanes(api, this, api.getDispatchLanes()) : null;
+        this.recorder = recorder;
+        this.metrics = api.getGatewayMetrics();
+        if (recorder != null)
+            recorder.start(compression, encoding);
+    }
+
+    private void appendSession()
+    {
         try
         {
             api.getSessionController().appendSession(connectNode);
@@ -186,6 +220,12 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         return chunkManager;
     }
 
+    @Nullable
+    public DispatchLanes getDispatchLanes()
+    {
+        return dispatchLanes;
+    }
+
     public void ready()
     {
         if (initiating)
@@ -360,6 +400,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected void onShutdown(int rawCloseCode)
     {
+        // Wait for the running dispatches before the caches are cleared
+        if (dispatchLanes != null)
+            dispatchLanes.shutdown();
         api.shutdownInternals(new ShutdownEvent(api, OffsetDateTime.now(), rawCloseCode));
     }
 
@@ -381,15 +424,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             if (compression != Compression.NONE)
             {
                 gatewayUrl = IOUtil.addQuery(gatewayUrl, "compress", compression.getKey());
-                switch (compression)
-                {
-                    case ZLIB:
-                        if (decompressor == null || decompressor.getType() != Compression.ZLIB)
-                            decompressor = new ZlibDecompressor(api.getMaxBufferSize());
-                        break;
-                    default:
-                        throw new IllegalStateException("Unknown compression");
-                }
+                setupDecompressor();
             }
 
             WebSocketFactory socketFactory = new WebSocketFactory(api.getWebSocketFactory());
@@ -414,6 +449,23 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         }
     }
 
+    protected void setupDecompressor()
+    {
+        switch (compression)
+        {
+            case ZLIB:
+                if (decompressor == null || decompressor.getType() != Compression.ZLIB)
+                    decompressor = new ZlibDecompressor(api.getMaxBufferSize());
+                break;
+            case ZSTD:
+                if (decompressor == null || decompressor.getType() != Compression.ZSTD)
+                    decompressor = new ZstdDecompressor(api.getMaxBufferSize());
+                break;
+            default:
+                throw new IllegalStateException("Unknown compression");
+        }
+    }
+
     @Override
     public void onThreadStarted(WebSocket websocket, ThreadType threadType, Thread thread) throws Exception
     {
@@ -424,6 +476,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     public void onConnected(WebSocket websocket, Map<String, List<String>> headers)
     {
         prepareClose(); // set 10s timeout in-case discord never sends us a HELLO payload
+        if (recorder != null)
+            recorder.recordConnect();
         api.setStatus(JDA.Status.IDENTIFYING_SESSION);
         if (sessionId == null)
         {
@@ -715,7 +769,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             LOG.warn("Failed to setup timeout for socket", ex);
         }
 
-        keepAliveThread = executor.scheduleAtFixedRate(() ->
+        // Heartbeats use a dedicated pool, to not be delayed by other tasks on the gateway pool
+        keepAliveThread = api.getHeartbeatPool().scheduleAtFixedRate(() ->
         {
             api.setContext();
             if (connected)
@@ -731,21 +786,30 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                     .put("d", api.getResponseTotal()
                 );
 
-        if (missedHeartbeats >= 2)
+        // Frames which are still arriving excuse a few missed ACKs, but not indefinitely
+        if (missedHeartbeats >= MISSED_HEARTBEAT_LIMIT && (missedHeartbeats >= MISSED_HEARTBEAT_LIMIT + EXCUSED_HEARTBEAT_LIMIT || !isReceiving()))
         {
+            LOG.warn("Missed {} heartbeats! Trying to reconnect...", missedHeartbeats);
             missedHeartbeats = 0;
-            LOG.warn("Missed 2 heartbeats! Trying to reconnect...");
             prepareClose();
             socket.disconnect(4900, "ZOMBIE CONNECTION");
         }
         else
         {
+            if (missedHeartbeats >= MISSED_HEARTBEAT_LIMIT)
+                LOG.debug("Heartbeat ACK is delayed by event handling, the connection is still receiving frames");
             missedHeartbeats += 1;
             send(keepAlivePacket, true);
             heartbeatStartTime = System.currentTimeMillis();
         }
     }
 
+    protected boolean isReceiving()
+    {
+        // The ACK can only be read once the current frame has been handled, so a busy read thread is not a zombie connection
+        return handlingFrame || lastFrameTime >= heartbeatStartTime;
+    }
+
     protected void sendIdentify()
     {
         LOG.debug("Sending Identify-packet...");
@@ -794,6 +858,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected void invalidate()
     {
+        // Lanes must not touch the cache while we clear it
+        if (dispatchLanes != null)
+            dispatchLanes.awaitIdle();
         resumeUrl = null;
         sessionId = null;
         sentAuthInfo = false;
@@ -880,6 +947,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     {
         WS_THREAD.set(true);
         int opCode = content.getInt("op");
+        if (metrics != null)
+            metrics.onPayloadReceived(opCode, opCode == WebSocketCode.DISPATCH ? content.getString("t", null) : null, frameBytes);
 
         if (!content.isNull("s"))
         {
@@ -889,7 +958,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         switch (opCode)
         {
             case WebSocketCode.DISPATCH:
-                onDispatch(content);
+                if (dispatchLanes == null || !dispatchLanes.dispatch(content, api.getResponseTotal()))
+                    onDispatch(content);
                 break;
             case WebSocketCode.HEARTBEAT:
                 LOG.debug("Got Keep-Alive request (OP 1). Sending response...");
@@ -923,7 +993,10 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             case WebSocketCode.HEARTBEAT_ACK:
                 LOG.trace("Got Heartbeat Ack (OP 11).");
                 missedHeartbeats = 0;
-                api.setGatewayPing(System.currentTimeMillis() - heartbeatStartTime);
+                long ping = System.currentTimeMillis() - heartbeatStartTime;
+                if (metrics != null)
+                    metrics.onHeartbeatAcknowledged(ping);
+                api.setGatewayPing(ping);
                 break;
             default:
                 LOG.debug("Got unknown op-code: {} with content: {}", opCode, content);
@@ -931,9 +1004,22 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     protected void onDispatch(DataObject raw)
+    {
+        onDispatch(raw, api.getResponseTotal(), handlers);
+    }
+
+    protected void onDispatch(DataObject raw, long responseTotal, Map<String, SocketHandler> handlers)
     {
         String type = raw.getString("t");
-        long responseTotal = api.getResponseTotal();
+
+        if (!raw.hasKey("d"))
+        {
+            // The payload was skipped by parseJson since nothing would consume it
+            LOG.trace("{} -> skipped", type);
+            if (responseTotal % EventCache.TIMEOUT_AMOUNT == 0)
+                api.getEventCache().timeout(responseTotal);
+            return;
+        }
 
         if (!raw.isType("d", DataType.OBJECT))
         {
@@ -942,7 +1028,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             {
                 final DataArray payload = raw.getArray("d");
                 final List<DataObject> converted = convertPresencesReplace(responseTotal, payload);
-                final SocketHandler handler = getHandler("PRESENCE_UPDATE");
+                final SocketHandler handler = handlers.get("PRESENCE_UPDATE");
                 LOG.trace("{} -> {}", type, payload);
                 for (DataObject o : converted)
                 {
@@ -963,6 +1049,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         LOG.trace("{} -> {}", type, content);
 
         JDAImpl jda = (JDAImpl) getJDA();
+        long handlerStart = metrics != null ? System.nanoTime() : 0;
         try
         {
             switch (type)
@@ -1025,44 +1112,116 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                 JDAInfo.VERSION, type, content, ex);
         }
 
+        if (metrics != null)
+            metrics.onDispatchHandled(type, System.nanoTime() - handlerStart);
+
         if (responseTotal % EventCache.TIMEOUT_AMOUNT == 0)
             jda.getEventCache().timeout(responseTotal);
     }
 
+    protected DataObject parse(byte[] array, int offset, int length)
+    {
+        long start = metrics != null ? System.nanoTime() : 0;
+        DataObject payload = encoding == GatewayEncoding.ETF
+            ? DataObject.fromETF(array, offset, length)
+            : parseJson(array, offset, length);
+        if (metrics != null)
+            metrics.onParsed(length, System.nanoTime() - start);
+        return payload;
+    }
+
+    /**
+     * Parses a JSON payload, but only builds the {@code d} tree of dispatches that will actually be consumed.
+     * <br>Skipped dispatches are returned without a {@code d} key.
+     */
+    protected DataObject parseJson(byte[] array, int offset, int length)
+    {
+        // Raw events and passthrough expose the entire payload, so we can't skip anything
+        if (api.isRawEvents() || api.isEventPassthrough())
+            return DataObject.fromJson(array, offset, length);
+
+        DispatchHeader header = DispatchHeader.readSkipped(array, offset, length, dispatchFilter);
+        if (header == null)
+            return DataObject.fromJson(array, offset, length);
+
+        DataObject raw = DataObject.empty()
+            .put("op", WebSocketCode.DISPATCH)
+            .put("t", header.getType());
+        if (header.getSequence() >= 0)
+            raw.put("s", header.getSequence());
+        return raw;
+    }
+
     @Override
     public void onTextMessage(WebSocket websocket, byte[] data)
     {
-        handleEvent(DataObject.fromJson(data));
+        startFrame();
+        try
+        {
+            if (recorder != null)
+                recorder.recordFrame(data, 0, data.length, false);
+            frameBytes = data.length;
+            if (metrics != null)
+                metrics.onFrameReceived(false, data.length);
+            handleEvent(parse(data, 0, data.length));
+        }
+        finally
+        {
+            handlingFrame = false;
+        }
     }
 
     @Override
     public void onBinaryMessage(WebSocket websocket, byte[] binary) throws DataFormatException
     {
-        DataObject message;
-        // Only acquire lock for decompression and unlock for event handling
-        synchronized (readLock)
+        startFrame();
+        try
+        {
+            DataObject message;
+            // Only acquire lock for decompression and unlock for event handling
+            synchronized (readLock)
+            {
+                message = handleBinary(binary);
+            }
+            if (message != null)
+                handleEvent(message);
+        }
+        finally
         {
-            message = handleBinary(binary);
+            handlingFrame = false;
         }
-        if (message != null)
-            handleEvent(message);
+    }
+
+    protected void startFrame()
+    {
+        lastFrameTime = System.currentTimeMillis();
+        handlingFrame = true;
     }
 
     protected DataObject handleBinary(byte[] binary) throws DataFormatException
     {
+        if (recorder != null && (decompressor == null || recorder.getMode() == GatewayRecorder.Mode.COMPRESSED))
+            recorder.recordFrame(binary, 0, binary.length, true);
+        if (metrics != null)
+            metrics.onFrameReceived(true, binary.length);
         if (decompressor == null)
         {
+            frameBytes = binary.length;
             if (encoding == GatewayEncoding.ETF)
-                return DataObject.fromETF(binary);
+                return parse(binary, 0, binary.length);
             throw new IllegalStateException("Cannot decompress binary message due to unknown compression algorithm: " + compression);
         }
         // Scoping allows us to print the json that possibly failed parsing
-        byte[] data;
+        ByteBuffer data;
         try
         {
-            data = decompressor.decompress(binary);
+            // This view points into the reusable buffer of the decompressor, we have to parse it before the next read
+            long start = metrics != null ? System.nanoTime() : 0;
+            data = decompressor.decompressView(binary);
             if (data == null)
                 return null;
+            if (metrics != null)
+                metrics.onDecompressed(binary.length, data.remaining(), System.nanoTime() - start);
         }
         catch (DataFormatException e)
         {
@@ -1070,19 +1229,22 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             throw e;
         }
 
+        byte[] array = data.array();
+        int offset = data.arrayOffset() + data.position();
+        int length = data.remaining();
+        if (recorder != null && recorder.getMode() == GatewayRecorder.Mode.DECOMPRESSED)
+            recorder.recordFrame(array, offset, length, true);
+        frameBytes = length;
         try
         {
-            if (encoding == GatewayEncoding.ETF)
-                return DataObject.fromETF(data);
-            else
-                return DataObject.fromJson(data);
+            return parse(array, offset, length);
         }
         catch (ParsingException e)
         {
             String jsonString = "malformed";
             try
             {
-                jsonString = new String(data, StandardCharsets.UTF_8);
+                jsonString = new String(array, offset, length, StandardCharsets.UTF_8);
             }
             catch (Exception ignored) {}
             // Print the string that could not be parsed and re-throw the exception
@@ -1347,7 +1509,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     public Map<String, SocketHandler> getHandlers()
     {
-        return handlers;
+        // Dispatch lanes use their own handler instances
+        Map<String, SocketHandler> laneHandlers = DispatchLanes.getCurrentHandlers();
+        return laneHandlers != null ? laneHandlers : handlers;
     }
 
     @SuppressWarnings("unchecked")
@@ -1355,7 +1519,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     {
         try
         {
-            return (T) handlers.get(type);
+            return (T) getHandlers().get(type);
         }
         catch (ClassCastException e)
         {
@@ -1364,6 +1528,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     }
 
     protected void setupHandlers()
+    {
+        setupHandlers(handlers);
+    }
+
+    protected void setupHandlers(Map<String, SocketHandler> handlers)
     {
         final SocketHandler.NOPHandler nopHandler =            new SocketHandler.NOPHandler(api);
         handlers.put("APPLICATION_COMMAND_PERMISSIONS_UPDATE", new ApplicationCommandPermissionsUpdateHandler(api));
@@ -1453,6 +1622,54 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         }
     }
 
+    protected class DispatchFilter implements DispatchHeader.Filter
+    {
+        @Override
+        public boolean isSkipped(@Nonnull String type)
+        {
+            if (isGuildLifecycle(type))
+                return false;
+            SocketHandler handler = handlers.get(type);
+            if (handler == null)
+            {
+                LOG.debug("Unrecognized event: {}", type);
+                return true;
+            }
+            return handler.isIgnoringPayload();
+        }
+
+        @Override
+        public boolean isGuildFiltered(@Nonnull String type)
+        {
+            // Without unavailable guilds there is nothing to look for
+            return !isGuildLifecycle(type) && api.getGuildSetupController().hasUnavailableGuilds();
+        }
+
+        @Override
+        public boolean isSkipped(@Nonnull String type, long guildId)
+        {
+            if (!api.isUnavailable(guildId))
+                return false;
+            LOG.debug("Ignoring {} for unavailable guild with id {}", type, guildId);
+            return true;
+        }
+
+        // These events are handled even for unavailable guilds
+        private boolean isGuildLifecycle(String type)
+        {
+            switch (type)
+            {
+            case "READY":
+            case "RESUMED":
+            case "GUILD_CREATE":
+            case "GUILD_DELETE":
+                return true;
+            default:
+                return false;
+            }
+        }
+    }
+
     protected class StartingNode extends ConnectNode
     {
         @Override
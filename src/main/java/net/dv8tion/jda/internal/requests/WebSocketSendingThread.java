@@ -117,6 +117,8 @@ class WebSocketSendingThread implements Runnable
             api.setContext();
             attemptedToSend = false;
             needRateLimit = false;
+            if (client.metrics != null)
+                client.metrics.onQueueSizes(ratelimitQueue.size(), chunkQueue.size());
             // We do this outside of the lock because otherwise we could potentially deadlock here
             audioRequest = client.getNextAudioConnectRequest();
 
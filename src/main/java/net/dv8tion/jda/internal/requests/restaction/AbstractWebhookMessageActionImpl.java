@@ -18,6 +18,7 @@ package net.dv8tion.jda.internal.requests.restaction;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.internal.utils.Checks;
@@ -66,4 +67,12 @@ public abstract class AbstractWebhookMessageActionImpl<T, R extends AbstractWebh
     {
         return (R) super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public R setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (R) super.setRequestPriority(priority);
+    }
 }
@@ -38,6 +38,7 @@ import net.dv8tion.jda.api.entities.emoji.Emoji;
 import net.dv8tion.jda.api.entities.emoji.UnicodeEmoji;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.ChannelAction;
@@ -131,6 +132,13 @@ public class ChannelActionImpl<T extends GuildChannel> extends AuditableRestActi
         return (ChannelActionImpl<T>) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public ChannelActionImpl<T> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (ChannelActionImpl<T>) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public Guild getGuild()
@@ -27,6 +27,7 @@ import net.dv8tion.jda.api.interactions.commands.build.SubcommandGroupData;
 import net.dv8tion.jda.api.interactions.commands.localization.LocalizationFunction;
 import net.dv8tion.jda.api.interactions.commands.localization.LocalizationMap;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.CommandCreateAction;
@@ -86,6 +87,13 @@ public class CommandCreateActionImpl extends RestActionImpl<Command> implements
         return (CommandCreateAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public CommandCreateAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (CommandCreateAction) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public CommandCreateAction setDefaultPermissions(@Nonnull DefaultMemberPermissions permission)
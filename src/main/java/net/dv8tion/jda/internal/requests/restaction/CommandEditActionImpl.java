@@ -27,6 +27,7 @@ import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandData;
 import net.dv8tion.jda.api.interactions.commands.build.SubcommandGroupData;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.CommandEditAction;
@@ -89,6 +90,13 @@ public class CommandEditActionImpl extends RestActionImpl<Command> implements Co
         return (CommandEditAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public CommandEditAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (CommandEditAction) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public CommandEditAction apply(@Nonnull CommandData commandData)
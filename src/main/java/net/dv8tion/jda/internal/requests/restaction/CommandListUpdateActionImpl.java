@@ -21,6 +21,7 @@ import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.CommandListUpdateAction;
@@ -80,6 +81,13 @@ public class CommandListUpdateActionImpl extends RestActionImpl<List<Command>> i
         return (CommandListUpdateAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public CommandListUpdateAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (CommandListUpdateAction) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public CommandListUpdateAction addCommands(@Nonnull Collection<? extends CommandData> commands)
@@ -31,6 +31,7 @@ import net.dv8tion.jda.api.entities.channel.forums.ForumPost;
 import net.dv8tion.jda.api.entities.channel.forums.ForumTagSnowflake;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.ForumPostAction;
@@ -86,6 +87,13 @@ public class ForumPostActionImpl extends RestActionImpl<ForumPost> implements Fo
         return (ForumPostAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public ForumPostAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (ForumPostAction) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public Guild getGuild()
@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.MemberAction;
 import net.dv8tion.jda.api.utils.data.DataObject;
@@ -78,6 +79,13 @@ public class MemberActionImpl extends RestActionImpl<Void> implements MemberActi
         return (MemberAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public MemberAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (MemberAction) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public String getAccessToken()
@@ -23,6 +23,7 @@ import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.entities.sticker.GuildSticker;
 import net.dv8tion.jda.api.entities.sticker.StickerSnowflake;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.MessageCreateAction;
@@ -217,6 +218,13 @@ public class MessageCreateActionImpl extends RestActionImpl<Message> implements
         return (MessageCreateAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public MessageCreateAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (MessageCreateAction) super.setRequestPriority(priority);
+    }
+
     private class MessageReferenceData implements SerializableData
     {
         private final MessageReference.MessageReferenceType type;
@@ -25,6 +25,7 @@ import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.interactions.InteractionHook;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.MessageEditAction;
@@ -126,4 +127,11 @@ public class MessageEditActionImpl extends RestActionImpl<Message> implements Me
     {
         return (MessageEditAction) super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    public MessageEditAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (MessageEditAction) super.setRequestPriority(priority);
+    }
 }
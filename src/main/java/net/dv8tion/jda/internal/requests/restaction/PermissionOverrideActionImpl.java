@@ -26,6 +26,7 @@ import net.dv8tion.jda.api.entities.channel.attribute.IPermissionContainer;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.PermissionOverrideAction;
@@ -116,6 +117,13 @@ public class PermissionOverrideActionImpl
         return (PermissionOverrideActionImpl) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public PermissionOverrideActionImpl setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (PermissionOverrideActionImpl) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public PermissionOverrideAction resetAllow()
@@ -22,6 +22,7 @@ import net.dv8tion.jda.api.entities.Icon;
 import net.dv8tion.jda.api.entities.Role;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.RoleAction;
@@ -79,6 +80,13 @@ public class RoleActionImpl extends AuditableRestActionImpl<Role> implements Rol
         return (RoleActionImpl) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public RoleActionImpl setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (RoleActionImpl) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public Guild getGuild()
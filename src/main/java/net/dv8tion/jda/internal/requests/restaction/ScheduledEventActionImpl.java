@@ -23,6 +23,7 @@ import net.dv8tion.jda.api.entities.channel.concrete.StageChannel;
 import net.dv8tion.jda.api.entities.channel.concrete.VoiceChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.ScheduledEventAction;
@@ -114,6 +115,13 @@ public class ScheduledEventActionImpl extends AuditableRestActionImpl<ScheduledE
         return (ScheduledEventActionImpl) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public ScheduledEventActionImpl setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (ScheduledEventActionImpl) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public ScheduledEventActionImpl reason(@Nullable String reason)
@@ -19,6 +19,7 @@ package net.dv8tion.jda.internal.requests.restaction;
 import net.dv8tion.jda.api.entities.StageInstance;
 import net.dv8tion.jda.api.entities.channel.concrete.StageChannel;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.StageInstanceAction;
@@ -64,6 +65,13 @@ public class StageInstanceActionImpl extends RestActionImpl<StageInstance> imple
         return (StageInstanceAction) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public StageInstanceAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (StageInstanceAction) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public StageInstanceAction setTopic(@Nonnull String topic)
@@ -25,6 +25,7 @@ import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
 import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.ThreadChannelAction;
@@ -100,6 +101,13 @@ public class ThreadChannelActionImpl extends AuditableRestActionImpl<ThreadChann
         return (ThreadChannelActionImpl) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    public ThreadChannelActionImpl setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (ThreadChannelActionImpl) super.setRequestPriority(priority);
+    }
+
     @Nonnull
     @Override
     public Guild getGuild()
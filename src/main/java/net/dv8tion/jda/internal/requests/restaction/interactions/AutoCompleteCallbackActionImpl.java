@@ -20,6 +20,7 @@ import net.dv8tion.jda.api.interactions.callbacks.IAutoCompleteCallback;
 import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.interactions.commands.build.OptionData;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.restaction.interactions.AutoCompleteCallbackAction;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
@@ -122,4 +123,11 @@ public class AutoCompleteCallbackActionImpl extends InteractionCallbackImpl<Void
     {
         return (AutoCompleteCallbackAction) super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    public AutoCompleteCallbackAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (AutoCompleteCallbackAction) super.setRequestPriority(priority);
+    }
 }
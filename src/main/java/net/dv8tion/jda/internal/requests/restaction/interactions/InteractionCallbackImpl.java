@@ -37,6 +37,7 @@ public abstract class InteractionCallbackImpl<T> extends RestActionImpl<T> imple
                 .withQueryParams("with_response", "true"));
         this.interaction = interaction;
         setErrorMapper(this::handleUnknownInteraction);
+        setRequestPriority(RequestPriority.INTERACTION_CALLBACK);
     }
 
     private Throwable handleUnknownInteraction(Response response, Request<?> request, ErrorResponseException exception)
@@ -18,6 +18,7 @@ package net.dv8tion.jda.internal.requests.restaction.interactions;
 
 import net.dv8tion.jda.api.interactions.callbacks.IModalCallback;
 import net.dv8tion.jda.api.interactions.modals.Modal;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.restaction.interactions.InteractionCallbackAction;
 import net.dv8tion.jda.api.requests.restaction.interactions.ModalCallbackAction;
 import net.dv8tion.jda.api.utils.data.DataObject;
@@ -58,4 +59,11 @@ public class ModalCallbackActionImpl extends InteractionCallbackImpl<Void> imple
     {
         return (ModalCallbackAction) super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    public ModalCallbackAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (ModalCallbackAction) super.setRequestPriority(priority);
+    }
 }
@@ -17,6 +17,7 @@
 package net.dv8tion.jda.internal.requests.restaction.interactions;
 
 import net.dv8tion.jda.api.interactions.callbacks.IPremiumRequiredReplyCallback;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.restaction.interactions.InteractionCallbackAction;
 import net.dv8tion.jda.api.requests.restaction.interactions.PremiumRequiredCallbackAction;
 import net.dv8tion.jda.api.utils.data.DataObject;
@@ -55,4 +56,11 @@ public class PremiumRequiredCallbackActionImpl extends InteractionCallbackImpl<V
     {
         return (PremiumRequiredCallbackAction) super.deadline(timestamp);
     }
+
+    @Nonnull
+    @Override
+    public PremiumRequiredCallbackAction setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (PremiumRequiredCallbackAction) super.setRequestPriority(priority);
+    }
 }
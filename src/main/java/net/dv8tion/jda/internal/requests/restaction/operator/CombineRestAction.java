@@ -18,6 +18,7 @@ package net.dv8tion.jda.internal.requests.restaction.operator;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.exceptions.RateLimitedException;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.internal.utils.Checks;
 
@@ -96,6 +97,22 @@ public class CombineRestAction<I1, I2, O> implements RestAction<O>
         return this;
     }
 
+    @Nonnull
+    @Override
+    public RestAction<O> setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        action1.setRequestPriority(priority);
+        action2.setRequestPriority(priority);
+        return this;
+    }
+
+    @Nonnull
+    @Override
+    public RequestPriority getRequestPriority()
+    {
+        return action1.getRequestPriority();
+    }
+
     @Override
     public void queue(@Nullable Consumer<? super O> success, @Nullable Consumer<? super Throwable> failure)
     {
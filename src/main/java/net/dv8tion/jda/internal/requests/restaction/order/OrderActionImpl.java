@@ -17,6 +17,7 @@
 package net.dv8tion.jda.internal.requests.restaction.order;
 
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.order.OrderAction;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
@@ -96,6 +97,14 @@ public abstract class OrderActionImpl<T, M extends OrderAction<T, M>>
         return (M) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public M setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (M) super.setRequestPriority(priority);
+    }
+
     @Override
     public boolean isAscendingOrder()
     {
@@ -21,7 +21,6 @@ import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.BanPaginationAction;
 import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
-import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
 
@@ -65,12 +64,10 @@ public class BanPaginationActionImpl
     protected void handleSuccess(Response response, Request<List<Guild.Ban>> request)
     {
         EntityBuilder builder = api.getEntityBuilder();
-        DataArray bannedArr = response.getArray();
-        List<Guild.Ban> bans = new ArrayList<>(bannedArr.length());
+        List<Guild.Ban> bans = new ArrayList<>();
 
-        for (int i = 0; i < bannedArr.length(); i++)
+        response.forEachObject(object ->
         {
-            final DataObject object = bannedArr.getObject(i);
             try
             {
                 DataObject user = object.getObject("user");
@@ -80,10 +77,10 @@ public class BanPaginationActionImpl
             }
             catch (Exception t)
             {
-                LOG.error("Got an unexpected error while decoding ban index {} for guild {}:\nData: {}",
-                          i, guild.getId(), object, t);
+                LOG.error("Got an unexpected error while decoding ban for guild {}:\nData: {}",
+                          guild.getId(), object, t);
             }
-        }
+        });
 
         if (order == PaginationOrder.BACKWARD)
             Collections.reverse(bans);
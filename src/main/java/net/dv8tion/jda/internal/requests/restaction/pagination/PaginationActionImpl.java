@@ -17,21 +17,25 @@
 package net.dv8tion.jda.internal.requests.restaction.pagination;
 
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.exceptions.ErrorResponseException;
+import net.dv8tion.jda.api.requests.RequestPriority;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction;
 import net.dv8tion.jda.api.utils.Procedure;
+import net.dv8tion.jda.internal.requests.CallbackContext;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         extends RestActionImpl<List<T>>
@@ -48,6 +52,7 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
     protected volatile long lastKey = 0;
     protected volatile T last = null;
     protected volatile boolean useCache = true;
+    protected volatile int prefetch = 0;
 
     /**
      * Creates a new PaginationAction instance
@@ -159,6 +164,14 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         return (M) super.deadline(timestamp);
     }
 
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public M setRequestPriority(@Nonnull RequestPriority priority)
+    {
+        return (M) super.setRequestPriority(priority);
+    }
+
     @Override
     public int cacheSize()
     {
@@ -223,6 +236,22 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         return useCache;
     }
 
+    @Nonnull
+    @Override
+    @SuppressWarnings("unchecked")
+    public M prefetch(int pages)
+    {
+        Checks.notNegative(pages, "Prefetch");
+        this.prefetch = pages;
+        return (M) this;
+    }
+
+    @Override
+    public int getPrefetch()
+    {
+        return prefetch;
+    }
+
     @Override
     public final int getMaxLimit()
     {
@@ -276,7 +305,33 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
     @Override
     public PaginationIterator<T> iterator()
     {
-        return new PaginationIterator<>(cached, this::getNextChunk);
+        if (prefetch == 0)
+            return new PaginationIterator<>(cached, this::getNextChunk);
+
+        final PageFetcher fetcher = new PageFetcher(prefetch);
+        return new PaginationIterator<T>(cached, () -> joinPage(fetcher.take()))
+        {
+            private boolean started;
+
+            @Override
+            public boolean hasNext()
+            {
+                // Start requesting while the cached entities are consumed
+                if (!started)
+                {
+                    started = true;
+                    fetcher.start();
+                }
+                return super.hasNext();
+            }
+        };
+    }
+
+    @Override
+    public void subscribe(@Nonnull PaginationSubscriber<? super T> subscriber)
+    {
+        Checks.notNull(subscriber, "Subscriber");
+        subscriber.onSubscribe(new DemandSubscription(subscriber, cached, prefetch));
     }
 
     @Nonnull
@@ -287,11 +342,14 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         Checks.notNull(failure, "Failure Consumer");
 
         final CompletableFuture<?> task = new CompletableFuture<>();
-        final Consumer<List<T>> acceptor = new ChainedConsumer(task, action, (throwable) ->
+        final Consumer<Throwable> throwableConsumer = (throwable) ->
         {
             task.completeExceptionally(throwable);
             failure.accept(throwable);
-        });
+        };
+        final Consumer<List<T>> acceptor = prefetch == 0
+            ? new ChainedConsumer(task, action, throwableConsumer)
+            : new PrefetchingConsumer(task, action, throwableConsumer, new PageFetcher(prefetch));
         try
         {
             acceptor.accept(cached);
@@ -312,11 +370,14 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         Checks.notNull(failure, "Failure Consumer");
 
         final CompletableFuture<?> task = new CompletableFuture<>();
-        final Consumer<List<T>> acceptor = new ChainedConsumer(task, action, (throwable) ->
+        final Consumer<Throwable> throwableConsumer = (throwable) ->
         {
             task.completeExceptionally(throwable);
             failure.accept(throwable);
-        });
+        };
+        final Consumer<List<T>> acceptor = prefetch == 0
+            ? new ChainedConsumer(task, action, throwableConsumer)
+            : new PrefetchingConsumer(task, action, throwableConsumer, new PageFetcher(prefetch));
         try
         {
             acceptor.accept(getRemainingCache());
@@ -406,6 +467,27 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
         return list;
     }
 
+    protected List<T> joinPage(CompletableFuture<List<T>> page)
+    {
+        if (CallbackContext.isCallbackContext())
+            throw new IllegalStateException("Preventing use of complete() in callback threads! This operation can be a deadlock cause");
+        try
+        {
+            return page.join();
+        }
+        catch (CompletionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof ErrorResponseException)
+                throw (ErrorResponseException) cause.fillInStackTrace();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
+        }
+    }
+
     protected abstract long getKey(T it);
 
     protected int getIteratorIndex()
@@ -479,4 +561,303 @@ public abstract class PaginationActionImpl<T, M extends PaginationAction<T, M>>
             limit.set(currentLimit);
         }
     }
+
+    // Requests pages ahead of the consumer, each request is only sent once the previous page has been handled
+    protected class PageFetcher
+    {
+        protected final int depth;
+        protected final Deque<CompletableFuture<List<T>>> pages = new ArrayDeque<>();
+        protected CompletableFuture<List<T>> inFlight = CompletableFuture.completedFuture(Collections.emptyList());
+        protected CompletableFuture<List<T>> tail;
+        protected boolean stopped;
+
+        protected PageFetcher(int depth)
+        {
+            this.depth = depth;
+        }
+
+        protected synchronized void start()
+        {
+            fill(depth);
+        }
+
+        // For consumers which ask for the next page before handling the current one,
+        // the returned page already counts towards the prefetched pages
+        protected synchronized CompletableFuture<List<T>> next()
+        {
+            fill(1);
+            CompletableFuture<List<T>> page = pages.poll();
+            fill(depth - 1);
+            return page;
+        }
+
+        // For consumers which only ask for the next page once the current one has been handled,
+        // this keeps the full depth requested while the returned page is consumed
+        protected synchronized CompletableFuture<List<T>> take()
+        {
+            fill(1);
+            CompletableFuture<List<T>> page = pages.poll();
+            fill(depth);
+            return page;
+        }
+
+        // Discards all pages which have not been requested yet, the returned future completes once the pagination state is consistent
+        protected synchronized CompletableFuture<?> stop(@Nullable T lastConsumed)
+        {
+            stopped = true;
+            pages.forEach(page -> page.cancel(false));
+            pages.clear();
+            // The running request still updates the pagination state, so the index has to be restored afterwards
+            return inFlight.handle((list, error) ->
+            {
+                if (lastConsumed != null)
+                    updateIndex(lastConsumed);
+                return null;
+            });
+        }
+
+        private void fill(int size)
+        {
+            while (pages.size() < size)
+            {
+                // Every page starts after the previous one, even if that one has already been taken by the consumer
+                final CompletableFuture<List<T>> previous = tail;
+                tail = previous == null ? fetch() : previous.thenCompose(list -> list.isEmpty() ? previous : fetch());
+                pages.add(tail);
+            }
+        }
+
+        private synchronized CompletableFuture<List<T>> fetch()
+        {
+            if (stopped)
+                return CompletableFuture.completedFuture(Collections.emptyList());
+            final int currentLimit = limit.getAndSet(maxLimit);
+            try
+            {
+                inFlight = submit();
+            }
+            finally
+            {
+                limit.set(currentLimit);
+            }
+            // Cancelling the returned future should not cancel the request itself, since it might already be running
+            return inFlight.thenApply(Function.identity());
+        }
+    }
+
+    protected class PrefetchingConsumer implements Consumer<List<T>>
+    {
+        protected final CompletableFuture<?> task;
+        protected final Procedure<? super T> action;
+        protected final Consumer<Throwable> throwableConsumer;
+        protected final PageFetcher fetcher;
+
+        protected PrefetchingConsumer(final CompletableFuture<?> task, final Procedure<? super T> action,
+                                      final Consumer<Throwable> throwableConsumer, final PageFetcher fetcher)
+        {
+            this.task = task;
+            this.action = action;
+            this.throwableConsumer = throwableConsumer;
+            this.fetcher = fetcher;
+        }
+
+        @Override
+        public void accept(final List<T> list)
+        {
+            try
+            {
+                consume(list);
+            }
+            catch (RuntimeException | Error e)
+            {
+                fetcher.stop(null);
+                throw e;
+            }
+        }
+
+        protected void consume(List<T> list)
+        {
+            // Pages which have already been prefetched are handled in this loop, instead of recursing for every page
+            while (true)
+            {
+                final CompletableFuture<List<T>> next = fetcher.next();
+
+                T previous = null;
+                for (T it : list)
+                {
+                    if (task.isCancelled())
+                    {
+                        fetcher.stop(previous);
+                        return;
+                    }
+                    if (action.execute(it))
+                    {
+                        previous = it;
+                        continue;
+                    }
+                    // set the iterator index for next call of remaining, once the prefetched request is done
+                    fetcher.stop(it).thenRun(() -> task.complete(null));
+                    return;
+                }
+
+                if (!next.isDone())
+                {
+                    next.whenComplete(this::onPage);
+                    return;
+                }
+
+                try
+                {
+                    list = next.join();
+                }
+                catch (CompletionException | CancellationException e)
+                {
+                    onPage(null, e);
+                    return;
+                }
+
+                if (list.isEmpty())
+                {
+                    task.complete(null);
+                    return;
+                }
+            }
+        }
+
+        protected void onPage(List<T> list, Throwable error)
+        {
+            if (error != null)
+            {
+                throwableConsumer.accept(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+                return;
+            }
+            if (list.isEmpty())
+            {
+                task.complete(null);
+                return;
+            }
+
+            try
+            {
+                accept(list);
+            }
+            catch (Throwable e)
+            {
+                throwableConsumer.accept(e);
+            }
+        }
+    }
+
+    protected class DemandSubscription implements PaginationSubscription
+    {
+        protected final PaginationSubscriber<? super T> subscriber;
+        protected final PageFetcher fetcher;
+        protected final Queue<T> buffer;
+        protected final AtomicLong demand = new AtomicLong();
+        protected final AtomicInteger wip = new AtomicInteger();
+
+        protected volatile boolean pending, finished, cancelled;
+        protected volatile Throwable error;
+        // Only accessed while draining
+        protected boolean terminated;
+        protected T lastDelivered;
+
+        protected DemandSubscription(PaginationSubscriber<? super T> subscriber, Collection<T> initial, int depth)
+        {
+            this.subscriber = subscriber;
+            this.buffer = new ConcurrentLinkedQueue<>(initial);
+            this.fetcher = new PageFetcher(depth);
+        }
+
+        @Override
+        public void request(long amount)
+        {
+            if (amount <= 0)
+                error = new IllegalArgumentException("Requested amount must be positive, provided: " + amount);
+            else
+                demand.getAndUpdate(current -> current + amount < 0 ? Long.MAX_VALUE : current + amount);
+            drain();
+        }
+
+        @Override
+        public void cancel()
+        {
+            cancelled = true;
+            drain();
+        }
+
+        protected void onPage(List<T> list, Throwable failure)
+        {
+            if (failure != null)
+                error = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            else if (list.isEmpty())
+                finished = true;
+            else
+                buffer.addAll(list);
+            pending = false;
+            drain();
+        }
+
+        // Only one thread delivers signals at a time, other threads just mark that there is more work
+        protected void drain()
+        {
+            if (wip.getAndIncrement() != 0)
+                return;
+
+            int missed = 1;
+            do
+            {
+                while (!terminated)
+                {
+                    if (cancelled)
+                    {
+                        terminated = true;
+                        buffer.clear();
+                        fetcher.stop(lastDelivered);
+                        break;
+                    }
+                    if (error != null)
+                    {
+                        terminated = true;
+                        buffer.clear();
+                        fetcher.stop(null);
+                        subscriber.onError(error);
+                        break;
+                    }
+
+                    if (buffer.isEmpty())
+                    {
+                        if (finished)
+                        {
+                            terminated = true;
+                            subscriber.onComplete();
+                        }
+                        else if (!pending && demand.get() > 0)
+                        {
+                            pending = true;
+                            fetcher.take().whenComplete(this::onPage);
+                        }
+                        break;
+                    }
+
+                    if (demand.get() == 0)
+                        break;
+                    demand.decrementAndGet();
+                    T entity = buffer.poll();
+                    lastDelivered = entity;
+                    try
+                    {
+                        subscriber.onNext(entity);
+                    }
+                    catch (Throwable e)
+                    {
+                        error = e;
+                    }
+                }
+
+                missed = wip.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+    }
 }
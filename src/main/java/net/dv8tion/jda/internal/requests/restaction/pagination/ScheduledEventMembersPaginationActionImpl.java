@@ -24,7 +24,6 @@ import net.dv8tion.jda.api.requests.Request;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.ScheduledEventMembersPaginationAction;
-import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.GuildImpl;
@@ -54,16 +53,14 @@ public class ScheduledEventMembersPaginationActionImpl extends PaginationActionI
     @Override
     protected void handleSuccess(Response response, Request<List<Member>> request)
     {
-        DataArray array = response.getArray();
-        List<Member> members = new ArrayList<>(array.length());
+        List<Member> members = new ArrayList<>();
         EntityBuilder builder = api.getEntityBuilder();
-        for (int i = 0; i < array.length(); i++)
+        response.forEachObject(object ->
         {
             try
             {
-                DataObject object = array.getObject(i);
                 if (object.isNull("member"))
-                    continue;
+                    return;
                 DataObject userObject = object.getObject("user");
                 DataObject memberObject = object.getObject("member");
                 Member member = builder.createMember((GuildImpl) guild, memberObject.put("user", userObject));
@@ -73,7 +70,7 @@ public class ScheduledEventMembersPaginationActionImpl extends PaginationActionI
             {
                 LOG.warn("Encountered an exception in ScheduledEventPagination", e);
             }
-        }
+        });
 
         if (order == PaginationOrder.BACKWARD)
             Collections.reverse(members);
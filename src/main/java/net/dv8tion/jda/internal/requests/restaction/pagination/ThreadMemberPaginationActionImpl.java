@@ -23,8 +23,6 @@ import net.dv8tion.jda.api.requests.Request;
 import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.pagination.ThreadMemberPaginationAction;
-import net.dv8tion.jda.api.utils.data.DataArray;
-import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.channel.concrete.ThreadChannelImpl;
 
@@ -69,16 +67,14 @@ public class ThreadMemberPaginationActionImpl
     @Override
     protected void handleSuccess(Response response, Request<List<ThreadMember>> request)
     {
-        DataArray array = response.getArray();
-        List<ThreadMember> members = new ArrayList<>(array.length());
+        List<ThreadMember> members = new ArrayList<>();
         EntityBuilder builder = api.getEntityBuilder();
-        for (int i = 0; i < array.length(); i++)
+        response.forEachObject(object ->
         {
             try
             {
-                DataObject object = array.getObject(i);
                 if (object.isNull("member"))
-                    continue;
+                    return;
                 ThreadMember threadMember = builder.createThreadMember(channel.getGuild(), channel, object);
                 members.add(threadMember);
             }
@@ -86,7 +82,7 @@ public class ThreadMemberPaginationActionImpl
             {
                 LOG.warn("Encountered an exception in ThreadMemberPaginationAction", e);
             }
-        }
+        });
 
 //        if (order == PaginationOrder.BACKWARD)
 //            Collections.reverse(members);
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils;
+
+import net.dv8tion.jda.api.utils.DownloadCache;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class DiskDownloadCache implements DownloadCache
+{
+    private static final Logger LOG = JDALogger.getLog(DownloadCache.class);
+    private static final String TEMP_SUFFIX = ".part";
+    // Cached files are named by the hex encoded SHA-256 of the url, anything else in the directory is not ours
+    private static final Pattern KEY_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern TEMP_PATTERN = Pattern.compile("[0-9a-f]{64}\\d*" + Pattern.quote(TEMP_SUFFIX));
+
+    private final Path directory;
+    private final long maxSize;
+    // Access ordered, the first entry is the least recently used file
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long size;
+
+    public DiskDownloadCache(@Nonnull Path directory, long maxSize)
+    {
+        this.directory = directory.toAbsolutePath();
+        this.maxSize = maxSize;
+        try
+        {
+            Files.createDirectories(this.directory);
+            load();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not open download cache directory. Path: " + this.directory, e);
+        }
+    }
+
+    @Nullable
+    @Override
+    public synchronized InputStream get(@Nonnull String url)
+    {
+        String key = key(url);
+        if (!entries.containsKey(key))
+            return null;
+
+        Path file = directory.resolve(key);
+        InputStream stream;
+        try
+        {
+            stream = Files.newInputStream(file);
+        }
+        catch (IOException e)
+        {
+            LOG.debug("Cached file {} could not be opened", file, e);
+            size -= entries.remove(key);
+            return null;
+        }
+
+        try
+        {
+            // Keep track of the access on disk as well, so the order survives restarts
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        }
+        catch (IOException ignored) {}
+        return stream;
+    }
+
+    @Override
+    public void put(@Nonnull String url, @Nonnull InputStream data) throws IOException
+    {
+        String key = key(url);
+        Path temp = Files.createTempFile(directory, key, TEMP_SUFFIX);
+        try
+        {
+            // Copy outside the lock, other files can still be read while this is downloading
+            long length = Files.copy(data, temp, StandardCopyOption.REPLACE_EXISTING);
+            synchronized (this)
+            {
+                move(temp, directory.resolve(key));
+                Long previous = entries.put(key, length);
+                size += length - (previous == null ? 0 : previous);
+                trim(key);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public synchronized boolean remove(@Nonnull String url)
+    {
+        String key = key(url);
+        return entries.containsKey(key) && delete(key);
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        for (String key : new ArrayList<>(entries.keySet()))
+            delete(key);
+    }
+
+    @Override
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    private void load() throws IOException
+    {
+        List<Map.Entry<Path, BasicFileAttributes>> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory))
+        {
+            for (Path file : (Iterable<Path>) stream::iterator)
+            {
+                String name = file.getFileName().toString();
+                if (TEMP_PATTERN.matcher(name).matches())
+                {
+                    // Leftover of an interrupted download
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+
+                if (!KEY_PATTERN.matcher(name).matches())
+                {
+                    LOG.debug("Ignoring unknown file {} in download cache directory", file);
+                    continue;
+                }
+
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile())
+                    files.add(new AbstractMap.SimpleImmutableEntry<>(file, attributes));
+            }
+        }
+
+        files.sort(Comparator.comparing(entry -> entry.getValue().lastModifiedTime()));
+        for (Map.Entry<Path, BasicFileAttributes> entry : files)
+        {
+            entries.put(entry.getKey().getFileName().toString(), entry.getValue().size());
+            size += entry.getValue().size();
+        }
+
+        trim(null);
+    }
+
+    private void trim(@Nullable String keep)
+    {
+        // The most recent file is kept even if it exceeds the limit on its own, since it is about to be read
+        Iterator<String> iterator = new ArrayList<>(entries.keySet()).iterator();
+        while (size > maxSize && iterator.hasNext())
+        {
+            String key = iterator.next();
+            if (!key.equals(keep))
+                delete(key);
+        }
+    }
+
+    private boolean delete(String key)
+    {
+        Path file = directory.resolve(key);
+        try
+        {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e)
+        {
+            // Usually because the file is still open on windows, it will be overwritten by the next download instead
+            LOG.debug("Failed to delete cached file {}", file, e);
+        }
+        size -= entries.remove(key);
+        return true;
+    }
+
+    private static void move(Path source, Path target) throws IOException
+    {
+        try
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (AtomicMoveNotSupportedException e)
+        {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String key(String url)
+    {
+        try
+        {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash)
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return builder.toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // Every java platform is required to support SHA-256
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Size-bounded cache, which evicts the least recently used entries and entries older than the configured time-to-live.
+ * <br>A cache with a max size of {@code 0} is disabled and never stores any values.
+ *
+ * @param <K> The key type
+ * @param <V> The value type
+ */
+public class ExpiringCache<K, V>
+{
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    public ExpiringCache(int maxSize, long ttl, @Nonnull TimeUnit unit)
+    {
+        this.maxSize = maxSize;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.map = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest)
+            {
+                return size() > ExpiringCache.this.maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled()
+    {
+        return maxSize > 0 && ttlNanos > 0;
+    }
+
+    @Nullable
+    public synchronized V get(@Nonnull K key)
+    {
+        if (!isEnabled())
+            return null;
+        Entry<V> entry = map.get(key);
+        if (entry == null)
+            return null;
+        if (entry.expires - System.nanoTime() <= 0)
+        {
+            map.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Nonnull
+    public synchronized V put(@Nonnull K key, @Nonnull V value)
+    {
+        if (isEnabled())
+            map.put(key, new Entry<>(value, System.nanoTime() + ttlNanos));
+        return value;
+    }
+
+    public synchronized void remove(@Nonnull K key)
+    {
+        if (!map.isEmpty())
+            map.remove(key);
+    }
+
+    public synchronized void removeIf(@Nonnull Predicate<? super K> filter)
+    {
+        if (!map.isEmpty())
+            map.keySet().removeIf(filter);
+    }
+
+    public synchronized void clear()
+    {
+        map.clear();
+    }
+
+    public synchronized int size()
+    {
+        return map.size();
+    }
+
+    private static class Entry<V>
+    {
+        private final V value;
+        private final long expires;
+
+        private Entry(V value, long expires)
+        {
+            this.value = value;
+            this.expires = expires;
+        }
+    }
+}
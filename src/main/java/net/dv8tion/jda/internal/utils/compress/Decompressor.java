@@ -21,6 +21,7 @@ import net.dv8tion.jda.internal.utils.JDALogger;
 import org.slf4j.Logger;
 
 import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
 import java.util.zip.DataFormatException;
 
 public interface Decompressor
@@ -34,5 +35,28 @@ public interface Decompressor
     void shutdown();
 
     @Nullable // returns null when the decompression isn't done, for example when no Z_SYNC_FLUSH was present
-    byte[] decompress(byte[] data) throws DataFormatException;
+    default byte[] decompress(byte[] data) throws DataFormatException
+    {
+        ByteBuffer view = decompressView(data);
+        if (view == null)
+            return null;
+        byte[] copy = new byte[view.remaining()];
+        view.get(copy);
+        return copy;
+    }
+
+    /**
+     * Decompresses the provided data into an internal reusable buffer.
+     * <br>The returned view is backed by an array and only valid until the next call to this decompressor.
+     *
+     * @param  data
+     *         The received compressed data
+     *
+     * @throws DataFormatException
+     *         If the data is malformed
+     *
+     * @return View of the decompressed message, or null if the message is not complete yet
+     */
+    @Nullable
+    ByteBuffer decompressView(byte[] data) throws DataFormatException;
 }
@@ -20,14 +20,10 @@ import net.dv8tion.jda.api.utils.Compression;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.lang.ref.SoftReference;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
-import java.util.zip.InflaterOutputStream;
 
 public class ZlibDecompressor implements Decompressor
 {
@@ -35,31 +31,16 @@ public class ZlibDecompressor implements Decompressor
 
     private final int maxBufferSize;
     private final Inflater inflater = new Inflater();
-    private ByteBuffer flushBuffer = null;
-    private SoftReference<ByteArrayOutputStream> decompressBuffer = null;
+    // Reusable output buffer, the views we return point into this array
+    private byte[] decompressBuffer = null;
+    private int decompressedLength = 0;
+    private boolean pendingReset = false;
 
     public ZlibDecompressor(int maxBufferSize)
     {
         this.maxBufferSize = maxBufferSize;
     }
 
-    private SoftReference<ByteArrayOutputStream> newDecompressBuffer()
-    {
-        return new SoftReference<>(new ByteArrayOutputStream(Math.min(1024, maxBufferSize)));
-    }
-
-    private ByteArrayOutputStream getDecompressBuffer()
-    {
-        // If no buffer has been allocated yet we do that here (lazy init)
-        if (decompressBuffer == null)
-            decompressBuffer = newDecompressBuffer();
-        // Check if the buffer has been collected by the GC or not
-        ByteArrayOutputStream buffer = decompressBuffer.get();
-        if (buffer == null) // create a ne buffer because the GC got it
-            decompressBuffer = new SoftReference<>(buffer = new ByteArrayOutputStream(Math.min(1024, maxBufferSize)));
-        return buffer;
-    }
-
     private boolean isFlush(byte[] data)
     {
         if (data.length < 4)
@@ -68,21 +49,39 @@ public class ZlibDecompressor implements Decompressor
         return suffix == Z_SYNC_FLUSH;
     }
 
-    private void buffer(byte[] data)
+    private void releaseBuffer()
     {
-        if (flushBuffer == null)
-            flushBuffer = ByteBuffer.allocate(data.length * 2);
+        // The previous view has been consumed, we can write over the buffer again
+        decompressedLength = 0;
+        pendingReset = false;
+        // Don't keep huge buffers around after a large payload, like GUILD_CREATE
+        if (decompressBuffer != null && decompressBuffer.length > maxBufferSize)
+            decompressBuffer = null;
+    }
+
+    private void ensureCapacity()
+    {
+        if (decompressBuffer == null)
+            decompressBuffer = new byte[Math.min(1024, maxBufferSize)];
+        else if (decompressedLength == decompressBuffer.length)
+            decompressBuffer = Arrays.copyOf(decompressBuffer, Math.max(64, decompressBuffer.length * 2));
+    }
 
-        //Ensure the capacity can hold the new data, ByteBuffer doesn't grow automatically
-        if (flushBuffer.capacity() < data.length + flushBuffer.position())
+    private void inflate(byte[] data) throws DataFormatException
+    {
+        // The inflater keeps its state between frames, which means split messages can be inflated as they arrive
+        inflater.setInput(data);
+        int length;
+        do
         {
-            //Flip to make it a read buffer
-            flushBuffer.flip();
-            //Reallocate for the new capacity
-            flushBuffer = IOUtil.reallocate(flushBuffer, (flushBuffer.capacity() + data.length) * 2);
+            ensureCapacity();
+            length = inflater.inflate(decompressBuffer, decompressedLength, decompressBuffer.length - decompressedLength);
+            decompressedLength += length;
         }
+        while (length > 0);
 
-        flushBuffer.put(data);
+        if (inflater.needsDictionary())
+            throw new DataFormatException("Malformed");
     }
 
     private Object lazy(byte[] data)
@@ -100,6 +99,7 @@ public class ZlibDecompressor implements Decompressor
     public void reset()
     {
         inflater.reset();
+        releaseBuffer();
     }
 
     @Override
@@ -109,50 +109,23 @@ public class ZlibDecompressor implements Decompressor
     }
 
     @Override
-    public byte[] decompress(byte[] data) throws DataFormatException
+    public ByteBuffer decompressView(byte[] data) throws DataFormatException
     {
+        if (pendingReset)
+            releaseBuffer();
+
+        LOG.trace("Decompressing data {}", lazy(data));
+        inflate(data);
+
         //Handle split messages
         if (!isFlush(data))
         {
             //There is no flush suffix so this is not the end of the message
-            LOG.debug("Received incomplete data, writing to buffer. Length: {}", data.length);
-            buffer(data);
+            LOG.debug("Received incomplete data, inflated into buffer. Length: {}", data.length);
             return null; // signal failure to decompress
         }
-        else if (flushBuffer != null)
-        {
-            //This has a flush suffix and we have an incomplete package buffered
-            //concatenate the package with the new data and decompress it below
-            LOG.debug("Received final part of incomplete data");
-            buffer(data);
-            byte[] arr = flushBuffer.array();
-            data = new byte[flushBuffer.position()];
-            System.arraycopy(arr, 0, data, 0, data.length);
-            flushBuffer = null;
-        }
-        LOG.trace("Decompressing data {}", lazy(data));
-        //Get the compressed message and inflate it
-        //We use the same buffer here to optimize gc use
-        ByteArrayOutputStream buffer = getDecompressBuffer();
-        try (InflaterOutputStream decompressor = new InflaterOutputStream(buffer, inflater))
-        {
-            // This decompressor writes the received data and inflates it
-            decompressor.write(data);
-            // Once decompressed we re-interpret the data as a String which can be used for JSON parsing
-            return buffer.toByteArray();
-        }
-        catch (IOException e)
-        {
-            // Some issue appeared during decompression that caused a failure
-            throw (DataFormatException) new DataFormatException("Malformed").initCause(e);
-        }
-        finally
-        {
-            // When done with decompression we want to reset the buffer so it can be used again later
-            if (buffer.size() > maxBufferSize)
-                decompressBuffer = newDecompressBuffer();
-            else
-                buffer.reset();
-        }
+
+        pendingReset = true;
+        return ByteBuffer.wrap(decompressBuffer, 0, decompressedLength);
     }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.compress;
+
+import com.github.luben.zstd.ZstdInputStreamNoFinalizer;
+import com.github.luben.zstd.util.Native;
+import net.dv8tion.jda.api.utils.Compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+
+/**
+ * Decompressor for the {@code zstd-stream} transport compression.
+ *
+ * <p>Discord uses a single zstd context for the entire connection and flushes at the end of every message.
+ * We keep one continuous {@link ZstdInputStreamNoFinalizer} around and feed it the frames as they arrive.
+ */
+public class ZstdDecompressor implements Decompressor
+{
+    private final int maxBufferSize;
+    private final FeedingInputStream input = new FeedingInputStream();
+    private ZstdInputStreamNoFinalizer decompressor = null;
+    // Reusable output buffer, the views we return point into this array
+    private byte[] decompressBuffer = null;
+    private int decompressedLength = 0;
+    private boolean pendingReset = false;
+
+    public ZstdDecompressor(int maxBufferSize)
+    {
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Whether the zstd-jni library and its natives are available at runtime.
+     *
+     * @return True, if {@link Compression#ZSTD} can be used
+     */
+    public static boolean isSupported()
+    {
+        return Availability.SUPPORTED;
+    }
+
+    private void releaseBuffer()
+    {
+        // The previous view has been consumed, we can write over the buffer again
+        decompressedLength = 0;
+        pendingReset = false;
+        // Don't keep huge buffers around after a large payload, like GUILD_CREATE
+        if (decompressBuffer != null && decompressBuffer.length > maxBufferSize)
+            decompressBuffer = null;
+    }
+
+    private void ensureCapacity()
+    {
+        if (decompressBuffer == null)
+            decompressBuffer = new byte[Math.min(1024, maxBufferSize)];
+        else if (decompressedLength == decompressBuffer.length)
+            decompressBuffer = Arrays.copyOf(decompressBuffer, Math.max(64, decompressBuffer.length * 2));
+    }
+
+    private ZstdInputStreamNoFinalizer getDecompressor() throws IOException
+    {
+        if (decompressor == null)
+        {
+            decompressor = new ZstdInputStreamNoFinalizer(input);
+            // The stream never ends a frame, each message is only flushed
+            decompressor.setContinuous(true);
+        }
+        return decompressor;
+    }
+
+    @Override
+    public Compression getType()
+    {
+        return Compression.ZSTD;
+    }
+
+    @Override
+    public void reset()
+    {
+        // Every connection uses a new zstd context
+        if (decompressor != null)
+        {
+            try
+            {
+                decompressor.close();
+            }
+            catch (IOException e)
+            {
+                LOG.debug("Failed to close zstd decompression stream", e);
+            }
+            decompressor = null;
+        }
+        input.feed(null);
+        releaseBuffer();
+    }
+
+    @Override
+    public void shutdown()
+    {
+        reset();
+    }
+
+    @Override
+    public ByteBuffer decompressView(byte[] data) throws DataFormatException
+    {
+        if (pendingReset)
+            releaseBuffer();
+        try
+        {
+            ZstdInputStreamNoFinalizer stream = getDecompressor();
+            input.feed(data);
+            int read;
+            // Read until the message has been fully consumed, the stream reports -1 once the input is drained
+            do
+            {
+                ensureCapacity();
+                read = stream.read(decompressBuffer, decompressedLength, decompressBuffer.length - decompressedLength);
+                if (read > 0)
+                    decompressedLength += read;
+            }
+            while (read > 0 || input.available() > 0);
+
+            pendingReset = true;
+            return ByteBuffer.wrap(decompressBuffer, 0, decompressedLength);
+        }
+        catch (IOException e)
+        {
+            // Some issue appeared during decompression that caused a failure
+            throw (DataFormatException) new DataFormatException("Malformed").initCause(e);
+        }
+        finally
+        {
+            input.feed(null);
+        }
+    }
+
+    private static class Availability
+    {
+        private static final boolean SUPPORTED = load();
+
+        private static boolean load()
+        {
+            try
+            {
+                Native.load();
+                return true;
+            }
+            catch (LinkageError | RuntimeException e)
+            {
+                LOG.debug("Zstd is not available", e);
+                return false;
+            }
+        }
+    }
+
+    // Input stream which is refilled with each received websocket message
+    private static class FeedingInputStream extends InputStream
+    {
+        private byte[] data;
+        private int position;
+
+        private void feed(byte[] data)
+        {
+            this.data = data;
+            this.position = 0;
+        }
+
+        @Override
+        public int available()
+        {
+            return data == null ? 0 : data.length - position;
+        }
+
+        @Override
+        public int read()
+        {
+            if (available() <= 0)
+                return -1;
+            return data[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len)
+        {
+            int available = available();
+            if (len == 0)
+                return 0;
+            if (available <= 0)
+                return -1;
+            int amount = Math.min(len, available);
+            System.arraycopy(data, position, b, off, amount);
+            position += amount;
+            return amount;
+        }
+    }
+}
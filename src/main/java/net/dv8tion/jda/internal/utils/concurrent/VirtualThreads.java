@@ -0,0 +1,161 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.concurrent;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Creates executors backed by virtual threads, when the runtime supports them (Java 21+).
+ * <br>Everything is resolved reflectively, since we still compile against Java 8.
+ */
+public class VirtualThreads
+{
+    private static final Logger LOG = JDALogger.getLog(VirtualThreads.class);
+    private static final AtomicBoolean warned = new AtomicBoolean();
+
+    private static final Method OF_VIRTUAL;
+    private static final Method NAME;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static
+    {
+        Method ofVirtual = null, name = null, factory = null, newExecutor = null;
+        try
+        {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builder = ofVirtual.getReturnType();
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        }
+        catch (ReflectiveOperationException | LinkageError ignored)
+        {
+            ofVirtual = null;
+        }
+
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    /**
+     * Whether the runtime supports virtual threads.
+     *
+     * @return True, if virtual threads can be created
+     */
+    public static boolean isSupported()
+    {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * Creates a thread factory for virtual threads, named like the threads of {@link CountingThreadFactory}.
+     *
+     * @param  identifier
+     *         The identifier of the JDA instance
+     * @param  specifier
+     *         The name of the pool
+     *
+     * @return The thread factory, or null if virtual threads are not supported
+     */
+    @Nullable
+    public static ThreadFactory newThreadFactory(@Nonnull Supplier<String> identifier, @Nonnull String specifier)
+    {
+        if (!checkSupported())
+            return null;
+        try
+        {
+            Object builder = OF_VIRTUAL.invoke(null);
+            builder = NAME.invoke(builder, identifier.get() + " " + specifier + "-Worker ", 1L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            LOG.error("Failed to create virtual thread factory", e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for every task.
+     *
+     * @param  identifier
+     *         The identifier of the JDA instance
+     * @param  specifier
+     *         The name of the pool
+     *
+     * @return The executor, or null if virtual threads are not supported
+     */
+    @Nullable
+    public static ExecutorService newExecutor(@Nonnull Supplier<String> identifier, @Nonnull String specifier)
+    {
+        ThreadFactory factory = newThreadFactory(identifier, specifier);
+        if (factory == null)
+            return null;
+        try
+        {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory);
+        }
+        catch (ReflectiveOperationException e)
+        {
+            LOG.error("Failed to create virtual thread executor", e);
+            return null;
+        }
+    }
+
+    /**
+     * Creates a scheduler whose worker threads are virtual threads.
+     *
+     * @param  coreSize
+     *         The amount of worker threads
+     * @param  identifier
+     *         The identifier of the JDA instance
+     * @param  specifier
+     *         The name of the pool
+     *
+     * @return The scheduler, or null if virtual threads are not supported
+     */
+    @Nullable
+    public static ScheduledExecutorService newScheduler(int coreSize, @Nonnull Supplier<String> identifier, @Nonnull String specifier)
+    {
+        ThreadFactory factory = newThreadFactory(identifier, specifier);
+        return factory == null ? null : new ScheduledThreadPoolExecutor(coreSize, factory);
+    }
+
+    private static boolean checkSupported()
+    {
+        if (isSupported())
+            return true;
+        if (warned.compareAndSet(false, true))
+            LOG.warn("Virtual threads are not supported by this runtime (requires Java 21+), falling back to platform threads");
+        return false;
+    }
+}
@@ -34,13 +34,14 @@ public class SessionConfig
     private final WebSocketFactory webSocketFactory;
     private final VoiceDispatchInterceptor interceptor;
     private final int largeThreshold;
+    private final int dispatchLanes;
     private EnumSet<ConfigFlag> flags;
     private int maxReconnectDelay;
 
     public SessionConfig(
         @Nullable SessionController sessionController, @Nullable OkHttpClient httpClient,
         @Nullable WebSocketFactory webSocketFactory, @Nullable VoiceDispatchInterceptor interceptor,
-        EnumSet<ConfigFlag> flags, int maxReconnectDelay, int largeThreshold)
+        EnumSet<ConfigFlag> flags, int maxReconnectDelay, int largeThreshold, int dispatchLanes)
     {
         this.sessionController = sessionController == null ? new ConcurrentSessionController() : sessionController;
         this.httpClient = httpClient;
@@ -49,6 +50,7 @@ public class SessionConfig
         this.flags = flags;
         this.maxReconnectDelay = maxReconnectDelay;
         this.largeThreshold = largeThreshold;
+        this.dispatchLanes = dispatchLanes;
     }
 
     private static WebSocketFactory newWebSocketFactory()
@@ -128,6 +130,11 @@ public class SessionConfig
         return largeThreshold;
     }
 
+    public int getDispatchLanes()
+    {
+        return dispatchLanes;
+    }
+
     public EnumSet<ConfigFlag> getFlags()
     {
         return flags;
@@ -136,6 +143,6 @@ public class SessionConfig
     @Nonnull
     public static SessionConfig getDefault()
     {
-        return new SessionConfig(null, new OkHttpClient(), null, null, ConfigFlag.getDefault(), 900, 250);
+        return new SessionConfig(null, new OkHttpClient(), null, null, ConfigFlag.getDefault(), 900, 250, 0);
     }
 }
@@ -17,6 +17,7 @@
 package net.dv8tion.jda.internal.utils.config;
 
 import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import net.dv8tion.jda.internal.utils.concurrent.VirtualThreads;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -30,6 +31,7 @@ public class ThreadingConfig
     private ScheduledExecutorService rateLimitScheduler;
     private ExecutorService rateLimitElastic;
     private ScheduledExecutorService gatewayPool;
+    private ScheduledExecutorService heartbeatPool;
     private ExecutorService callbackPool;
     private ExecutorService eventPool;
     private ScheduledExecutorService audioPool;
@@ -37,17 +39,23 @@ public class ThreadingConfig
     private boolean shutdownRateLimitScheduler;
     private boolean shutdownRateLimitElastic;
     private boolean shutdownGatewayPool;
+    private boolean shutdownHeartbeatPool;
     private boolean shutdownCallbackPool;
     private boolean shutdownEventPool;
     private boolean shutdownAudioPool;
 
+    private boolean virtualThreads;
+    private boolean defaultCallbackPool;
+
     public ThreadingConfig()
     {
         this.callbackPool = ForkJoinPool.commonPool();
+        this.defaultCallbackPool = true;
 
         this.shutdownRateLimitScheduler = true;
         this.shutdownRateLimitElastic = true;
         this.shutdownGatewayPool = true;
+        this.shutdownHeartbeatPool = true;
         this.shutdownCallbackPool = false;
         this.shutdownAudioPool = true;
     }
@@ -70,10 +78,17 @@ public class ThreadingConfig
         this.shutdownGatewayPool = shutdown;
     }
 
+    public void setHeartbeatPool(@Nullable ScheduledExecutorService executor, boolean shutdown)
+    {
+        this.heartbeatPool = executor;
+        this.shutdownHeartbeatPool = shutdown;
+    }
+
     public void setCallbackPool(@Nullable ExecutorService executor, boolean shutdown)
     {
         this.callbackPool = executor == null ? ForkJoinPool.commonPool() : executor;
         this.shutdownCallbackPool = shutdown;
+        this.defaultCallbackPool = executor == null;
     }
 
     public void setEventPool(@Nullable ExecutorService executor, boolean shutdown)
@@ -88,12 +103,21 @@ public class ThreadingConfig
         this.shutdownAudioPool = shutdown;
     }
 
+    public void setVirtualThreads(boolean enabled)
+    {
+        this.virtualThreads = enabled;
+    }
+
     public void init(@Nonnull Supplier<String> identifier)
     {
         if (this.rateLimitScheduler == null)
             this.rateLimitScheduler = newScheduler(2, identifier, "RateLimit-Scheduler", false);
         if (this.gatewayPool == null)
             this.gatewayPool = newScheduler(1, identifier, "Gateway");
+        if (this.heartbeatPool == null)
+            this.heartbeatPool = newHeartbeatScheduler(identifier);
+        if (this.rateLimitElastic == null && virtualThreads)
+            this.rateLimitElastic = VirtualThreads.newExecutor(identifier, "RateLimit-Elastic");
         if (this.rateLimitElastic == null)
         {
             this.rateLimitElastic = Executors.newCachedThreadPool(new CountingThreadFactory(identifier, "RateLimit-Elastic", false));
@@ -103,6 +127,17 @@ public class ThreadingConfig
                 ((ThreadPoolExecutor) this.rateLimitElastic).setKeepAliveTime(2, TimeUnit.MINUTES);
             }
         }
+        if (this.defaultCallbackPool && virtualThreads)
+        {
+            // Blocking calls in callbacks would otherwise pin the shared common pool
+            ExecutorService pool = VirtualThreads.newExecutor(identifier, "Callback");
+            if (pool != null)
+            {
+                this.callbackPool = pool;
+                this.shutdownCallbackPool = true;
+                this.defaultCallbackPool = false;
+            }
+        }
     }
 
     public void shutdown()
@@ -111,6 +146,8 @@ public class ThreadingConfig
             callbackPool.shutdown();
         if (shutdownGatewayPool)
             gatewayPool.shutdown();
+        if (shutdownHeartbeatPool && heartbeatPool != null)
+            heartbeatPool.shutdown();
         if (shutdownEventPool && eventPool != null)
             eventPool.shutdown();
         if (shutdownAudioPool && audioPool != null)
@@ -131,6 +168,8 @@ public class ThreadingConfig
             callbackPool.shutdownNow();
         if (shutdownGatewayPool)
             gatewayPool.shutdownNow();
+        if (shutdownHeartbeatPool && heartbeatPool != null)
+            heartbeatPool.shutdownNow();
         if (shutdownRateLimitScheduler)
             rateLimitScheduler.shutdownNow();
         if (shutdownRateLimitElastic)
@@ -159,6 +198,12 @@ public class ThreadingConfig
         return gatewayPool;
     }
 
+    @Nonnull
+    public ScheduledExecutorService getHeartbeatPool()
+    {
+        return heartbeatPool;
+    }
+
     @Nonnull
     public ExecutorService getCallbackPool()
     {
@@ -180,6 +225,8 @@ public class ThreadingConfig
             synchronized (audioLock)
             {
                 pool = audioPool;
+                if (pool == null && virtualThreads)
+                    pool = audioPool = VirtualThreads.newScheduler(1, identifier, "AudioLifeCycle");
                 if (pool == null)
                     pool = audioPool = ThreadingConfig.newScheduler(1, identifier, "AudioLifeCycle");
             }
@@ -187,6 +234,11 @@ public class ThreadingConfig
         return pool;
     }
 
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
     public boolean isShutdownRateLimitScheduler()
     {
         return shutdownRateLimitScheduler;
@@ -202,6 +254,11 @@ public class ThreadingConfig
         return shutdownGatewayPool;
     }
 
+    public boolean isShutdownHeartbeatPool()
+    {
+        return shutdownHeartbeatPool;
+    }
+
     public boolean isShutdownCallbackPool()
     {
         return shutdownCallbackPool;
@@ -229,6 +286,18 @@ public class ThreadingConfig
         return new ScheduledThreadPoolExecutor(coreSize, new CountingThreadFactory(identifier, baseName, daemon));
     }
 
+    @Nonnull
+    public static ScheduledThreadPoolExecutor newHeartbeatScheduler(Supplier<String> identifier)
+    {
+        // Heartbeats have to be sent on time, even while other threads are busy with event handling
+        CountingThreadFactory factory = new CountingThreadFactory(identifier, "Heartbeat");
+        return new ScheduledThreadPoolExecutor(1, (runnable) -> {
+            Thread thread = factory.newThread(runnable);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+    }
+
     @Nonnull
     public static ThreadingConfig getDefault()
     {
@@ -19,6 +19,8 @@ package net.dv8tion.jda.internal.utils.config.sharding;
 import com.neovisionaries.ws.client.WebSocketFactory;
 import net.dv8tion.jda.api.audio.factory.IAudioSendFactory;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
+import net.dv8tion.jda.api.requests.GatewayMetrics;
+import net.dv8tion.jda.api.utils.GatewayRecorder;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -29,32 +31,39 @@ import okhttp3.OkHttpClient;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.EnumSet;
+import java.util.function.IntFunction;
 
 public class ShardingSessionConfig extends SessionConfig
 {
     private final OkHttpClient.Builder builder;
     private final IAudioSendFactory audioSendFactory;
     private final EnumSet<ShardingConfigFlag> shardingFlags;
+    private final IntFunction<? extends GatewayRecorder> gatewayRecorderProvider;
+    private final IntFunction<? extends GatewayMetrics> gatewayMetricsProvider;
 
     public ShardingSessionConfig(
         @Nullable SessionController sessionController, @Nullable VoiceDispatchInterceptor interceptor,
         @Nullable OkHttpClient httpClient, @Nullable OkHttpClient.Builder httpClientBuilder,
         @Nullable WebSocketFactory webSocketFactory, @Nullable IAudioSendFactory audioSendFactory,
         EnumSet<ConfigFlag> flags, EnumSet<ShardingConfigFlag> shardingFlags,
-        int maxReconnectDelay, int largeThreshold)
+        int maxReconnectDelay, int largeThreshold, int dispatchLanes,
+        @Nullable IntFunction<? extends GatewayRecorder> gatewayRecorderProvider,
+        @Nullable IntFunction<? extends GatewayMetrics> gatewayMetricsProvider)
     {
-        super(sessionController, httpClient, webSocketFactory, interceptor, flags, maxReconnectDelay, largeThreshold);
+        super(sessionController, httpClient, webSocketFactory, interceptor, flags, maxReconnectDelay, largeThreshold, dispatchLanes);
         if (httpClient == null)
             this.builder = httpClientBuilder == null ? IOUtil.newHttpClientBuilder() : httpClientBuilder;
         else
             this.builder = null;
         this.audioSendFactory = audioSendFactory;
         this.shardingFlags = shardingFlags;
+        this.gatewayRecorderProvider = gatewayRecorderProvider;
+        this.gatewayMetricsProvider = gatewayMetricsProvider;
     }
 
     public SessionConfig toSessionConfig(OkHttpClient client)
     {
-        return new SessionConfig(getSessionController(), client, getWebSocketFactory(), getVoiceDispatchInterceptor(), getFlags(), getMaxReconnectDelay(), getLargeThreshold());
+        return new SessionConfig(getSessionController(), client, getWebSocketFactory(), getVoiceDispatchInterceptor(), getFlags(), getMaxReconnectDelay(), getLargeThreshold(), getDispatchLanes());
     }
 
     public EnumSet<ShardingConfigFlag> getShardingFlags()
@@ -74,9 +83,21 @@ public class ShardingSessionConfig extends SessionConfig
         return audioSendFactory;
     }
 
+    @Nullable
+    public IntFunction<? extends GatewayRecorder> getGatewayRecorderProvider()
+    {
+        return gatewayRecorderProvider;
+    }
+
+    @Nullable
+    public IntFunction<? extends GatewayMetrics> getGatewayMetricsProvider()
+    {
+        return gatewayMetricsProvider;
+    }
+
     @Nonnull
     public static ShardingSessionConfig getDefault()
     {
-        return new ShardingSessionConfig(null, null, new OkHttpClient(), null, null, null, ConfigFlag.getDefault(), ShardingConfigFlag.getDefault(), 900, 250);
+        return new ShardingSessionConfig(null, null, new OkHttpClient(), null, null, null, ConfigFlag.getDefault(), ShardingConfigFlag.getDefault(), 900, 250, 0, null, null);
     }
 }
@@ -29,27 +29,33 @@ public class ThreadingProviderConfig
     private final ThreadPoolProvider<? extends ScheduledExecutorService> rateLimitSchedulerProvider;
     private final ThreadPoolProvider<? extends ExecutorService> rateLimitElasticProvider;
     private final ThreadPoolProvider<? extends ScheduledExecutorService> gatewayPoolProvider;
+    private final ThreadPoolProvider<? extends ScheduledExecutorService> heartbeatPoolProvider;
     private final ThreadPoolProvider<? extends ExecutorService> callbackPoolProvider;
     private final ThreadPoolProvider<? extends ExecutorService> eventPoolProvider;
     private final ThreadPoolProvider<? extends ScheduledExecutorService> audioPoolProvider;
     private final ThreadFactory threadFactory;
+    private final boolean virtualThreads;
 
     public ThreadingProviderConfig(
             @Nullable ThreadPoolProvider<? extends ScheduledExecutorService> rateLimitSchedulerProvider,
             @Nullable ThreadPoolProvider<? extends ExecutorService> rateLimitElasticProvider,
             @Nullable ThreadPoolProvider<? extends ScheduledExecutorService> gatewayPoolProvider,
+            @Nullable ThreadPoolProvider<? extends ScheduledExecutorService> heartbeatPoolProvider,
             @Nullable ThreadPoolProvider<? extends ExecutorService> callbackPoolProvider,
             @Nullable ThreadPoolProvider<? extends ExecutorService> eventPoolProvider,
             @Nullable ThreadPoolProvider<? extends ScheduledExecutorService> audioPoolProvider,
-            @Nullable ThreadFactory threadFactory)
+            @Nullable ThreadFactory threadFactory,
+            boolean virtualThreads)
     {
         this.rateLimitSchedulerProvider = rateLimitSchedulerProvider;
         this.rateLimitElasticProvider = rateLimitElasticProvider;
         this.gatewayPoolProvider = gatewayPoolProvider;
+        this.heartbeatPoolProvider = heartbeatPoolProvider;
         this.callbackPoolProvider = callbackPoolProvider;
         this.eventPoolProvider = eventPoolProvider;
         this.audioPoolProvider = audioPoolProvider;
         this.threadFactory = threadFactory;
+        this.virtualThreads = virtualThreads;
     }
 
     @Nullable
@@ -58,6 +64,11 @@ public class ThreadingProviderConfig
         return threadFactory;
     }
 
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
     private void init(ThreadPoolProvider<?> provider, int shardTotal)
     {
         if (provider instanceof ThreadPoolProvider.LazySharedProvider)
@@ -75,6 +86,7 @@ public class ThreadingProviderConfig
         init(rateLimitSchedulerProvider, shardTotal);
         init(rateLimitElasticProvider, shardTotal);
         init(gatewayPoolProvider, shardTotal);
+        init(heartbeatPoolProvider, shardTotal);
         init(callbackPoolProvider, shardTotal);
         init(eventPoolProvider, shardTotal);
         init(audioPoolProvider, shardTotal);
@@ -85,6 +97,7 @@ public class ThreadingProviderConfig
         shutdown(rateLimitSchedulerProvider);
         shutdown(rateLimitElasticProvider);
         shutdown(gatewayPoolProvider);
+        shutdown(heartbeatPoolProvider);
         shutdown(callbackPoolProvider);
         shutdown(eventPoolProvider);
         shutdown(audioPoolProvider);
@@ -108,6 +121,12 @@ public class ThreadingProviderConfig
         return gatewayPoolProvider;
     }
 
+    @Nullable
+    public ThreadPoolProvider<? extends ScheduledExecutorService> getHeartbeatPoolProvider()
+    {
+        return heartbeatPoolProvider;
+    }
+
     @Nullable
     public ThreadPoolProvider<? extends ExecutorService> getCallbackPoolProvider()
     {
@@ -129,6 +148,6 @@ public class ThreadingProviderConfig
     @Nonnull
     public static ThreadingProviderConfig getDefault()
     {
-        return new ThreadingProviderConfig(null, null, null, null, null, null, null);
+        return new ThreadingProviderConfig(null, null, null, null, null, null, null, null, false);
     }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.data;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+import java.io.IOException;
+
+/**
+ * String deserializer which returns canonical instances from {@link StringPool#VALUES} for short enum-like values.
+ *
+ * <p>Registering this for {@link String} also makes the untyped deserializer use it for the values of parsed maps and lists.
+ * Field names are already canonicalized by the symbol table of the Jackson parser.
+ * This is only registered if {@link StringPool#POOL_VALUES} is enabled.
+ */
+public class CanonicalStringDeserializer extends StdScalarDeserializer<String>
+{
+    public static final CanonicalStringDeserializer INSTANCE = new CanonicalStringDeserializer();
+
+    protected CanonicalStringDeserializer()
+    {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser p, DeserializationContext ctxt) throws IOException
+    {
+        if (p.hasToken(JsonToken.VALUE_STRING))
+        {
+            int length = p.getTextLength();
+            if (length > 0)
+            {
+                char[] chars = p.getTextCharacters();
+                int offset = p.getTextOffset();
+                if (StringPool.isPoolableValue(chars[offset], length))
+                {
+                    String value = StringPool.VALUES.get(chars, offset, length);
+                    if (value != null)
+                        return value;
+                }
+            }
+            return p.getText();
+        }
+        return StringDeserializer.instance.deserialize(p, ctxt);
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.data;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
+
+/**
+ * Decodes ETF payloads into the mutable maps and lists backing {@link net.dv8tion.jda.api.utils.data.DataObject DataObject}
+ * and {@link net.dv8tion.jda.api.utils.data.DataArray DataArray}.
+ *
+ * <p>This produces the same structures as {@link net.dv8tion.jda.api.utils.data.etf.ExTermDecoder ExTermDecoder},
+ * but reads directly from the array, pre-sizes all collections, and canonicalizes map keys and short values through the {@link StringPool}.
+ */
+public class EtfDataDecoder
+{
+    private final byte[] data;
+    private final int limit;
+    private int position;
+
+    protected EtfDataDecoder(byte[] data, int offset, int length)
+    {
+        this.data = data;
+        this.position = offset;
+        this.limit = offset + length;
+    }
+
+    public static Map<String, Object> decodeMap(byte[] data, int offset, int length)
+    {
+        Object value = decode(data, offset, length);
+        if (!(value instanceof Map))
+            throw new IllegalArgumentException("Cannot unpack map from tag " + data[offset + 1]);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) value;
+        return map;
+    }
+
+    public static List<Object> decodeList(byte[] data, int offset, int length)
+    {
+        Object value = decode(data, offset, length);
+        if (!(value instanceof List))
+            throw new IllegalArgumentException("Cannot unpack list from tag " + data[offset + 1]);
+        @SuppressWarnings("unchecked")
+        List<Object> list = (List<Object>) value;
+        return list;
+    }
+
+    public static Object decode(byte[] data, int offset, int length)
+    {
+        EtfDataDecoder decoder = new EtfDataDecoder(data, offset, length);
+        if (decoder.readByte() != -125)
+            throw new IllegalArgumentException("Failed header check");
+        return decoder.decode();
+    }
+
+    protected Object decode()
+    {
+        int tag = readByte();
+        switch (tag)
+        {
+        case COMPRESSED: return decodeCompressed();
+        case SMALL_INT: return readByte() & 0xFF;
+        case SMALL_BIGINT: return decodeSmallBigint();
+        case INT: return readInt();
+
+        case FLOAT: return Double.parseDouble(readString(31, StandardCharsets.ISO_8859_1));
+        case NEW_FLOAT: return Double.longBitsToDouble(readLong());
+
+        case SMALL_ATOM_UTF8: return decodeAtom(readByte() & 0xFF, StandardCharsets.UTF_8);
+        case SMALL_ATOM: return decodeAtom(readByte() & 0xFF, StandardCharsets.ISO_8859_1);
+        case ATOM_UTF8: return decodeAtom(readShort(), StandardCharsets.UTF_8);
+        case ATOM: return decodeAtom(readShort(), StandardCharsets.ISO_8859_1);
+
+        case MAP: return decodeMap0();
+        case LIST: return decodeList0();
+        case NIL: return new ArrayList<>(0);
+
+        case STRING: return decodeCharList();
+        case BINARY: return decodeBinary(readInt());
+        default:
+            throw new IllegalArgumentException("Unknown tag " + tag);
+        }
+    }
+
+    private Object decodeCompressed()
+    {
+        int size = readInt();
+        byte[] decompressed = new byte[size];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(data, position, limit - position);
+            int length = 0;
+            while (length < size && !inflater.finished())
+            {
+                int read = inflater.inflate(decompressed, length, size - length);
+                if (read == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                length += read;
+            }
+            if (length != size)
+                throw new IllegalArgumentException("Compressed term is shorter than its declared size " + size);
+            position = limit;
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        return new EtfDataDecoder(decompressed, 0, size).decode();
+    }
+
+    private long decodeSmallBigint()
+    {
+        int arity = readByte() & 0xFF;
+        int sign = readByte() & 0xFF;
+        require(arity);
+        long sum = 0;
+        for (int shift = 0; arity-- > 0; shift += 8)
+            sum += (data[position++] & 0xFFL) << shift;
+        return sign == 0 ? sum : -sum;
+    }
+
+    private Object decodeAtom(int length, Charset charset)
+    {
+        require(length);
+        String value = StringPool.VALUES.get(data, position, length);
+        if (value == null)
+            return readString(length, charset);
+        position += length;
+        switch (value)
+        {
+        case "true": return true;
+        case "false": return false;
+        case "nil": return null;
+        default: return value;
+        }
+    }
+
+    private String decodeBinary(int length)
+    {
+        require(length);
+        if (StringPool.POOL_VALUES && length > 0 && StringPool.isPoolableValue(data[position], length))
+        {
+            String value = StringPool.VALUES.get(data, position, length);
+            if (value != null)
+            {
+                position += length;
+                return value;
+            }
+        }
+        return readString(length, StandardCharsets.UTF_8);
+    }
+
+    private List<Object> decodeCharList()
+    {
+        int length = readShort();
+        require(length);
+        List<Object> bytes = new ArrayList<>(length);
+        while (length-- > 0)
+            bytes.add(data[position++]);
+        return bytes;
+    }
+
+    private List<Object> decodeList0()
+    {
+        int length = readInt();
+        // Each element takes at least one byte, which limits the capacity for malformed lengths
+        List<Object> list = new ArrayList<>(Math.min(length, limit - position));
+        while (length-- > 0)
+            list.add(decode());
+        int tail = readByte();
+        if (tail != NIL)
+            throw new IllegalArgumentException("Unexpected tail " + tail);
+        return list;
+    }
+
+    private Map<String, Object> decodeMap0()
+    {
+        int arity = readInt();
+        // Avoid rehashing, the map is never filled beyond the decoded arity
+        int expected = Math.min(arity, (limit - position) / 2);
+        Map<String, Object> map = new HashMap<>(expected + expected / 3 + 1);
+        while (arity-- > 0)
+        {
+            String key = decodeKey();
+            map.put(key, decode());
+        }
+        return map;
+    }
+
+    private String decodeKey()
+    {
+        require(1);
+        int length;
+        Charset charset = StandardCharsets.UTF_8;
+        switch (data[position])
+        {
+        case BINARY:
+            position++;
+            length = readInt();
+            break;
+        case SMALL_ATOM:
+            charset = StandardCharsets.ISO_8859_1;
+            // fall through
+        case SMALL_ATOM_UTF8:
+            position++;
+            length = readByte() & 0xFF;
+            break;
+        case ATOM:
+            charset = StandardCharsets.ISO_8859_1;
+            // fall through
+        case ATOM_UTF8:
+            position++;
+            length = readShort();
+            break;
+        default:
+            return String.valueOf(decode());
+        }
+
+        require(length);
+        String key = StringPool.KEYS.get(data, position, length);
+        if (key == null)
+            return readString(length, charset);
+        position += length;
+        return key;
+    }
+
+    private String readString(int length, Charset charset)
+    {
+        require(length);
+        String value = new String(data, position, length, charset);
+        position += length;
+        return value;
+    }
+
+    private int readByte()
+    {
+        require(1);
+        return data[position++];
+    }
+
+    private int readShort()
+    {
+        require(2);
+        return ((data[position++] & 0xFF) << 8) | (data[position++] & 0xFF);
+    }
+
+    private int readInt()
+    {
+        require(4);
+        return ((data[position++] & 0xFF) << 24)
+             | ((data[position++] & 0xFF) << 16)
+             | ((data[position++] & 0xFF) << 8)
+             | (data[position++] & 0xFF);
+    }
+
+    private long readLong()
+    {
+        long high = readInt() & 0xFFFFFFFFL;
+        long low = readInt() & 0xFFFFFFFFL;
+        return (high << 32) | low;
+    }
+
+    private void require(int length)
+    {
+        if (length < 0 || length > limit - position)
+            throw new BufferUnderflowException();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.data;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Small lossy pool of canonical strings, used for the keys and short values of decoded payloads.
+ *
+ * <p>Payloads repeat the same few hundred keys ({@code id}, {@code guild_id}, {@code user}, ...) and enum-like values
+ * ({@code online}, {@code GUILD_CREATE}, ...) millions of times. Decoded payloads are often retained for a while,
+ * for instance in the event cache or during guild setup, so sharing these strings reduces both allocations and retained heap.
+ *
+ * <p>The pool is a fixed size hash table without locking. Entries are immutable and replace each other on collisions,
+ * so concurrent access can only lead to a miss, never to a wrong result.
+ * Only ASCII strings are pooled, which allows looking up the same entry from either bytes or chars.
+ */
+public final class StringPool
+{
+    /**
+     * The name of the system property, which enables pooling of string values parsed from JSON and ETF.
+     * <br>Keys and ETF atoms are always pooled. Values are only pooled if this is set to {@code true} before JDA is loaded,
+     * since pooling has a small cost for every parsed string and only pays off for retained payloads.
+     *
+     * <p>{@value}
+     */
+    public static final String POOL_VALUES_PROPERTY_NAME = "net.dv8tion.jda.poolStringValues";
+    /** Whether string values are pooled, see {@link #POOL_VALUES_PROPERTY_NAME} */
+    public static final boolean POOL_VALUES = Boolean.getBoolean(POOL_VALUES_PROPERTY_NAME);
+
+    /** Pool for the keys of payload objects */
+    public static final StringPool KEYS = new StringPool(2048, 32);
+    /** Pool for short values, such as status names, locales, or event types */
+    public static final StringPool VALUES = new StringPool(4096, 24);
+
+    private final Entry[] table;
+    private final int mask;
+    private final int maxLength;
+
+    private StringPool(int size, int maxLength)
+    {
+        this.table = new Entry[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Whether the provided value is likely to repeat and thus worth pooling.
+     * <br>This excludes long values and values starting with a digit, such as snowflake ids and timestamps.
+     *
+     * @param  first
+     *         The first character of the value
+     * @param  length
+     *         The length of the value
+     *
+     * @return True, if the value should be looked up in {@link #VALUES}
+     */
+    public static boolean isPoolableValue(int first, int length)
+    {
+        return length > 0 && length <= VALUES.maxLength && (first < '0' || first > '9');
+    }
+
+    /**
+     * Returns the canonical string for the ASCII bytes in the provided range.
+     *
+     * @param  array
+     *         The array containing the string
+     * @param  offset
+     *         The index of the first byte
+     * @param  length
+     *         The amount of bytes
+     *
+     * @return The canonical string, or null if the string is too long or not ASCII
+     */
+    public String get(byte[] array, int offset, int length)
+    {
+        if (length > maxLength)
+            return null;
+        int hash = 0x811C9DC5;
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            byte b = array[i];
+            if (b < 0)
+                return null;
+            hash = (hash ^ b) * 0x01000193;
+        }
+
+        int index = (hash ^ (hash >>> 16)) & mask;
+        Entry entry = table[index];
+        if (entry != null && entry.hash == hash && entry.matches(array, offset, length))
+            return entry.value;
+
+        String value = new String(array, offset, length, StandardCharsets.US_ASCII);
+        table[index] = new Entry(hash, value);
+        return value;
+    }
+
+    /**
+     * Returns the canonical string for the ASCII characters in the provided range.
+     *
+     * @param  array
+     *         The array containing the string
+     * @param  offset
+     *         The index of the first character
+     * @param  length
+     *         The amount of characters
+     *
+     * @return The canonical string, or null if the string is too long or not ASCII
+     */
+    public String get(char[] array, int offset, int length)
+    {
+        if (length > maxLength)
+            return null;
+        int hash = 0x811C9DC5;
+        for (int i = offset, end = offset + length; i < end; i++)
+        {
+            char c = array[i];
+            if (c >= 0x80)
+                return null;
+            hash = (hash ^ c) * 0x01000193;
+        }
+
+        int index = (hash ^ (hash >>> 16)) & mask;
+        Entry entry = table[index];
+        if (entry != null && entry.hash == hash && entry.matches(array, offset, length))
+            return entry.value;
+
+        String value = new String(array, offset, length);
+        table[index] = new Entry(hash, value);
+        return value;
+    }
+
+    private static final class Entry
+    {
+        private final int hash;
+        private final String value;
+
+        private Entry(int hash, String value)
+        {
+            this.hash = hash;
+            this.value = value;
+        }
+
+        private boolean matches(byte[] array, int offset, int length)
+        {
+            if (value.length() != length)
+                return false;
+            for (int i = 0; i < length; i++)
+            {
+                if (value.charAt(i) != array[offset + i])
+                    return false;
+            }
+            return true;
+        }
+
+        private boolean matches(char[] array, int offset, int length)
+        {
+            if (value.length() != length)
+                return false;
+            for (int i = 0; i < length; i++)
+            {
+                if (value.charAt(i) != array[offset + i])
+                    return false;
+            }
+            return true;
+        }
+    }
+}
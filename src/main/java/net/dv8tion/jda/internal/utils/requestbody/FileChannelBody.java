@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.requestbody;
+
+import okhttp3.MediaType;
+import okio.BufferedSink;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+
+/**
+ * Request body which streams a file directly from a {@link FileChannel}.
+ *
+ * <p>The channel is opened when the upload is created and read with positional transfers,
+ * which allows the request to be retried without keeping a copy of the file on the heap.
+ * Since the file is already open, it can be moved or deleted while the request is queued.
+ * The channel is closed once the request is done, later requests open the file again.
+ */
+public class FileChannelBody extends TypedBody<FileChannelBody> implements AutoCloseable
+{
+    private final Path path;
+    private final FileChannel channel;
+    private final OpenOption[] options;
+
+    public FileChannelBody(MediaType type, Path path, @Nullable FileChannel channel, OpenOption... options)
+    {
+        super(type);
+        this.path = path;
+        this.channel = channel;
+        this.options = options;
+    }
+
+    @Nonnull
+    @Override
+    public FileChannelBody withType(@Nonnull MediaType newType)
+    {
+        if (this.type.equals(newType))
+            return this;
+        return new FileChannelBody(newType, path, channel, options);
+    }
+
+    @Override
+    public long contentLength() throws IOException
+    {
+        try
+        {
+            return channel != null && channel.isOpen() ? channel.size() : Files.size(path);
+        }
+        catch (IOException e)
+        {
+            // Let the request fail when writing instead, this just falls back to chunked encoding
+            return -1;
+        }
+    }
+
+    @Override
+    public void writeTo(@Nonnull BufferedSink sink) throws IOException
+    {
+        if (channel != null && channel.isOpen())
+        {
+            transfer(channel, sink);
+            return;
+        }
+
+        try (FileChannel reopened = FileChannel.open(path, options))
+        {
+            transfer(reopened, sink);
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        if (channel != null)
+            channel.close();
+    }
+
+    private void transfer(FileChannel source, BufferedSink sink) throws IOException
+    {
+        long size = source.size();
+        long position = 0;
+        while (position < size)
+        {
+            long transferred = source.transferTo(position, size - position, sink);
+            if (transferred <= 0)
+                break;
+            position += transferred;
+        }
+        if (position != size)
+            throw new IOException("File changed size while uploading. Path: " + path);
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.compress;
+
+import com.github.luben.zstd.ZstdOutputStreamNoFinalizer;
+import net.dv8tion.jda.internal.utils.compress.Decompressor;
+import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+import net.dv8tion.jda.internal.utils.compress.ZstdDecompressor;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class DecompressorTest
+{
+    private static final List<String> MESSAGES = Arrays.asList(
+        "{\"op\":10,\"d\":{\"heartbeat_interval\":41250}}",
+        "{\"op\":0,\"s\":1,\"t\":\"READY\",\"d\":{\"session_id\":\"abc\"}}",
+        "{\"op\":0,\"s\":2,\"t\":\"GUILD_CREATE\",\"d\":{\"id\":\"1\",\"name\":\"" + repeat("guild", 2000) + "\"}}",
+        "{\"op\":11}"
+    );
+
+    @Test
+    void testZlibStream() throws DataFormatException
+    {
+        List<byte[]> frames = new ArrayList<>();
+        Deflater deflater = new Deflater();
+        for (String message : MESSAGES)
+            frames.add(deflate(deflater, message));
+
+        Decompressor decompressor = new ZlibDecompressor(2048);
+        assertThat(replay(decompressor, frames)).containsExactlyElementsOf(MESSAGES);
+
+        // Split messages are buffered until the Z_SYNC_FLUSH suffix is received
+        decompressor.reset();
+        deflater = new Deflater();
+        byte[] frame = deflate(deflater, MESSAGES.get(2));
+        assertThat(decompressor.decompress(Arrays.copyOfRange(frame, 0, frame.length / 2))).isNull();
+        byte[] decompressed = decompressor.decompress(Arrays.copyOfRange(frame, frame.length / 2, frame.length));
+        assertThat(new String(decompressed, StandardCharsets.UTF_8)).isEqualTo(MESSAGES.get(2));
+    }
+
+    @Test
+    void testZstdStream() throws DataFormatException, IOException
+    {
+        assumeTrue(ZstdDecompressor.isSupported(), "zstd natives are not available");
+
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        List<byte[]> frames = new ArrayList<>();
+        try (ZstdOutputStreamNoFinalizer compressor = new ZstdOutputStreamNoFinalizer(sink))
+        {
+            for (String message : MESSAGES)
+            {
+                compressor.write(message.getBytes(StandardCharsets.UTF_8));
+                compressor.flush();
+                frames.add(sink.toByteArray());
+                sink.reset();
+            }
+        }
+
+        Decompressor decompressor = new ZstdDecompressor(2048);
+        assertThat(replay(decompressor, frames)).containsExactlyElementsOf(MESSAGES);
+        decompressor.shutdown();
+    }
+
+    private static List<String> replay(Decompressor decompressor, List<byte[]> frames) throws DataFormatException
+    {
+        List<String> output = new ArrayList<>();
+        for (byte[] frame : frames)
+        {
+            byte[] decompressed = decompressor.decompress(frame);
+            if (decompressed != null)
+                output.add(new String(decompressed, StandardCharsets.UTF_8));
+        }
+        return output;
+    }
+
+    private static byte[] deflate(Deflater deflater, String message)
+    {
+        deflater.setInput(message.getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int length;
+        do
+        {
+            length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+            output.write(buffer, 0, length);
+        }
+        while (length == buffer.length);
+        return output.toByteArray();
+    }
+
+    private static String repeat(String value, int times)
+    {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < times; i++)
+            builder.append(value);
+        return builder.toString();
+    }
+}
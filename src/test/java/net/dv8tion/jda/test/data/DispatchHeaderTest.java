@@ -0,0 +1,127 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.data;
+
+import net.dv8tion.jda.internal.requests.DispatchHeader;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DispatchHeaderTest
+{
+    private static final long GUILD_ID = 125227483518861312L;
+
+    @Test
+    void testConsumedDispatchIsNotScanned()
+    {
+        // The payload is truncated, which would fail if anything after the type was read
+        byte[] data = "{\"t\":\"MESSAGE_CREATE\",\"s\":42,\"op\":0,\"d\":{\"content\":\"hel".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(DispatchHeader.readSkipped(data, 0, data.length, new TestFilter(false, false))).isNull();
+    }
+
+    @Test
+    void testSkippedDispatch()
+    {
+        String json = "{\"t\":\"TYPING_START\",\"s\":42,\"op\":0,\"d\":{\"guild_id\":\"" + GUILD_ID + "\",\"user_id\":\"1\"}}";
+        // Pad the array to make sure offsets are handled correctly
+        byte[] data = ("   " + json + "xyz").getBytes(StandardCharsets.UTF_8);
+
+        DispatchHeader header = DispatchHeader.readSkipped(data, 3, json.length(), new TestFilter(true, false));
+
+        assertThat(header).isNotNull();
+        assertThat(header.getType()).isEqualTo("TYPING_START");
+        assertThat(header.getSequence()).isEqualTo(42);
+        assertThat(header.getGuildId()).isZero();
+    }
+
+    @Test
+    void testUnavailableGuild()
+    {
+        // The scan stops at the first guild_id, the truncated rest is never read
+        byte[] skipped = ("{\"t\":\"GUILD_MEMBER_UPDATE\",\"s\":7,\"op\":0,\"d\":{\"user\":{\"id\":\"1\",\"roles\":[]},\"guild_id\":\"" + GUILD_ID + "\",\"nick\":\"a")
+            .getBytes(StandardCharsets.UTF_8);
+        byte[] consumed = ("{\"t\":\"GUILD_MEMBER_UPDATE\",\"s\":7,\"op\":0,\"d\":{\"guild_id\":\"1\",\"nick\":\"a\"}}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        DispatchHeader header = DispatchHeader.readSkipped(skipped, 0, skipped.length, new TestFilter(false, true));
+
+        assertThat(header).isNotNull();
+        assertThat(header.getSequence()).isEqualTo(7);
+        assertThat(header.getGuildId()).isEqualTo(GUILD_ID);
+        assertThat(DispatchHeader.readSkipped(consumed, 0, consumed.length, new TestFilter(false, true))).isNull();
+    }
+
+    @Test
+    void testTypeAfterPayload()
+    {
+        byte[] data = ("{\"d\":{\"nick\":\"a\",\"guild_id\":\"" + GUILD_ID + "\",\"roles\":[\"1\"]},\"op\":0,\"s\":3,\"t\":\"GUILD_MEMBER_UPDATE\"}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        DispatchHeader header = DispatchHeader.readSkipped(data, 0, data.length, new TestFilter(false, true));
+
+        assertThat(header).isNotNull();
+        assertThat(header.getType()).isEqualTo("GUILD_MEMBER_UPDATE");
+        assertThat(header.getSequence()).isEqualTo(3);
+        assertThat(header.getGuildId()).isEqualTo(GUILD_ID);
+        assertThat(DispatchHeader.readSkipped(data, 0, data.length, new TestFilter(false, false))).isNull();
+    }
+
+    @Test
+    void testIgnoreNonDispatch()
+    {
+        byte[] hello = "{\"op\":10,\"d\":{\"heartbeat_interval\":41250},\"s\":null,\"t\":null}".getBytes(StandardCharsets.UTF_8);
+        byte[] presencesReplace = "{\"op\":0,\"t\":\"PRESENCES_REPLACE\",\"s\":1,\"d\":[]}".getBytes(StandardCharsets.UTF_8);
+        TestFilter filter = new TestFilter(true, true);
+
+        assertThat(DispatchHeader.readSkipped(hello, 0, hello.length, filter)).isNull();
+        assertThat(DispatchHeader.readSkipped(presencesReplace, 0, presencesReplace.length, filter)).isNull();
+    }
+
+    private static class TestFilter implements DispatchHeader.Filter
+    {
+        private final boolean skipType;
+        private final boolean guildFiltered;
+
+        private TestFilter(boolean skipType, boolean guildFiltered)
+        {
+            this.skipType = skipType;
+            this.guildFiltered = guildFiltered;
+        }
+
+        @Override
+        public boolean isSkipped(@Nonnull String type)
+        {
+            return skipType;
+        }
+
+        @Override
+        public boolean isGuildFiltered(@Nonnull String type)
+        {
+            return guildFiltered;
+        }
+
+        @Override
+        public boolean isSkipped(@Nonnull String type, long guildId)
+        {
+            return guildId == GUILD_ID;
+        }
+    }
+}
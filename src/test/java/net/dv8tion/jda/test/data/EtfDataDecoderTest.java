@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.data;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
+import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
+import net.dv8tion.jda.internal.utils.data.EtfDataDecoder;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EtfDataDecoderTest
+{
+    private static Map<String, Object> payload()
+    {
+        Map<String, Object> member = new HashMap<>();
+        member.put("nick", "nickname");
+        member.put("roles", Arrays.asList("123", "456"));
+        member.put("deaf", false);
+        member.put("communication_disabled_until", null);
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("id", "1234567890123456789");
+        data.put("guild_id", 987654321098765432L);
+        data.put("member", member);
+        data.put("position", 7);
+        data.put("weight", 4.2);
+        data.put("empty", Collections.emptyList());
+
+        Map<String, Object> map = new HashMap<>();
+        map.put("op", 0);
+        map.put("t", "GUILD_MEMBER_UPDATE");
+        map.put("d", data);
+        return map;
+    }
+
+    private static byte[] encode(Object value)
+    {
+        ByteBuffer buffer = ExTermEncoder.pack(value);
+        return Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.arrayOffset() + buffer.limit());
+    }
+
+    @Test
+    void testSameAsExTermDecoder()
+    {
+        byte[] etf = encode(payload());
+
+        Map<String, Object> expected = ExTermDecoder.unpackMap(ByteBuffer.wrap(etf));
+        Map<String, Object> actual = EtfDataDecoder.decodeMap(etf, 0, etf.length);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(DataObject.fromETF(etf).getObject("d").getObject("member").getArray("roles").getString(1)).isEqualTo("456");
+    }
+
+    @Test
+    void testOffsetAndPooledKeys()
+    {
+        byte[] etf = encode(payload());
+        byte[] padded = new byte[etf.length + 10];
+        System.arraycopy(etf, 0, padded, 5, etf.length);
+
+        Map<String, Object> first = EtfDataDecoder.decodeMap(etf, 0, etf.length);
+        Map<String, Object> second = EtfDataDecoder.decodeMap(padded, 5, etf.length);
+        assertThat(second).isEqualTo(first);
+
+        String firstKey = first.keySet().stream().filter("op"::equals).findFirst().orElseThrow(AssertionError::new);
+        String secondKey = second.keySet().stream().filter("op"::equals).findFirst().orElseThrow(AssertionError::new);
+        assertThat(secondKey).isSameAs(firstKey);
+    }
+
+    @Test
+    void testMalformed()
+    {
+        byte[] etf = encode(payload());
+
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> EtfDataDecoder.decodeMap(new byte[] { 0, 116, 0, 0, 0, 0 }, 0, 6));
+        assertThatIllegalArgumentException()
+            .isThrownBy(() -> EtfDataDecoder.decodeMap(encode(Collections.singletonList(1)), 0, 9));
+        assertThatThrownBy(() -> EtfDataDecoder.decodeMap(etf, 0, etf.length - 3))
+            .isInstanceOf(BufferUnderflowException.class);
+    }
+}
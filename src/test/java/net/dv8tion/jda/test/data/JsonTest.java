@@ -16,15 +16,20 @@
 
 package net.dv8tion.jda.test.data;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.data.CanonicalStringDeserializer;
+import net.dv8tion.jda.internal.utils.data.StringPool;
 import net.dv8tion.jda.test.PrettyRepresentation;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
@@ -72,6 +77,32 @@ public class JsonTest
             assertThat(object.getOffsetDateTime("time")).isEqualTo(TEST_TIME);
         }
 
+        @Test
+        void testCanonicalValues() throws IOException
+        {
+            // Value pooling is opt-in for DataObject, so this uses a mapper with the deserializer directly
+            ObjectMapper mapper = new ObjectMapper();
+            mapper.registerModule(new SimpleModule().addDeserializer(String.class, CanonicalStringDeserializer.INSTANCE));
+            String json = "{\"status\":\"online\",\"id\":\"123456789012345678\",\"nested\":[{\"status\":\"online\"}]}";
+            Map<?, ?> first = mapper.readValue(json, Map.class);
+            Map<?, ?> second = mapper.readValue(json.getBytes(StandardCharsets.UTF_8), Map.class);
+
+            assertThat(second.get("status")).isEqualTo("online").isSameAs(first.get("status"));
+            assertThat(((Map<?, ?>) ((List<?>) second.get("nested")).get(0)).get("status")).isSameAs(first.get("status"));
+            assertThat(second.get("id")).isEqualTo("123456789012345678").isNotSameAs(first.get("id"));
+        }
+
+        @Test
+        void testValuesNotPooledByDefault()
+        {
+            String json = "{\"status\":\"online\"}";
+            DataObject first = DataObject.fromJson(json);
+            DataObject second = DataObject.fromJson(json);
+
+            assertThat(StringPool.POOL_VALUES).isFalse();
+            assertThat(second.getString("status")).isEqualTo(first.getString("status")).isNotSameAs(first.getString("status"));
+        }
+
         @Test
         void testCoerce()
         {
@@ -275,6 +306,24 @@ public class JsonTest
                 .hasMessage("Cannot parse value for index 2 into type Map: [] instance of ArrayList");
         }
 
+        @Test
+        void testStreamObjects()
+        {
+            List<DataObject> objects = new ArrayList<>();
+            int count = DataArray.streamObjects(new StringReader("[" + testJson + "," + testJson + "]"), objects::add);
+            assertThat(count).isEqualTo(2);
+            assertThat(objects).hasSize(2);
+            assertThat(objects.get(1).getString("string")).isEqualTo("test");
+            assertThat(objects.get(1).getOffsetDateTime("time")).isEqualTo(TEST_TIME);
+
+            assertThat(DataArray.streamObjects(new StringReader("[]"), objects::add)).isZero();
+            assertThatThrownBy(() -> DataArray.streamObjects(new StringReader(testJson), objects::add))
+                .isInstanceOf(ParsingException.class);
+            assertThatThrownBy(() -> DataArray.streamObjects(new StringReader(testJsonArray), objects::add))
+                .isInstanceOf(ParsingException.class)
+                .hasMessageStartingWith("Expected JSON Object at index 0");
+        }
+
         @Test
         void testFactories()
         {
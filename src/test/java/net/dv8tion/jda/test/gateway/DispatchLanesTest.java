@@ -0,0 +1,250 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.gateway;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.RawGatewayEvent;
+import net.dv8tion.jda.api.events.session.ShutdownEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+public class DispatchLanesTest
+{
+    private static final String TOKEN = "fake.token.here";
+    private static final String TYPE = "FAKE_EVENT";
+    private static final int GUILDS = 8;
+
+    private FakeGatewayServer server;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException
+    {
+        server = new FakeGatewayServer().setGuilds(GUILDS, 2);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        if (jda != null)
+        {
+            jda.shutdownNow();
+            jda.awaitShutdown();
+        }
+        server.close();
+    }
+
+    private JDA login(EventListener listener) throws InterruptedException
+    {
+        return JDABuilder.create(TOKEN, GatewayIntent.GUILD_MEMBERS)
+            .setSessionController(server.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(server.getRestUrl()))
+            .setRawEventsEnabled(true)
+            .setDispatchLanes(4)
+            .addEventListeners(listener)
+            .build()
+            .awaitReady();
+    }
+
+    private static EventListener onFakeEvent(Consumer<DataObject> handler)
+    {
+        return event -> {
+            if (event instanceof RawGatewayEvent && TYPE.equals(((RawGatewayEvent) event).getType()))
+                handler.accept(((RawGatewayEvent) event).getPayload());
+        };
+    }
+
+    private void dispatch(int guild, int index)
+    {
+        server.dispatchAll(TYPE, DataObject.empty()
+            .put("guild_id", Long.toUnsignedString(FakeGatewayServer.guildId(guild)))
+            .put("index", index));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException
+    {
+        while (!condition.getAsBoolean())
+            TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testOrderWithinGuild() throws InterruptedException
+    {
+        int events = 100;
+        Map<Long, List<Integer>> received = new ConcurrentHashMap<>();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        jda = login(onFakeEvent(data -> {
+            threads.add(Thread.currentThread().getName());
+            received.computeIfAbsent(data.getUnsignedLong("guild_id"), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(data.getInt("index"));
+        }));
+
+        for (int i = 0; i < events; i++)
+        {
+            for (int guild = 0; guild < GUILDS; guild++)
+                dispatch(guild, i);
+        }
+
+        await(() -> received.values().stream().mapToInt(List::size).sum() == events * GUILDS);
+
+        assertThat(received).hasSize(GUILDS);
+        for (List<Integer> indices : received.values())
+        {
+            synchronized (indices)
+            {
+                for (int i = 0; i < events; i++)
+                    assertThat(indices.get(i)).isEqualTo(i);
+            }
+        }
+        assertThat(threads).allMatch(name -> name.contains("DispatchLane"));
+    }
+
+    @Test
+    void testShutdownWaitsForRunningDispatch() throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+        AtomicBoolean finishedBeforeShutdown = new AtomicBoolean();
+        AtomicBoolean guildCached = new AtomicBoolean();
+        long guildId = FakeGatewayServer.guildId(0);
+
+        jda = login(new EventListener()
+        {
+            @Override
+            public void onEvent(@Nonnull GenericEvent event)
+            {
+                if (event instanceof ShutdownEvent)
+                {
+                    finishedBeforeShutdown.set(finished.get());
+                    return;
+                }
+                onFakeEvent(data -> {
+                    started.countDown();
+                    sleep(500);
+                    guildCached.set(event.getJDA().getGuildById(guildId) != null);
+                    finished.set(true);
+                }).onEvent(event);
+            }
+        });
+
+        dispatch(0, 0);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        jda.shutdown();
+        assertThat(jda.awaitShutdown(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(finished).isTrue();
+        assertThat(finishedBeforeShutdown).isTrue();
+        assertThat(guildCached).isTrue();
+    }
+
+    @Test
+    void testInvalidationWaitsForRunningDispatch() throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicBoolean guildCached = new AtomicBoolean();
+        long guildId = FakeGatewayServer.guildId(0);
+
+        jda = login(onFakeEvent(data -> {
+            started.countDown();
+            sleep(500);
+            guildCached.set(jda.getGuildById(guildId) != null);
+        }));
+
+        dispatch(0, 0);
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        server.invalidateSessions();
+        server.disconnectAll(4000);
+        await(() -> server.getIdentifyCount() == 2 && jda.getStatus() == JDA.Status.CONNECTED);
+
+        assertThat(guildCached).isTrue();
+        assertThat(jda.getGuilds()).hasSize(GUILDS);
+    }
+
+    @Test
+    void testAwaitIdleOnLane() throws InterruptedException
+    {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        jda = login(onFakeEvent(data -> {
+            if (data.getInt("index") == 0)
+            {
+                started.countDown();
+                sleep(300);
+                return;
+            }
+
+            try
+            {
+                started.await();
+                // Must neither throw nor wait for the tasks queued behind this lane
+                ((JDAImpl) jda).getClient().getDispatchLanes().awaitIdle();
+            }
+            catch (Throwable t)
+            {
+                failure.set(t);
+            }
+            finally
+            {
+                done.countDown();
+            }
+        }));
+
+        dispatch(0, 0);
+        dispatch(1, 1);
+        dispatch(1, 2);
+
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(failure.get()).isNull();
+    }
+}
@@ -0,0 +1,875 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.gateway;
+
+import net.dv8tion.jda.api.JDAInfo;
+import net.dv8tion.jda.api.utils.SessionController;
+import net.dv8tion.jda.api.utils.SessionControllerAdapter;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.DataType;
+import net.dv8tion.jda.internal.requests.WebSocketCode;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * In-process stand-in for the Discord gateway, used for integration tests and load tests without a network connection.
+ *
+ * <p>The server speaks the gateway opcodes of {@link WebSocketCode} over a minimal websocket implementation.
+ * It supports HELLO, IDENTIFY/READY, RESUME, heartbeats, REQUEST_GUILD_MEMBERS, the JSON and ETF encodings,
+ * and the {@code zlib-stream} transport compression.
+ * The same port also answers the few REST endpoints required for login, {@code users/@me} and {@code gateway/bot}.
+ *
+ * <p>Guilds are synthetic and distributed to shards by their id, like Discord does.
+ * Every guild has one text channel per configured channel and the configured amount of members, including the bot itself.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * try (FakeGatewayServer server = new FakeGatewayServer().setGuilds(100, 5000))
+ * {
+ *     JDA jda = JDABuilder.create("fake.token", GatewayIntent.GUILD_MEMBERS)
+ *         .setSessionController(server.newSessionController())
+ *         .setRestConfig(new RestConfig().setBaseUrl(server.getRestUrl()))
+ *         .setChunkingFilter(ChunkingFilter.ALL)
+ *         .setMemberCachePolicy(MemberCachePolicy.ALL)
+ *         .build()
+ *         .awaitReady();
+ * }
+ * }</pre>
+ */
+public class FakeGatewayServer implements Closeable
+{
+    public static final long SELF_ID = 1L << 40;
+
+    private static final Logger LOG = JDALogger.getLog(FakeGatewayServer.class);
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final String TIMESTAMP = "2020-01-01T00:00:00.000000+00:00";
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int OP_CONTINUATION = 0x0;
+    private static final int OP_TEXT = 0x1;
+    private static final int OP_BINARY = 0x2;
+    private static final int OP_CLOSE = 0x8;
+    private static final int OP_PING = 0x9;
+    private static final int OP_PONG = 0xA;
+
+    private final ServerSocket server;
+    private final ExecutorService executor;
+    private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger sessionCounter = new AtomicInteger();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final AtomicInteger identifies = new AtomicInteger();
+    private final AtomicInteger resumes = new AtomicInteger();
+    private final AtomicInteger chunkRequests = new AtomicInteger();
+    private final AtomicInteger heartbeats = new AtomicInteger();
+
+    private volatile int guildCount = 1;
+    private volatile int memberCount = 1;
+    private volatile int channelCount = 1;
+    private volatile int shardTotal = 1;
+    private volatile int heartbeatInterval = 41250;
+    private volatile boolean acknowledgeHeartbeats = true;
+
+    public FakeGatewayServer() throws IOException
+    {
+        this.server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(r ->
+        {
+            Thread thread = new Thread(r, "FakeGateway-Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Configures the synthetic guilds sent to the shards.
+     *
+     * @param  guilds
+     *         The total amount of guilds, across all shards
+     * @param  members
+     *         The amount of members in each guild, including the bot itself
+     *
+     * @return This server instance
+     */
+    public FakeGatewayServer setGuilds(int guilds, int members)
+    {
+        if (guilds < 0 || guilds >= (1 << 20))
+            throw new IllegalArgumentException("Guild count must be between 0 and 2^20");
+        if (members < 1)
+            throw new IllegalArgumentException("Each guild must at least contain the bot itself");
+        this.guildCount = guilds;
+        this.memberCount = members;
+        return this;
+    }
+
+    public FakeGatewayServer setChannelsPerGuild(int channels)
+    {
+        if (channels < 0 || channels >= (1 << 20))
+            throw new IllegalArgumentException("Channel count must be between 0 and 2^20");
+        this.channelCount = channels;
+        return this;
+    }
+
+    /**
+     * The shard total recommended by the {@code gateway/bot} endpoint.
+     *
+     * @param  shardTotal
+     *         The shard total
+     *
+     * @return This server instance
+     */
+    public FakeGatewayServer setShardTotal(int shardTotal)
+    {
+        if (shardTotal < 1)
+            throw new IllegalArgumentException("Shard total must be positive");
+        this.shardTotal = shardTotal;
+        return this;
+    }
+
+    public FakeGatewayServer setHeartbeatInterval(int millis)
+    {
+        if (millis < 1)
+            throw new IllegalArgumentException("Heartbeat interval must be positive");
+        this.heartbeatInterval = millis;
+        return this;
+    }
+
+    /**
+     * Whether heartbeats are answered with HEARTBEAT_ACK, which can be disabled to simulate a zombie connection.
+     *
+     * @param acknowledge
+     *        False, to ignore heartbeats
+     *
+     * @return This server
+     */
+    public FakeGatewayServer setAcknowledgeHeartbeats(boolean acknowledge)
+    {
+        this.acknowledgeHeartbeats = acknowledge;
+        return this;
+    }
+
+    public String getGatewayUrl()
+    {
+        return "ws://127.0.0.1:" + server.getLocalPort() + "/";
+    }
+
+    public String getRestUrl()
+    {
+        return "http://127.0.0.1:" + server.getLocalPort() + "/api/v" + JDAInfo.DISCORD_REST_VERSION + "/";
+    }
+
+    /**
+     * Session controller which connects to this server, without the identify delay used for the real gateway.
+     *
+     * @return The session controller
+     */
+    public SessionController newSessionController()
+    {
+        String url = getGatewayUrl();
+        return new SessionControllerAdapter()
+        {
+            @Override
+            protected void runWorker()
+            {
+                synchronized (lock)
+                {
+                    if (workerHandle == null)
+                    {
+                        workerHandle = new QueueWorker(0L);
+                        workerHandle.start();
+                    }
+                }
+            }
+
+            @Nonnull
+            @Override
+            public String getGateway()
+            {
+                return url;
+            }
+        };
+    }
+
+    public int getConnectionCount()
+    {
+        return connections.get();
+    }
+
+    public int getIdentifyCount()
+    {
+        return identifies.get();
+    }
+
+    public int getResumeCount()
+    {
+        return resumes.get();
+    }
+
+    public int getChunkRequestCount()
+    {
+        return chunkRequests.get();
+    }
+
+    public int getHeartbeatCount()
+    {
+        return heartbeats.get();
+    }
+
+    /**
+     * Closes all open gateway connections with the provided close code.
+     * <br>Sessions are kept, which allows the clients to resume.
+     *
+     * @param code
+     *        The close code, for instance {@code 4000} to request a resume
+     */
+    public void disconnectAll(int code)
+    {
+        for (Client client : clients)
+            client.close(code);
+    }
+
+    /**
+     * Sends a dispatch to all identified clients.
+     *
+     * @param type
+     *        The event type
+     * @param data
+     *        The event payload
+     */
+    public void dispatchAll(String type, DataObject data)
+    {
+        for (Client client : clients)
+        {
+            try
+            {
+                if (client.session != null)
+                    client.dispatch(type, data);
+            }
+            catch (IOException e)
+            {
+                LOG.debug("Failed to send dispatch to client", e);
+            }
+        }
+    }
+
+    /**
+     * Forgets all sessions, the next resume attempts are answered with INVALIDATE_SESSION.
+     */
+    public void invalidateSessions()
+    {
+        sessions.clear();
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            server.close();
+        }
+        catch (IOException ignored) {}
+        for (Client client : clients)
+            client.close(1001);
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop()
+    {
+        while (!server.isClosed())
+        {
+            try
+            {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                executor.execute(() -> handleSocket(socket));
+            }
+            catch (IOException e)
+            {
+                if (!server.isClosed())
+                    LOG.error("Failed to accept connection", e);
+            }
+        }
+    }
+
+    private void handleSocket(Socket socket)
+    {
+        try
+        {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+            String requestLine = readLine(in);
+            Map<String, String> headers = new HashMap<>();
+            for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in))
+            {
+                int colon = line.indexOf(':');
+                if (colon > 0)
+                    headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+            if (requestLine == null)
+                return;
+
+            String[] parts = requestLine.split(" ");
+            String path = parts.length > 1 ? parts[1] : "/";
+            if ("websocket".equalsIgnoreCase(headers.get("upgrade")))
+                new Client(socket, in, out, path, headers.get("sec-websocket-key")).run();
+            else
+                handleRest(out, parts[0], path);
+        }
+        catch (IOException e)
+        {
+            if (!server.isClosed())
+                LOG.debug("Connection failed", e);
+        }
+        finally
+        {
+            try
+            {
+                socket.close();
+            }
+            catch (IOException ignored) {}
+        }
+    }
+
+    private void handleRest(OutputStream out, String method, String path) throws IOException
+    {
+        int status = 200;
+        DataObject body;
+        if ("GET".equals(method) && path.endsWith("/users/@me"))
+        {
+            body = selfUser();
+        }
+        else if ("GET".equals(method) && path.endsWith("/gateway/bot"))
+        {
+            body = DataObject.empty()
+                .put("url", getGatewayUrl())
+                .put("shards", shardTotal)
+                .put("session_start_limit", DataObject.empty()
+                    .put("total", 1000)
+                    .put("remaining", 1000)
+                    .put("reset_after", 0)
+                    .put("max_concurrency", 16));
+        }
+        else if ("GET".equals(method) && path.endsWith("/gateway"))
+        {
+            body = DataObject.empty().put("url", getGatewayUrl());
+        }
+        else
+        {
+            status = 404;
+            body = DataObject.empty().put("message", "404: Not Found").put("code", 0);
+        }
+
+        byte[] json = body.toJson();
+        String head = "HTTP/1.1 " + status + (status == 200 ? " OK" : " Not Found") + "\r\n"
+            + "Content-Type: application/json\r\n"
+            + "Content-Length: " + json.length + "\r\n"
+            + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(json);
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1)
+        {
+            if (c == '\n')
+                return builder.toString();
+            if (c != '\r')
+                builder.append((char) c);
+        }
+        return builder.length() == 0 ? null : builder.toString();
+    }
+
+    private static Map<String, String> parseQuery(String path)
+    {
+        Map<String, String> query = new HashMap<>();
+        int start = path.indexOf('?');
+        if (start < 0)
+            return query;
+        for (String pair : path.substring(start + 1).split("&"))
+        {
+            int eq = pair.indexOf('=');
+            if (eq > 0)
+                query.put(pair.substring(0, eq), pair.substring(eq + 1));
+        }
+        return query;
+    }
+
+    // -- Synthetic entities --
+
+    public static long guildId(int index)
+    {
+        // The shard of a guild is derived from the timestamp bits of the id
+        return (long) (index + 1) << 22;
+    }
+
+    public static DataObject selfUser()
+    {
+        return DataObject.empty()
+            .put("id", Long.toUnsignedString(SELF_ID))
+            .put("username", "FakeBot")
+            .put("discriminator", "0000")
+            .put("global_name", null)
+            .put("avatar", null)
+            .put("bot", true)
+            .put("verified", true)
+            .put("mfa_enabled", false);
+    }
+
+    private static DataObject member(int index)
+    {
+        if (index == 0)
+            return member(selfUser());
+        long id = SELF_ID + index;
+        return member(DataObject.empty()
+            .put("id", Long.toUnsignedString(id))
+            .put("username", "user" + index)
+            .put("discriminator", "0000")
+            .put("global_name", null)
+            .put("avatar", null)
+            .put("bot", false));
+    }
+
+    private static DataObject member(DataObject user)
+    {
+        return DataObject.empty()
+            .put("user", user)
+            .put("roles", DataArray.empty())
+            .put("nick", null)
+            .put("joined_at", TIMESTAMP)
+            .put("deaf", false)
+            .put("mute", false)
+            .put("flags", 0);
+    }
+
+    private DataArray members(int from, int to)
+    {
+        DataArray members = DataArray.empty();
+        for (int i = from; i < to; i++)
+            members.add(member(i));
+        return members;
+    }
+
+    private DataObject guild(int index, int largeThreshold)
+    {
+        long id = guildId(index);
+        int members = memberCount;
+
+        DataArray channels = DataArray.empty();
+        for (int i = 0; i < channelCount; i++)
+        {
+            channels.add(DataObject.empty()
+                .put("id", Long.toUnsignedString(id + i + 1))
+                .put("type", 0)
+                .put("name", "channel-" + i)
+                .put("position", i)
+                .put("nsfw", false)
+                .put("parent_id", null)
+                .put("permission_overwrites", DataArray.empty()));
+        }
+
+        DataObject everyone = DataObject.empty()
+            .put("id", Long.toUnsignedString(id))
+            .put("name", "@everyone")
+            .put("color", 0)
+            .put("position", 0)
+            .put("permissions", "104324673")
+            .put("managed", false)
+            .put("hoist", false)
+            .put("mentionable", false);
+
+        boolean large = members > largeThreshold;
+        return DataObject.empty()
+            .put("id", Long.toUnsignedString(id))
+            .put("name", "Guild " + index)
+            .put("owner_id", Long.toUnsignedString(SELF_ID + Math.min(1, members - 1)))
+            .put("unavailable", false)
+            .put("large", large)
+            .put("member_count", members)
+            .put("joined_at", TIMESTAMP)
+            .put("features", DataArray.empty())
+            .put("roles", DataArray.empty().add(everyone))
+            .put("channels", channels)
+            .put("members", large ? members(0, 1) : members(0, members))
+            .put("threads", DataArray.empty())
+            .put("guild_scheduled_events", DataArray.empty())
+            .put("emojis", DataArray.empty())
+            .put("stickers", DataArray.empty())
+            .put("voice_states", DataArray.empty())
+            .put("presences", DataArray.empty())
+            .put("stage_instances", DataArray.empty())
+            .put("premium_progress_bar_enabled", false);
+    }
+
+    private static class Session
+    {
+        private final String id;
+        private final AtomicInteger sequence = new AtomicInteger();
+
+        private Session(String id)
+        {
+            this.id = id;
+        }
+    }
+
+    private class Client
+    {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final OutputStream out;
+        private final String key;
+        private final boolean etf;
+        private final Deflater deflater;
+        private volatile boolean closed;
+        private volatile Session session;
+
+        private Client(Socket socket, DataInputStream in, OutputStream out, String path, String key)
+        {
+            Map<String, String> query = parseQuery(path);
+            this.socket = socket;
+            this.in = in;
+            this.out = out;
+            this.key = key;
+            this.etf = "etf".equals(query.get("encoding"));
+            this.deflater = "zlib-stream".equals(query.get("compress")) ? new Deflater() : null;
+        }
+
+        private void run() throws IOException
+        {
+            if (key == null)
+                throw new IOException("Missing websocket key");
+            String head = "HTTP/1.1 101 Switching Protocols\r\n"
+                + "Upgrade: websocket\r\n"
+                + "Connection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + acceptKey(key) + "\r\n\r\n";
+            out.write(head.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            connections.incrementAndGet();
+            clients.add(this);
+            try
+            {
+                send(DataObject.empty()
+                    .put("op", WebSocketCode.HELLO)
+                    .put("d", DataObject.empty().put("heartbeat_interval", heartbeatInterval)));
+                readLoop();
+            }
+            catch (SocketException e)
+            {
+                if (!closed)
+                    throw e;
+            }
+            finally
+            {
+                clients.remove(this);
+                if (deflater != null)
+                    deflater.end();
+            }
+        }
+
+        private void readLoop() throws IOException
+        {
+            ByteArrayOutputStream message = new ByteArrayOutputStream();
+            int messageType = OP_TEXT;
+            while (!closed)
+            {
+                int first = in.read();
+                if (first < 0)
+                    return;
+                int second = in.readUnsignedByte();
+                boolean fin = (first & 0x80) != 0;
+                int opcode = first & 0x0F;
+
+                long length = second & 0x7F;
+                if (length == 126)
+                    length = in.readUnsignedShort();
+                else if (length == 127)
+                    length = in.readLong();
+                if (length < 0 || length > Integer.MAX_VALUE)
+                    throw new IOException("Frame too large");
+
+                byte[] mask = null;
+                if ((second & 0x80) != 0)
+                {
+                    mask = new byte[4];
+                    in.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                if (mask != null)
+                {
+                    for (int i = 0; i < payload.length; i++)
+                        payload[i] ^= mask[i & 3];
+                }
+
+                switch (opcode)
+                {
+                case OP_CLOSE:
+                    close(payload.length >= 2 ? ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF) : 1000);
+                    return;
+                case OP_PING:
+                    writeFrame(OP_PONG, payload);
+                    break;
+                case OP_PONG:
+                    break;
+                case OP_TEXT:
+                case OP_BINARY:
+                    messageType = opcode;
+                    // fall through
+                case OP_CONTINUATION:
+                    message.write(payload);
+                    if (fin)
+                    {
+                        byte[] data = message.toByteArray();
+                        message.reset();
+                        handle(messageType == OP_BINARY ? DataObject.fromETF(data) : DataObject.fromJson(data));
+                    }
+                    break;
+                default:
+                    throw new IOException("Unknown websocket opcode " + opcode);
+                }
+            }
+        }
+
+        private void handle(DataObject payload) throws IOException
+        {
+            int op = payload.getInt("op");
+            switch (op)
+            {
+            case WebSocketCode.HEARTBEAT:
+                heartbeats.incrementAndGet();
+                if (acknowledgeHeartbeats)
+                    send(DataObject.empty().put("op", WebSocketCode.HEARTBEAT_ACK));
+                break;
+            case WebSocketCode.IDENTIFY:
+                identify(payload.getObject("d"));
+                break;
+            case WebSocketCode.RESUME:
+                resume(payload.getObject("d"));
+                break;
+            case WebSocketCode.MEMBER_CHUNK_REQUEST:
+                requestMembers(payload.getObject("d"));
+                break;
+            default:
+                LOG.debug("Ignoring payload with opcode {}", op);
+            }
+        }
+
+        private void identify(DataObject data) throws IOException
+        {
+            identifies.incrementAndGet();
+            int shardId = 0, total = 1;
+            if (data.isType("shard", DataType.ARRAY))
+            {
+                DataArray shard = data.getArray("shard");
+                shardId = shard.getInt(0);
+                total = shard.getInt(1);
+            }
+
+            session = new Session("fake-session-" + sessionCounter.incrementAndGet());
+            sessions.put(session.id, session);
+
+            DataArray unavailable = DataArray.empty();
+            List<Integer> guilds = new ArrayList<>();
+            for (int i = 0; i < guildCount; i++)
+            {
+                if ((i + 1) % total != shardId)
+                    continue;
+                guilds.add(i);
+                unavailable.add(DataObject.empty().put("id", Long.toUnsignedString(guildId(i))).put("unavailable", true));
+            }
+
+            dispatch("READY", DataObject.empty()
+                .put("v", JDAInfo.DISCORD_GATEWAY_VERSION)
+                .put("user", selfUser())
+                .put("guilds", unavailable)
+                .put("private_channels", DataArray.empty())
+                .put("session_id", session.id)
+                .put("resume_gateway_url", getGatewayUrl())
+                .put("shard", DataArray.empty().add(shardId).add(total))
+                .put("application", DataObject.empty().put("id", Long.toUnsignedString(SELF_ID)).put("flags", 0)));
+
+            int largeThreshold = data.getInt("large_threshold", 50);
+            for (int index : guilds)
+                dispatch("GUILD_CREATE", guild(index, largeThreshold));
+        }
+
+        private void resume(DataObject data) throws IOException
+        {
+            resumes.incrementAndGet();
+            Session previous = sessions.get(data.getString("session_id", ""));
+            if (previous == null)
+            {
+                send(DataObject.empty().put("op", WebSocketCode.INVALIDATE_SESSION).put("d", false));
+                return;
+            }
+            session = previous;
+            dispatch("RESUMED", DataObject.empty());
+        }
+
+        private void requestMembers(DataObject data) throws IOException
+        {
+            chunkRequests.incrementAndGet();
+            List<Long> ids = new ArrayList<>();
+            if (data.isType("guild_id", DataType.ARRAY))
+            {
+                DataArray array = data.getArray("guild_id");
+                for (int i = 0; i < array.length(); i++)
+                    ids.add(array.getUnsignedLong(i));
+            }
+            else
+            {
+                ids.add(data.getUnsignedLong("guild_id"));
+            }
+
+            String nonce = data.getString("nonce", null);
+            int members = memberCount;
+            int chunkCount = Math.max(1, (members + CHUNK_SIZE - 1) / CHUNK_SIZE);
+            for (long id : ids)
+            {
+                long index = (id >>> 22) - 1;
+                if (index < 0 || index >= guildCount || guildId((int) index) != id)
+                    continue;
+                for (int chunk = 0; chunk < chunkCount; chunk++)
+                {
+                    int from = chunk * CHUNK_SIZE;
+                    DataObject payload = DataObject.empty()
+                        .put("guild_id", Long.toUnsignedString(id))
+                        .put("members", members(from, Math.min(members, from + CHUNK_SIZE)))
+                        .put("chunk_index", chunk)
+                        .put("chunk_count", chunkCount);
+                    if (nonce != null)
+                        payload.put("nonce", nonce);
+                    dispatch("GUILD_MEMBERS_CHUNK", payload);
+                }
+            }
+        }
+
+        private synchronized void dispatch(String type, DataObject data) throws IOException
+        {
+            if (session == null)
+                throw new IOException("Dispatch before identify");
+            send(DataObject.empty()
+                .put("op", WebSocketCode.DISPATCH)
+                .put("t", type)
+                .put("s", session.sequence.incrementAndGet())
+                .put("d", data));
+        }
+
+        private synchronized void send(DataObject payload) throws IOException
+        {
+            byte[] data = etf ? payload.toETF() : payload.toJson();
+            if (deflater != null)
+                writeFrame(OP_BINARY, deflate(data));
+            else
+                writeFrame(etf ? OP_BINARY : OP_TEXT, data);
+        }
+
+        private byte[] deflate(byte[] data)
+        {
+            // Sync flush terminates every message with the 00 00 FF FF suffix expected by the client
+            deflater.setInput(data);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 4 + 64);
+            byte[] buffer = new byte[8192];
+            int length;
+            do
+            {
+                length = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                output.write(buffer, 0, length);
+            }
+            while (length == buffer.length);
+            return output.toByteArray();
+        }
+
+        private synchronized void writeFrame(int opcode, byte[] payload) throws IOException
+        {
+            out.write(0x80 | opcode);
+            if (payload.length < 126)
+            {
+                out.write(payload.length);
+            }
+            else if (payload.length <= 0xFFFF)
+            {
+                out.write(126);
+                out.write(payload.length >>> 8);
+                out.write(payload.length);
+            }
+            else
+            {
+                out.write(127);
+                for (int shift = 56; shift >= 0; shift -= 8)
+                    out.write((int) ((long) payload.length >>> shift));
+            }
+            out.write(payload);
+            out.flush();
+        }
+
+        private void close(int code)
+        {
+            if (closed)
+                return;
+            closed = true;
+            try
+            {
+                writeFrame(OP_CLOSE, new byte[] { (byte) (code >>> 8), (byte) code });
+            }
+            catch (IOException ignored) {}
+            try
+            {
+                socket.close();
+            }
+            catch (IOException ignored) {}
+        }
+    }
+
+    private static String acceptKey(String key)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.gateway;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+public class FakeGatewayServerTest
+{
+    private static final String TOKEN = "fake.token.here";
+
+    private FakeGatewayServer server;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException
+    {
+        server = new FakeGatewayServer();
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        if (jda != null)
+        {
+            jda.shutdownNow();
+            jda.awaitShutdown();
+        }
+        server.close();
+    }
+
+    private JDABuilder builder()
+    {
+        return JDABuilder.create(TOKEN, GatewayIntent.GUILD_MEMBERS)
+            .setSessionController(server.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(server.getRestUrl()))
+            .setChunkingFilter(ChunkingFilter.ALL)
+            .setMemberCachePolicy(MemberCachePolicy.ALL);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException
+    {
+        while (!condition.getAsBoolean())
+            TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    @ParameterizedTest
+    @CsvSource({"JSON, ZLIB", "JSON, NONE", "ETF, ZLIB", "ETF, NONE"})
+    void testLoginAndChunking(GatewayEncoding encoding, Compression compression) throws InterruptedException
+    {
+        server.setGuilds(3, 2500).setChannelsPerGuild(2);
+
+        jda = builder()
+            .setGatewayEncoding(encoding)
+            .setCompression(compression)
+            .build()
+            .awaitReady();
+
+        assertThat(server.getIdentifyCount()).isEqualTo(1);
+        assertThat(server.getChunkRequestCount()).isPositive();
+        assertThat(jda.getSelfUser().getIdLong()).isEqualTo(FakeGatewayServer.SELF_ID);
+        assertThat(jda.getGuilds()).hasSize(3);
+        for (Guild guild : jda.getGuilds())
+        {
+            assertThat(guild.getMemberCount()).isEqualTo(2500);
+            assertThat(guild.getMemberCache().size()).isEqualTo(2500);
+            assertThat(guild.getTextChannels()).hasSize(2);
+        }
+    }
+
+    @Test
+    void testResume() throws InterruptedException
+    {
+        server.setGuilds(2, 10);
+        jda = builder().build().awaitReady();
+
+        server.disconnectAll(4000);
+        await(() -> server.getResumeCount() == 1 && jda.getStatus() == JDA.Status.CONNECTED);
+
+        assertThat(server.getIdentifyCount()).isEqualTo(1);
+        assertThat(server.getConnectionCount()).isEqualTo(2);
+        assertThat(jda.getGuilds()).hasSize(2);
+    }
+
+    @Test
+    void testInvalidatedSession() throws InterruptedException
+    {
+        server.setGuilds(2, 10);
+        jda = builder().build().awaitReady();
+
+        server.invalidateSessions();
+        server.disconnectAll(4000);
+        await(() -> server.getIdentifyCount() == 2 && jda.getStatus() == JDA.Status.CONNECTED);
+
+        assertThat(server.getResumeCount()).isEqualTo(1);
+        assertThat(jda.getGuilds()).hasSize(2);
+    }
+
+    @Test
+    void testZombieConnection() throws InterruptedException
+    {
+        server.setGuilds(1, 2).setHeartbeatInterval(200);
+        jda = builder().build().awaitReady();
+
+        server.setAcknowledgeHeartbeats(false);
+        int heartbeats = server.getHeartbeatCount();
+        await(() -> server.getConnectionCount() == 2);
+
+        // Two missed ACKs without any other frames
+        assertThat(server.getHeartbeatCount() - heartbeats).isLessThanOrEqualTo(3);
+        server.setAcknowledgeHeartbeats(true);
+        await(() -> jda.getStatus() == JDA.Status.CONNECTED);
+    }
+
+    @Test
+    void testZombieConnectionWhileReceiving() throws InterruptedException
+    {
+        server.setGuilds(1, 2).setHeartbeatInterval(200);
+        jda = builder().build().awaitReady();
+
+        server.setAcknowledgeHeartbeats(false);
+        int heartbeats = server.getHeartbeatCount();
+        // Frames which keep arriving only delay the reconnect, they don't prevent it
+        while (server.getConnectionCount() < 2)
+        {
+            server.dispatchAll("FAKE_EVENT", DataObject.empty());
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+
+        assertThat(server.getHeartbeatCount() - heartbeats).isBetween(3, 5);
+        server.setAcknowledgeHeartbeats(true);
+        await(() -> jda.getStatus() == JDA.Status.CONNECTED);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.gateway;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.GatewayMetrics;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.internal.requests.WebSocketCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+public class GatewayMetricsTest
+{
+    private static final String TOKEN = "fake.token.here";
+
+    private final RecordingMetrics metrics = new RecordingMetrics();
+
+    private FakeGatewayServer server;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException
+    {
+        server = new FakeGatewayServer().setGuilds(1, 2).setHeartbeatInterval(200);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        if (jda != null)
+        {
+            jda.shutdownNow();
+            jda.awaitShutdown();
+        }
+        server.close();
+    }
+
+    @Test
+    void testCompressedConnection() throws InterruptedException
+    {
+        connect(Compression.ZLIB);
+
+        assertThat(metrics.binaryFrames.get()).isPositive();
+        assertThat(metrics.textFrames.get()).isZero();
+        assertThat(metrics.decompressed).isNotEmpty();
+        // Every decompressed message is parsed with its decompressed size
+        List<Integer> decompressed = new ArrayList<>(metrics.decompressed);
+        await(() -> metrics.parsed.containsAll(decompressed));
+    }
+
+    @Test
+    void testUncompressedConnection() throws InterruptedException
+    {
+        connect(Compression.NONE);
+
+        assertThat(metrics.textFrames.get()).isPositive();
+        assertThat(metrics.binaryFrames.get()).isZero();
+        assertThat(metrics.decompressed).isEmpty();
+        assertThat(metrics.parsed).isNotEmpty();
+    }
+
+    private void connect(Compression compression) throws InterruptedException
+    {
+        jda = JDABuilder.createLight(TOKEN)
+            .setSessionController(server.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(server.getRestUrl()))
+            .setCompression(compression)
+            .setGatewayMetrics(metrics)
+            .build()
+            .awaitReady();
+
+        server.dispatchAll("USER_UPDATE", FakeGatewayServer.selfUser().put("username", "Renamed"));
+
+        await(() -> metrics.handled.contains("USER_UPDATE"));
+        await(() -> !metrics.heartbeats.isEmpty());
+        await(() -> metrics.queueSizes.get() > 0);
+
+        assertThat(metrics.opcodes).contains(WebSocketCode.HELLO, WebSocketCode.DISPATCH, WebSocketCode.HEARTBEAT_ACK);
+        assertThat(metrics.types).contains("READY", "USER_UPDATE");
+        assertThat(metrics.heartbeats).allSatisfy(millis -> assertThat(millis).isNotNegative());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException
+    {
+        while (!condition.getAsBoolean())
+            TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    private static class RecordingMetrics implements GatewayMetrics
+    {
+        private final AtomicInteger binaryFrames = new AtomicInteger();
+        private final AtomicInteger textFrames = new AtomicInteger();
+        private final AtomicInteger queueSizes = new AtomicInteger();
+        private final List<Integer> decompressed = new CopyOnWriteArrayList<>();
+        private final List<Integer> parsed = new CopyOnWriteArrayList<>();
+        private final List<Integer> opcodes = new CopyOnWriteArrayList<>();
+        private final List<String> types = new CopyOnWriteArrayList<>();
+        private final List<String> handled = new CopyOnWriteArrayList<>();
+        private final List<Long> heartbeats = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onFrameReceived(boolean binary, int bytes)
+        {
+            (binary ? binaryFrames : textFrames).incrementAndGet();
+        }
+
+        @Override
+        public void onDecompressed(int compressedBytes, int decompressedBytes, long nanos)
+        {
+            decompressed.add(decompressedBytes);
+        }
+
+        @Override
+        public void onParsed(int bytes, long nanos)
+        {
+            parsed.add(bytes);
+        }
+
+        @Override
+        public void onPayloadReceived(int opcode, @Nullable String type, int bytes)
+        {
+            opcodes.add(opcode);
+            if (type != null)
+                types.add(type);
+        }
+
+        @Override
+        public void onDispatchHandled(@Nonnull String type, long nanos)
+        {
+            handled.add(type);
+        }
+
+        @Override
+        public void onQueueSizes(int messageQueue, int chunkQueue)
+        {
+            queueSizes.incrementAndGet();
+        }
+
+        @Override
+        public void onHeartbeatAcknowledged(long millis)
+        {
+            heartbeats.add(millis);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.gateway;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.events.guild.GuildReadyEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.events.session.SessionInvalidateEvent;
+import net.dv8tion.jda.api.events.session.SessionRecreateEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.ConcurrentSessionController;
+import net.dv8tion.jda.api.utils.GatewayRecorder;
+import net.dv8tion.jda.api.utils.GatewayRecording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javax.annotation.Nonnull;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+public class GatewayReplayTest
+{
+    private static final String TOKEN = "fake.token.here";
+    private static final int GUILDS = 3;
+
+    private FakeGatewayServer server;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException
+    {
+        server = new FakeGatewayServer().setGuilds(GUILDS, 10);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        if (jda != null)
+        {
+            jda.shutdownNow();
+            jda.awaitShutdown();
+        }
+        server.close();
+    }
+
+    private static JDABuilder builder()
+    {
+        return JDABuilder.create(TOKEN, GatewayIntent.GUILD_MEMBERS)
+            .setChunkingFilter(ChunkingFilter.NONE);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException
+    {
+        while (!condition.getAsBoolean())
+            TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    @Test
+    void testReplayRecordedSession() throws Exception
+    {
+        // Record a session which is invalidated once, so the recording contains INVALIDATE_SESSION and a second login
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GatewayRecorder recorder = new GatewayRecorder(output, GatewayRecorder.Mode.COMPRESSED);
+        JDA live = builder()
+            .setSessionController(server.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(server.getRestUrl()))
+            .setGatewayRecorder(recorder)
+            .build()
+            .awaitReady();
+        try
+        {
+            server.invalidateSessions();
+            server.disconnectAll(4000);
+            await(() -> server.getIdentifyCount() == 2 && live.getStatus() == JDA.Status.CONNECTED && live.getGuilds().size() == GUILDS);
+        }
+        finally
+        {
+            live.shutdownNow();
+            live.awaitShutdown();
+            recorder.close();
+        }
+
+        AtomicInteger ready = new AtomicInteger();
+        AtomicInteger guildReady = new AtomicInteger();
+        AtomicInteger invalidated = new AtomicInteger();
+        AtomicInteger recreated = new AtomicInteger();
+        EventListener listener = event -> {
+            if (event instanceof ReadyEvent)
+                ready.incrementAndGet();
+            else if (event instanceof GuildReadyEvent)
+                guildReady.incrementAndGet();
+            else if (event instanceof SessionInvalidateEvent)
+                invalidated.incrementAndGet();
+            else if (event instanceof SessionRecreateEvent)
+                recreated.incrementAndGet();
+        };
+
+        AtomicBoolean appended = new AtomicBoolean();
+        ConcurrentSessionController controller = new ConcurrentSessionController()
+        {
+            @Override
+            public void appendSession(@Nonnull SessionConnectNode node)
+            {
+                appended.set(true);
+            }
+        };
+
+        int connections = server.getConnectionCount();
+        try (GatewayRecording recording = new GatewayRecording(new ByteArrayInputStream(output.toByteArray())))
+        {
+            // The recorder was already used by the live session, it must not be started again
+            jda = builder()
+                .setSessionController(controller)
+                .setGatewayRecorder(recorder)
+                .addEventListeners(listener)
+                .buildReplay(recording);
+        }
+
+        assertThat(appended).isFalse();
+        assertThat(ready.get()).isEqualTo(1);
+        assertThat(invalidated.get()).isEqualTo(1);
+        assertThat(recreated.get()).isEqualTo(1);
+        assertThat(guildReady.get()).isGreaterThanOrEqualTo(GUILDS);
+        assertThat(jda.getGuilds()).hasSize(GUILDS);
+        assertThat(jda.getSelfUser().getIdLong()).isEqualTo(FakeGatewayServer.SELF_ID);
+        assertThat(server.getConnectionCount()).isEqualTo(connections);
+    }
+}
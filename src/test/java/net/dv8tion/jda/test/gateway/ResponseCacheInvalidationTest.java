@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.gateway;
+
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.utils.cache.CacheFlag;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.tuple.Pair;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+public class ResponseCacheInvalidationTest
+{
+    private static final String TOKEN = "fake.token.here";
+    // Not a member of any cached guild, like the entities of the response cache
+    private static final long USER_ID = FakeGatewayServer.SELF_ID + 1000;
+    private static final long OTHER_ID = FakeGatewayServer.SELF_ID + 1001;
+    private static final long GUILD_ID = FakeGatewayServer.guildId(0);
+
+    private FakeGatewayServer server;
+    private JDAImpl jda;
+
+    @BeforeEach
+    void setup() throws IOException, InterruptedException
+    {
+        server = new FakeGatewayServer().setGuilds(1, 2);
+        jda = (JDAImpl) JDABuilder.create(TOKEN, GatewayIntent.GUILD_MEMBERS, GatewayIntent.GUILD_PRESENCES)
+            .setSessionController(server.newSessionController())
+            // Without presence caching, presence updates are only handled for the response cache
+            .disableCache(CacheFlag.ACTIVITY, CacheFlag.CLIENT_STATUS, CacheFlag.ONLINE_STATUS)
+            .setRestConfig(new RestConfig().setBaseUrl(server.getRestUrl()).setResponseCache(100, Duration.ofMinutes(10)))
+            .build()
+            .awaitReady();
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        jda.shutdownNow();
+        jda.awaitShutdown();
+        server.close();
+    }
+
+    @Test
+    void testMemberUpdate() throws InterruptedException
+    {
+        retrieve(USER_ID);
+
+        server.dispatchAll("GUILD_MEMBER_UPDATE", member(user(USER_ID)).put("guild_id", Long.toUnsignedString(GUILD_ID)));
+
+        awaitInvalidated(USER_ID);
+    }
+
+    @Test
+    void testMemberRemove() throws InterruptedException
+    {
+        retrieve(USER_ID);
+
+        server.dispatchAll("GUILD_MEMBER_REMOVE", DataObject.empty()
+            .put("guild_id", Long.toUnsignedString(GUILD_ID))
+            .put("user", user(USER_ID)));
+
+        awaitInvalidated(USER_ID);
+    }
+
+    @Test
+    void testPresenceUpdate() throws InterruptedException
+    {
+        retrieve(USER_ID);
+        retrieve(OTHER_ID);
+
+        // Presences without user changes only contain the id and keep the entities
+        server.dispatchAll("PRESENCE_UPDATE", presence(DataObject.empty().put("id", Long.toUnsignedString(OTHER_ID))));
+        server.dispatchAll("PRESENCE_UPDATE", presence(user(USER_ID)));
+
+        awaitInvalidated(USER_ID);
+        assertThat(jda.getRetrievedUsers().get(OTHER_ID)).isNotNull();
+        assertThat(jda.getRetrievedMembers().get(Pair.of(GUILD_ID, OTHER_ID))).isNotNull();
+    }
+
+    @Test
+    void testUserUpdate() throws InterruptedException
+    {
+        retrieve(FakeGatewayServer.SELF_ID);
+
+        server.dispatchAll("USER_UPDATE", FakeGatewayServer.selfUser().put("username", "Renamed"));
+
+        awaitInvalidated(FakeGatewayServer.SELF_ID);
+        assertThat(jda.getSelfUser().getName()).isEqualTo("Renamed");
+    }
+
+    private void retrieve(long userId)
+    {
+        jda.getRetrievedUsers().put(userId, mock(User.class));
+        jda.getRetrievedMembers().put(Pair.of(GUILD_ID, userId), mock(Member.class));
+    }
+
+    private void awaitInvalidated(long userId) throws InterruptedException
+    {
+        await(() -> jda.getRetrievedUsers().get(userId) == null);
+        await(() -> jda.getRetrievedMembers().get(Pair.of(GUILD_ID, userId)) == null);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException
+    {
+        while (!condition.getAsBoolean())
+            TimeUnit.MILLISECONDS.sleep(20);
+    }
+
+    private static DataObject user(long id)
+    {
+        return DataObject.empty()
+            .put("id", Long.toUnsignedString(id))
+            .put("username", "updated")
+            .put("discriminator", "0000")
+            .put("global_name", null)
+            .put("avatar", null)
+            .put("bot", false);
+    }
+
+    private static DataObject member(DataObject user)
+    {
+        return DataObject.empty()
+            .put("user", user)
+            .put("roles", DataArray.empty())
+            .put("nick", null)
+            .put("joined_at", "2015-04-26T06:26:56.936000+00:00")
+            .put("deaf", false)
+            .put("mute", false)
+            .put("flags", 0);
+    }
+
+    private static DataObject presence(DataObject user)
+    {
+        return DataObject.empty()
+            .put("guild_id", Long.toUnsignedString(GUILD_ID))
+            .put("user", user)
+            .put("status", "online")
+            .put("activities", DataArray.empty())
+            .put("client_status", DataObject.empty());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BucketStoreTest
+{
+    private ScheduledExecutorService scheduler;
+
+    @BeforeEach
+    void setup()
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void teardown()
+    {
+        scheduler.shutdownNow();
+    }
+
+    private SequentialRestRateLimiter newRateLimiter(RestRateLimiter.BucketStore store)
+    {
+        return new SequentialRestRateLimiter(new RestRateLimiter.RateLimitConfig(
+            scheduler, scheduler, RestRateLimiter.GlobalRateLimit.create(), true, false, store
+        ));
+    }
+
+    @Test
+    void testBucketsAreRestored() throws InterruptedException
+    {
+        MemoryStore store = new MemoryStore();
+
+        SequentialRestRateLimiter first = newRateLimiter(store);
+        FakeWork exhausting = stubWork(60);
+        first.enqueue(exhausting);
+        assertThat(exhausting.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        awaitStop(first);
+
+        assertThat(store.snapshot).isNotNull();
+        assertThat(store.snapshot.getArray("hashes").length()).isEqualTo(1);
+        assertThat(store.snapshot.getArray("buckets").length()).isEqualTo(1);
+
+        // The restarted rate-limiter knows that the bucket is exhausted and waits for the reset
+        SequentialRestRateLimiter second = newRateLimiter(store);
+        FakeWork next = stubWork(60);
+        second.enqueue(next);
+        assertThat(next.awaitStarted(200, TimeUnit.MILLISECONDS)).isFalse();
+        second.stop(true, () -> {});
+    }
+
+    @Test
+    void testExpiredBucketsAreIgnored() throws InterruptedException
+    {
+        MemoryStore store = new MemoryStore();
+
+        SequentialRestRateLimiter first = newRateLimiter(store);
+        FakeWork work = stubWork(0);
+        first.enqueue(work);
+        assertThat(work.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        awaitStop(first);
+
+        assertThat(store.snapshot.getArray("hashes").length()).isEqualTo(1);
+        assertThat(store.snapshot.getArray("buckets").length()).isZero();
+
+        SequentialRestRateLimiter second = newRateLimiter(store);
+        FakeWork next = stubWork(0);
+        second.enqueue(next);
+        assertThat(next.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        second.stop(true, () -> {});
+    }
+
+    @Test
+    void testFileStore(@TempDir Path directory)
+    {
+        RestRateLimiter.BucketStore store = RestRateLimiter.BucketStore.fromFile(directory.resolve("buckets.json"));
+        assertThat(store.load()).isNull();
+
+        DataObject snapshot = DataObject.empty().put("hashes", "test");
+        store.save(snapshot);
+        assertThat(store.load()).isNotNull();
+        assertThat(store.load().getString("hashes")).isEqualTo("test");
+        assertThat(directory.toFile().list()).containsExactly("buckets.json");
+    }
+
+    private void awaitStop(RestRateLimiter rateLimiter) throws InterruptedException
+    {
+        // Runs after the bucket worker has finished, since both use the same single thread
+        CountDownLatch stopped = new CountDownLatch(1);
+        scheduler.execute(() -> rateLimiter.stop(false, stopped::countDown));
+        assertThat(stopped.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static class MemoryStore implements RestRateLimiter.BucketStore
+    {
+        private volatile DataObject snapshot;
+
+        @Nullable
+        @Override
+        public DataObject load()
+        {
+            return snapshot;
+        }
+
+        @Override
+        public void save(@Nonnull DataObject snapshot)
+        {
+            this.snapshot = snapshot;
+        }
+    }
+
+    private static FakeWork stubWork(int resetAfter)
+    {
+        return FakeWork.blocking("1", () -> FakeWork.response("abc", 0, resetAfter));
+    }
+}
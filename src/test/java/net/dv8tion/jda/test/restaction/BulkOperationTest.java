@@ -0,0 +1,247 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.BulkOperation;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class BulkOperationTest
+{
+    private final List<CompletableFuture<Object>> submitted = new ArrayList<>();
+
+    @Test
+    void testBoundedInFlight()
+    {
+        List<Integer> targets = IntStream.range(0, 20).boxed().collect(Collectors.toList());
+        List<Integer> failures = new ArrayList<>();
+        BulkOperation.Progress progress = BulkOperation.of(targets, i -> pendingAction())
+            .setMaxInFlightPerBucket(3)
+            .setExpectedCount(targets.size())
+            .onFailure((i, error) -> failures.add(i))
+            .start();
+
+        int maxInFlight = 0;
+        int index = 0;
+        while (index < submitted.size())
+        {
+            maxInFlight = Math.max(maxInFlight, progress.getInFlight());
+            CompletableFuture<Object> future = submitted.get(index);
+            if (index == 5)
+                future.completeExceptionally(new IllegalStateException());
+            else
+                future.complete(index);
+            index++;
+        }
+
+        assertThat(submitted).hasSize(20);
+        assertThat(maxInFlight).isEqualTo(3);
+        assertThat(progress.getCompletion()).isCompleted();
+        assertThat(progress.getSucceeded()).isEqualTo(19);
+        assertThat(progress.getFailed()).isEqualTo(1);
+        assertThat(failures).containsExactly(5);
+        assertThat(progress.getEstimatedTimeRemaining()).isZero();
+    }
+
+    @Test
+    void testWindowPerBucket() throws InterruptedException
+    {
+        JDAImpl api = mock(JDAImpl.class);
+        Map<String, List<CompletableFuture<Object>>> channels = new HashMap<>();
+        // Alternate between two channels, which have separate buckets
+        BulkOperation.Progress progress = BulkOperation.of(IntStream.range(0, 1000).iterator(), i -> {
+                String channel = Integer.toString(i % 2 + 1);
+                return new RoutedAction(api, channel, channels.computeIfAbsent(channel, k -> new ArrayList<>()));
+            })
+            .setMaxInFlightPerBucket(4)
+            .start();
+
+        // Fast responses grow the window of each bucket up to the limit
+        for (int i = 0; i < 10; i++)
+        {
+            completeAll(channels.get("1"));
+            completeAll(channels.get("2"));
+        }
+        assertThat(pending(channels.get("1"))).hasSize(4);
+        assertThat(pending(channels.get("2"))).hasSize(4);
+
+        // While the requests of the first channel are stuck, the second channel keeps going
+        int first = channels.get("1").size();
+        int second = channels.get("2").size();
+        for (int i = 0; i < 5; i++)
+            completeAll(channels.get("2"));
+        assertThat(channels.get("1")).hasSize(first);
+        assertThat(channels.get("2").size() - second).isEqualTo(20);
+        assertThat(pending(channels.get("2"))).hasSize(4);
+
+        // A response much slower than the others was waiting for a rate-limit, which halves the window
+        TimeUnit.MILLISECONDS.sleep(1100);
+        pending(channels.get("1")).get(0).complete(null);
+        // With the full window, the completed request would have been replaced right away
+        assertThat(pending(channels.get("1"))).hasSize(3);
+        assertThat(channels.get("1")).hasSize(first);
+
+        progress.cancel();
+    }
+
+    @Test
+    void testCancel()
+    {
+        BulkOperation.Progress progress = BulkOperation.of(IntStream.range(0, 100).iterator(), i -> pendingAction())
+            .start();
+
+        assertThat(submitted).hasSize(1);
+        progress.cancel();
+
+        assertThat(progress.isCancelled()).isTrue();
+        assertThat(progress.getCompletion()).isCompletedExceptionally();
+        assertThat(submitted.get(0)).isCancelled();
+        assertThat(submitted).hasSize(1);
+    }
+
+    @Test
+    void testCancelFromFailureCallback()
+    {
+        AtomicReference<BulkOperation.Progress> progress = new AtomicReference<>();
+        // The targets after the first four fail while the held back targets are reserved in the same pass
+        progress.set(BulkOperation.of(IntStream.range(0, 10).iterator(), i -> {
+                if (i >= 4)
+                    throw new IllegalStateException();
+                return pendingAction();
+            })
+            .setMaxInFlight(3)
+            .onFailure((i, error) -> progress.get().cancel())
+            .start());
+
+        assertThat(submitted).hasSize(1);
+        submitted.get(0).complete(null);
+
+        assertThat(progress.get().isCancelled()).isTrue();
+        assertThat(progress.get().getCompletion()).isCompletedExceptionally();
+        // The requests reserved before the failure was reported are not sent anymore
+        assertThat(submitted).hasSize(1);
+        assertThat(progress.get().getInFlight()).isZero();
+    }
+
+    @Test
+    void testAlreadyCompletedFutures()
+    {
+        int count = 100_000;
+        BulkOperation.Progress progress = BulkOperation.of(IntStream.range(0, count).iterator(), i -> FakeRestAction.completed(null))
+            .setMaxInFlight(1)
+            .start();
+
+        assertThat(progress.getCompletion()).isCompleted();
+        assertThat(progress.getSucceeded()).isEqualTo(count);
+        assertThat(progress.getInFlight()).isZero();
+    }
+
+    @Test
+    void testUserCodeWithoutLock()
+    {
+        AtomicReference<BulkOperation<Integer>> operation = new AtomicReference<>();
+        AtomicBoolean locked = new AtomicBoolean();
+        Iterator<Integer> targets = IntStream.range(0, 50).iterator();
+        Iterator<Integer> checked = new Iterator<Integer>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                locked.compareAndSet(false, Thread.holdsLock(operation.get()));
+                return targets.hasNext();
+            }
+
+            @Override
+            public Integer next()
+            {
+                locked.compareAndSet(false, Thread.holdsLock(operation.get()));
+                return targets.next();
+            }
+        };
+
+        operation.set(BulkOperation.of(checked, i -> {
+            locked.compareAndSet(false, Thread.holdsLock(operation.get()));
+            return action(i % 2 == 0);
+        }));
+        BulkOperation.Progress progress = operation.get().start();
+        for (int i = 0; i < submitted.size(); i++)
+            submitted.get(i).complete(i);
+
+        assertThat(progress.getCompletion()).isCompleted();
+        assertThat(progress.getSucceeded()).isEqualTo(50);
+        assertThat(locked).isFalse();
+    }
+
+    private static void completeAll(List<CompletableFuture<Object>> futures)
+    {
+        pending(futures).forEach(future -> future.complete(null));
+    }
+
+    private static List<CompletableFuture<Object>> pending(List<CompletableFuture<Object>> futures)
+    {
+        return futures.stream().filter(future -> !future.isDone()).collect(Collectors.toList());
+    }
+
+    private FakeRestAction<Object> pendingAction()
+    {
+        return new FakeRestAction<>(() -> {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            submitted.add(future);
+            return future;
+        });
+    }
+
+    private RestAction<Object> action(boolean completed)
+    {
+        return completed ? FakeRestAction.completed(null) : pendingAction();
+    }
+
+    private static class RoutedAction extends RestActionImpl<Object>
+    {
+        private final List<CompletableFuture<Object>> submitted;
+
+        private RoutedAction(JDAImpl api, String channelId, List<CompletableFuture<Object>> submitted)
+        {
+            super(api, Route.Channels.SEND_TYPING.compile(channelId));
+            this.submitted = submitted;
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<Object> submit(boolean shouldQueue)
+        {
+            CompletableFuture<Object> future = new CompletableFuture<>();
+            submitted.add(future);
+            return future;
+        }
+    }
+}
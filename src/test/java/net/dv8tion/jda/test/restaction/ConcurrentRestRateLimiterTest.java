@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.ConcurrentRestRateLimiter;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentRestRateLimiterTest
+{
+    private static final int BUCKETS = 16;
+    private static final int THREADS = 8;
+    private static final int REQUESTS_PER_THREAD = 500;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService elastic;
+    private ConcurrentRestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup()
+    {
+        scheduler = Executors.newScheduledThreadPool(2);
+        elastic = Executors.newCachedThreadPool();
+        rateLimiter = new ConcurrentRestRateLimiter(new RestRateLimiter.RateLimitConfig(
+            scheduler, elastic, RestRateLimiter.GlobalRateLimit.create(), true
+        ));
+    }
+
+    @AfterEach
+    void teardown()
+    {
+        rateLimiter.stop(true, () -> {});
+        scheduler.shutdownNow();
+        elastic.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentEnqueue() throws Exception
+    {
+        AtomicInteger[] active = new AtomicInteger[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+            active[i] = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(THREADS * REQUESTS_PER_THREAD);
+
+        ExecutorService producers = Executors.newFixedThreadPool(THREADS);
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++)
+            {
+                futures.add(producers.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++)
+                    {
+                        int bucket = i % BUCKETS;
+                        rateLimiter.enqueue(countingWork(bucket, active[bucket], overlaps, done));
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures)
+                future.get(10, TimeUnit.SECONDS);
+        }
+        finally
+        {
+            producers.shutdown();
+        }
+
+        assertThat(done.await(30, TimeUnit.SECONDS)).isTrue();
+        // Requests of the same bucket must never run concurrently
+        assertThat(overlaps.get()).isZero();
+    }
+
+    @Test
+    void testStopWaitsForRequests() throws InterruptedException
+    {
+        CountDownLatch done = new CountDownLatch(100);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        for (int i = 0; i < 100; i++)
+            rateLimiter.enqueue(countingWork(0, active, overlaps, done));
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        rateLimiter.stop(false, stopped::countDown);
+
+        assertThat(stopped.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(rateLimiter.isStopped()).isTrue();
+    }
+
+    private static FakeWork countingWork(int bucket, AtomicInteger active, AtomicInteger overlaps, CountDownLatch done)
+    {
+        return FakeWork.blocking(String.valueOf(bucket + 1), () -> {
+            if (active.incrementAndGet() > 1)
+                overlaps.incrementAndGet();
+            active.decrementAndGet();
+            done.countDown();
+            return null;
+        });
+    }
+}
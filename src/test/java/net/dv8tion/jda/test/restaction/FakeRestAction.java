@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestAction;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Stub of a {@link RestAction} which only supports {@link #submit(boolean)}, returning the futures of the provided supplier.
+ *
+ * @param <T>
+ *        The result type
+ */
+public class FakeRestAction<T> implements RestAction<T>
+{
+    private final Supplier<CompletableFuture<T>> submit;
+
+    public FakeRestAction(@Nonnull Supplier<CompletableFuture<T>> submit)
+    {
+        this.submit = submit;
+    }
+
+    public static <T> FakeRestAction<T> completed(@Nullable T value)
+    {
+        return new FakeRestAction<>(() -> CompletableFuture.completedFuture(value));
+    }
+
+    @Nonnull
+    @Override
+    public JDA getJDA()
+    {
+        return mock(JDA.class);
+    }
+
+    @Nonnull
+    @Override
+    public RestAction<T> setCheck(@Nullable BooleanSupplier checks)
+    {
+        return this;
+    }
+
+    @Override
+    public void queue(@Nullable Consumer<? super T> success, @Nullable Consumer<? super Throwable> failure)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public T complete(boolean shouldQueue)
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<T> submit(boolean shouldQueue)
+    {
+        return submit.get();
+    }
+}
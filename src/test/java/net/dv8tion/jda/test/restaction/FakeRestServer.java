@@ -0,0 +1,459 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDAInfo;
+import net.dv8tion.jda.api.requests.RestMetrics;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.test.gateway.FakeGatewayServer;
+import org.slf4j.Logger;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process stand-in for the Discord REST API, used to test and measure the request pipeline without a network connection.
+ *
+ * <p>Every route is rate-limited like Discord does it. Routes with the same method and path template share a bucket hash,
+ * and the first id in the path is the major parameter. Responses carry the {@code X-RateLimit-*} headers,
+ * and requests which exceed the limit of their bucket receive a {@code 429} response.
+ * Optionally, a global limit across all buckets can be enabled as well.
+ * Specific kinds of rate-limits can be forced with {@link #rateLimitNext(RestMetrics.RateLimitType)}.
+ *
+ * <p>{@code GET users/@me} returns the user of {@link FakeGatewayServer}, all other {@code GET} requests return an empty object,
+ * and all other requests return {@code 204 No Content}.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * try (FakeRestServer rest = new FakeRestServer().setBucketLimit(5, 1000))
+ * {
+ *     JDA jda = JDABuilder.createLight("fake.token")
+ *         .setSessionController(gateway.newSessionController())
+ *         .setRestConfig(new RestConfig().setBaseUrl(rest.getRestUrl()))
+ *         .build()
+ *         .awaitReady();
+ * }
+ * }</pre>
+ */
+public class FakeRestServer implements Closeable
+{
+    private static final Logger LOG = JDALogger.getLog(FakeRestServer.class);
+
+    private final ServerSocket server;
+    private final ExecutorService executor;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final Bucket global = new Bucket("global");
+    private final Queue<RestMetrics.RateLimitType> forcedRateLimits = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger bucketRateLimits = new AtomicInteger();
+    private final AtomicInteger globalRateLimits = new AtomicInteger();
+
+    private volatile int bucketLimit = 5;
+    private volatile long bucketWindow = 1000;
+    private volatile int globalLimit = 0;
+    private volatile long latency = 0;
+
+    public FakeRestServer() throws IOException
+    {
+        this.server = new ServerSocket(0, 1024, InetAddress.getLoopbackAddress());
+        this.executor = Executors.newCachedThreadPool(r ->
+        {
+            Thread thread = new Thread(r, "FakeRest-Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.execute(this::acceptLoop);
+    }
+
+    /**
+     * Configures the limit of every bucket.
+     *
+     * @param  limit
+     *         The amount of requests allowed per window
+     * @param  windowMillis
+     *         The length of the window in milliseconds
+     *
+     * @return This server instance
+     */
+    public FakeRestServer setBucketLimit(int limit, long windowMillis)
+    {
+        this.bucketLimit = limit;
+        this.bucketWindow = windowMillis;
+        return this;
+    }
+
+    /**
+     * Configures the global limit, which applies to all requests in addition to the bucket limits.
+     *
+     * @param  limitPerSecond
+     *         The amount of requests allowed per second, or {@code 0} to disable the global limit
+     *
+     * @return This server instance
+     */
+    public FakeRestServer setGlobalLimit(int limitPerSecond)
+    {
+        this.globalLimit = limitPerSecond;
+        return this;
+    }
+
+    /**
+     * Configures an artificial delay before every response, to simulate the latency of the real API.
+     *
+     * @param  millis
+     *         The delay in milliseconds
+     *
+     * @return This server instance
+     */
+    public FakeRestServer setLatency(long millis)
+    {
+        this.latency = millis;
+        return this;
+    }
+
+    /**
+     * Responds to the next rate-limited request with a {@code 429} of the provided kind, regardless of the configured limits.
+     * <br>The response asks the client to retry after one second. Calling this multiple times queues the rate-limits in order.
+     *
+     * <p>Cloudflare rate-limits are sent without the {@code Via} header and without any rate-limit headers,
+     * like the responses of Cloudflare which never reach the proxy of Discord.
+     *
+     * @param  type
+     *         The kind of rate-limit
+     *
+     * @return This server instance
+     */
+    public FakeRestServer rateLimitNext(RestMetrics.RateLimitType type)
+    {
+        forcedRateLimits.add(type);
+        return this;
+    }
+
+    public String getRestUrl()
+    {
+        return "http://127.0.0.1:" + server.getLocalPort() + "/api/v" + JDAInfo.DISCORD_REST_VERSION + "/";
+    }
+
+    public int getRequestCount()
+    {
+        return requests.get();
+    }
+
+    public int getBucketRateLimitCount()
+    {
+        return bucketRateLimits.get();
+    }
+
+    public int getGlobalRateLimitCount()
+    {
+        return globalRateLimits.get();
+    }
+
+    @Override
+    public void close()
+    {
+        try
+        {
+            server.close();
+        }
+        catch (IOException ignored) {}
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop()
+    {
+        while (!server.isClosed())
+        {
+            try
+            {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                executor.execute(() -> handleSocket(socket));
+            }
+            catch (IOException e)
+            {
+                if (!server.isClosed())
+                    LOG.error("Failed to accept connection", e);
+            }
+        }
+    }
+
+    private void handleSocket(Socket socket)
+    {
+        try
+        {
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+
+            // Connections are kept alive, so handle requests until the client closes it
+            for (String requestLine = readLine(in); requestLine != null; requestLine = readLine(in))
+            {
+                if (requestLine.isEmpty())
+                    continue;
+                Map<String, String> headers = new HashMap<>();
+                for (String line = readLine(in); line != null && !line.isEmpty(); line = readLine(in))
+                {
+                    int colon = line.indexOf(':');
+                    if (colon > 0)
+                        headers.put(line.substring(0, colon).trim().toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+                }
+
+                long length = Long.parseLong(headers.getOrDefault("content-length", "0"));
+                while (length > 0)
+                {
+                    long skipped = in.skip(length);
+                    if (skipped <= 0 && in.read() < 0)
+                        return;
+                    length -= Math.max(skipped, 1);
+                }
+
+                String[] parts = requestLine.split(" ");
+                handleRequest(out, parts[0], parts.length > 1 ? parts[1] : "/");
+            }
+        }
+        catch (IOException e)
+        {
+            if (!server.isClosed())
+                LOG.debug("Connection failed", e);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            try
+            {
+                socket.close();
+            }
+            catch (IOException ignored) {}
+        }
+    }
+
+    private void handleRequest(OutputStream out, String method, String path) throws IOException, InterruptedException
+    {
+        requests.incrementAndGet();
+        if (latency > 0)
+            Thread.sleep(latency);
+
+        int query = path.indexOf('?');
+        String route = path.substring(path.indexOf("/", 1) + 1, query < 0 ? path.length() : query);
+        route = route.substring(route.indexOf('/') + 1); // strip the api version
+        if ("GET".equals(method) && route.equals("users/@me"))
+        {
+            write(out, 200, "OK", null, FakeGatewayServer.selfUser().toJson());
+            return;
+        }
+
+        // Routes with the same template share a hash, the first id is the major parameter
+        StringBuilder template = new StringBuilder(method);
+        String major = "";
+        for (String segment : route.split("/"))
+        {
+            boolean id = !segment.isEmpty() && segment.chars().allMatch(Character::isDigit);
+            if (id && major.isEmpty())
+                major = segment;
+            template.append('/').append(id ? "{id}" : segment);
+        }
+        String hash = Integer.toHexString(template.toString().hashCode());
+        Bucket bucket = buckets.computeIfAbsent(hash + ":" + major, Bucket::new);
+
+        RestMetrics.RateLimitType forced = forcedRateLimits.poll();
+        if (forced != null)
+        {
+            writeForcedRateLimit(out, forced, hash);
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        int limit = globalLimit;
+        if (limit > 0 && !global.tryAcquire(now, limit, 1000))
+        {
+            globalRateLimits.incrementAndGet();
+            long retryAfter = global.getResetAfter(now);
+            Map<String, String> headers = new HashMap<>();
+            headers.put("X-RateLimit-Global", "true");
+            headers.put("X-RateLimit-Scope", "global");
+            headers.put("Retry-After", Long.toString((retryAfter + 999) / 1000));
+            write(out, 429, "Too Many Requests", headers, rateLimitBody(retryAfter, true));
+            return;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        boolean allowed;
+        long resetAfter;
+        int remaining;
+        synchronized (bucket)
+        {
+            allowed = bucket.tryAcquire(now, bucketLimit, bucketWindow);
+            resetAfter = bucket.getResetAfter(now);
+            remaining = bucket.getRemaining(bucketLimit);
+        }
+        headers.put("X-RateLimit-Bucket", hash);
+        headers.put("X-RateLimit-Limit", Integer.toString(bucketLimit));
+        headers.put("X-RateLimit-Remaining", Integer.toString(remaining));
+        headers.put("X-RateLimit-Reset-After", String.format(Locale.ROOT, "%.3f", resetAfter / 1000.0));
+        headers.put("X-RateLimit-Reset", String.format(Locale.ROOT, "%.3f", (now + resetAfter) / 1000.0));
+
+        if (!allowed)
+        {
+            bucketRateLimits.incrementAndGet();
+            headers.put("X-RateLimit-Scope", "user");
+            headers.put("Retry-After", Long.toString((resetAfter + 999) / 1000));
+            write(out, 429, "Too Many Requests", headers, rateLimitBody(resetAfter, false));
+        }
+        else if ("GET".equals(method))
+        {
+            write(out, 200, "OK", headers, DataObject.empty().toJson());
+        }
+        else
+        {
+            write(out, 204, "No Content", headers, null);
+        }
+    }
+
+    private void writeForcedRateLimit(OutputStream out, RestMetrics.RateLimitType type, String hash) throws IOException
+    {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Retry-After", "1");
+        if (type == RestMetrics.RateLimitType.CLOUDFLARE)
+        {
+            byte[] body = "<html><body>error code: 1015</body></html>".getBytes(StandardCharsets.UTF_8);
+            write(out, 429, "Too Many Requests", headers, body, false);
+            return;
+        }
+
+        boolean isGlobal = type == RestMetrics.RateLimitType.GLOBAL;
+        if (isGlobal)
+        {
+            globalRateLimits.incrementAndGet();
+            headers.put("X-RateLimit-Global", "true");
+            headers.put("X-RateLimit-Scope", "global");
+        }
+        else
+        {
+            bucketRateLimits.incrementAndGet();
+            headers.put("X-RateLimit-Bucket", hash);
+            headers.put("X-RateLimit-Limit", Integer.toString(bucketLimit));
+            headers.put("X-RateLimit-Remaining", "0");
+            headers.put("X-RateLimit-Reset-After", "1.000");
+            headers.put("X-RateLimit-Reset", String.format(Locale.ROOT, "%.3f", (System.currentTimeMillis() + 1000) / 1000.0));
+            headers.put("X-RateLimit-Scope", type == RestMetrics.RateLimitType.SHARED ? "shared" : "user");
+        }
+        write(out, 429, "Too Many Requests", headers, rateLimitBody(1000, isGlobal));
+    }
+
+    private static byte[] rateLimitBody(long retryAfter, boolean global)
+    {
+        return DataObject.empty()
+            .put("message", "You are being rate limited.")
+            .put("retry_after", retryAfter / 1000.0)
+            .put("global", global)
+            .toJson();
+    }
+
+    private static void write(OutputStream out, int status, String reason, Map<String, String> headers, byte[] body) throws IOException
+    {
+        write(out, status, reason, headers, body, true);
+    }
+
+    private static void write(OutputStream out, int status, String reason, Map<String, String> headers, byte[] body, boolean proxied) throws IOException
+    {
+        StringBuilder head = new StringBuilder("HTTP/1.1 ").append(status).append(' ').append(reason).append("\r\n");
+        // Responses which passed through the proxy of Discord, unlike Cloudflare rate-limits
+        if (proxied)
+            head.append("Via: 1.1 google\r\n");
+        if (headers != null)
+            headers.forEach((key, value) -> head.append(key).append(": ").append(value).append("\r\n"));
+        if (body != null)
+            head.append("Content-Type: ").append(proxied ? "application/json" : "text/html").append("\r\n");
+        head.append("Content-Length: ").append(body == null ? 0 : body.length).append("\r\n\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.US_ASCII));
+        if (body != null)
+            out.write(body);
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException
+    {
+        StringBuilder builder = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1)
+        {
+            if (c == '\n')
+                return builder.toString();
+            if (c != '\r')
+                builder.append((char) c);
+        }
+        return builder.length() == 0 ? null : builder.toString();
+    }
+
+    // Fixed window, which starts with the first request after the previous window has expired
+    private static class Bucket
+    {
+        private final String id;
+        private long reset;
+        private int used;
+
+        private Bucket(String id)
+        {
+            this.id = id;
+        }
+
+        private synchronized boolean tryAcquire(long now, int limit, long window)
+        {
+            if (reset <= now)
+            {
+                reset = now + window;
+                used = 0;
+            }
+            if (used >= limit)
+                return false;
+            used++;
+            return true;
+        }
+
+        private synchronized long getResetAfter(long now)
+        {
+            return Math.max(0, reset - now);
+        }
+
+        private synchronized int getRemaining(int limit)
+        {
+            return Math.max(0, limit - used);
+        }
+
+        @Override
+        public String toString()
+        {
+            return id;
+        }
+    }
+}
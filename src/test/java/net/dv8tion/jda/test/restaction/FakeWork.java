@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import okhttp3.*;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Stub of a {@link RestRateLimiter.Work} for rate-limiter tests, which sends a message in the provided channel.
+ *
+ * <p>Blocking work runs the provided handler in {@link #execute()}.
+ * Asynchronous work returns a pending response from {@link #executeAsync()}, which is completed by {@link #complete(Response)}.
+ */
+public class FakeWork implements RestRateLimiter.Work
+{
+    private final Route.CompiledRoute route;
+    private final Supplier<Response> handler;
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CompletableFuture<Response> response = new CompletableFuture<>();
+    private volatile boolean done;
+
+    private FakeWork(String channelId, Supplier<Response> handler)
+    {
+        this.route = Route.Messages.SEND_MESSAGE.compile(channelId);
+        this.handler = handler;
+    }
+
+    public static FakeWork blocking(String channelId, Supplier<Response> handler)
+    {
+        return new FakeWork(channelId, handler);
+    }
+
+    public static FakeWork async(String channelId)
+    {
+        return new FakeWork(channelId, null);
+    }
+
+    /**
+     * A successful response, which updates the bucket of the request.
+     */
+    public static Response response(String hash, int remaining, int resetAfter)
+    {
+        return new Response.Builder()
+            .request(new Request.Builder().url("http://localhost/").build())
+            .protocol(Protocol.HTTP_1_1)
+            .code(200)
+            .message("OK")
+            .header(RestRateLimiter.HASH_HEADER, hash)
+            .header(RestRateLimiter.REMAINING_HEADER, String.valueOf(remaining))
+            .header(RestRateLimiter.LIMIT_HEADER, String.valueOf(remaining + 1))
+            .header(RestRateLimiter.RESET_AFTER_HEADER, String.valueOf(resetAfter))
+            .build();
+    }
+
+    public boolean awaitStarted(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        return started.await(timeout, unit);
+    }
+
+    public void complete(@Nullable Response response)
+    {
+        this.response.complete(response);
+    }
+
+    @Nonnull
+    @Override
+    public Route.CompiledRoute getRoute()
+    {
+        return route;
+    }
+
+    @Nonnull
+    @Override
+    public JDA getJDA()
+    {
+        return mock(JDA.class);
+    }
+
+    @Override
+    public Response execute()
+    {
+        if (handler == null)
+            throw new AssertionError("Blocking execution should not be used");
+        started.countDown();
+        try
+        {
+            return handler.get();
+        }
+        finally
+        {
+            done = true;
+        }
+    }
+
+    @Nonnull
+    @Override
+    public CompletableFuture<Response> executeAsync()
+    {
+        if (handler != null)
+            return RestRateLimiter.Work.super.executeAsync();
+        started.countDown();
+        return response.whenComplete((r, e) -> done = true);
+    }
+
+    @Override
+    public boolean isSkipped()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean isDone()
+    {
+        return done;
+    }
+
+    @Override
+    public boolean isPriority()
+    {
+        return false;
+    }
+
+    @Override
+    public boolean isCancelled()
+    {
+        return false;
+    }
+
+    @Override
+    public void cancel() {}
+}
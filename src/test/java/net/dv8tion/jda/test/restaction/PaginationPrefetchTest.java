@@ -0,0 +1,264 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction.PaginationSubscriber;
+import net.dv8tion.jda.api.requests.restaction.pagination.PaginationAction.PaginationSubscription;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.restaction.pagination.PaginationActionImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@Timeout(value = 10, unit = TimeUnit.SECONDS)
+public class PaginationPrefetchTest
+{
+    private static final int PAGE_SIZE = 10;
+    private static final int TOTAL = 50;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void teardown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testForEachAsyncPrefetchesNextPage() throws Exception
+    {
+        FakePagination action = new FakePagination().prefetch(1);
+        List<Long> seen = new ArrayList<>();
+        AtomicInteger requestsDuringFirstPage = new AtomicInteger();
+
+        action.forEachAsync(id ->
+        {
+            seen.add(id);
+            if (seen.size() == PAGE_SIZE)
+            {
+                sleep(100);
+                requestsDuringFirstPage.set(action.requests.get());
+            }
+            return true;
+        }).get();
+
+        assertThat(seen).isEqualTo(expected(TOTAL));
+        assertThat(requestsDuringFirstPage.get()).isEqualTo(2);
+        assertThat(action.getCached()).hasSize(TOTAL);
+    }
+
+    @Test
+    void testEarlyStopRestoresIndex() throws Exception
+    {
+        FakePagination action = new FakePagination().cache(false).prefetch(2);
+
+        action.forEachAsync(id -> id > 25).get();
+
+        // The prefetched pages have been handled, but the pagination continues after the last consumed entity
+        assertThat(action.getLastKey()).isEqualTo(25);
+        assertThat(action.takeRemainingAsync(3).get()).containsExactly(24L, 23L, 22L);
+    }
+
+    @Test
+    void testIteratorPrefetch()
+    {
+        FakePagination action = new FakePagination().prefetch(3);
+        List<Long> seen = new ArrayList<>();
+        action.iterator().forEachRemaining(seen::add);
+
+        assertThat(seen).isEqualTo(expected(TOTAL));
+        assertThat(action.requests.get()).isEqualTo(TOTAL / PAGE_SIZE + 1);
+    }
+
+    @Test
+    void testIteratorPrefetchesNextPage()
+    {
+        FakePagination action = new FakePagination().prefetch(1);
+        List<Long> seen = new ArrayList<>();
+        int requestsDuringFirstPage = 0;
+
+        Iterator<Long> iterator = action.iterator();
+        while (iterator.hasNext())
+        {
+            seen.add(iterator.next());
+            if (seen.size() == PAGE_SIZE)
+            {
+                sleep(100);
+                requestsDuringFirstPage = action.requests.get();
+            }
+        }
+
+        assertThat(seen).isEqualTo(expected(TOTAL));
+        assertThat(requestsDuringFirstPage).isEqualTo(2);
+    }
+
+    @Test
+    void testSubscriptionDemand() throws Exception
+    {
+        FakePagination action = new FakePagination();
+        BlockingQueue<Long> received = new LinkedBlockingQueue<>();
+        CompletableFuture<PaginationSubscription> subscribed = new CompletableFuture<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+
+        action.subscribe(new QueueSubscriber(received, subscribed, completed));
+
+        PaginationSubscription subscription = subscribed.get();
+        assertThat(action.requests.get()).isZero();
+
+        subscription.request(5);
+        for (int i = 0; i < 5; i++)
+            assertThat(received.poll(1, TimeUnit.SECONDS)).isEqualTo(TOTAL - i);
+        sleep(50);
+        assertThat(received).isEmpty();
+        assertThat(action.requests.get()).isEqualTo(1);
+
+        subscription.request(Long.MAX_VALUE);
+        completed.get();
+        assertThat(received).hasSize(TOTAL - 5);
+        assertThat(action.requests.get()).isEqualTo(TOTAL / PAGE_SIZE + 1);
+    }
+
+    @Test
+    void testSubscriptionPrefetchesNextPage() throws Exception
+    {
+        FakePagination action = new FakePagination().prefetch(1);
+        BlockingQueue<Long> received = new LinkedBlockingQueue<>();
+        CompletableFuture<PaginationSubscription> subscribed = new CompletableFuture<>();
+        CompletableFuture<Void> completed = new CompletableFuture<>();
+        action.subscribe(new QueueSubscriber(received, subscribed, completed));
+
+        PaginationSubscription subscription = subscribed.get();
+        subscription.request(5);
+        for (int i = 0; i < 5; i++)
+            assertThat(received.poll(1, TimeUnit.SECONDS)).isEqualTo(TOTAL - i);
+        sleep(50);
+        // The rest of the first page is still buffered, but the second page has already been requested
+        assertThat(received).isEmpty();
+        assertThat(action.requests.get()).isEqualTo(2);
+
+        subscription.request(Long.MAX_VALUE);
+        completed.get();
+        assertThat(received).hasSize(TOTAL - 5);
+        assertThat(action.requests.get()).isEqualTo(TOTAL / PAGE_SIZE + 1);
+    }
+
+    private static List<Long> expected(int amount)
+    {
+        return LongStream.rangeClosed(TOTAL - amount + 1, TOTAL).boxed().sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+    }
+
+    private static void sleep(long millis)
+    {
+        try
+        {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        }
+        catch (InterruptedException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static class QueueSubscriber implements PaginationSubscriber<Long>
+    {
+        private final Queue<Long> received;
+        private final CompletableFuture<PaginationSubscription> subscribed;
+        private final CompletableFuture<Void> completed;
+
+        private QueueSubscriber(Queue<Long> received, CompletableFuture<PaginationSubscription> subscribed, CompletableFuture<Void> completed)
+        {
+            this.received = received;
+            this.subscribed = subscribed;
+            this.completed = completed;
+        }
+
+        @Override
+        public void onSubscribe(@Nonnull PaginationSubscription subscription)
+        {
+            subscribed.complete(subscription);
+        }
+
+        @Override
+        public void onNext(@Nonnull Long entity)
+        {
+            received.add(entity);
+        }
+
+        @Override
+        public void onError(@Nonnull Throwable error)
+        {
+            completed.completeExceptionally(error);
+        }
+
+        @Override
+        public void onComplete()
+        {
+            completed.complete(null);
+        }
+    }
+
+    // Paginates the ids from TOTAL down to 1, answering each request after a short delay
+    private class FakePagination extends PaginationActionImpl<Long, FakePagination>
+    {
+        private final AtomicInteger requests = new AtomicInteger();
+
+        private FakePagination()
+        {
+            super(mock(JDAImpl.class));
+        }
+
+        @Nonnull
+        @Override
+        public CompletableFuture<List<Long>> submit(boolean shouldQueue)
+        {
+            requests.incrementAndGet();
+            long start = lastKey == 0 ? TOTAL : lastKey - 1;
+            CompletableFuture<List<Long>> future = new CompletableFuture<>();
+            executor.schedule(() ->
+            {
+                List<Long> page = new ArrayList<>();
+                for (long id = start; id > 0 && page.size() < PAGE_SIZE; id--)
+                    page.add(id);
+                if (useCache)
+                    cached.addAll(page);
+                if (!page.isEmpty())
+                {
+                    last = page.get(page.size() - 1);
+                    lastKey = last;
+                }
+                future.complete(page);
+            }, 10, TimeUnit.MILLISECONDS);
+            return future;
+        }
+
+        @Override
+        protected long getKey(Long it)
+        {
+            return it;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.RequestPriority;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.internal.requests.PriorityWorkQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PriorityWorkQueueTest
+{
+    @Test
+    void testWeightedShares()
+    {
+        PriorityWorkQueue queue = new PriorityWorkQueue();
+        for (int i = 0; i < 10; i++)
+            queue.add(work(RequestPriority.BACKGROUND));
+        for (int i = 0; i < 8; i++)
+            queue.add(work(RequestPriority.INTERACTIVE));
+
+        assertThat(queue).hasSize(18);
+
+        List<RequestPriority> polled = new ArrayList<>();
+        for (int i = 0; i < 10; i++)
+            polled.add(queue.poll().getRequestPriority());
+
+        // Interactive requests get 4 out of every 5 polls while both lanes are queued
+        assertThat(polled).filteredOn(RequestPriority.BACKGROUND::equals).hasSize(2);
+        assertThat(polled.get(0)).isEqualTo(RequestPriority.INTERACTIVE);
+
+        // Background requests use the full budget once the other lanes are empty
+        while (!queue.isEmpty())
+            assertThat(queue.poll().getRequestPriority()).isEqualTo(RequestPriority.BACKGROUND);
+        assertThat(queue.poll()).isNull();
+    }
+
+    @Test
+    void testOrderWithinLane()
+    {
+        PriorityWorkQueue queue = new PriorityWorkQueue();
+        RestRateLimiter.Work first = work(RequestPriority.BACKGROUND);
+        RestRateLimiter.Work second = work(RequestPriority.BACKGROUND);
+        RestRateLimiter.Work retried = work(RequestPriority.BACKGROUND);
+        RestRateLimiter.Work callback = work(RequestPriority.INTERACTION_CALLBACK);
+
+        queue.add(first);
+        queue.add(second);
+        queue.addFirst(retried);
+        queue.add(callback);
+
+        assertThat(queue.peek()).isSameAs(callback);
+        assertThat(queue.poll()).isSameAs(callback);
+        assertThat(queue.poll()).isSameAs(retried);
+        assertThat(queue.poll()).isSameAs(first);
+
+        queue.removeIf(second::equals);
+        assertThat(queue).isEmpty();
+    }
+
+    private static RestRateLimiter.Work work(RequestPriority priority)
+    {
+        RestRateLimiter.Work work = mock(RestRateLimiter.Work.class);
+        when(work.getRequestPriority()).thenReturn(priority);
+        return work;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.RestAction;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.test.gateway.FakeGatewayServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Timeout(value = 60, unit = TimeUnit.SECONDS)
+public class RequestCoalescingTest
+{
+    private static final String TOKEN = "fake.token.here";
+    private static final long LATENCY = 300;
+
+    private FakeGatewayServer gateway;
+    private FakeRestServer rest;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException, InterruptedException
+    {
+        gateway = new FakeGatewayServer();
+        rest = new FakeRestServer().setBucketLimit(50, 1000);
+        jda = JDABuilder.createLight(TOKEN)
+            .setSessionController(gateway.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(rest.getRestUrl()).setCoalesceRequests(true))
+            .build()
+            .awaitReady();
+        rest.setLatency(LATENCY);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        jda.shutdownNow();
+        jda.awaitShutdown();
+        rest.close();
+        gateway.close();
+    }
+
+    private RestAction<DataObject> history(int limit)
+    {
+        // Same bucket for every limit, but only identical limits are coalesced
+        Route.CompiledRoute route = Route.Messages.GET_MESSAGE_HISTORY.compile("1").withQueryParams("limit", Integer.toString(limit));
+        return new RestActionImpl<>(jda, route, (response, request) -> response.getObject());
+    }
+
+    @Test
+    void testConcurrentIdenticalRequests() throws Exception
+    {
+        int requests = 20;
+        int baseline = rest.getRequestCount();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try
+        {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<CompletableFuture<DataObject>>> submitted = new ArrayList<>();
+            for (int i = 0; i < requests; i++)
+            {
+                submitted.add(executor.submit(() -> {
+                    start.await();
+                    return history(1).submit();
+                }));
+            }
+            start.countDown();
+
+            for (Future<CompletableFuture<DataObject>> future : submitted)
+                assertThat(future.get().get(10, TimeUnit.SECONDS)).isNotNull();
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        // Requests queued after the response was handled are sent again, but most of them share one response
+        assertThat(rest.getRequestCount() - baseline).isBetween(1, requests / 2);
+    }
+
+    @Test
+    void testSkippedLeaderIsReplacedByFollower() throws Exception
+    {
+        int baseline = rest.getRequestCount();
+        AtomicBoolean leaderActive = new AtomicBoolean(true);
+
+        // Occupies the bucket, so the other requests stay in the queue
+        CompletableFuture<DataObject> blocker = history(1).submit();
+        CompletableFuture<DataObject> leader = history(2).setCheck(leaderActive::get).submit();
+        CompletableFuture<DataObject> follower = history(2).submit();
+        leaderActive.set(false);
+
+        assertThat(blocker.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(follower.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThatThrownBy(() -> leader.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(CancellationException.class);
+        assertThat(rest.getRequestCount() - baseline).isEqualTo(2);
+    }
+
+    @Test
+    void testCancelledLeader() throws Exception
+    {
+        int baseline = rest.getRequestCount();
+
+        CompletableFuture<DataObject> blocker = history(1).submit();
+        CompletableFuture<DataObject> leader = history(2).submit();
+        CompletableFuture<DataObject> follower = history(2).submit();
+        leader.cancel(false);
+
+        assertThat(blocker.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(follower.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(leader).isCancelled();
+        assertThat(rest.getRequestCount() - baseline).isEqualTo(2);
+    }
+
+    @Test
+    void testFollowerTimeout() throws Exception
+    {
+        int baseline = rest.getRequestCount();
+
+        CompletableFuture<DataObject> blocker = history(1).submit();
+        CompletableFuture<DataObject> leader = history(2).submit();
+        CompletableFuture<DataObject> follower = history(2).timeout(LATENCY / 3, TimeUnit.MILLISECONDS).submit();
+
+        assertThat(blocker.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThat(leader.get(10, TimeUnit.SECONDS)).isNotNull();
+        assertThatThrownBy(() -> follower.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+        assertThat(rest.getRequestCount() - baseline).isEqualTo(2);
+    }
+}
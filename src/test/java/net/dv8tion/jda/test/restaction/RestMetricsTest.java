@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.RestMetrics;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.test.gateway.FakeGatewayServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Timeout(value = 30, unit = TimeUnit.SECONDS)
+public class RestMetricsTest
+{
+    private static final String TOKEN = "fake.token.here";
+
+    private final List<RestMetrics.RateLimitType> rateLimits = new CopyOnWriteArrayList<>();
+    private final List<String> rateLimitBuckets = new CopyOnWriteArrayList<>();
+    private final List<Long> retryAfters = new CopyOnWriteArrayList<>();
+    private final List<Integer> responses = new CopyOnWriteArrayList<>();
+
+    private FakeGatewayServer gateway;
+    private FakeRestServer rest;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException, InterruptedException
+    {
+        gateway = new FakeGatewayServer();
+        rest = new FakeRestServer();
+
+        RestMetrics metrics = new RestMetrics()
+        {
+            @Override
+            public void onResponse(@Nonnull Route route, @Nullable String bucket, int code, long nanos)
+            {
+                if (route == Route.Channels.SEND_TYPING)
+                    responses.add(code);
+            }
+
+            @Override
+            public void onRateLimited(@Nonnull Route route, @Nullable String bucket, @Nonnull RateLimitType type, long retryAfter)
+            {
+                rateLimits.add(type);
+                rateLimitBuckets.add(bucket);
+                retryAfters.add(retryAfter);
+            }
+        };
+
+        jda = JDABuilder.createLight(TOKEN)
+            .setSessionController(gateway.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(rest.getRestUrl()).setMetrics(metrics))
+            .build()
+            .awaitReady();
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        jda.shutdownNow();
+        jda.awaitShutdown();
+        rest.close();
+        gateway.close();
+    }
+
+    @ParameterizedTest
+    @EnumSource(RestMetrics.RateLimitType.class)
+    void testRateLimitClassification(RestMetrics.RateLimitType type)
+    {
+        rest.rateLimitNext(type);
+
+        // The request is retried after the rate-limit and succeeds
+        new RestActionImpl<Void>(jda, Route.Channels.SEND_TYPING.compile("1")).complete();
+
+        assertThat(rateLimits).containsExactly(type);
+        assertThat(retryAfters).containsExactly(1000L);
+        assertThat(responses).containsExactly(429, 204);
+        if (type == RestMetrics.RateLimitType.BUCKET || type == RestMetrics.RateLimitType.SHARED)
+            assertThat(rateLimitBuckets).doesNotContainNull();
+        else
+            assertThat(rateLimitBuckets).containsOnlyNulls();
+    }
+}
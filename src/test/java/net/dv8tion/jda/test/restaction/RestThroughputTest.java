@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.requests.RestConfig;
+import net.dv8tion.jda.api.requests.RestMetrics;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.test.gateway.FakeGatewayServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test for the request pipeline against {@link FakeRestServer}.
+ *
+ * <p>The size of the run can be changed with the system properties {@code jda.test.rest.requests}, {@code jda.test.rest.channels},
+ * and {@code jda.test.rest.latency}, to compare the throughput and tail latency of changes to the requester and rate-limiter.
+ *
+ * <p>This is excluded from the default test run, use {@code ./gradlew test -PloadTests} to run it.
+ */
+@Tag("load")
+@Timeout(value = 120, unit = TimeUnit.SECONDS)
+public class RestThroughputTest
+{
+    private static final Logger LOG = JDALogger.getLog(RestThroughputTest.class);
+    private static final String TOKEN = "fake.token.here";
+
+    private static final int REQUESTS = Integer.getInteger("jda.test.rest.requests", 2000);
+    private static final int CHANNELS = Integer.getInteger("jda.test.rest.channels", 20);
+    private static final int LATENCY = Integer.getInteger("jda.test.rest.latency", 0);
+
+    private FakeGatewayServer gateway;
+    private FakeRestServer rest;
+    private JDA jda;
+
+    @BeforeEach
+    void setup() throws IOException
+    {
+        gateway = new FakeGatewayServer();
+        rest = new FakeRestServer().setBucketLimit(50, 1000).setLatency(LATENCY);
+    }
+
+    @AfterEach
+    void teardown() throws InterruptedException
+    {
+        if (jda != null)
+        {
+            jda.shutdownNow();
+            jda.awaitShutdown();
+        }
+        rest.close();
+        gateway.close();
+    }
+
+    @Test
+    void testQueueThroughput() throws InterruptedException
+    {
+        AtomicInteger responses = new AtomicInteger();
+        AtomicInteger rateLimits = new AtomicInteger();
+        RestMetrics metrics = new RestMetrics()
+        {
+            @Override
+            public void onResponse(@Nonnull Route route, @Nullable String bucket, int code, long nanos)
+            {
+                responses.incrementAndGet();
+            }
+
+            @Override
+            public void onRateLimited(@Nonnull Route route, @Nullable String bucket, @Nonnull RateLimitType type, long retryAfter)
+            {
+                rateLimits.incrementAndGet();
+            }
+        };
+
+        jda = JDABuilder.createLight(TOKEN)
+            .setSessionController(gateway.newSessionController())
+            .setRestConfig(new RestConfig().setBaseUrl(rest.getRestUrl()).setMetrics(metrics))
+            .build()
+            .awaitReady();
+
+        int baseline = rest.getRequestCount();
+        AtomicLongArray latencies = new AtomicLongArray(REQUESTS);
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++)
+        {
+            int index = i;
+            long queued = System.nanoTime();
+            new RestActionImpl<Void>(jda, Route.Channels.SEND_TYPING.compile(Long.toString(i % CHANNELS + 1)))
+                .queue(v ->
+                {
+                    latencies.set(index, System.nanoTime() - queued);
+                    done.countDown();
+                }, error ->
+                {
+                    LOG.error("Request failed", error);
+                    failures.incrementAndGet();
+                    done.countDown();
+                });
+        }
+
+        assertThat(done.await(100, TimeUnit.SECONDS)).isTrue();
+        long elapsed = System.nanoTime() - start;
+
+        long[] sorted = new long[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++)
+            sorted[i] = latencies.get(i);
+        Arrays.sort(sorted);
+
+        LOG.info("Completed {} requests on {} channels in {} ms ({} req/s), latency p50={} ms p99={} ms max={} ms, {} rate-limits",
+            REQUESTS, CHANNELS, TimeUnit.NANOSECONDS.toMillis(elapsed),
+            String.format("%.1f", REQUESTS / (elapsed / 1e9)),
+            TimeUnit.NANOSECONDS.toMillis(percentile(sorted, 0.50)),
+            TimeUnit.NANOSECONDS.toMillis(percentile(sorted, 0.99)),
+            TimeUnit.NANOSECONDS.toMillis(sorted[REQUESTS - 1]),
+            rest.getBucketRateLimitCount());
+
+        assertThat(failures.get()).isZero();
+        assertThat(rest.getRequestCount() - baseline).isGreaterThanOrEqualTo(REQUESTS);
+        // The rate-limiter should learn the buckets from the headers and avoid hitting the limits
+        assertThat(rest.getBucketRateLimitCount()).isLessThanOrEqualTo(CHANNELS);
+        assertThat(rateLimits.get()).isEqualTo(rest.getBucketRateLimitCount());
+        assertThat(responses.get()).isGreaterThanOrEqualTo(REQUESTS);
+    }
+
+    private static long percentile(long[] sorted, double percentile)
+    {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.restaction;
+
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SequentialRestRateLimiterTest
+{
+    private ScheduledExecutorService scheduler;
+    private ExecutorService elastic;
+    private SequentialRestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setup()
+    {
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        elastic = Executors.newSingleThreadExecutor();
+        rateLimiter = new SequentialRestRateLimiter(new RestRateLimiter.RateLimitConfig(
+            scheduler, elastic, RestRateLimiter.GlobalRateLimit.create(), true, true
+        ));
+    }
+
+    @AfterEach
+    void teardown()
+    {
+        rateLimiter.stop(true, () -> {});
+        scheduler.shutdownNow();
+        elastic.shutdownNow();
+    }
+
+    @Test
+    void testAsyncBucketsDoNotBlockElastic() throws InterruptedException
+    {
+        FakeWork first = FakeWork.async("1");
+        FakeWork second = FakeWork.async("2");
+        FakeWork third = FakeWork.async("3");
+
+        rateLimiter.enqueue(first);
+        rateLimiter.enqueue(second);
+        rateLimiter.enqueue(third);
+
+        // All buckets are in flight at once, even though the elastic pool only has a single thread
+        assertThat(first.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(third.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+
+        first.complete(null);
+        second.complete(null);
+        third.complete(null);
+        assertThat(first.isDone() && second.isDone() && third.isDone()).isTrue();
+    }
+
+    @Test
+    void testAsyncBucketIsSequential() throws InterruptedException
+    {
+        FakeWork first = FakeWork.async("1");
+        FakeWork second = FakeWork.async("1");
+
+        rateLimiter.enqueue(first);
+        rateLimiter.enqueue(second);
+
+        assertThat(first.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.awaitStarted(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        first.complete(null);
+        assertThat(second.awaitStarted(5, TimeUnit.SECONDS)).isTrue();
+        second.complete(null);
+    }
+}
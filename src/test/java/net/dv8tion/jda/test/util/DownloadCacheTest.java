@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.utils.DownloadCache;
+import net.dv8tion.jda.api.utils.FileProxy;
+import net.dv8tion.jda.api.utils.ImageProxy;
+import okhttp3.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DownloadCacheTest
+{
+    private static final String URL = "https://cdn.discordapp.com/avatars/1/abc.png";
+
+    @Test
+    void testLeastRecentlyUsedEviction(@TempDir Path directory) throws IOException
+    {
+        DownloadCache cache = DownloadCache.fromDirectory(directory, 10);
+        cache.put(URL + "?size=1", data("aaaa"));
+        cache.put(URL + "?size=2", data("bbbb"));
+        assertThat(read(cache.get(URL + "?size=1"))).isEqualTo("aaaa");
+
+        cache.put(URL + "?size=3", data("cccc"));
+
+        assertThat(cache.getSize()).isEqualTo(8);
+        assertThat(cache.get(URL + "?size=2")).isNull();
+        assertThat(read(cache.get(URL + "?size=1"))).isEqualTo("aaaa");
+        assertThat(read(cache.get(URL + "?size=3"))).isEqualTo("cccc");
+    }
+
+    @Test
+    void testReuseDirectory(@TempDir Path directory) throws IOException
+    {
+        DownloadCache.fromDirectory(directory, 100).put(URL, data("image"));
+
+        DownloadCache cache = DownloadCache.fromDirectory(directory, 100);
+        assertThat(cache.getSize()).isEqualTo(5);
+        assertThat(read(cache.get(URL))).isEqualTo("image");
+
+        assertThat(cache.remove(URL)).isTrue();
+        assertThat(cache.get(URL)).isNull();
+        assertThat(cache.getSize()).isZero();
+    }
+
+    @Test
+    void testForeignFilesAreKept(@TempDir Path directory) throws IOException
+    {
+        Path notes = Files.write(directory.resolve("notes.txt"), "not a cached file".getBytes(StandardCharsets.UTF_8));
+        Path upload = Files.write(directory.resolve("upload.part"), "not a download".getBytes(StandardCharsets.UTF_8));
+        Path leftover = Files.createTempFile(directory, "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef", ".part");
+
+        DownloadCache cache = DownloadCache.fromDirectory(directory, 4);
+        assertThat(cache.getSize()).isZero();
+        assertThat(leftover).doesNotExist();
+
+        cache.put(URL, data("image"));
+        cache.put(URL + "?size=64", data("small"));
+        cache.clear();
+
+        assertThat(cache.getSize()).isZero();
+        assertThat(notes).exists();
+        assertThat(upload).exists();
+    }
+
+    @Test
+    void testConcurrentDownloadsAreCombined(@TempDir Path directory) throws IOException
+    {
+        AtomicInteger calls = new AtomicInteger();
+        OkHttpClient client = new OkHttpClient.Builder()
+            .addInterceptor(chain ->
+            {
+                calls.incrementAndGet();
+                try
+                {
+                    TimeUnit.MILLISECONDS.sleep(200);
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                }
+                return new Response.Builder()
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .body(ResponseBody.create("image:" + chain.request().url().query(), MediaType.get("image/png")))
+                    .build();
+            })
+            .build();
+
+        DownloadCache cache = DownloadCache.fromDirectory(directory, 1024);
+        List<CompletableFuture<InputStream>> downloads = new ArrayList<>();
+        for (int i = 0; i < 5; i++)
+        {
+            downloads.add(new FileProxy(URL).withClient(client).withCache(cache).download());
+            downloads.add(new ImageProxy(URL).withClient(client).withCache(cache).download(64));
+        }
+
+        for (int i = 0; i < downloads.size(); i++)
+            assertThat(read(downloads.get(i).join())).isEqualTo(i % 2 == 0 ? "image:null" : "image:size=64");
+        assertThat(calls.get()).isEqualTo(2);
+
+        // Cached files are not downloaded again
+        assertThat(read(new ImageProxy(URL).withClient(client).withCache(cache).download(64).join())).isEqualTo("image:size=64");
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    private static InputStream data(String content)
+    {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(InputStream stream)
+    {
+        assertThat(stream).isNotNull();
+        try (InputStream ignored = stream)
+        {
+            StringBuilder builder = new StringBuilder();
+            byte[] buffer = new byte[256];
+            for (int read = stream.read(buffer); read >= 0; read = stream.read(buffer))
+                builder.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+            return builder.toString();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.internal.utils.cache.ExpiringCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExpiringCacheTest
+{
+    @Test
+    void testEvictsLeastRecentlyUsed()
+    {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(2, 1, TimeUnit.HOURS);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        assertThat(cache.get(1L)).isEqualTo("one");
+
+        cache.put(3L, "three");
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1L)).isEqualTo("one");
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("three");
+    }
+
+    @Test
+    void testExpires() throws InterruptedException
+    {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, 50, TimeUnit.MILLISECONDS);
+        cache.put(1L, "one");
+        assertThat(cache.get(1L)).isEqualTo("one");
+
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testDisabled()
+    {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(0, 1, TimeUnit.HOURS);
+        assertThat(cache.put(1L, "one")).isEqualTo("one");
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testRemove()
+    {
+        ExpiringCache<Long, String> cache = new ExpiringCache<>(10, 1, TimeUnit.HOURS);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+
+        cache.remove(1L);
+        cache.removeIf(key -> key == 2L);
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.get(2L)).isNull();
+        assertThat(cache.get(3L)).isEqualTo("three");
+    }
+}
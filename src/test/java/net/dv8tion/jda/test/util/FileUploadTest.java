@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.internal.requests.Requester;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileUploadTest
+{
+    @Test
+    void testFileBodyIsRepeatable(@TempDir Path directory) throws IOException
+    {
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(42).nextBytes(data);
+        Path file = Files.write(directory.resolve("report.bin"), data);
+
+        try (FileUpload upload = FileUpload.fromData(file))
+        {
+            assertThat(upload.getName()).isEqualTo("report.bin");
+
+            RequestBody body = upload.getRequestBody(Requester.MEDIA_TYPE_OCTET);
+            assertThat(body.contentLength()).isEqualTo(data.length);
+            assertThat(body.isOneShot()).isFalse();
+
+            // Retries write the body again, which has to read the file from the start
+            for (int i = 0; i < 2; i++)
+            {
+                Buffer buffer = new Buffer();
+                body.writeTo(buffer);
+                assertThat(buffer.readByteArray()).isEqualTo(data);
+            }
+        }
+    }
+
+    @Test
+    void testMissingFile(@TempDir Path directory)
+    {
+        assertThatThrownBy(() -> FileUpload.fromData(directory.resolve("missing.bin").toFile()))
+            .isInstanceOf(UncheckedIOException.class);
+    }
+
+    @Test
+    void testFileIsOpenedImmediately(@TempDir Path directory) throws Exception
+    {
+        byte[] data = "temporary upload".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(directory.resolve("temp.txt"), data);
+        Path moved = directory.resolve("moved.txt");
+
+        try (FileUpload upload = FileUpload.fromData(file))
+        {
+            // Common pattern: queue the upload, then clean up the file right away
+            Files.move(file, moved);
+            Files.delete(moved);
+
+            RequestBody body = upload.getRequestBody(Requester.MEDIA_TYPE_OCTET);
+            assertThat(body.contentLength()).isEqualTo(data.length);
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            assertThat(buffer.readByteArray()).isEqualTo(data);
+        }
+    }
+
+    @Test
+    void testFileIsReopenedAfterRequest(@TempDir Path directory) throws Exception
+    {
+        byte[] data = "reused upload".getBytes(StandardCharsets.UTF_8);
+        Path file = Files.write(directory.resolve("reused.txt"), data);
+
+        try (FileUpload upload = FileUpload.fromData(file))
+        {
+            RequestBody body = upload.getRequestBody(Requester.MEDIA_TYPE_OCTET);
+            // This is done by the request once it is completed
+            ((AutoCloseable) body).close();
+
+            Buffer buffer = new Buffer();
+            upload.getRequestBody(Requester.MEDIA_TYPE_OCTET).writeTo(buffer);
+            assertThat(buffer.readByteArray()).isEqualTo(data);
+        }
+    }
+}
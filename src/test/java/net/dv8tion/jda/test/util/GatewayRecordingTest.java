@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.GatewayRecorder;
+import net.dv8tion.jda.api.utils.GatewayRecording;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.assertj.core.api.Assertions.assertThatIOException;
+
+public class GatewayRecordingTest
+{
+    @Test
+    void testRoundTrip() throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] hello = "{\"op\":10,\"d\":{\"heartbeat_interval\":41250}}".getBytes(StandardCharsets.UTF_8);
+        byte[] binary = {0, 1, 2, 3, 4, 5};
+
+        GatewayRecorder recorder = new GatewayRecorder(output, GatewayRecorder.Mode.COMPRESSED);
+        recorder.start(Compression.ZLIB, GatewayEncoding.JSON);
+        recorder.recordConnect();
+        recorder.recordFrame(hello, 0, hello.length, false);
+        recorder.recordFrame(binary, 2, 3, true);
+        recorder.close();
+
+        try (GatewayRecording recording = new GatewayRecording(new ByteArrayInputStream(output.toByteArray())))
+        {
+            assertThat(recording.getCompression()).isEqualTo(Compression.ZLIB);
+            assertThat(recording.getEncoding()).isEqualTo(GatewayEncoding.JSON);
+
+            GatewayRecording.Frame frame = recording.next();
+            assertThat(frame).isNotNull();
+            assertThat(frame.getType()).isEqualTo(GatewayRecording.FrameType.CONNECT);
+            assertThat(frame.getData()).isEmpty();
+
+            frame = recording.next();
+            assertThat(frame).isNotNull();
+            assertThat(frame.getType()).isEqualTo(GatewayRecording.FrameType.TEXT);
+            assertThat(frame.getData()).isEqualTo(hello);
+
+            GatewayRecording.Frame last = recording.next();
+            assertThat(last).isNotNull();
+            assertThat(last.getType()).isEqualTo(GatewayRecording.FrameType.BINARY);
+            assertThat(last.getData()).containsExactly(2, 3, 4);
+            assertThat(last.getTimestamp()).isGreaterThanOrEqualTo(frame.getTimestamp());
+
+            assertThat(recording.next()).isNull();
+        }
+    }
+
+    @Test
+    void testDecompressedMode() throws IOException
+    {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GatewayRecorder recorder = new GatewayRecorder(output, GatewayRecorder.Mode.DECOMPRESSED);
+        recorder.start(Compression.ZLIB, GatewayEncoding.ETF);
+        recorder.close();
+
+        try (GatewayRecording recording = new GatewayRecording(new ByteArrayInputStream(output.toByteArray())))
+        {
+            assertThat(recording.getCompression()).isEqualTo(Compression.NONE);
+            assertThat(recording.getEncoding()).isEqualTo(GatewayEncoding.ETF);
+            assertThat(recording.next()).isNull();
+        }
+
+        assertThatIllegalStateException()
+            .isThrownBy(() -> recorder.start(Compression.NONE, GatewayEncoding.JSON));
+    }
+
+    @Test
+    void testInvalidInput()
+    {
+        assertThatIOException()
+            .isThrownBy(() -> new GatewayRecording(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5})));
+    }
+}
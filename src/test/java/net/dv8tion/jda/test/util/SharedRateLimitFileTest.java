@@ -0,0 +1,63 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.internal.requests.SharedRateLimitFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SharedRateLimitFileTest
+{
+    @Test
+    void testSharedState(@TempDir Path directory) throws IOException
+    {
+        Path path = directory.resolve("ratelimit");
+        try (SharedRateLimitFile first = new SharedRateLimitFile(path);
+             SharedRateLimitFile second = new SharedRateLimitFile(path))
+        {
+            assertThat(second.getClassic()).isEqualTo(-1);
+            assertThat(second.getCloudflare()).isEqualTo(-1);
+
+            first.setClassic(1234);
+            first.setCloudflare(5678);
+            assertThat(second.getClassic()).isEqualTo(1234);
+            assertThat(second.getCloudflare()).isEqualTo(5678);
+
+            // An earlier reset from another process does not shorten the rate-limit
+            second.setClassic(1000);
+            second.setCloudflare(1000);
+            assertThat(first.getClassic()).isEqualTo(1234);
+            assertThat(first.getCloudflare()).isEqualTo(5678);
+
+            assertThat(first.tryAcquireIdentify(0, 5000)).isZero();
+            assertThat(second.tryAcquireIdentify(0, 5000)).isPositive().isLessThanOrEqualTo(5000);
+            assertThat(second.tryAcquireIdentify(1, 5000)).isZero();
+        }
+
+        // The state survives reopening the file
+        try (SharedRateLimitFile reopened = new SharedRateLimitFile(path))
+        {
+            assertThat(reopened.getClassic()).isEqualTo(1234);
+            assertThat(reopened.tryAcquireIdentify(1, 5000)).isPositive();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.utils.SessionController;
+import net.dv8tion.jda.api.utils.SharedSessionController;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class SharedSessionControllerTest
+{
+    @Test
+    void testIdentifyAcrossProcesses(@TempDir Path directory) throws InterruptedException
+    {
+        // Two controllers on the same file behave like two processes of the same bot
+        Path file = directory.resolve("ratelimit");
+        try (SharedSessionController first = new SharedSessionController(file);
+             SharedSessionController second = new SharedSessionController(file))
+        {
+            first.setConcurrency(2);
+            second.setConcurrency(2);
+
+            Map<Integer, Long> identified = new ConcurrentHashMap<>();
+            CountDownLatch done = new CountDownLatch(3);
+            long start = System.currentTimeMillis();
+            first.appendSession(new Node(0, identified, done));
+            second.appendSession(new Node(2, identified, done));
+            second.appendSession(new Node(1, identified, done));
+
+            assertThat(done.await(SessionController.IDENTIFY_DELAY * 3, TimeUnit.SECONDS)).isTrue();
+
+            // Shard 1 is in another bucket and does not wait for the others
+            assertThat(identified.get(1) - start).isLessThan(TimeUnit.SECONDS.toMillis(SessionController.IDENTIFY_DELAY) / 2);
+            // Shards 0 and 2 share a bucket, the second one waits for the first, even though it is in another process
+            assertThat(Math.abs(identified.get(0) - identified.get(2)))
+                .isGreaterThanOrEqualTo(TimeUnit.SECONDS.toMillis(SessionController.IDENTIFY_DELAY) - 100);
+        }
+    }
+
+    @Test
+    void testSharedGlobalRateLimit(@TempDir Path directory)
+    {
+        Path file = directory.resolve("ratelimit");
+        try (SharedSessionController first = new SharedSessionController(file);
+             SharedSessionController second = new SharedSessionController(file))
+        {
+            long reset = System.currentTimeMillis() + 10000;
+            first.getRateLimitHandle().setClassic(reset);
+            assertThat(second.getRateLimitHandle().getClassic()).isEqualTo(reset);
+
+            second.getRateLimitHandle().setClassic(reset - 5000);
+            assertThat(first.getRateLimitHandle().getClassic()).isEqualTo(reset);
+        }
+    }
+
+    private static class Node implements SessionController.SessionConnectNode
+    {
+        private final JDA.ShardInfo shardInfo;
+        private final Map<Integer, Long> identified;
+        private final CountDownLatch done;
+
+        private Node(int shardId, Map<Integer, Long> identified, CountDownLatch done)
+        {
+            this.shardInfo = new JDA.ShardInfo(shardId, 4);
+            this.identified = identified;
+            this.done = done;
+        }
+
+        @Override
+        public boolean isReconnect()
+        {
+            return false;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA()
+        {
+            return mock(JDA.class);
+        }
+
+        @Nonnull
+        @Override
+        public JDA.ShardInfo getShardInfo()
+        {
+            return shardInfo;
+        }
+
+        @Override
+        public void run(boolean isLast)
+        {
+            identified.put(shardInfo.getShardId(), System.currentTimeMillis());
+            done.countDown();
+        }
+    }
+}
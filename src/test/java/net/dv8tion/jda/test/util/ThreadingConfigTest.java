@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.test.util;
+
+import net.dv8tion.jda.internal.utils.concurrent.VirtualThreads;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mockStatic;
+
+public class ThreadingConfigTest
+{
+    private final ThreadingConfig config = new ThreadingConfig();
+
+    @AfterEach
+    void teardown()
+    {
+        config.shutdownNow();
+    }
+
+    @Test
+    void testVirtualThreadsFallBackWhenUnsupported() throws Exception
+    {
+        try (MockedStatic<VirtualThreads> virtualThreads = mockStatic(VirtualThreads.class, CALLS_REAL_METHODS))
+        {
+            virtualThreads.when(VirtualThreads::isSupported).thenReturn(false);
+
+            config.setVirtualThreads(true);
+            config.init(() -> "JDA");
+
+            assertThat(config.getRateLimitElastic()).isInstanceOf(ThreadPoolExecutor.class);
+            assertThat(threadName(config.getRateLimitElastic())).isEqualTo("JDA RateLimit-Elastic-Worker 1");
+
+            assertThat(config.getCallbackPool()).isSameAs(ForkJoinPool.commonPool());
+            assertThat(config.isShutdownCallbackPool()).isFalse();
+
+            ScheduledExecutorService audioPool = config.getAudioPool(() -> "JDA");
+            assertThat(threadName(audioPool)).isEqualTo("JDA AudioLifeCycle-Worker 1");
+        }
+    }
+
+    @Test
+    void testVirtualThreadsWhenSupported() throws Exception
+    {
+        assumeTrue(VirtualThreads.isSupported(), "Virtual threads require Java 21+");
+
+        config.setVirtualThreads(true);
+        config.init(() -> "JDA");
+
+        assertThat(config.getRateLimitElastic()).isNotInstanceOf(ThreadPoolExecutor.class);
+        assertThat(threadName(config.getRateLimitElastic())).isEqualTo("JDA RateLimit-Elastic-Worker 1");
+
+        assertThat(config.getCallbackPool()).isNotSameAs(ForkJoinPool.commonPool());
+        assertThat(config.isShutdownCallbackPool()).isTrue();
+        assertThat(threadName(config.getCallbackPool())).isEqualTo("JDA Callback-Worker 1");
+    }
+
+    @Test
+    void testVirtualThreadsKeepConfiguredPools()
+    {
+        ExecutorService elastic = Executors.newSingleThreadExecutor();
+        ExecutorService callback = Executors.newSingleThreadExecutor();
+        try
+        {
+            config.setRateLimitElastic(elastic, false);
+            config.setCallbackPool(callback, false);
+            config.setVirtualThreads(true);
+            config.init(() -> "JDA");
+
+            assertThat(config.getRateLimitElastic()).isSameAs(elastic);
+            assertThat(config.getCallbackPool()).isSameAs(callback);
+        }
+        finally
+        {
+            elastic.shutdownNow();
+            callback.shutdownNow();
+        }
+    }
+
+    private static String threadName(ExecutorService executor) throws Exception
+    {
+        return executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+    }
+}